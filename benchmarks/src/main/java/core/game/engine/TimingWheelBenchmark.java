@@ -0,0 +1,72 @@
+package core.game.engine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a tick of the {@link TimingWheel} with many pending tasks, and scheduling and cancelling a task.
+ *
+ * @author 7Winds
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+	/**
+	 * The amount of pending tasks.
+	 */
+	@Param({ "1000", "100000" })
+	private int pending;
+
+	/**
+	 * The wheel.
+	 */
+	private TimingWheel wheel;
+
+	/**
+	 * The amount of times a task has run.
+	 */
+	private long runs;
+
+	/**
+	 * The task scheduled by every benchmark.
+	 */
+	private final Runnable task = () -> runs++;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(317);
+		wheel = new TimingWheel(pending * 2);
+		for (int i = 0; i < pending; i++) {
+			wheel.schedule(task, 1 + random.nextInt(1000), 1000);
+		}
+	}
+
+	@Benchmark
+	public long pulse() {
+		wheel.pulse();
+		return runs;
+	}
+
+	@Benchmark
+	public boolean scheduleAndCancel() {
+		return wheel.cancel(wheel.schedule(task, 100));
+	}
+
+}
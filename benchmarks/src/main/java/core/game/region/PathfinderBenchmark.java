@@ -0,0 +1,85 @@
+package core.game.region;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.game.model.Position;
+import core.game.model.WalkingQueue;
+
+/**
+ * Benchmarks {@link Pathfinder#find} across open and obstructed terrain.
+ *
+ * @author 7Winds
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfinderBenchmark {
+
+	/**
+	 * The percentage of blocked tiles.
+	 */
+	@Param({ "0", "25" })
+	private int obstruction;
+
+	/**
+	 * The distance to the destination along each axis.
+	 */
+	@Param({ "10", "50" })
+	private int distance;
+
+	/**
+	 * The collision maps searched over.
+	 */
+	private CollisionManager collision;
+
+	/**
+	 * The reusable pathfinder.
+	 */
+	private final Pathfinder pathfinder = new Pathfinder();
+
+	/**
+	 * The queue the path is written to.
+	 */
+	private final WalkingQueue steps = new WalkingQueue();
+
+	/**
+	 * The start of the path.
+	 */
+	private final Position start = new Position(3200, 3200);
+
+	@Setup
+	public void setup() {
+		collision = new CollisionManager(MapSource.EMPTY, Integer.MAX_VALUE);
+		Random random = new Random(317);
+		for (int x = 3100; x < 3300; x++) {
+			for (int y = 3100; y < 3300; y++) {
+				if (random.nextInt(100) < obstruction && (x != 3200 || y != 3200)) {
+					collision.get(CollisionMap.regionId(x, y)).flag(x, y, 0, CollisionMap.BLOCKED);
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public int find() {
+		pathfinder.find(collision, start, start.getX() + distance, start.getY() + distance, steps);
+		return steps.size();
+	}
+
+}
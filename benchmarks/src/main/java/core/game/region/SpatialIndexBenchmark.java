@@ -0,0 +1,94 @@
+package core.game.region;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.game.model.Position;
+
+/**
+ * Benchmarks finding every player within viewing distance of every other player, through a {@link SpatialIndex} and
+ * by scanning the whole player list.
+ *
+ * @author 7Winds
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialIndexBenchmark {
+
+	/**
+	 * The amount of players.
+	 */
+	@Param({ "200", "2000" })
+	private int players;
+
+	/**
+	 * The size of the square the players are spread over, in tiles.
+	 */
+	@Param({ "64", "512" })
+	private int spread;
+
+	/**
+	 * The position of each player.
+	 */
+	private Position[] positions;
+
+	/**
+	 * The spatial index holding every player.
+	 */
+	private SpatialIndex index;
+
+	/**
+	 * The reusable query result.
+	 */
+	private final int[] out = new int[2048];
+
+	@Setup
+	public void setup() {
+		Random random = new Random(317);
+		positions = new Position[players];
+		index = new SpatialIndex(players);
+		for (int i = 0; i < players; i++) {
+			positions[i] = new Position(3200 + random.nextInt(spread), 3200 + random.nextInt(spread));
+			index.insert(i, positions[i]);
+		}
+	}
+
+	@Benchmark
+	public int query() {
+		int found = 0;
+		for (Position position : positions) {
+			found += index.query(position, Position.VIEWING_DISTANCE, out);
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int scan() {
+		int found = 0;
+		for (Position position : positions) {
+			for (Position other : positions) {
+				if (other.isWithinDistance(position)) {
+					found++;
+				}
+			}
+		}
+		return found;
+	}
+
+}
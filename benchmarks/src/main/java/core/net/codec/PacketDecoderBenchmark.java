@@ -0,0 +1,99 @@
+package core.net.codec;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.net.NetworkConstants;
+import core.net.packet.InputPacket;
+import core.net.security.ISAACCipher;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Benchmarks {@link PacketDecoder#decode} on an {@link EmbeddedChannel} with a
+ * mix of fixed, variable and empty packets. The client side ISAAC encryption of
+ * each opcode is included in the measurement.
+ *
+ * @author 7Winds
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketDecoderBenchmark {
+
+	/**
+	 * The opcodes and payload sizes written by each invocation.
+	 */
+	private static final int[][] PACKETS = { { 0, 0 }, { 4, 24 }, { 164, 9 }, { 241, 4 }, { 86, 4 } };
+
+	/**
+	 * The seed shared by both ciphers.
+	 */
+	private static final int[] SEED = { 1, 2, 3, 4 };
+
+	/**
+	 * The channel that decodes the packets.
+	 */
+	private EmbeddedChannel channel;
+
+	/**
+	 * The cipher used to encrypt opcodes as the client would.
+	 */
+	private ISAACCipher encryptor;
+
+	@Setup
+	public void setup() {
+		NetworkConstants.PACKET_SIZES[0] = 0;
+		NetworkConstants.PACKET_SIZES[4] = -1;
+		NetworkConstants.PACKET_SIZES[164] = -1;
+		NetworkConstants.PACKET_SIZES[241] = 4;
+		NetworkConstants.PACKET_SIZES[86] = 4;
+		for (int[] packet : PACKETS) {
+			NetworkConstants.PACKETS[packet[0]] = (player, opcode, size, payload) -> {
+			};
+		}
+		encryptor = new ISAACCipher(SEED);
+		channel = new EmbeddedChannel(new PacketDecoder(new ISAACCipher(SEED)));
+	}
+
+	@TearDown
+	public void tearDown() {
+		channel.finish();
+	}
+
+	@Benchmark
+	public int decode() {
+		ByteBuf in = channel.alloc().buffer(64);
+		for (int[] packet : PACKETS) {
+			in.writeByte(packet[0] + encryptor.getKey());
+			if (NetworkConstants.PACKET_SIZES[packet[0]] == -1) {
+				in.writeByte(packet[1]);
+			}
+			in.writeZero(packet[1]);
+		}
+		channel.writeInbound(in);
+
+		int decoded = 0;
+		InputPacket packet;
+		while ((packet = (InputPacket) channel.readInbound()) != null) {
+			packet.getPayload().buffer().release();
+			decoded++;
+		}
+		return decoded;
+	}
+
+}
@@ -0,0 +1,78 @@
+package core.net.codec.update;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.game.cache.FileDescriptor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Benchmarks {@link UpdateEncoder#encode} on an {@link EmbeddedChannel}.
+ *
+ * @author 7Winds
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateEncoderBenchmark {
+
+	/**
+	 * The size of each chunk, the on-demand protocol sends up to 500 bytes.
+	 */
+	@Param({ "100", "500" })
+	private int chunkSize;
+
+	/**
+	 * The descriptor of the file being sent.
+	 */
+	private final FileDescriptor descriptor = new FileDescriptor(1, 1337);
+
+	/**
+	 * The chunk data that is sent.
+	 */
+	private ByteBuf chunk;
+
+	/**
+	 * The channel that encodes the responses.
+	 */
+	private EmbeddedChannel channel;
+
+	@Setup
+	public void setup() {
+		chunk = Unpooled.directBuffer(chunkSize).writeZero(chunkSize);
+		channel = new EmbeddedChannel(new UpdateEncoder());
+	}
+
+	@TearDown
+	public void tearDown() {
+		channel.finish();
+		chunk.release();
+	}
+
+	@Benchmark
+	public int encode() {
+		channel.writeOutbound(new OnDemandResponse(descriptor, 50000, 0, chunk.duplicate()));
+		ByteBuf encoded = (ByteBuf) channel.readOutbound();
+		int size = encoded.readableBytes();
+		encoded.release();
+		return size;
+	}
+
+}
@@ -0,0 +1,154 @@
+package core.net.packet;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.net.codec.game.ByteOrder;
+import core.net.codec.game.ValueType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Benchmarks the read and write variants of {@link PacketBuilder}, including
+ * the bulk byte copies and the bit-packed writer used by player updating.
+ *
+ * @author 7Winds
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketBuilderBenchmark {
+
+	/**
+	 * The amount of bytes copied by the byte array benchmarks.
+	 */
+	@Param({ "16", "256", "4096" })
+	private int length;
+
+	/**
+	 * The value type applied by the byte array benchmarks.
+	 */
+	@Param({ "STANDARD", "A", "C", "S" })
+	private ValueType type;
+
+	/**
+	 * The random bytes that are copied.
+	 */
+	private byte[] data;
+
+	/**
+	 * A buffer holding {@code data}, copied by {@link #putBytesBuffer()}.
+	 */
+	private ByteBuf source;
+
+	/**
+	 * The reusable builder written to by each benchmark.
+	 */
+	private PacketBuilder writer;
+
+	/**
+	 * The reusable builder read from by each benchmark.
+	 */
+	private PacketBuilder reader;
+
+	/**
+	 * Random bit field widths and values written by {@link #putBits()}.
+	 */
+	private final int[] widths = new int[512], values = new int[512];
+
+	@Setup
+	public void setup() {
+		Random random = new Random(317);
+		data = new byte[length];
+		random.nextBytes(data);
+		source = Unpooled.wrappedBuffer(data);
+		writer = PacketBuilder.create(length * 2 + 4096);
+		reader = PacketBuilder.create(Unpooled.wrappedBuffer(data));
+		for (int i = 0; i < widths.length; i++) {
+			widths[i] = 1 + random.nextInt(16);
+			values[i] = random.nextInt();
+		}
+	}
+
+	@Benchmark
+	public ByteBuf putBytesBuffer() {
+		writer.buffer().clear();
+		return writer.putBytes(source).buffer();
+	}
+
+	@Benchmark
+	public ByteBuf putBytes() {
+		writer.buffer().clear();
+		return writer.putBytes(data, type).buffer();
+	}
+
+	@Benchmark
+	public ByteBuf putBytesReverse() {
+		writer.buffer().clear();
+		return writer.putBytesReverse(data, type).buffer();
+	}
+
+	@Benchmark
+	public byte[] getBytes() {
+		reader.buffer().readerIndex(0);
+		return reader.getBytes(length, type);
+	}
+
+	@Benchmark
+	public byte[] getBytesReverse() {
+		reader.buffer().readerIndex(0);
+		return reader.getBytesReverse(length, type);
+	}
+
+	@Benchmark
+	public ByteBuf putPrimitives() {
+		writer.buffer().clear();
+		for (int i = 0; i < 64; i++) {
+			writer.put(i, type);
+			writer.putShort(i, type, ByteOrder.LITTLE);
+			writer.putInt(i, type, ByteOrder.MIDDLE);
+			writer.putLong(i, type, ByteOrder.BIG);
+		}
+		return writer.buffer();
+	}
+
+	@Benchmark
+	public long getPrimitives() {
+		reader.buffer().readerIndex(0);
+		long sum = 0;
+		while (reader.buffer().readableBytes() >= 15) {
+			sum += reader.get(type);
+			sum += reader.getShort(type, ByteOrder.LITTLE);
+			sum += reader.getInt(type, ByteOrder.MIDDLE);
+			sum += reader.getLong(type, ByteOrder.BIG);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public ByteBuf putBits() {
+		writer.buffer().clear();
+		writer.startBitAccess();
+		for (int i = 0; i < widths.length; i++) {
+			writer.putBits(widths[i], values[i]);
+		}
+		writer.endBitAccess();
+		return writer.buffer();
+	}
+
+}
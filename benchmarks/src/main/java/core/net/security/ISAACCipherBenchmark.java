@@ -0,0 +1,49 @@
+package core.net.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link ISAACCipher} key stream.
+ *
+ * @author 7Winds
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ISAACCipherBenchmark {
+
+	/**
+	 * The cipher under test.
+	 */
+	private ISAACCipher cipher;
+
+	@Setup
+	public void setup() {
+		cipher = new ISAACCipher(new int[] { 0x13, 0x37, 0x31, 0x7 });
+	}
+
+	@Benchmark
+	public int getKey() {
+		return cipher.getKey();
+	}
+
+	@Benchmark
+	public void isaac() {
+		cipher.isaac();
+	}
+
+}
@@ -0,0 +1,493 @@
+package core.loadgen;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import core.game.util.NameUtils;
+import core.net.codec.game.ByteOrder;
+import core.net.codec.game.ValueType;
+import core.net.codec.handshake.HandshakeConstants;
+import core.net.codec.login.LoginConstants;
+import core.net.packet.PacketBuilder;
+import core.net.security.ISAACCipher;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * A simulated player which performs the game service handshake, logs in with ISAAC and then sends a mix of walking,
+ * chat and idle packets every client cycle. A walking packet sent while the bot stands still is timed until the first
+ * player update that moves the bot, which is recorded as the round trip.
+ *
+ * @author 7Winds
+ */
+public final class GameBot extends ByteToMessageDecoder {
+
+	/**
+	 * The states a game bot can be in.
+	 */
+	private enum State {
+
+		/**
+		 * Waiting for the server session key.
+		 */
+		HANDSHAKE,
+
+		/**
+		 * Waiting for the login response.
+		 */
+		LOGIN,
+
+		/**
+		 * Logged in and sending packets.
+		 */
+		GAME
+
+	}
+
+	/**
+	 * The opcode of the idle packet.
+	 */
+	private static final int IDLE_OPCODE = 0;
+
+	/**
+	 * The opcode of the chat packet.
+	 */
+	private static final int CHAT_OPCODE = 4;
+
+	/**
+	 * The opcode of the walking packet.
+	 */
+	private static final int WALK_OPCODE = 164;
+
+	/**
+	 * The opcode of the player update packet.
+	 */
+	private static final int PLAYER_UPDATE_OPCODE = 81;
+
+	/**
+	 * The size of a packet whose size is sent in one byte.
+	 */
+	private static final int VARIABLE_BYTE = -1;
+
+	/**
+	 * The size of a packet whose size is sent in two bytes.
+	 */
+	private static final int VARIABLE_SHORT = -2;
+
+	/**
+	 * The size of a packet the server is not known to send.
+	 */
+	private static final int UNKNOWN = -3;
+
+	/**
+	 * The sizes of the packets the server sends, by opcode.
+	 */
+	private static final int[] SIZES = new int[256];
+
+	static {
+		Arrays.fill(SIZES, UNKNOWN);
+		SIZES[44] = 5;
+		SIZES[64] = 2;
+		SIZES[71] = 3;
+		SIZES[73] = 4;
+		SIZES[81] = VARIABLE_SHORT;
+		SIZES[85] = 2;
+		SIZES[101] = 2;
+		SIZES[109] = 0;
+		SIZES[151] = 4;
+		SIZES[156] = 3;
+		SIZES[196] = VARIABLE_BYTE;
+		SIZES[219] = 0;
+		SIZES[253] = VARIABLE_BYTE;
+	}
+
+	/**
+	 * The movement type of a walking player in the player update.
+	 */
+	private static final int MOVEMENT_WALK = 1;
+
+	/**
+	 * The movement type of a running player in the player update.
+	 */
+	private static final int MOVEMENT_RUN = 2;
+
+	/**
+	 * The amount of milliseconds between client cycles in which packets are sent.
+	 */
+	private static final int CYCLE_TIME = 600;
+
+	/**
+	 * The settings of this run.
+	 */
+	private final LoadSettings settings;
+
+	/**
+	 * The statistics of this run.
+	 */
+	private final LoadStatistics statistics;
+
+	/**
+	 * The username of this bot.
+	 */
+	private final String username;
+
+	/**
+	 * The current state.
+	 */
+	private State state = State.HANDSHAKE;
+
+	/**
+	 * The time at which the last handshake or login frame was sent, in nanoseconds.
+	 */
+	private long sentAt;
+
+	/**
+	 * The ISAAC cipher that encrypts outgoing opcodes.
+	 */
+	private ISAACCipher encryptor;
+
+	/**
+	 * The ISAAC cipher that decrypts incoming opcodes.
+	 */
+	private ISAACCipher decryptor;
+
+	/**
+	 * The opcode of the packet being read, or {@code -1} if there is none.
+	 */
+	private int opcode = -1;
+
+	/**
+	 * The size of the packet being read, or {@code -1} if it has not been read yet.
+	 */
+	private int size = -1;
+
+	/**
+	 * Whether the last player update moved this bot.
+	 */
+	private boolean moving;
+
+	/**
+	 * The time at which the walking packet being timed was sent in nanoseconds, or {@code 0} if there is none.
+	 */
+	private long walkSentAt;
+
+	/**
+	 * The task that closes the channel if the server does not reply in time.
+	 */
+	private ScheduledFuture<?> timeout;
+
+	/**
+	 * The task that sends packets every client cycle.
+	 */
+	private ScheduledFuture<?> behaviour;
+
+	/**
+	 * Creates the game bot.
+	 *
+	 * @param settings The settings of this run.
+	 * @param statistics The statistics of this run.
+	 * @param username The username of this bot.
+	 */
+	public GameBot(LoadSettings settings, LoadStatistics statistics, String username) {
+		this.settings = settings;
+		this.statistics = statistics;
+		this.username = username;
+	}
+
+	@Override
+	public void channelActive(ChannelHandlerContext ctx) {
+		ByteBuf handshake = ctx.alloc().buffer(2);
+		handshake.writeByte(HandshakeConstants.SERVICE_GAME);
+		handshake.writeByte((int) (NameUtils.encodeBase37(username) >> 16 & 31));
+		send(ctx, handshake);
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		cancel(timeout);
+		cancel(behaviour);
+		if (state == State.GAME) {
+			statistics.getOnline().decrement();
+		}
+		super.channelInactive(ctx);
+	}
+
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+		ctx.close();
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+		statistics.getBytesReceived().add(((ByteBuf) msg).readableBytes());
+		super.channelRead(ctx, msg);
+	}
+
+	@Override
+	protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+		switch (state) {
+			case HANDSHAKE:
+				if (in.readableBytes() >= 2 * Long.BYTES + Byte.BYTES) {
+					in.skipBytes(Long.BYTES + Byte.BYTES);
+					long serverSeed = in.readLong();
+					statistics.getHandshake().record(System.nanoTime() - sentAt);
+					state = State.LOGIN;
+					sendLogin(ctx, serverSeed);
+				}
+				break;
+
+			case LOGIN:
+				if (!in.isReadable()) {
+					break;
+				}
+				int status = in.getUnsignedByte(in.readerIndex());
+				if (status == LoginConstants.STATUS_OK && in.readableBytes() < 3) {
+					break;
+				}
+				in.skipBytes(status == LoginConstants.STATUS_OK ? 3 : 1);
+				statistics.getLogin().record(System.nanoTime() - sentAt);
+				statistics.status(status);
+				cancel(timeout);
+				if (status != LoginConstants.STATUS_OK) {
+					ctx.close();
+					break;
+				}
+				state = State.GAME;
+				statistics.getOnline().increment();
+				long delay = ThreadLocalRandom.current().nextInt(CYCLE_TIME);
+				behaviour = ctx.executor().scheduleAtFixedRate(() -> cycle(ctx), delay, CYCLE_TIME,
+						TimeUnit.MILLISECONDS);
+				break;
+
+			case GAME:
+				decodePacket(ctx, in);
+				break;
+		}
+	}
+
+	/**
+	 * Reads a single game packet, or as much of its header as has arrived.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param in The received bytes.
+	 */
+	private void decodePacket(ChannelHandlerContext ctx, ByteBuf in) {
+		if (opcode == -1) {
+			if (!in.isReadable()) {
+				return;
+			}
+			opcode = (in.readUnsignedByte() - decryptor.getKey()) & 0xFF;
+		}
+		if (size == -1) {
+			size = SIZES[opcode];
+			if (size == UNKNOWN) {
+				in.skipBytes(in.readableBytes());
+				ctx.close();
+				return;
+			}
+			int header = size == VARIABLE_BYTE ? Byte.BYTES : size == VARIABLE_SHORT ? Short.BYTES : 0;
+			if (in.readableBytes() < header) {
+				size = -1;
+				return;
+			}
+			if (size == VARIABLE_BYTE) {
+				size = in.readUnsignedByte();
+			} else if (size == VARIABLE_SHORT) {
+				size = in.readUnsignedShort();
+			}
+		}
+		if (in.readableBytes() < size) {
+			return;
+		}
+		if (opcode == PLAYER_UPDATE_OPCODE && size > 0) {
+			playerUpdate(in.getUnsignedByte(in.readerIndex()));
+		}
+		in.skipBytes(size);
+		opcode = size = -1;
+	}
+
+	/**
+	 * Reads the local movement at the start of a player update, recording the round trip of the timed walking packet
+	 * if it moved this bot.
+	 *
+	 * @param header The first byte of the player update.
+	 */
+	private void playerUpdate(int header) {
+		int type = (header & 0x80) == 0 ? -1 : header >> 5 & 3;
+		moving = type == MOVEMENT_WALK || type == MOVEMENT_RUN;
+		if (walkSentAt == 0) {
+			return;
+		}
+		long elapsed = System.nanoTime() - walkSentAt;
+		if (moving) {
+			statistics.getRoundTrip().record(elapsed);
+			walkSentAt = 0;
+		} else if (elapsed > TimeUnit.MILLISECONDS.toNanos(settings.getTimeout())) {
+			walkSentAt = 0;
+		}
+	}
+
+	/**
+	 * Sends the login block, using {@code serverSeed} to seed the ISAAC ciphers.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param serverSeed The server session key.
+	 */
+	private void sendLogin(ChannelHandlerContext ctx, long serverSeed) {
+		long clientSeed = ThreadLocalRandom.current().nextLong();
+
+		PacketBuilder secure = PacketBuilder.create(64);
+		secure.put(LoginConstants.SECURE_BLOCK_ID);
+		secure.putLong(clientSeed);
+		secure.putLong(serverSeed);
+		secure.putInt(0);
+		secure.putString(username);
+		secure.putString("password");
+
+		PacketBuilder payload = PacketBuilder.create(ctx.alloc().buffer(128));
+		payload.put(LoginConstants.TYPE_STANDARD);
+		payload.put(41 + secure.buffer().readableBytes());
+		payload.put(LoginConstants.PAYLOAD_MAGIC);
+		payload.putShort(LoginConstants.RELEASE_NUMBER);
+		payload.put(0);
+		for (int i = 0; i < LoginConstants.ARCHIVE_COUNT; i++) {
+			payload.putInt(0);
+		}
+		payload.put(secure.buffer().readableBytes());
+		payload.putBytes(secure.buffer());
+
+		int[] seed = { (int) (clientSeed >> 32), (int) clientSeed, (int) (serverSeed >> 32), (int) serverSeed };
+		encryptor = new ISAACCipher(seed);
+		for (int i = 0; i < seed.length; i++) {
+			seed[i] += LoginConstants.ENCRYPTOR_SEED_OFFSET;
+		}
+		decryptor = new ISAACCipher(seed);
+		send(ctx, payload.buffer());
+	}
+
+	/**
+	 * Sends a handshake or login frame and starts timing the reply.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param frame The frame.
+	 */
+	private void send(ChannelHandlerContext ctx, ByteBuf frame) {
+		cancel(timeout);
+		sentAt = System.nanoTime();
+		ctx.writeAndFlush(frame);
+		timeout = ctx.executor().schedule(() -> {
+			statistics.getTimeouts().increment();
+			ctx.close();
+		}, settings.getTimeout(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Sends the packets for a single client cycle.
+	 *
+	 * @param ctx The channel handler context.
+	 */
+	private void cycle(ChannelHandlerContext ctx) {
+		int written = 0;
+		for (int i = occurrences(settings.getWalkRate()); i > 0; i--, written++) {
+			if (!moving && walkSentAt == 0) {
+				walkSentAt = System.nanoTime();
+			}
+			write(ctx, walk(ctx));
+		}
+		for (int i = occurrences(settings.getChatRate()); i > 0; i--, written++) {
+			write(ctx, chat(ctx));
+		}
+		for (int i = occurrences(settings.getIdleRate()); i > 0; i--, written++) {
+			write(ctx, PacketBuilder.create(ctx.alloc().buffer(1)).newMessage(opcode(IDLE_OPCODE)));
+		}
+		if (written > 0) {
+			ctx.flush();
+		}
+	}
+
+	/**
+	 * Creates a walking packet with a random path of up to {@code 25} steps.
+	 *
+	 * @param ctx The channel handler context.
+	 * @return The packet.
+	 */
+	private PacketBuilder walk(ChannelHandlerContext ctx) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		PacketBuilder packet = PacketBuilder.create(ctx.alloc().buffer(64)).newVarMessage(opcode(WALK_OPCODE));
+		packet.putShort(3200 + random.nextInt(64), ValueType.A, ByteOrder.LITTLE);
+		for (int steps = random.nextInt(25); steps > 0; steps--) {
+			packet.put(random.nextInt(-8, 9));
+			packet.put(random.nextInt(-8, 9));
+		}
+		packet.putShort(3200 + random.nextInt(64), ByteOrder.LITTLE);
+		packet.put(random.nextBoolean() ? 1 : 0, ValueType.C);
+		return packet.endVarMessage();
+	}
+
+	/**
+	 * Creates a chat packet with a random message.
+	 *
+	 * @param ctx The channel handler context.
+	 * @return The packet.
+	 */
+	private PacketBuilder chat(ChannelHandlerContext ctx) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		byte[] text = new byte[4 + random.nextInt(40)];
+		random.nextBytes(text);
+
+		PacketBuilder packet = PacketBuilder.create(ctx.alloc().buffer(64)).newVarMessage(opcode(CHAT_OPCODE));
+		packet.put(0, ValueType.S);
+		packet.put(random.nextInt(12), ValueType.S);
+		packet.putBytesReverse(text, ValueType.A);
+		return packet.endVarMessage();
+	}
+
+	/**
+	 * Writes a packet without flushing.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param packet The packet.
+	 */
+	private void write(ChannelHandlerContext ctx, PacketBuilder packet) {
+		statistics.sent(packet.buffer().readableBytes());
+		ctx.write(packet.buffer());
+	}
+
+	/**
+	 * Encrypts an opcode.
+	 *
+	 * @param opcode The opcode.
+	 * @return The encrypted opcode.
+	 */
+	private int opcode(int opcode) {
+		return (opcode + encryptor.getKey()) & 0xFF;
+	}
+
+	/**
+	 * Gets how many packets sent at {@code rate} per second should be sent in one client cycle.
+	 *
+	 * @param rate The rate, in packets per second.
+	 * @return The amount of packets.
+	 */
+	private static int occurrences(double rate) {
+		double expected = rate * CYCLE_TIME / TimeUnit.SECONDS.toMillis(1);
+		int whole = (int) expected;
+		return whole + (ThreadLocalRandom.current().nextDouble() < expected - whole ? 1 : 0);
+	}
+
+	/**
+	 * Cancels a scheduled task, if there is one.
+	 *
+	 * @param future The task.
+	 */
+	private static void cancel(ScheduledFuture<?> future) {
+		if (future != null) {
+			future.cancel(false);
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package core.loadgen;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free latency histogram with logarithmic buckets. Each power of two is split into {@code 16} linear
+ * sub-buckets, so reported percentiles are accurate to within roughly six percent.
+ *
+ * @author 7Winds
+ */
+public final class LatencyRecorder {
+
+	/**
+	 * The amount of linear sub-buckets per power of two, as a shift.
+	 */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/**
+	 * The amount of linear sub-buckets per power of two.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * The recorded counts, indexed by bucket.
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+
+	/**
+	 * The name of the recorded operation.
+	 */
+	private final String name;
+
+	/**
+	 * Creates the latency recorder.
+	 *
+	 * @param name The name of the recorded operation.
+	 */
+	public LatencyRecorder(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Records a latency.
+	 *
+	 * @param nanos The latency, in nanoseconds.
+	 */
+	public void record(long nanos) {
+		counts.incrementAndGet(bucketOf(Math.max(0, nanos)));
+	}
+
+	/**
+	 * Gets the amount of recorded latencies.
+	 *
+	 * @return The count.
+	 */
+	public long count() {
+		long count = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			count += counts.get(i);
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the latency below which {@code percentile} percent of the recorded latencies fall.
+	 *
+	 * @param percentile The percentile, between {@code 0} and {@code 100}.
+	 * @return The latency in nanoseconds, or {@code 0} if nothing was recorded.
+	 */
+	public long percentile(double percentile) {
+		long total = count();
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return upperBoundOf(i);
+			}
+		}
+		return upperBoundOf(counts.length() - 1);
+	}
+
+	/**
+	 * Gets the bucket holding {@code value}.
+	 *
+	 * @param value The value.
+	 * @return The bucket index.
+	 */
+	private static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+		int mantissa = (int) (value >>> exponent) & (SUB_BUCKETS - 1);
+		return (exponent + 1) * SUB_BUCKETS + mantissa;
+	}
+
+	/**
+	 * Gets the largest value held by {@code bucket}.
+	 *
+	 * @param bucket The bucket index.
+	 * @return The upper bound.
+	 */
+	private static long upperBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS - 1;
+		long mantissa = SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1));
+		return ((mantissa + 1) << exponent) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-10s n=%-8d p50=%-9s p90=%-9s p99=%-9s p99.9=%-9s", name, count(), format(percentile(50)),
+				format(percentile(90)), format(percentile(99)), format(percentile(99.9)));
+	}
+
+	/**
+	 * Formats a latency in milliseconds.
+	 *
+	 * @param nanos The latency, in nanoseconds.
+	 * @return The formatted latency.
+	 */
+	private static String format(long nanos) {
+		return String.format("%.2fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+}
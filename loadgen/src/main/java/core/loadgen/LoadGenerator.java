@@ -0,0 +1,128 @@
+package core.loadgen;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.util.LoggerUtils;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * A headless load generator which connects thousands of simulated clients to a server, speaking the handshake,
+ * login and game protocols (or the update protocol), and reports connect, handshake, login and round-trip latency
+ * percentiles.
+ * <p>
+ * Arguments are given as {@code --name=value}, see {@link LoadSettings} for the available names.
+ *
+ * @author 7Winds
+ */
+public final class LoadGenerator {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(LoadGenerator.class);
+
+	/**
+	 * The amount of seconds between progress reports.
+	 */
+	private static final int REPORT_INTERVAL = 10;
+
+	/**
+	 * The settings of this run.
+	 */
+	private final LoadSettings settings;
+
+	/**
+	 * The statistics of this run.
+	 */
+	private final LoadStatistics statistics = new LoadStatistics();
+
+	/**
+	 * The bootstrap every bot is connected with.
+	 */
+	private final Bootstrap bootstrap = new Bootstrap();
+
+	/**
+	 * Main method for the load generator.
+	 *
+	 * @param args The command-line arguments.
+	 */
+	public static void main(String[] args) {
+		try {
+			new LoadGenerator(new LoadSettings(args)).run();
+		} catch (Throwable t) {
+			logger.log(Level.SEVERE, "Error while generating load.", t);
+		}
+	}
+
+	/**
+	 * Creates the load generator.
+	 *
+	 * @param settings The settings of this run.
+	 */
+	public LoadGenerator(LoadSettings settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * Connects every bot, keeps them online for the configured duration and reports the statistics.
+	 *
+	 * @throws InterruptedException If the current thread is interrupted while waiting.
+	 */
+	public void run() throws InterruptedException {
+		logger.info("Generating load: " + settings);
+		EventLoopGroup group = new NioEventLoopGroup();
+		try {
+			bootstrap.group(group)
+				.channel(NioSocketChannel.class)
+				.option(ChannelOption.TCP_NODELAY, true)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, settings.getTimeout());
+
+			long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, settings.getConnectRate());
+			for (int i = 0; i < settings.getBots(); i++) {
+				int index = i;
+				group.schedule(() -> connect(index), i * interval, TimeUnit.NANOSECONDS);
+			}
+			group.scheduleAtFixedRate(() -> logger.info("Progress:\n" + statistics.report()), REPORT_INTERVAL,
+					REPORT_INTERVAL, TimeUnit.SECONDS);
+
+			long rampUp = TimeUnit.NANOSECONDS.toMillis(settings.getBots() * interval);
+			Thread.sleep(rampUp + TimeUnit.SECONDS.toMillis(settings.getDuration()));
+			logger.info("Final statistics:\n" + statistics.report());
+		} finally {
+			group.shutdownGracefully();
+		}
+	}
+
+	/**
+	 * Connects a single bot.
+	 *
+	 * @param index The index of the bot.
+	 */
+	private void connect(int index) {
+		Bootstrap bot = bootstrap.clone();
+		switch (settings.getMode()) {
+			case GAME:
+				bot.handler(new GameBot(settings, statistics, settings.getPrefix() + index));
+				break;
+			case UPDATE:
+				bot.handler(new UpdateBot(settings, statistics));
+				break;
+		}
+
+		long start = System.nanoTime();
+		bot.connect(settings.getHost(), settings.getPort()).addListener(future -> {
+			if (future.isSuccess()) {
+				statistics.getConnect().record(System.nanoTime() - start);
+			} else {
+				statistics.getFailedConnections().increment();
+			}
+		});
+	}
+
+}
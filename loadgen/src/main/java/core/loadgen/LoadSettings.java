@@ -0,0 +1,221 @@
+package core.loadgen;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import core.net.NetworkConstants;
+
+/**
+ * The settings of a load generation run, parsed from {@code --name=value} command-line arguments.
+ *
+ * @author 7Winds
+ */
+public final class LoadSettings {
+
+	/**
+	 * The modes a load generation run can be in.
+	 */
+	public enum Mode {
+
+		/**
+		 * Bots log in to the game service and send a mix of game packets.
+		 */
+		GAME,
+
+		/**
+		 * Bots connect to the update service and request files.
+		 */
+		UPDATE
+
+	}
+
+	/**
+	 * The host to connect to.
+	 */
+	private final String host;
+
+	/**
+	 * The port to connect to.
+	 */
+	private final int port;
+
+	/**
+	 * The amount of simulated players.
+	 */
+	private final int bots;
+
+	/**
+	 * The amount of new connections made per second.
+	 */
+	private final int connectRate;
+
+	/**
+	 * The amount of seconds to keep the bots online once all have connected.
+	 */
+	private final int duration;
+
+	/**
+	 * The mode of this run.
+	 */
+	private final Mode mode;
+
+	/**
+	 * The walking packets sent per bot per second.
+	 */
+	private final double walkRate;
+
+	/**
+	 * The chat packets sent per bot per second.
+	 */
+	private final double chatRate;
+
+	/**
+	 * The idle packets sent per bot per second.
+	 */
+	private final double idleRate;
+
+	/**
+	 * The amount of milliseconds before a handshake, login or file request is counted as timed out.
+	 */
+	private final int timeout;
+
+	/**
+	 * The prefix of each bot's username.
+	 */
+	private final String prefix;
+
+	/**
+	 * Creates the settings from the command-line arguments.
+	 *
+	 * @param args The command-line arguments.
+	 * @throws IllegalArgumentException If an argument is not of the form {@code --name=value}.
+	 */
+	public LoadSettings(String[] args) {
+		Map<String, String> values = new HashMap<>();
+		for (String arg : args) {
+			int split = arg.indexOf('=');
+			if (!arg.startsWith("--") || split == -1) {
+				throw new IllegalArgumentException("Expected --name=value but received " + arg + ".");
+			}
+			values.put(arg.substring(2, split), arg.substring(split + 1));
+		}
+
+		host = values.getOrDefault("host", "127.0.0.1");
+		port = Integer.parseInt(values.getOrDefault("port", Integer.toString(NetworkConstants.PORT)));
+		bots = Integer.parseInt(values.getOrDefault("bots", "100"));
+		connectRate = Integer.parseInt(values.getOrDefault("connect-rate", "50"));
+		duration = Integer.parseInt(values.getOrDefault("duration", "60"));
+		mode = Mode.valueOf(values.getOrDefault("mode", "game").toUpperCase());
+		walkRate = Double.parseDouble(values.getOrDefault("walk-rate", "0.5"));
+		chatRate = Double.parseDouble(values.getOrDefault("chat-rate", "0.05"));
+		idleRate = Double.parseDouble(values.getOrDefault("idle-rate", "0.2"));
+		timeout = Integer.parseInt(values.getOrDefault("timeout", "10000"));
+		prefix = values.getOrDefault("prefix", "bot");
+	}
+
+	/**
+	 * Gets the host to connect to.
+	 *
+	 * @return The host.
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Gets the port to connect to.
+	 *
+	 * @return The port.
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	/**
+	 * Gets the amount of simulated players.
+	 *
+	 * @return The bots.
+	 */
+	public int getBots() {
+		return bots;
+	}
+
+	/**
+	 * Gets the amount of new connections made per second.
+	 *
+	 * @return The connect rate.
+	 */
+	public int getConnectRate() {
+		return connectRate;
+	}
+
+	/**
+	 * Gets the amount of seconds to keep the bots online once all have connected.
+	 *
+	 * @return The duration.
+	 */
+	public int getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Gets the mode of this run.
+	 *
+	 * @return The mode.
+	 */
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Gets the walking packets sent per bot per second.
+	 *
+	 * @return The walk rate.
+	 */
+	public double getWalkRate() {
+		return walkRate;
+	}
+
+	/**
+	 * Gets the chat packets sent per bot per second.
+	 *
+	 * @return The chat rate.
+	 */
+	public double getChatRate() {
+		return chatRate;
+	}
+
+	/**
+	 * Gets the idle packets sent per bot per second.
+	 *
+	 * @return The idle rate.
+	 */
+	public double getIdleRate() {
+		return idleRate;
+	}
+
+	/**
+	 * Gets the amount of milliseconds before a handshake, login or file request is counted as timed out.
+	 *
+	 * @return The timeout.
+	 */
+	public int getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Gets the prefix of each bot's username.
+	 *
+	 * @return The prefix.
+	 */
+	public String getPrefix() {
+		return prefix;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s mode, %d bots at %d/s against %s:%d for %ds (walk=%.2f/s chat=%.2f/s idle=%.2f/s)",
+				mode, bots, connectRate, host, port, duration, walkRate, chatRate, idleRate);
+	}
+
+}
@@ -0,0 +1,185 @@
+package core.loadgen;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics gathered by all bots of a load generation run.
+ *
+ * @author 7Winds
+ */
+public final class LoadStatistics {
+
+	/**
+	 * The time from starting a connection to it being established.
+	 */
+	private final LatencyRecorder connect = new LatencyRecorder("connect");
+
+	/**
+	 * The time from sending the service handshake to receiving the server's reply.
+	 */
+	private final LatencyRecorder handshake = new LatencyRecorder("handshake");
+
+	/**
+	 * The time from sending the login block to receiving the login response.
+	 */
+	private final LatencyRecorder login = new LatencyRecorder("login");
+
+	/**
+	 * The time from sending a request to receiving its complete response.
+	 */
+	private final LatencyRecorder roundTrip = new LatencyRecorder("round-trip");
+
+	/**
+	 * The amount of times each login status was received.
+	 */
+	private final AtomicIntegerArray statuses = new AtomicIntegerArray(256);
+
+	/**
+	 * The amount of connections that could not be established.
+	 */
+	private final LongAdder failedConnections = new LongAdder();
+
+	/**
+	 * The amount of bots that are currently connected.
+	 */
+	private final LongAdder online = new LongAdder();
+
+	/**
+	 * The amount of handshakes, logins and requests that timed out.
+	 */
+	private final LongAdder timeouts = new LongAdder();
+
+	/**
+	 * The amount of packets written.
+	 */
+	private final LongAdder packetsSent = new LongAdder();
+
+	/**
+	 * The amount of bytes written.
+	 */
+	private final LongAdder bytesSent = new LongAdder();
+
+	/**
+	 * The amount of bytes received.
+	 */
+	private final LongAdder bytesReceived = new LongAdder();
+
+	/**
+	 * Gets the time from starting a connection to it being established.
+	 *
+	 * @return The recorder.
+	 */
+	public LatencyRecorder getConnect() {
+		return connect;
+	}
+
+	/**
+	 * Gets the time from sending the service handshake to receiving the server's reply.
+	 *
+	 * @return The recorder.
+	 */
+	public LatencyRecorder getHandshake() {
+		return handshake;
+	}
+
+	/**
+	 * Gets the time from sending the login block to receiving the login response.
+	 *
+	 * @return The recorder.
+	 */
+	public LatencyRecorder getLogin() {
+		return login;
+	}
+
+	/**
+	 * Gets the time from sending a request to receiving its complete response.
+	 *
+	 * @return The recorder.
+	 */
+	public LatencyRecorder getRoundTrip() {
+		return roundTrip;
+	}
+
+	/**
+	 * Records a received login status.
+	 *
+	 * @param status The login status.
+	 */
+	public void status(int status) {
+		statuses.incrementAndGet(status & 0xFF);
+	}
+
+	/**
+	 * Gets the amount of connections that could not be established.
+	 *
+	 * @return The counter.
+	 */
+	public LongAdder getFailedConnections() {
+		return failedConnections;
+	}
+
+	/**
+	 * Gets the amount of bots that are currently connected.
+	 *
+	 * @return The counter.
+	 */
+	public LongAdder getOnline() {
+		return online;
+	}
+
+	/**
+	 * Gets the amount of handshakes, logins and requests that timed out.
+	 *
+	 * @return The counter.
+	 */
+	public LongAdder getTimeouts() {
+		return timeouts;
+	}
+
+	/**
+	 * Records a written packet.
+	 *
+	 * @param bytes The size of the packet, including its header.
+	 */
+	public void sent(int bytes) {
+		packetsSent.increment();
+		bytesSent.add(bytes);
+	}
+
+	/**
+	 * Gets the amount of bytes received.
+	 *
+	 * @return The counter.
+	 */
+	public LongAdder getBytesReceived() {
+		return bytesReceived;
+	}
+
+	/**
+	 * Creates a report of the current statistics.
+	 *
+	 * @return The report.
+	 */
+	public String report() {
+		Map<Integer, Integer> received = new TreeMap<>();
+		for (int i = 0; i < statuses.length(); i++) {
+			if (statuses.get(i) > 0) {
+				received.put(i, statuses.get(i));
+			}
+		}
+
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("online=%d failed=%d timeouts=%d login statuses=%s%n", online.sum(),
+				failedConnections.sum(), timeouts.sum(), received));
+		builder.append(String.format("sent %d packets (%d bytes), received %d bytes%n", packetsSent.sum(),
+				bytesSent.sum(), bytesReceived.sum()));
+		for (LatencyRecorder recorder : new LatencyRecorder[] { connect, handshake, login, roundTrip }) {
+			builder.append(recorder).append(String.format("%n"));
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,169 @@
+package core.loadgen;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import core.net.codec.handshake.HandshakeConstants;
+import core.net.codec.update.OnDemandRequest.Priority;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * A simulated client which performs the update service handshake and then requests one file at a time, timing each
+ * request until its final chunk arrives.
+ *
+ * @author 7Winds
+ */
+public final class UpdateBot extends ByteToMessageDecoder {
+
+	/**
+	 * The maximum size of a single chunk.
+	 */
+	private static final int CHUNK_SIZE = 500;
+
+	/**
+	 * The size of a chunk header.
+	 */
+	private static final int HEADER_SIZE = 2 * Byte.BYTES + 2 * Short.BYTES;
+
+	/**
+	 * The amount of cache types that may be requested.
+	 */
+	private static final int TYPES = 4;
+
+	/**
+	 * The highest file id that is requested.
+	 */
+	private static final int FILES = 100;
+
+	/**
+	 * The settings of this run.
+	 */
+	private final LoadSettings settings;
+
+	/**
+	 * The statistics of this run.
+	 */
+	private final LoadStatistics statistics;
+
+	/**
+	 * Whether the server's handshake reply has been received.
+	 */
+	private boolean handshaken;
+
+	/**
+	 * The time at which the handshake or current request was sent, in nanoseconds.
+	 */
+	private long sentAt;
+
+	/**
+	 * The task that counts the current request as timed out.
+	 */
+	private ScheduledFuture<?> timeout;
+
+	/**
+	 * Creates the update bot.
+	 *
+	 * @param settings The settings of this run.
+	 * @param statistics The statistics of this run.
+	 */
+	public UpdateBot(LoadSettings settings, LoadStatistics statistics) {
+		this.settings = settings;
+		this.statistics = statistics;
+	}
+
+	@Override
+	public void channelActive(ChannelHandlerContext ctx) {
+		sentAt = System.nanoTime();
+		ctx.writeAndFlush(ctx.alloc().buffer(1).writeByte(HandshakeConstants.SERVICE_UPDATE));
+		schedule(ctx, () -> ctx.close());
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		if (timeout != null) {
+			timeout.cancel(false);
+		}
+		if (handshaken) {
+			statistics.getOnline().decrement();
+		}
+		super.channelInactive(ctx);
+	}
+
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+		ctx.close();
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+		statistics.getBytesReceived().add(((ByteBuf) msg).readableBytes());
+		super.channelRead(ctx, msg);
+	}
+
+	@Override
+	protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+		if (!handshaken) {
+			if (in.readableBytes() < Long.BYTES) {
+				return;
+			}
+			in.skipBytes(Long.BYTES);
+			statistics.getHandshake().record(System.nanoTime() - sentAt);
+			statistics.getOnline().increment();
+			handshaken = true;
+			request(ctx);
+		}
+
+		while (in.readableBytes() >= HEADER_SIZE) {
+			int index = in.readerIndex();
+			int fileSize = in.getUnsignedShort(index + 3);
+			int chunk = in.getUnsignedByte(index + 5);
+			int length = Math.max(0, Math.min(CHUNK_SIZE, fileSize - chunk * CHUNK_SIZE));
+			if (in.readableBytes() < HEADER_SIZE + length) {
+				return;
+			}
+			in.skipBytes(HEADER_SIZE + length);
+			if ((chunk + 1) * CHUNK_SIZE >= fileSize) {
+				statistics.getRoundTrip().record(System.nanoTime() - sentAt);
+				request(ctx);
+			}
+		}
+	}
+
+	/**
+	 * Requests a random file.
+	 *
+	 * @param ctx The channel handler context.
+	 */
+	private void request(ChannelHandlerContext ctx) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		ByteBuf request = ctx.alloc().buffer(4);
+		request.writeByte(random.nextInt(TYPES));
+		request.writeShort(random.nextInt(FILES));
+		request.writeByte(Priority.HIGH.toInteger());
+
+		sentAt = System.nanoTime();
+		ctx.writeAndFlush(request);
+		schedule(ctx, () -> request(ctx));
+	}
+
+	/**
+	 * Schedules {@code action} to run when the current handshake or request times out.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param action The action to run after counting the timeout.
+	 */
+	private void schedule(ChannelHandlerContext ctx, Runnable action) {
+		if (timeout != null) {
+			timeout.cancel(false);
+		}
+		timeout = ctx.executor().schedule(() -> {
+			statistics.getTimeouts().increment();
+			action.run();
+		}, settings.getTimeout(), TimeUnit.MILLISECONDS);
+	}
+
+}
@@ -1,14 +1,301 @@
 package core;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.engine.GameEngine;
+import core.game.region.PathfindingService;
+import core.game.util.LoggerUtils;
+import core.net.NetworkConstants;
+
 /**
- * The main configuration class for the server
+ * The main configuration class for the server. Each field can be overridden by a property of the same name in the
+ * configuration file, which is loaded once at startup. Fields marked {@link Reloadable} are also updated whenever the
+ * file changes while the server is running, and are read wherever they are used rather than copied, so they take effect
+ * without a restart. Changes to the other fields are only picked up by the next restart.
  * @author 7Winds
  */
 public class Configuration {
-	
+
+	/**
+	 * Marks a field which is safe to change while the server is running.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.FIELD)
+	public @interface Reloadable {
+
+	}
+
 	/**
 	 * Displays debug messages
 	 */
-	public static boolean server_debug = false;
+	@Reloadable
+	public static volatile boolean server_debug = false;
+
+	/**
+	 * The directory holding the cache
+	 */
+	public static String cache_directory = "data/cache";
+
+	/**
+	 * The map_index file, extracted from the versionlist archive of the cache
+	 */
+	public static String map_index_file = "data/map_index";
+
+	/**
+	 * The file holding the player saves
+	 */
+	public static String save_file = "data/saves.dat";
+
+	/**
+	 * The file holding the account credentials
+	 */
+	public static String accounts_file = "data/accounts.dat";
+
+	/**
+	 * The id of this world among the worlds sharing a login server
+	 */
+	public static int world_id = 1;
+
+	/**
+	 * The host name of the login server, or empty for this world to own its accounts
+	 */
+	public static String login_server_address = "";
+
+	/**
+	 * The port the login server listens on
+	 */
+	public static int login_server_port = 43596;
+
+	/**
+	 * The key a world must present to register with the login server
+	 */
+	public static String login_server_key = "";
+
+	/**
+	 * The number of seconds the login server keeps the players of a world which lost its connection claimed, waiting for
+	 * it to register again
+	 */
+	@Reloadable
+	public static volatile int world_grace_period = 60;
+
+	/**
+	 * The port the server listens on
+	 */
+	public static int port = NetworkConstants.PORT;
+
+	/**
+	 * The maximum amount of connections waiting to be accepted
+	 */
+	public static int backlog = 128;
+
+	/**
+	 * The amount of threads accepting connections
+	 */
+	public static int boss_threads = 1;
+
+	/**
+	 * The amount of event loop threads, or 0 for twice the amount of cores
+	 */
+	public static int worker_threads = 0;
+
+	/**
+	 * The size of the socket send buffer of each connection in bytes, or 0 for the system default
+	 */
+	public static int send_buffer_size = 0;
+
+	/**
+	 * The size of the socket receive buffer of each connection in bytes, or 0 for the system default
+	 */
+	public static int receive_buffer_size = 0;
+
+	/**
+	 * The amount of milliseconds between the start of each game tick
+	 */
+	public static int tick_rate = GameEngine.TICK_RATE;
+
+	/**
+	 * The amount of threads building update packets, or 0 for the amount of cores
+	 */
+	public static int update_threads = 0;
+
+	/**
+	 * Whether blocking login and persistence work runs on virtual threads, where the JDK has them
+	 */
+	public static boolean virtual_threads = true;
+
+	/**
+	 * The amount of platform threads blocking login and persistence work runs on without virtual threads
+	 */
+	public static int blocking_threads = 16;
+
+	/**
+	 * The number of seconds a connection may wait before sending its handshake
+	 */
+	@Reloadable
+	public static volatile int handshake_idle_time = 5;
+
+	/**
+	 * The number of seconds a game connection may go without sending anything while logging in
+	 */
+	@Reloadable
+	public static volatile int login_idle_time = 10;
+
+	/**
+	 * The number of seconds an update connection may go without requesting a file
+	 */
+	@Reloadable
+	public static volatile int update_idle_time = 30;
+
+	/**
+	 * The number of seconds a logged in player may go without sending anything
+	 */
+	@Reloadable
+	public static volatile int game_idle_time = 15;
+
+	/**
+	 * The number of seconds a game connection has to complete the handshake and login, however slowly it sends them
+	 */
+	@Reloadable
+	public static volatile int login_deadline = 20;
+
+	/**
+	 * The maximum amount of packets a player may send between two ticks, beyond which they are discarded
+	 */
+	@Reloadable
+	public static volatile int max_queued_packets = 50;
+
+	/**
+	 * The amount of bytes queued for a game connection above which it stops being writable and droppable packets are
+	 * skipped, applied as connections log in
+	 */
+	@Reloadable
+	public static volatile int write_buffer_high_water_mark = 131072;
+
+	/**
+	 * The amount of bytes queued for a game connection below which it becomes writable again, applied as connections
+	 * log in
+	 */
+	@Reloadable
+	public static volatile int write_buffer_low_water_mark = 32768;
+
+	/**
+	 * The number of seconds a game connection may stay unwritable before it is disconnected
+	 */
+	@Reloadable
+	public static volatile int slow_client_timeout = 10;
+
+	/**
+	 * The amount of tiles the pathfinder may expand per tick
+	 */
+	@Reloadable
+	public static volatile int pathfinding_budget = PathfindingService.DEFAULT_BUDGET;
+
+	/**
+	 * The lowest level of the messages logged
+	 */
+	@Reloadable
+	public static volatile String log_level = "INFO";
+
+	/**
+	 * The maximum amount of messages each logger may log per second
+	 */
+	@Reloadable
+	public static volatile int log_rate_limit = LoggerUtils.RATE_LIMIT;
+
+	/**
+	 * Loads the configuration file, overriding the fields named by its properties.
+	 *
+	 * @param file The configuration file.
+	 * @param reloading Whether the server is already running, in which case only {@link Reloadable} fields change.
+	 * @throws IOException If the file could not be read.
+	 */
+	public static synchronized void load(Path file, boolean reloading) throws IOException {
+		Logger logger = LoggerUtils.getLogger(Configuration.class);
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(file)) {
+			properties.load(reader);
+		}
+
+		for (String name : properties.stringPropertyNames()) {
+			Field field;
+			try {
+				field = Configuration.class.getField(name);
+			} catch (NoSuchFieldException e) {
+				logger.log(Level.WARNING, "Unknown configuration property {0}.", name);
+				continue;
+			}
+			if (!Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+			String value = properties.getProperty(name).trim();
+			try {
+				Object parsed = parse(field.getType(), value);
+				if (field.getName().equals("log_level")) {
+					Level.parse(value);
+				}
+				Object current = field.get(null);
+				if (parsed.equals(current)) {
+					continue;
+				}
+				if (reloading && !field.isAnnotationPresent(Reloadable.class)) {
+					logger.log(Level.WARNING, "{0} cannot be changed without a restart.", name);
+					continue;
+				}
+				field.set(null, parsed);
+				if (reloading) {
+					logger.log(Level.INFO, "Changed {0} from {1} to {2}.", new Object[] { name, current, parsed });
+				}
+			} catch (IllegalArgumentException | IllegalAccessException e) {
+				logger.log(Level.WARNING, "Invalid value " + value + " for " + name + ".", e);
+			}
+		}
+		apply();
+	}
+
+	/**
+	 * Applies the fields which configure components that do not read them directly.
+	 */
+	private static void apply() {
+		Logger.getLogger("").setLevel(Level.parse(log_level));
+		LoggerUtils.getHandler().setRateLimit(log_rate_limit);
+	}
+
+	/**
+	 * Parses the value of a property.
+	 *
+	 * @param type The type of the field.
+	 * @param value The value.
+	 * @return The parsed value.
+	 * @throws IllegalArgumentException If the value is not valid for the type.
+	 */
+	private static Object parse(Class<?> type, String value) {
+		if (type == int.class) {
+			return Integer.parseInt(value);
+		} else if (type == long.class) {
+			return Long.parseLong(value);
+		} else if (type == double.class) {
+			return Double.parseDouble(value);
+		} else if (type == boolean.class) {
+			if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+				throw new IllegalArgumentException("Not a boolean: " + value);
+			}
+			return Boolean.parseBoolean(value);
+		} else if (type == String.class) {
+			return value;
+		}
+		throw new IllegalArgumentException("Unsupported type " + type.getName());
+	}
 
 }
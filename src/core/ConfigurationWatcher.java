@@ -0,0 +1,100 @@
+package core;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.util.LoggerUtils;
+
+/**
+ * Reloads the {@link Configuration} whenever its file is changed, so the {@link Configuration.Reloadable} fields can be
+ * tuned while the server is under load.
+ *
+ * @author 7Winds
+ */
+public final class ConfigurationWatcher implements Runnable {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(ConfigurationWatcher.class);
+
+	/**
+	 * The configuration file.
+	 */
+	private final Path file;
+
+	/**
+	 * The service watching the directory of the file.
+	 */
+	private final WatchService watcher;
+
+	/**
+	 * Creates the watcher and starts watching the directory of the file.
+	 *
+	 * @param file The configuration file.
+	 * @throws IOException If the directory could not be watched.
+	 */
+	public ConfigurationWatcher(Path file) throws IOException {
+		this.file = file.toAbsolutePath();
+		this.watcher = FileSystems.getDefault().newWatchService();
+		this.file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+	}
+
+	/**
+	 * Starts a daemon thread which reloads the configuration until the watcher is closed.
+	 */
+	public void start() {
+		Thread thread = new Thread(this, "ConfigurationWatcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops watching the file.
+	 *
+	 * @throws IOException If the watch service could not be closed.
+	 */
+	public void close() throws IOException {
+		watcher.close();
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (true) {
+				WatchKey key = watcher.take();
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					changed |= file.getFileName().equals(event.context());
+				}
+				key.reset();
+				if (changed) {
+					reload();
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// The watcher has been closed.
+		}
+	}
+
+	/**
+	 * Reloads the configuration.
+	 */
+	private void reload() {
+		try {
+			Configuration.load(file, true);
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Error while reloading " + file + ".", e);
+		}
+	}
+
+}
@@ -1,13 +1,37 @@
 package core;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import core.game.World;
+import core.game.cache.IndexedFileSystem;
+import core.game.engine.GameEngine;
+import core.game.persistence.MappedPlayerStore;
+import core.game.persistence.PersistenceService;
+import core.game.region.CacheMapSource;
+import core.game.region.CollisionManager;
+import core.game.region.MapIndex;
+import core.game.region.MapSource;
+import core.game.util.BlockingExecutors;
 import core.game.util.LoggerUtils;
+import core.login.AccountManager;
+import core.login.AccountService;
+import core.login.CredentialStore;
+import core.login.LocalAccountService;
+import core.login.RemoteAccountService;
 import core.net.ChannelHandler;
 import core.net.NetworkConstants;
 import core.net.ServiceChannelInitializer;
+import core.net.packet.PacketMetrics;
+import core.net.packet.impl.PrivateChatMessage;
+import core.net.packet.impl.WalkingMessage;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.ChannelFuture;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
@@ -25,14 +49,56 @@ public class Server {
 	 */
 	private static final Logger logger = LoggerUtils.getLogger(Server.class);
 
+	/**
+	 * The configuration file used when none is given on the command line
+	 */
+	private static final String CONFIGURATION_FILE = "data/server.properties";
+
+	/**
+	 * The thread accepting connections
+	 */
+	private final EventLoopGroup bossGroup = new NioEventLoopGroup(Configuration.boss_threads);
+
+	/**
+	 * The threads handling the connections
+	 */
+	private final EventLoopGroup workerGroup = new NioEventLoopGroup(Configuration.worker_threads);
+
+	/**
+	 * The cache, or {@code null} if there is none
+	 */
+	private IndexedFileSystem fs;
+
+	/**
+	 * The world, or {@code null} until initialized
+	 */
+	private World world;
+
+	/**
+	 * The engine ticking the world, or {@code null} until initialized
+	 */
+	private GameEngine engine;
+
+	/**
+	 * The channel accepting connections, or {@code null} until bound
+	 */
+	private Channel serverChannel;
+
+	/**
+	 * Whether the server has been shut down
+	 */
+	private boolean shutdown;
+
 	/**
 	 * Main method for the server application
 	 * 
 	 * @param args
-	 *            The command-line arguments
+	 *            The command-line arguments, optionally the path of the
+	 *            configuration file
 	 */
 	public static void main(String[] args) {
 		try {
+			loadConfiguration(Paths.get(args.length > 0 ? args[0] : CONFIGURATION_FILE));
 			new Server().init();
 		} catch (Throwable t) {
 			logger.log(Level.SEVERE, "Error while starting the server.", t);
@@ -47,30 +113,154 @@ public class Server {
 	}
 
 	/**
-	 * Initializes the Server Channel Handler
+	 * Initializes the Server Channel Handler, then waits until the server channel is closed. The server shuts down
+	 * with the process, saving every player.
 	 * 
-	 * @throws InterruptedException
+	 * @throws Exception
 	 */
-	public void init() throws InterruptedException {
-		EventLoopGroup bossGroup = new NioEventLoopGroup();
-		EventLoopGroup workerGroup = new NioEventLoopGroup();
+	public void init() throws Exception {
+		PacketMetrics.register();
+		fs = openCache();
+		MapSource maps = MapSource.EMPTY;
+		if (fs != null) {
+			ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(Paths.get(Configuration.map_index_file)));
+			maps = new CacheMapSource(fs, new MapIndex(index));
+		}
+		AccountService accounts = openAccounts();
+		world = new World(new CollisionManager(maps, World.COLLISION_IDLE_TICKS), accounts);
+		registerPackets(world);
+		engine = new GameEngine(world, Configuration.tick_rate);
 		try {
+			engine.start();
 
 			ServerBootstrap bootstrap = new ServerBootstrap();
 			bootstrap.group(bossGroup, workerGroup)
 				.channel(NioServerSocketChannel.class)
-				.childHandler(new ServiceChannelInitializer(new ChannelHandler()))
-				.option(ChannelOption.SO_BACKLOG, 128)
+				.childHandler(new ServiceChannelInitializer(new ChannelHandler(world, accounts)))
+				.option(ChannelOption.SO_BACKLOG, Configuration.backlog)
 				.childOption(ChannelOption.SO_KEEPALIVE, true);
+			if (Configuration.send_buffer_size > 0) {
+				bootstrap.childOption(ChannelOption.SO_SNDBUF, Configuration.send_buffer_size);
+			}
+			if (Configuration.receive_buffer_size > 0) {
+				bootstrap.childOption(ChannelOption.SO_RCVBUF, Configuration.receive_buffer_size);
+			}
 
-			logger.log(Level.INFO, "Binding to port " + NetworkConstants.PORT);
-			ChannelFuture f = bootstrap.bind(NetworkConstants.PORT).sync();
+			logger.log(Level.INFO, "Binding to port " + Configuration.port);
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				serverChannel = bootstrap.bind(Configuration.port).sync().channel();
+			}
+			Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "Server-shutdown"));
 			logger.log(Level.INFO, "Server Online and bound to port "
-					+ NetworkConstants.PORT);
-			f.channel().closeFuture().sync();
+					+ Configuration.port);
+			serverChannel.closeFuture().sync();
 		} finally {
-			workerGroup.shutdownGracefully();
-			bossGroup.shutdownGracefully();
+			shutdown();
+		}
+	}
+
+	/**
+	 * Stops accepting connections, disconnects every player, stops the engine, then saves every player and waits for
+	 * the saves to be durable. This runs once, either when the server channel closes or when the process is asked to
+	 * exit.
+	 */
+	public synchronized void shutdown() {
+		if (shutdown) {
+			return;
 		}
-	}	
+		shutdown = true;
+		logger.log(Level.INFO, "Shutting down...");
+		if (serverChannel != null) {
+			serverChannel.close().awaitUninterruptibly();
+		}
+		workerGroup.shutdownGracefully().awaitUninterruptibly();
+		bossGroup.shutdownGracefully().awaitUninterruptibly();
+		try {
+			if (engine != null) {
+				engine.stop();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (world != null) {
+			world.shutdown();
+		}
+		if (fs != null) {
+			try {
+				fs.close();
+			} catch (IOException e) {
+				logger.log(Level.SEVERE, "Error while closing the cache.", e);
+			}
+		}
+		logger.log(Level.INFO, "Server shut down.");
+	}
+
+	/**
+	 * Loads the configuration file, if there is one, and watches it for changes
+	 * 
+	 * @param file The configuration file
+	 * @throws IOException
+	 */
+	public static void loadConfiguration(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			logger.log(Level.WARNING, "No configuration file found at " + file + ", using the defaults.");
+			return;
+		}
+		Configuration.load(file, false);
+		new ConfigurationWatcher(file).start();
+	}
+
+	/**
+	 * Registers the listeners of the incoming game packets
+	 * 
+	 * @param world The world the packets act on
+	 */
+	private static void registerPackets(World world) {
+		WalkingMessage walking = new WalkingMessage(world.getPathfinding());
+		for (int opcode : WalkingMessage.OPCODES) {
+			NetworkConstants.PACKETS[opcode] = walking;
+		}
+		NetworkConstants.PACKETS[PrivateChatMessage.OPCODE] = new PrivateChatMessage(world.getSocial());
+	}
+
+	/**
+	 * Opens the accounts of this world: through the login server if one is configured, otherwise from the local files
+	 * 
+	 * @return The account service
+	 * @throws IOException
+	 */
+	private static AccountService openAccounts() throws IOException {
+		if (!Configuration.login_server_address.isEmpty()) {
+			RemoteAccountService accounts = new RemoteAccountService(Configuration.login_server_address,
+					Configuration.login_server_port, Configuration.world_id, Configuration.login_server_key);
+			accounts.connect();
+			return accounts;
+		}
+		ExecutorService blocking = BlockingExecutors.create("Accounts", Configuration.virtual_threads,
+				Configuration.blocking_threads);
+		PersistenceService persistence = new PersistenceService(
+				new MappedPlayerStore(Paths.get(Configuration.save_file)), blocking);
+		AccountManager manager = new AccountManager(new CredentialStore(Paths.get(Configuration.accounts_file)),
+				persistence, blocking);
+		return new LocalAccountService(manager, Configuration.world_id);
+	}
+
+	/**
+	 * Opens the cache that collision maps are decoded from
+	 * 
+	 * @return The cache, or {@code null} if the cache or the map index is missing
+	 * @throws IOException
+	 */
+	private static IndexedFileSystem openCache() throws IOException {
+		Path directory = Paths.get(Configuration.cache_directory);
+		Path mapIndex = Paths.get(Configuration.map_index_file);
+		if (!Files.exists(directory.resolve("main_file_cache.dat")) || !Files.exists(mapIndex)) {
+			logger.log(Level.WARNING, "No cache or map index found, regions will have no collision.");
+			return null;
+		}
+		return new IndexedFileSystem(directory);
+	}
 }
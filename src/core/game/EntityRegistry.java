@@ -0,0 +1,202 @@
+package core.game;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import core.game.model.Entity;
+
+/**
+ * A fixed-capacity registry of entities by index, which is the source of truth for the index of every registered
+ * entity. Free indices are tracked in a bit set with a summary word per 64 words, so registering an entity finds the
+ * lowest free index by scanning at most a few words, and iteration skips unused indices a word at a time. Index
+ * {@code 0} is never used. The registry is not thread safe.
+ *
+ * @author 7Winds
+ * @param <E> The type of entity.
+ */
+public final class EntityRegistry<E extends Entity> implements Iterable<E> {
+
+	/**
+	 * The entities by index.
+	 */
+	private final E[] entities;
+
+	/**
+	 * A bit set of the used indices. Index {@code 0} and the indices beyond the capacity are permanently set.
+	 */
+	private final long[] used;
+
+	/**
+	 * A bit set of the words in {@code used} which have at least one free index.
+	 */
+	private final long[] free;
+
+	/**
+	 * The amount of registered entities.
+	 */
+	private int size;
+
+	/**
+	 * Creates the registry.
+	 *
+	 * @param capacity The amount of indices, including the unused index {@code 0}.
+	 */
+	@SuppressWarnings("unchecked")
+	public EntityRegistry(int capacity) {
+		entities = (E[]) new Entity[capacity];
+		used = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+		free = new long[(used.length + Long.SIZE - 1) / Long.SIZE];
+
+		used[0] = 1;
+		if (capacity % Long.SIZE != 0) {
+			used[used.length - 1] |= -1L << capacity;
+		}
+		for (int word = 0; word < used.length; word++) {
+			if (used[word] != -1L) {
+				free[word / Long.SIZE] |= 1L << word;
+			}
+		}
+	}
+
+	/**
+	 * Registers an entity at the lowest free index and sets its index.
+	 *
+	 * @param entity The entity.
+	 * @return {@code true} if the entity was registered, {@code false} if the registry is full.
+	 */
+	public boolean register(E entity) {
+		for (int summary = 0; summary < free.length; summary++) {
+			if (free[summary] != 0) {
+				int word = summary * Long.SIZE + Long.numberOfTrailingZeros(free[summary]);
+				int index = word * Long.SIZE + Long.numberOfTrailingZeros(~used[word]);
+				used[word] |= 1L << index;
+				if (used[word] == -1L) {
+					free[summary] &= ~(1L << word);
+				}
+				entities[index] = entity;
+				entity.setIndex(index);
+				size++;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Unregisters an entity, freeing its index.
+	 *
+	 * @param entity The entity.
+	 * @throws IllegalArgumentException If the entity is not registered.
+	 */
+	public void unregister(E entity) {
+		int index = entity.getIndex();
+		if (index <= 0 || index >= entities.length || entities[index] != entity) {
+			throw new IllegalArgumentException("Entity " + entity + " is not registered.");
+		}
+		int word = index / Long.SIZE;
+		used[word] &= ~(1L << index);
+		free[word / Long.SIZE] |= 1L << word;
+		entities[index] = null;
+		size--;
+	}
+
+	/**
+	 * Gets an entity by index.
+	 *
+	 * @param index The index.
+	 * @return The entity, or {@code null} if no entity is registered at the index.
+	 */
+	public E get(int index) {
+		return entities[index];
+	}
+
+	/**
+	 * Finds the lowest used index at or above {@code from}.
+	 *
+	 * @param from The index to start at.
+	 * @return The index, or {@code -1} if there is none.
+	 */
+	public int nextIndex(int from) {
+		if (from >= entities.length) {
+			return -1;
+		}
+		int word = from / Long.SIZE;
+		long bits = used[word] & -1L << from;
+		if (word == 0) {
+			bits &= ~1L;
+		}
+		while (true) {
+			if (bits != 0) {
+				int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+				return index < entities.length ? index : -1;
+			}
+			if (++word == used.length) {
+				return -1;
+			}
+			bits = used[word];
+		}
+	}
+
+	/**
+	 * Gets the amount of registered entities.
+	 *
+	 * @return The amount of entities.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if no entities are registered.
+	 *
+	 * @return {@code true} if no entities are registered.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the amount of indices, including the unused index {@code 0}.
+	 *
+	 * @return The capacity.
+	 */
+	public int capacity() {
+		return entities.length;
+	}
+
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		for (int index = nextIndex(1); index != -1; index = nextIndex(index + 1)) {
+			action.accept(entities[index]);
+		}
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			/**
+			 * The index of the next entity.
+			 */
+			private int next = nextIndex(1);
+
+			@Override
+			public boolean hasNext() {
+				return next != -1;
+			}
+
+			@Override
+			public E next() {
+				if (next == -1) {
+					throw new NoSuchElementException();
+				}
+				E entity = entities[next];
+				next = nextIndex(next + 1);
+				return entity;
+			}
+
+		};
+	}
+
+}
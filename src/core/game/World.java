@@ -0,0 +1,390 @@
+package core.game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import core.Configuration;
+import core.game.engine.GameEngine;
+import core.game.engine.TimingWheel;
+import core.game.model.Player;
+import core.game.model.Position;
+import core.game.persistence.PlayerSnapshot;
+import core.game.region.CollisionManager;
+import core.game.region.CollisionMap;
+import core.game.region.GroundRegistry;
+import core.game.region.PathfindingService;
+import core.game.region.SpatialIndex;
+import core.game.social.SocialService;
+import core.game.update.PlayerUpdater;
+import core.game.util.NameUtils;
+import core.login.AccountService;
+import core.net.PlayerIO;
+import core.net.codec.game.ValueType;
+import core.net.packet.ConstantPacket;
+import core.net.packet.ConstantPackets;
+import core.net.packet.PacketBuilder;
+import io.netty.channel.ChannelFutureListener;
+
+/**
+ * The game world, which holds every logged in player and implements the work done in each phase of a
+ * {@link GameEngine} tick. Apart from {@link #register} and {@link #unregister}, every method must only be called from
+ * the engine thread.
+ *
+ * @author 7Winds
+ */
+public final class World {
+
+	/**
+	 * The capacity of the player registry, including the unused index 0. The update protocol writes player indices in
+	 * 11 bits and reserves 2047 to end the list of added players, so players are given the indices 1 to 2046.
+	 */
+	public static final int MAXIMUM_PLAYERS = 2047;
+
+	/**
+	 * The amount of ticks a region's collision map may go unused before it is evicted.
+	 */
+	public static final int COLLISION_IDLE_TICKS = 500;
+
+	/**
+	 * The amount of ticks between saves of every player in the world.
+	 */
+	public static final int SAVE_INTERVAL = 500;
+
+	/**
+	 * The position new players are spawned at.
+	 */
+	private static final Position SPAWN_POSITION = new Position(3222, 3218);
+
+	/**
+	 * The opcode of the packet which loads the map around a region.
+	 */
+	private static final int REGION_OPCODE = 73;
+
+	/**
+	 * The sessions waiting to be added at the start of the next tick.
+	 */
+	private final Queue<PlayerIO> logins = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The sessions waiting to be removed at the start of the next tick.
+	 */
+	private final Queue<PlayerIO> logouts = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The players in the world by index.
+	 */
+	private final EntityRegistry<Player> players = new EntityRegistry<>(MAXIMUM_PLAYERS);
+
+	/**
+	 * The spatial index of the players by index.
+	 */
+	private final SpatialIndex playerIndex = new SpatialIndex(MAXIMUM_PLAYERS);
+
+	/**
+	 * The updater which builds the player update packets.
+	 */
+	private final PlayerUpdater updater = Configuration.update_threads > 0 ? new PlayerUpdater(Configuration.update_threads)
+			: new PlayerUpdater();
+
+	/**
+	 * The collision maps of the regions in use.
+	 */
+	private final CollisionManager collision;
+
+	/**
+	 * The service which searches for the paths requested by entities.
+	 */
+	private final PathfindingService pathfinding;
+
+	/**
+	 * The scheduler of tasks delayed by a number of ticks.
+	 */
+	private final TimingWheel scheduler = new TimingWheel();
+
+	/**
+	 * The ground items and runtime objects.
+	 */
+	private final GroundRegistry ground = new GroundRegistry();
+
+	/**
+	 * The service players are logged in, saved and logged out with.
+	 */
+	private final AccountService accounts;
+
+	/**
+	 * The private messages, broadcasts and presence exchanged with the other worlds.
+	 */
+	private final SocialService social;
+
+	/**
+	 * Creates the world.
+	 *
+	 * @param collision The collision maps of the regions in use.
+	 * @param accounts The service players are logged in, saved and logged out with.
+	 */
+	public World(CollisionManager collision, AccountService accounts) {
+		this.collision = collision;
+		this.accounts = accounts;
+		this.social = new SocialService(accounts.getMessageBus(), Configuration.world_id);
+		this.pathfinding = new PathfindingService(collision);
+		scheduler.schedule(this::saveAll, SAVE_INTERVAL, SAVE_INTERVAL);
+	}
+
+	/**
+	 * Queues a session to be added to the world at the start of the next tick. This may be called from any thread.
+	 *
+	 * @param session The session.
+	 */
+	public void register(PlayerIO session) {
+		logins.offer(session);
+	}
+
+	/**
+	 * Queues a session to be removed from the world at the start of the next tick. This may be called from any thread.
+	 *
+	 * @param session The session.
+	 */
+	public void unregister(PlayerIO session) {
+		logouts.offer(session);
+	}
+
+	/**
+	 * Adds and removes the queued sessions, kicks the players found online in another world, then handles the packets
+	 * queued by each session.
+	 */
+	public void processInput() {
+		PlayerIO session;
+		while ((session = logins.poll()) != null) {
+			addPlayer(session);
+		}
+		while ((session = logouts.poll()) != null) {
+			removePlayer(session);
+			session.discardQueuedPackets();
+		}
+		String username;
+		while ((username = accounts.pollRevoked()) != null) {
+			kick(username);
+		}
+		social.process();
+
+		for (int index = players.nextIndex(1); index != -1; index = players.nextIndex(index + 1)) {
+			players.get(index).getSession().handleQueuedPackets();
+		}
+	}
+
+	/**
+	 * Runs the game logic for this tick: runs the scheduled tasks that are due, searches for the requested paths, then
+	 * moves every player along its walking queue.
+	 */
+	public void processLogic() {
+		scheduler.pulse();
+		collision.pulse();
+		pathfinding.process(Configuration.pathfinding_budget);
+		for (int index = players.nextIndex(1); index != -1; index = players.nextIndex(index + 1)) {
+			Player player = players.get(index);
+			player.getWalkingQueue().pulse(player);
+		}
+	}
+
+	/**
+	 * Builds the update packets for this tick, then resets the update state of every player.
+	 */
+	public void processUpdates() {
+		for (int index = players.nextIndex(1); index != -1; index = players.nextIndex(index + 1)) {
+			Player player = players.get(index);
+			Position position = player.getPosition();
+			playerIndex.move(index, position);
+			collision.get(CollisionMap.regionId(position.getX(), position.getY()));
+			if (player.isRegionUpdateRequired()) {
+				player.setLastKnownRegion(position);
+				PacketBuilder packet = PacketBuilder.create(5).newMessage(REGION_OPCODE);
+				packet.putShort(position.getRegionX() + 6, ValueType.A);
+				packet.putShort(position.getRegionY() + 6);
+				player.getSession().getChannel().write(packet);
+			}
+		}
+
+		updater.update(this);
+
+		for (int index = players.nextIndex(1); index != -1; index = players.nextIndex(index + 1)) {
+			players.get(index).resetUpdateState();
+		}
+	}
+
+	/**
+	 * Sends the messages for the other worlds gathered during this tick, then flushes the channel of every player.
+	 */
+	public void flush() {
+		social.flush();
+		for (int index = players.nextIndex(1); index != -1; index = players.nextIndex(index + 1)) {
+			players.get(index).getSession().getChannel().flush();
+		}
+	}
+
+	/**
+	 * Releases the resources held by the world once the engine has stopped.
+	 */
+	public void shutdown() {
+		updater.shutdown();
+		for (int index = players.nextIndex(1); index != -1; index = players.nextIndex(index + 1)) {
+			PlayerSnapshot snapshot = PlayerSnapshot.of(players.get(index));
+			accounts.logout(snapshot.getUsername(), snapshot);
+			social.logout(players.get(index));
+		}
+		social.flush();
+		accounts.shutdown();
+	}
+
+	/**
+	 * Takes a snapshot of every player in the world to be written in the background.
+	 */
+	private void saveAll() {
+		for (int index = players.nextIndex(1); index != -1; index = players.nextIndex(index + 1)) {
+			accounts.save(PlayerSnapshot.of(players.get(index)));
+		}
+	}
+
+	/**
+	 * Adds the player of a newly logged in session, restored from its save if it has one, and sends it the login
+	 * sequence, unless the world is full.
+	 *
+	 * @param session The session.
+	 */
+	private void addPlayer(PlayerIO session) {
+		PlayerSnapshot save = session.getSave();
+		Player player = new Player(session, save == null ? SPAWN_POSITION : save.getPosition());
+		if (!players.register(player)) {
+			disconnect(session);
+			return;
+		}
+		if (save != null) {
+			save.apply(player);
+		}
+		player.setActive(true);
+		playerIndex.insert(player.getIndex(), player.getPosition());
+		session.setPlayer(player);
+		for (ConstantPacket packet : ConstantPackets.LOGIN_SEQUENCE) {
+			session.getChannel().write(packet);
+		}
+		social.login(player);
+	}
+
+	/**
+	 * Logs out a player which the login server found online in another world. Its session is removed on the next
+	 * tick, like any other disconnection.
+	 *
+	 * @param username The username.
+	 */
+	private void kick(String username) {
+		long key = NameUtils.encodeBase37(username);
+		for (int index = players.nextIndex(1); index != -1; index = players.nextIndex(index + 1)) {
+			PlayerIO session = players.get(index).getSession();
+			if (NameUtils.encodeBase37(session.getUsername()) == key) {
+				disconnect(session);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Sends a session's client the logout packet and closes its channel once it is written, so that the client
+	 * returns to the title screen instead of trying to reconnect.
+	 *
+	 * @param session The session.
+	 */
+	private static void disconnect(PlayerIO session) {
+		session.getChannel().writeAndFlush(ConstantPackets.LOGOUT).addListener(ChannelFutureListener.CLOSE);
+	}
+
+	/**
+	 * Removes the player of a logged out session, then saves it and logs it out.
+	 *
+	 * @param session The session.
+	 */
+	private void removePlayer(PlayerIO session) {
+		Player player = session.getPlayer();
+		if (player == null) {
+			accounts.logout(session.getUsername(), null);
+			return;
+		}
+		accounts.logout(session.getUsername(), PlayerSnapshot.of(player));
+		social.logout(player);
+		player.setActive(false);
+		playerIndex.remove(player.getIndex());
+		players.unregister(player);
+	}
+
+	/**
+	 * Gets a player by index.
+	 *
+	 * @param index The index.
+	 * @return The player, or {@code null} if there is no player with the index.
+	 */
+	public Player getPlayer(int index) {
+		return players.get(index);
+	}
+
+	/**
+	 * Gets the spatial index of the players by index.
+	 *
+	 * @return The spatial index.
+	 */
+	public SpatialIndex getPlayerIndex() {
+		return playerIndex;
+	}
+
+	/**
+	 * Gets the collision maps of the regions in use.
+	 *
+	 * @return The collision manager.
+	 */
+	public CollisionManager getCollision() {
+		return collision;
+	}
+
+	/**
+	 * Gets the scheduler of tasks delayed by a number of ticks.
+	 *
+	 * @return The scheduler.
+	 */
+	public TimingWheel getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Gets the ground items and runtime objects, which must not be changed during the update phase.
+	 *
+	 * @return The ground registry.
+	 */
+	public GroundRegistry getGround() {
+		return ground;
+	}
+
+	/**
+	 * Gets the service which searches for the paths requested by entities.
+	 *
+	 * @return The pathfinding service.
+	 */
+	public PathfindingService getPathfinding() {
+		return pathfinding;
+	}
+
+	/**
+	 * Gets the service which exchanges private messages, broadcasts and presence with the other worlds.
+	 *
+	 * @return The social service.
+	 */
+	public SocialService getSocial() {
+		return social;
+	}
+
+	/**
+	 * Gets the registry of the players in the world.
+	 *
+	 * @return The registry.
+	 */
+	public EntityRegistry<Player> getPlayers() {
+		return players;
+	}
+
+}
@@ -0,0 +1,158 @@
+package core.game.cache;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only view of the 317 cache, made up of {@code main_file_cache.dat} and an index file per type. Files are read
+ * with positional reads, so this may be used from any number of threads at once.
+ *
+ * @author 7Winds
+ */
+public final class IndexedFileSystem implements Closeable {
+
+	/**
+	 * The maximum amount of index files.
+	 */
+	private static final int MAXIMUM_INDICES = 256;
+
+	/**
+	 * The size of an entry in an index file.
+	 */
+	private static final int INDEX_SIZE = 6;
+
+	/**
+	 * The size of the header of a sector.
+	 */
+	private static final int HEADER_SIZE = 8;
+
+	/**
+	 * The size of the data in a sector.
+	 */
+	private static final int CHUNK_SIZE = 512;
+
+	/**
+	 * The size of a sector.
+	 */
+	private static final int BLOCK_SIZE = HEADER_SIZE + CHUNK_SIZE;
+
+	/**
+	 * The data file.
+	 */
+	private final FileChannel data;
+
+	/**
+	 * The index files by type.
+	 */
+	private final FileChannel[] indices;
+
+	/**
+	 * Opens the cache in a directory.
+	 *
+	 * @param directory The directory.
+	 * @throws IOException If the data file is missing or a file cannot be opened.
+	 */
+	public IndexedFileSystem(Path directory) throws IOException {
+		Path dataFile = directory.resolve("main_file_cache.dat");
+		if (!Files.exists(dataFile)) {
+			throw new FileNotFoundException("No data file found in " + directory + ".");
+		}
+		data = FileChannel.open(dataFile, StandardOpenOption.READ);
+
+		int count = 0;
+		while (count < MAXIMUM_INDICES && Files.exists(directory.resolve("main_file_cache.idx" + count))) {
+			count++;
+		}
+		indices = new FileChannel[count];
+		for (int type = 0; type < count; type++) {
+			indices[type] = FileChannel.open(directory.resolve("main_file_cache.idx" + type), StandardOpenOption.READ);
+		}
+	}
+
+	/**
+	 * Reads a file.
+	 *
+	 * @param descriptor The {@link FileDescriptor} of the file, whose type is the index of the file.
+	 * @return The file data.
+	 * @throws IOException If the file does not exist or is corrupt.
+	 */
+	public ByteBuffer getFile(FileDescriptor descriptor) throws IOException {
+		int type = descriptor.getType(), file = descriptor.getFile();
+		if (type < 0 || type >= indices.length) {
+			throw new FileNotFoundException("No index file for type " + type + ".");
+		}
+
+		ByteBuffer index = ByteBuffer.allocate(INDEX_SIZE);
+		readFully(indices[type], index, (long) file * INDEX_SIZE);
+		int size = getMedium(index, 0);
+		int sector = getMedium(index, 3);
+		if (size <= 0 || sector <= 0) {
+			throw new FileNotFoundException("File " + file + " of type " + type + " does not exist.");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+		for (int chunk = 0; buffer.hasRemaining(); chunk++) {
+			block.clear();
+			block.limit(HEADER_SIZE + Math.min(CHUNK_SIZE, buffer.remaining()));
+			readFully(data, block, (long) sector * BLOCK_SIZE);
+
+			int nextFile = block.getShort(0) & 0xFFFF;
+			int nextChunk = block.getShort(2) & 0xFFFF;
+			int nextType = block.get(7) & 0xFF;
+			if (nextFile != file || nextChunk != chunk || nextType != type + 1) {
+				throw new IOException("File " + file + " of type " + type + " is corrupt at chunk " + chunk + ".");
+			}
+
+			block.position(HEADER_SIZE);
+			buffer.put(block);
+			sector = getMedium(block, 4);
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	@Override
+	public void close() throws IOException {
+		data.close();
+		for (FileChannel index : indices) {
+			index.close();
+		}
+	}
+
+	/**
+	 * Fills a buffer from a position in a file.
+	 *
+	 * @param channel The file.
+	 * @param buffer The buffer.
+	 * @param position The position.
+	 * @throws IOException If the file ends before the buffer is filled.
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read == -1) {
+				throw new IOException("Unexpected end of file.");
+			}
+			position += read;
+		}
+	}
+
+	/**
+	 * Gets an unsigned 24-bit integer from a buffer.
+	 *
+	 * @param buffer The buffer.
+	 * @param index The index of the first byte.
+	 * @return The integer.
+	 */
+	private static int getMedium(ByteBuffer buffer, int index) {
+		return (buffer.get(index) & 0xFF) << 16 | (buffer.get(index + 1) & 0xFF) << 8 | buffer.get(index + 2) & 0xFF;
+	}
+
+}
@@ -0,0 +1,225 @@
+package core.game.engine;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.World;
+import core.game.util.LoggerUtils;
+
+/**
+ * The thread which drives the {@link World} with a fixed rate game tick. Each tick runs every {@link TickPhase} in
+ * order and times them individually.
+ * <p>
+ * Ticks are scheduled on a fixed grid measured from when the engine was started, so the time taken by one tick never
+ * delays the ones after it. When a tick overruns it is logged with the time spent in each phase, and the following
+ * ticks are run back to back until the engine has caught up with the grid. If the engine falls more than
+ * {@link #MAX_CATCH_UP_TICKS} behind, the missed ticks are dropped instead.
+ *
+ * @author 7Winds
+ */
+public final class GameEngine implements Runnable {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(GameEngine.class);
+
+	/**
+	 * The default amount of milliseconds between the start of each tick.
+	 */
+	public static final int TICK_RATE = 600;
+
+	/**
+	 * The maximum amount of ticks that are run back to back to catch up after an overrun.
+	 */
+	private static final int MAX_CATCH_UP_TICKS = 5;
+
+	/**
+	 * The world this engine drives.
+	 */
+	private final World world;
+
+	/**
+	 * The amount of nanoseconds between the start of each tick.
+	 */
+	private final long period;
+
+	/**
+	 * The tasks run in each phase.
+	 */
+	private final Map<TickPhase, Runnable> phases = new EnumMap<>(TickPhase.class);
+
+	/**
+	 * The time spent in each phase during the last tick, in nanoseconds.
+	 */
+	private final long[] phaseNanos = new long[TickPhase.values().length];
+
+	/**
+	 * The thread this engine runs on.
+	 */
+	private final Thread thread;
+
+	/**
+	 * The amount of ticks that have been run.
+	 */
+	private volatile long ticks;
+
+	/**
+	 * The time spent during the last tick, in nanoseconds.
+	 */
+	private volatile long lastTickNanos;
+
+	/**
+	 * Whether this engine is running.
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Creates the game engine with the default tick rate.
+	 *
+	 * @param world The world this engine drives.
+	 */
+	public GameEngine(World world) {
+		this(world, TICK_RATE);
+	}
+
+	/**
+	 * Creates the game engine.
+	 *
+	 * @param world The world this engine drives.
+	 * @param tickRate The amount of milliseconds between the start of each tick.
+	 */
+	public GameEngine(World world, int tickRate) {
+		this.world = world;
+		this.period = TimeUnit.MILLISECONDS.toNanos(tickRate);
+		this.thread = new Thread(this, "GameEngine");
+		phases.put(TickPhase.INPUT, world::processInput);
+		phases.put(TickPhase.LOGIC, world::processLogic);
+		phases.put(TickPhase.UPDATE, world::processUpdates);
+		phases.put(TickPhase.FLUSH, world::flush);
+	}
+
+	/**
+	 * Starts the engine thread.
+	 */
+	public void start() {
+		running = true;
+		thread.start();
+	}
+
+	/**
+	 * Stops the engine, waiting for the current tick to finish.
+	 *
+	 * @throws InterruptedException If the current thread is interrupted while waiting.
+	 */
+	public void stop() throws InterruptedException {
+		running = false;
+		LockSupport.unpark(thread);
+		thread.join();
+	}
+
+	@Override
+	public void run() {
+		logger.info("Game engine started with a tick rate of " + TimeUnit.NANOSECONDS.toMillis(period) + "ms.");
+		long next = System.nanoTime();
+		while (running) {
+			long start = System.nanoTime();
+			tick();
+			long end = System.nanoTime();
+			lastTickNanos = end - start;
+
+			if (lastTickNanos > period) {
+				logOverrun();
+			}
+
+			next += period;
+			long behind = end - next;
+			if (behind > 0) {
+				if (behind > MAX_CATCH_UP_TICKS * period) {
+					long dropped = behind / period;
+					next += dropped * period;
+					logger.warning("Game engine is " + (dropped + 1) + " ticks behind, dropping " + dropped + ".");
+				}
+				continue;
+			}
+
+			long remaining;
+			while (running && (remaining = next - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(this, remaining);
+			}
+		}
+		logger.info("Game engine stopped after " + ticks + " ticks.");
+	}
+
+	/**
+	 * Runs a single tick.
+	 */
+	private void tick() {
+		for (TickPhase phase : TickPhase.values()) {
+			long start = System.nanoTime();
+			try {
+				phases.get(phase).run();
+			} catch (Throwable t) {
+				logger.log(Level.SEVERE, "Error during the " + phase + " phase of tick " + ticks + ".", t);
+			}
+			phaseNanos[phase.ordinal()] = System.nanoTime() - start;
+		}
+		ticks++;
+	}
+
+	/**
+	 * Logs a tick overrun with the time spent in each phase.
+	 */
+	private void logOverrun() {
+		StringBuilder builder = new StringBuilder("Tick ").append(ticks - 1).append(" overran, taking ")
+				.append(TimeUnit.NANOSECONDS.toMillis(lastTickNanos)).append("ms (");
+		for (TickPhase phase : TickPhase.values()) {
+			builder.append(phase).append('=').append(TimeUnit.NANOSECONDS.toMicros(phaseNanos[phase.ordinal()]))
+					.append("us ");
+		}
+		builder.setCharAt(builder.length() - 1, ')');
+		logger.warning(builder.toString());
+	}
+
+	/**
+	 * Gets the amount of ticks that have been run.
+	 *
+	 * @return The tick count.
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Gets the time spent during the last tick.
+	 *
+	 * @return The time, in nanoseconds.
+	 */
+	public long getLastTickNanos() {
+		return lastTickNanos;
+	}
+
+	/**
+	 * Gets the time spent in a phase during the last tick. This is only exact when called from the engine thread.
+	 *
+	 * @param phase The phase.
+	 * @return The time, in nanoseconds.
+	 */
+	public long getPhaseNanos(TickPhase phase) {
+		return phaseNanos[phase.ordinal()];
+	}
+
+	/**
+	 * Gets the world this engine drives.
+	 *
+	 * @return The world.
+	 */
+	public World getWorld() {
+		return world;
+	}
+
+}
@@ -0,0 +1,30 @@
+package core.game.engine;
+
+/**
+ * The phases of a single game tick, in the order they are run.
+ *
+ * @author 7Winds
+ */
+public enum TickPhase {
+
+	/**
+	 * Registers new players, removes disconnected players and handles every packet queued by the event loops.
+	 */
+	INPUT,
+
+	/**
+	 * Runs the game logic, such as scheduled tasks and movement.
+	 */
+	LOGIC,
+
+	/**
+	 * Builds the update packets sent to each player.
+	 */
+	UPDATE,
+
+	/**
+	 * Flushes every channel so the packets written during this tick are sent.
+	 */
+	FLUSH
+
+}
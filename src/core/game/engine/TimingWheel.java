@@ -0,0 +1,361 @@
+package core.game.engine;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.util.LoggerUtils;
+
+/**
+ * A hierarchical timing wheel which schedules tasks a number of ticks ahead. The wheel has four levels of 64 slots,
+ * each slot of a level spanning a full turn of the level below it, so any delay below 2<sup>24</sup> ticks is placed
+ * in a slot directly. Every tick fires the current slot of the lowest level as one batch, and every 64 ticks a slot of
+ * the level above is spread back over the lower levels. Scheduling and cancelling are O(1), and the cost of a tick is
+ * proportional to the tasks that fire in it rather than to every pending task.
+ * <p>
+ * Tasks are stored in pooled nodes held in primitive arrays. {@link #schedule} returns a handle made of the node and
+ * its generation, which is bumped whenever the node is freed, so a stale handle can never cancel a reused node. Every
+ * method must only be called from the engine thread.
+ *
+ * @author 7Winds
+ */
+public final class TimingWheel {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(TimingWheel.class);
+
+	/**
+	 * The bits of a tick indexing the slots of one level.
+	 */
+	private static final int SLOT_BITS = 6;
+
+	/**
+	 * The amount of slots in a level.
+	 */
+	private static final int SLOTS = 1 << SLOT_BITS;
+
+	/**
+	 * The amount of levels.
+	 */
+	private static final int LEVELS = 4;
+
+	/**
+	 * The longest delay that can be scheduled, in ticks.
+	 */
+	public static final int MAXIMUM_DELAY = (1 << SLOT_BITS * LEVELS) - 1;
+
+	/**
+	 * The value of a link to no node.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * The bucket of a node that is part of the batch currently firing.
+	 */
+	private static final int FIRING = -2;
+
+	/**
+	 * The default amount of nodes in the pool.
+	 */
+	private static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * The first node of each bucket, indexed by level then slot.
+	 */
+	private final int[] heads = new int[LEVELS * SLOTS];
+
+	/**
+	 * The task of each node, or {@code null} if the node is free or its task was cancelled while firing.
+	 */
+	private Runnable[] tasks;
+
+	/**
+	 * The tick each node fires on.
+	 */
+	private long[] deadlines;
+
+	/**
+	 * The period each node repeats at, or {@code 0} if it fires once.
+	 */
+	private int[] periods;
+
+	/**
+	 * The next node in the bucket or free list of each node.
+	 */
+	private int[] next;
+
+	/**
+	 * The previous node in the bucket of each node.
+	 */
+	private int[] previous;
+
+	/**
+	 * The bucket each node is in.
+	 */
+	private int[] buckets;
+
+	/**
+	 * The generation of each node, bumped whenever it is freed.
+	 */
+	private int[] generations;
+
+	/**
+	 * The first free node.
+	 */
+	private int free = NONE;
+
+	/**
+	 * The current tick.
+	 */
+	private long tick;
+
+	/**
+	 * The amount of scheduled tasks.
+	 */
+	private int size;
+
+	/**
+	 * Creates a timing wheel with the default pool capacity.
+	 */
+	public TimingWheel() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a timing wheel.
+	 *
+	 * @param capacity The initial amount of nodes in the pool.
+	 */
+	public TimingWheel(int capacity) {
+		Arrays.fill(heads, NONE);
+		tasks = new Runnable[0];
+		deadlines = new long[0];
+		periods = new int[0];
+		next = new int[0];
+		previous = new int[0];
+		buckets = new int[0];
+		generations = new int[0];
+		grow(Math.max(capacity, 1));
+	}
+
+	/**
+	 * Schedules a task to run once.
+	 *
+	 * @param task The task.
+	 * @param delay The amount of ticks until the task runs, at least {@code 1}.
+	 * @return The handle of the task, used to cancel it.
+	 */
+	public long schedule(Runnable task, int delay) {
+		return schedule(task, delay, 0);
+	}
+
+	/**
+	 * Schedules a task to run repeatedly until it is cancelled.
+	 *
+	 * @param task The task.
+	 * @param delay The amount of ticks until the task first runs, at least {@code 1}.
+	 * @param period The amount of ticks between each run, or {@code 0} to run the task once.
+	 * @return The handle of the task, used to cancel it.
+	 * @throws IllegalArgumentException If the delay or period is out of range.
+	 */
+	public long schedule(Runnable task, int delay, int period) {
+		if (delay < 1 || delay > MAXIMUM_DELAY || period < 0 || period > MAXIMUM_DELAY) {
+			throw new IllegalArgumentException("Delay or period out of range - received " + delay + ", " + period + ".");
+		}
+		if (free == NONE) {
+			grow(tasks.length * 2);
+		}
+		int node = free;
+		free = next[node];
+
+		tasks[node] = task;
+		deadlines[node] = tick + delay;
+		periods[node] = period;
+		insert(node);
+		size++;
+		return (long) generations[node] << 32 | node;
+	}
+
+	/**
+	 * Cancels a scheduled task. This does nothing if the task has already run or been cancelled.
+	 *
+	 * @param handle The handle returned when the task was scheduled.
+	 * @return {@code true} if the task was cancelled.
+	 */
+	public boolean cancel(long handle) {
+		int node = (int) handle;
+		if (node < 0 || node >= tasks.length || generations[node] != (int) (handle >>> 32) || tasks[node] == null) {
+			return false;
+		}
+		if (buckets[node] == FIRING) {
+			tasks[node] = null;
+		} else {
+			unlink(node);
+			release(node);
+		}
+		size--;
+		return true;
+	}
+
+	/**
+	 * Advances the wheel by one tick, cascading the slots of the higher levels that are due and then running every
+	 * task in the current slot. A repeating task is scheduled again after it runs unless it cancelled itself.
+	 */
+	public void pulse() {
+		long now = ++tick;
+
+		int level = 1;
+		while (level < LEVELS && (now & (1L << SLOT_BITS * level) - 1) == 0) {
+			level++;
+		}
+		for (int cascade = level - 1; cascade >= 1; cascade--) {
+			int bucket = cascade * SLOTS + ((int) (now >>> SLOT_BITS * cascade) & SLOTS - 1);
+			int node = heads[bucket];
+			heads[bucket] = NONE;
+			while (node != NONE) {
+				int following = next[node];
+				insert(node);
+				node = following;
+			}
+		}
+
+		int bucket = (int) now & SLOTS - 1;
+		int first = heads[bucket];
+		heads[bucket] = NONE;
+		for (int node = first; node != NONE; node = next[node]) {
+			buckets[node] = FIRING;
+		}
+
+		int node = first;
+		while (node != NONE) {
+			int following = next[node];
+			Runnable task = tasks[node];
+			if (task == null) {
+				release(node);
+			} else if (deadlines[node] != now) {
+				insert(node);
+			} else {
+				run(task);
+				if (tasks[node] != null && periods[node] > 0) {
+					deadlines[node] = now + periods[node];
+					insert(node);
+				} else {
+					if (tasks[node] != null) {
+						size--;
+					}
+					release(node);
+				}
+			}
+			node = following;
+		}
+	}
+
+	/**
+	 * Gets the current tick.
+	 *
+	 * @return The tick.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets the amount of scheduled tasks.
+	 *
+	 * @return The amount of tasks.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Runs a task, logging anything it throws so one task cannot stop the rest of the batch.
+	 *
+	 * @param task The task.
+	 */
+	private static void run(Runnable task) {
+		try {
+			task.run();
+		} catch (Throwable t) {
+			logger.log(Level.SEVERE, "Error while running scheduled task " + task + ".", t);
+		}
+	}
+
+	/**
+	 * Places a node in the bucket of its deadline.
+	 *
+	 * @param node The node.
+	 */
+	private void insert(int node) {
+		long deadline = deadlines[node];
+		long delta = deadline - tick;
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << SLOT_BITS * (level + 1)) {
+			level++;
+		}
+		int bucket = level * SLOTS + ((int) (deadline >>> SLOT_BITS * level) & SLOTS - 1);
+
+		int head = heads[bucket];
+		next[node] = head;
+		previous[node] = NONE;
+		if (head != NONE) {
+			previous[head] = node;
+		}
+		heads[bucket] = node;
+		buckets[node] = bucket;
+	}
+
+	/**
+	 * Removes a node from its bucket.
+	 *
+	 * @param node The node.
+	 */
+	private void unlink(int node) {
+		int before = previous[node], after = next[node];
+		if (before == NONE) {
+			heads[buckets[node]] = after;
+		} else {
+			next[before] = after;
+		}
+		if (after != NONE) {
+			previous[after] = before;
+		}
+	}
+
+	/**
+	 * Returns a node to the pool, invalidating its handle.
+	 *
+	 * @param node The node.
+	 */
+	private void release(int node) {
+		tasks[node] = null;
+		generations[node]++;
+		buckets[node] = NONE;
+		next[node] = free;
+		free = node;
+	}
+
+	/**
+	 * Grows the pool, adding the new nodes to the free list.
+	 *
+	 * @param capacity The new capacity.
+	 */
+	private void grow(int capacity) {
+		int old = tasks.length;
+		tasks = Arrays.copyOf(tasks, capacity);
+		deadlines = Arrays.copyOf(deadlines, capacity);
+		periods = Arrays.copyOf(periods, capacity);
+		next = Arrays.copyOf(next, capacity);
+		previous = Arrays.copyOf(previous, capacity);
+		buckets = Arrays.copyOf(buckets, capacity);
+		generations = Arrays.copyOf(generations, capacity);
+		for (int node = capacity - 1; node >= old; node--) {
+			buckets[node] = NONE;
+			next[node] = free;
+			free = node;
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+package core.game.model;
+
+/**
+ * An animation played by an entity.
+ *
+ * @author 7Winds
+ */
+public final class Animation {
+
+	/**
+	 * The animation id.
+	 */
+	private final int id;
+
+	/**
+	 * The delay before the animation starts, in client cycles.
+	 */
+	private final int delay;
+
+	/**
+	 * Creates the animation.
+	 *
+	 * @param id The animation id.
+	 * @param delay The delay before the animation starts, in client cycles.
+	 */
+	public Animation(int id, int delay) {
+		this.id = id;
+		this.delay = delay;
+	}
+
+	/**
+	 * Gets the animation id.
+	 *
+	 * @return The id.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the delay before the animation starts.
+	 *
+	 * @return The delay, in client cycles.
+	 */
+	public int getDelay() {
+		return delay;
+	}
+
+}
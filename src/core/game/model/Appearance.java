@@ -0,0 +1,83 @@
+package core.game.model;
+
+/**
+ * The appearance of a player.
+ *
+ * @author 7Winds
+ */
+public final class Appearance {
+
+	/**
+	 * The amount of body styles.
+	 */
+	public static final int STYLES = 7;
+
+	/**
+	 * The amount of colours.
+	 */
+	public static final int COLORS = 5;
+
+	/**
+	 * The default appearance of a new player.
+	 */
+	public static final Appearance DEFAULT = new Appearance(0, new int[] { 0, 10, 18, 26, 33, 36, 42 },
+			new int[] { 7, 8, 9, 5, 0 });
+
+	/**
+	 * The gender, {@code 0} for male and {@code 1} for female.
+	 */
+	private final int gender;
+
+	/**
+	 * The body styles: head, beard, chest, arms, hands, legs and feet.
+	 */
+	private final int[] styles;
+
+	/**
+	 * The colours: hair, torso, legs, feet and skin.
+	 */
+	private final int[] colors;
+
+	/**
+	 * Creates the appearance.
+	 *
+	 * @param gender The gender, {@code 0} for male and {@code 1} for female.
+	 * @param styles The body styles: head, beard, chest, arms, hands, legs and feet.
+	 * @param colors The colours: hair, torso, legs, feet and skin.
+	 */
+	public Appearance(int gender, int[] styles, int[] colors) {
+		this.gender = gender;
+		this.styles = styles.clone();
+		this.colors = colors.clone();
+	}
+
+	/**
+	 * Gets the gender.
+	 *
+	 * @return {@code 0} for male and {@code 1} for female.
+	 */
+	public int getGender() {
+		return gender;
+	}
+
+	/**
+	 * Gets a body style.
+	 *
+	 * @param index The index: head, beard, chest, arms, hands, legs and feet.
+	 * @return The style.
+	 */
+	public int getStyle(int index) {
+		return styles[index];
+	}
+
+	/**
+	 * Gets a colour.
+	 *
+	 * @param index The index: hair, torso, legs, feet and skin.
+	 * @return The colour.
+	 */
+	public int getColor(int index) {
+		return colors[index];
+	}
+
+}
@@ -0,0 +1,65 @@
+package core.game.model;
+
+/**
+ * A public chat message sent by a player, with its text still packed as the client sent it.
+ *
+ * @author 7Winds
+ */
+public final class ChatText {
+
+	/**
+	 * The text effects.
+	 */
+	private final int effects;
+
+	/**
+	 * The text colour.
+	 */
+	private final int color;
+
+	/**
+	 * The packed text.
+	 */
+	private final byte[] text;
+
+	/**
+	 * Creates the chat text.
+	 *
+	 * @param effects The text effects.
+	 * @param color The text colour.
+	 * @param text The packed text.
+	 */
+	public ChatText(int effects, int color, byte[] text) {
+		this.effects = effects;
+		this.color = color;
+		this.text = text;
+	}
+
+	/**
+	 * Gets the text effects.
+	 *
+	 * @return The effects.
+	 */
+	public int getEffects() {
+		return effects;
+	}
+
+	/**
+	 * Gets the text colour.
+	 *
+	 * @return The colour.
+	 */
+	public int getColor() {
+		return color;
+	}
+
+	/**
+	 * Gets the packed text.
+	 *
+	 * @return The text.
+	 */
+	public byte[] getText() {
+		return text;
+	}
+
+}
@@ -0,0 +1,146 @@
+package core.game.model;
+
+/**
+ * The directions an entity can move in, with the values the client expects for each.
+ *
+ * @author 7Winds
+ */
+public enum Direction {
+
+	/**
+	 * No movement.
+	 */
+	NONE(-1, 0, 0),
+
+	/**
+	 * North west.
+	 */
+	NORTH_WEST(0, -1, 1),
+
+	/**
+	 * North.
+	 */
+	NORTH(1, 0, 1),
+
+	/**
+	 * North east.
+	 */
+	NORTH_EAST(2, 1, 1),
+
+	/**
+	 * West.
+	 */
+	WEST(3, -1, 0),
+
+	/**
+	 * East.
+	 */
+	EAST(4, 1, 0),
+
+	/**
+	 * South west.
+	 */
+	SOUTH_WEST(5, -1, -1),
+
+	/**
+	 * South.
+	 */
+	SOUTH(6, 0, -1),
+
+	/**
+	 * South east.
+	 */
+	SOUTH_EAST(7, 1, -1);
+
+	/**
+	 * The directions by the index of their deltas, as computed by {@link #deltaIndex}.
+	 */
+	private static final Direction[] BY_DELTAS = new Direction[9];
+
+	static {
+		for (Direction direction : values()) {
+			BY_DELTAS[deltaIndex(direction.deltaX, direction.deltaY)] = direction;
+		}
+	}
+
+	/**
+	 * Gets the direction of a single step.
+	 *
+	 * @param deltaX The x coordinate delta, between {@code -1} and {@code 1} inclusive.
+	 * @param deltaY The y coordinate delta, between {@code -1} and {@code 1} inclusive.
+	 * @return The direction.
+	 */
+	public static Direction fromDeltas(int deltaX, int deltaY) {
+		if (deltaX < -1 || deltaX > 1 || deltaY < -1 || deltaY > 1) {
+			throw new IllegalArgumentException("Step out of range - received " + deltaX + ", " + deltaY + ".");
+		}
+		return BY_DELTAS[deltaIndex(deltaX, deltaY)];
+	}
+
+	/**
+	 * Gets the index of a single step's deltas in a 3 by 3 table.
+	 *
+	 * @param deltaX The x coordinate delta, between {@code -1} and {@code 1} inclusive.
+	 * @param deltaY The y coordinate delta, between {@code -1} and {@code 1} inclusive.
+	 * @return The index.
+	 */
+	private static int deltaIndex(int deltaX, int deltaY) {
+		return (deltaX + 1) * 3 + deltaY + 1;
+	}
+
+	/**
+	 * The value the client expects for this direction.
+	 */
+	private final int value;
+
+	/**
+	 * The x coordinate delta.
+	 */
+	private final int deltaX;
+
+	/**
+	 * The y coordinate delta.
+	 */
+	private final int deltaY;
+
+	/**
+	 * Creates the direction.
+	 *
+	 * @param value The value the client expects for this direction.
+	 * @param deltaX The x coordinate delta.
+	 * @param deltaY The y coordinate delta.
+	 */
+	private Direction(int value, int deltaX, int deltaY) {
+		this.value = value;
+		this.deltaX = deltaX;
+		this.deltaY = deltaY;
+	}
+
+	/**
+	 * Gets the value the client expects for this direction.
+	 *
+	 * @return The value.
+	 */
+	public int toInteger() {
+		return value;
+	}
+
+	/**
+	 * Gets the x coordinate delta.
+	 *
+	 * @return The delta.
+	 */
+	public int getDeltaX() {
+		return deltaX;
+	}
+
+	/**
+	 * Gets the y coordinate delta.
+	 *
+	 * @return The delta.
+	 */
+	public int getDeltaY() {
+		return deltaY;
+	}
+
+}
@@ -0,0 +1,175 @@
+package core.game.model;
+
+/**
+ * A mobile entity in the game world.
+ *
+ * @author 7Winds
+ */
+public abstract class Entity {
+
+	/**
+	 * The index of this entity, which the client uses to identify it.
+	 */
+	private int index;
+
+	/**
+	 * The current position.
+	 */
+	private Position position;
+
+	/**
+	 * The direction walked in during the current tick.
+	 */
+	private Direction walkingDirection = Direction.NONE;
+
+	/**
+	 * The direction ran in during the current tick.
+	 */
+	private Direction runningDirection = Direction.NONE;
+
+	/**
+	 * Whether this entity was teleported during the current tick.
+	 */
+	private boolean teleporting = true;
+
+	/**
+	 * Whether this entity is in the world.
+	 */
+	private boolean active;
+
+	/**
+	 * The queue of steps this entity is walking along.
+	 */
+	private final WalkingQueue walkingQueue = new WalkingQueue();
+
+	/**
+	 * Creates the entity.
+	 *
+	 * @param position The initial position.
+	 */
+	protected Entity(Position position) {
+		this.position = position;
+	}
+
+	/**
+	 * Gets the index of this entity.
+	 *
+	 * @return The index.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Sets the index of this entity.
+	 *
+	 * @param index The index.
+	 */
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	/**
+	 * Gets the current position.
+	 *
+	 * @return The position.
+	 */
+	public Position getPosition() {
+		return position;
+	}
+
+	/**
+	 * Sets the current position.
+	 *
+	 * @param position The position.
+	 */
+	public void setPosition(Position position) {
+		this.position = position;
+	}
+
+	/**
+	 * Gets the queue of steps this entity is walking along.
+	 *
+	 * @return The walking queue.
+	 */
+	public WalkingQueue getWalkingQueue() {
+		return walkingQueue;
+	}
+
+	/**
+	 * Moves this entity to {@code position} without walking, discarding any queued steps.
+	 *
+	 * @param position The position.
+	 */
+	public void teleport(Position position) {
+		walkingQueue.clear();
+		this.position = position;
+		this.teleporting = true;
+	}
+
+	/**
+	 * Gets the direction walked in during the current tick.
+	 *
+	 * @return The direction.
+	 */
+	public Direction getWalkingDirection() {
+		return walkingDirection;
+	}
+
+	/**
+	 * Gets the direction ran in during the current tick.
+	 *
+	 * @return The direction.
+	 */
+	public Direction getRunningDirection() {
+		return runningDirection;
+	}
+
+	/**
+	 * Sets the directions moved in during the current tick.
+	 *
+	 * @param walkingDirection The direction walked in.
+	 * @param runningDirection The direction ran in.
+	 */
+	public void setDirections(Direction walkingDirection, Direction runningDirection) {
+		this.walkingDirection = walkingDirection;
+		this.runningDirection = runningDirection;
+	}
+
+	/**
+	 * Checks if this entity was teleported during the current tick.
+	 *
+	 * @return {@code true} if this entity was teleported.
+	 */
+	public boolean isTeleporting() {
+		return teleporting;
+	}
+
+	/**
+	 * Checks if this entity is in the world.
+	 *
+	 * @return {@code true} if this entity is in the world.
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Sets whether this entity is in the world.
+	 *
+	 * @param active The active flag.
+	 */
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+
+	/**
+	 * Resets the movement state of the current tick, once every update has been sent.
+	 */
+	public void resetMovement() {
+		walkingDirection = Direction.NONE;
+		runningDirection = Direction.NONE;
+		teleporting = false;
+	}
+
+}
@@ -0,0 +1,87 @@
+package core.game.model;
+
+/**
+ * An object placed in the game world at runtime, such as a door or a fire.
+ *
+ * @author 7Winds
+ */
+public final class GameObject {
+
+	/**
+	 * The object id.
+	 */
+	private final int id;
+
+	/**
+	 * The type, which determines how the object is attached to its tile.
+	 */
+	private final int type;
+
+	/**
+	 * The orientation, between {@code 0} and {@code 3} inclusive.
+	 */
+	private final int orientation;
+
+	/**
+	 * The position.
+	 */
+	private final Position position;
+
+	/**
+	 * Creates the game object.
+	 *
+	 * @param id The object id.
+	 * @param type The type.
+	 * @param orientation The orientation.
+	 * @param position The position.
+	 */
+	public GameObject(int id, int type, int orientation, Position position) {
+		this.id = id;
+		this.type = type;
+		this.orientation = orientation;
+		this.position = position;
+	}
+
+	/**
+	 * Gets the object id.
+	 *
+	 * @return The object id.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the type.
+	 *
+	 * @return The type.
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the orientation.
+	 *
+	 * @return The orientation.
+	 */
+	public int getOrientation() {
+		return orientation;
+	}
+
+	/**
+	 * Gets the position.
+	 *
+	 * @return The position.
+	 */
+	public Position getPosition() {
+		return position;
+	}
+
+	@Override
+	public String toString() {
+		return "GameObject[id=" + id + ", type=" + type + ", orientation=" + orientation + ", position=" + position
+				+ "]";
+	}
+
+}
@@ -0,0 +1,65 @@
+package core.game.model;
+
+/**
+ * A graphic played on an entity.
+ *
+ * @author 7Winds
+ */
+public final class Graphic {
+
+	/**
+	 * The graphic id.
+	 */
+	private final int id;
+
+	/**
+	 * The height above the ground the graphic is played at.
+	 */
+	private final int height;
+
+	/**
+	 * The delay before the graphic starts, in client cycles.
+	 */
+	private final int delay;
+
+	/**
+	 * Creates the graphic.
+	 *
+	 * @param id The graphic id.
+	 * @param height The height above the ground the graphic is played at.
+	 * @param delay The delay before the graphic starts, in client cycles.
+	 */
+	public Graphic(int id, int height, int delay) {
+		this.id = id;
+		this.height = height;
+		this.delay = delay;
+	}
+
+	/**
+	 * Gets the graphic id.
+	 *
+	 * @return The id.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the height above the ground the graphic is played at.
+	 *
+	 * @return The height.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets the delay before the graphic starts.
+	 *
+	 * @return The delay, in client cycles.
+	 */
+	public int getDelay() {
+		return delay;
+	}
+
+}
@@ -0,0 +1,70 @@
+package core.game.model;
+
+/**
+ * An item lying on the ground.
+ *
+ * @author 7Winds
+ */
+public final class GroundItem {
+
+	/**
+	 * The item id.
+	 */
+	private final int id;
+
+	/**
+	 * The amount of the item.
+	 */
+	private final int amount;
+
+	/**
+	 * The position.
+	 */
+	private final Position position;
+
+	/**
+	 * Creates the ground item.
+	 *
+	 * @param id The item id.
+	 * @param amount The amount of the item.
+	 * @param position The position.
+	 */
+	public GroundItem(int id, int amount, Position position) {
+		this.id = id;
+		this.amount = amount;
+		this.position = position;
+	}
+
+	/**
+	 * Gets the item id.
+	 *
+	 * @return The item id.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the amount of the item.
+	 *
+	 * @return The amount.
+	 */
+	public int getAmount() {
+		return amount;
+	}
+
+	/**
+	 * Gets the position.
+	 *
+	 * @return The position.
+	 */
+	public Position getPosition() {
+		return position;
+	}
+
+	@Override
+	public String toString() {
+		return "GroundItem[id=" + id + ", amount=" + amount + ", position=" + position + "]";
+	}
+
+}
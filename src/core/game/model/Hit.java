@@ -0,0 +1,59 @@
+package core.game.model;
+
+/**
+ * A hit taken by an entity.
+ *
+ * @author 7Winds
+ */
+public final class Hit {
+
+	/**
+	 * The hit type shown when no damage is dealt.
+	 */
+	public static final int TYPE_BLOCK = 0;
+
+	/**
+	 * The hit type shown when damage is dealt.
+	 */
+	public static final int TYPE_NORMAL = 1;
+
+	/**
+	 * The damage dealt.
+	 */
+	private final int damage;
+
+	/**
+	 * The hit type.
+	 */
+	private final int type;
+
+	/**
+	 * Creates the hit.
+	 *
+	 * @param damage The damage dealt.
+	 * @param type The hit type.
+	 */
+	public Hit(int damage, int type) {
+		this.damage = damage;
+		this.type = type;
+	}
+
+	/**
+	 * Gets the damage dealt.
+	 *
+	 * @return The damage.
+	 */
+	public int getDamage() {
+		return damage;
+	}
+
+	/**
+	 * Gets the hit type.
+	 *
+	 * @return The type.
+	 */
+	public int getType() {
+		return type;
+	}
+
+}
@@ -0,0 +1,429 @@
+package core.game.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import core.game.region.ChunkVersions;
+import core.game.update.UpdateBlocks;
+import core.game.util.NameUtils;
+import core.net.PlayerIO;
+
+/**
+ * A player in the game world.
+ *
+ * @author 7Winds
+ */
+public final class Player extends Entity {
+
+	/**
+	 * The maximum amount of players a player can see at once.
+	 */
+	public static final int MAXIMUM_LOCAL_PLAYERS = 255;
+
+	/**
+	 * The network session of this player.
+	 */
+	private final PlayerIO session;
+
+	/**
+	 * The username, encoded as a base 37 {@code long}.
+	 */
+	private final long encodedName;
+
+	/**
+	 * The players this player can currently see, in the order the client knows them.
+	 */
+	private final List<Player> localPlayers = new ArrayList<>();
+
+	/**
+	 * The position the client's map was last loaded around.
+	 */
+	private Position lastKnownRegion;
+
+	/**
+	 * The versions of the ground chunks the client has been sent since its map was last loaded.
+	 */
+	private final ChunkVersions chunkVersions = new ChunkVersions();
+
+	/**
+	 * Whether the client's map was reloaded during the current tick.
+	 */
+	private boolean regionChanged;
+
+	/**
+	 * The masks of the update blocks flagged during the current tick.
+	 */
+	private int updateFlags;
+
+	/**
+	 * The update blocks encoded for every observer during the current tick.
+	 */
+	private UpdateBlocks updateBlocks;
+
+	/**
+	 * The appearance.
+	 */
+	private Appearance appearance = Appearance.DEFAULT;
+
+	/**
+	 * The animation flagged during the current tick.
+	 */
+	private Animation animation;
+
+	/**
+	 * The graphic flagged during the current tick.
+	 */
+	private Graphic graphic;
+
+	/**
+	 * The chat message flagged during the current tick.
+	 */
+	private ChatText chatText;
+
+	/**
+	 * The hit flagged during the current tick.
+	 */
+	private Hit hit;
+
+	/**
+	 * The rights level.
+	 */
+	private int rights;
+
+	/**
+	 * The combat level.
+	 */
+	private int combatLevel = 3;
+
+	/**
+	 * The current hitpoints.
+	 */
+	private int hitpoints = 10;
+
+	/**
+	 * The maximum hitpoints.
+	 */
+	private int maximumHitpoints = 10;
+
+	/**
+	 * Creates the player.
+	 *
+	 * @param session The network session of this player.
+	 * @param position The initial position.
+	 */
+	public Player(PlayerIO session, Position position) {
+		super(position);
+		this.session = session;
+		this.encodedName = NameUtils.encodeBase37(session.getUsername());
+		flag(UpdateFlag.APPEARANCE);
+	}
+
+	/**
+	 * Gets the network session of this player.
+	 *
+	 * @return The session.
+	 */
+	public PlayerIO getSession() {
+		return session;
+	}
+
+	/**
+	 * Gets the username.
+	 *
+	 * @return The username.
+	 */
+	public String getUsername() {
+		return session.getUsername();
+	}
+
+	/**
+	 * Gets the username, encoded as a base 37 {@code long}.
+	 *
+	 * @return The encoded username.
+	 */
+	public long getEncodedName() {
+		return encodedName;
+	}
+
+	/**
+	 * Gets the players this player can currently see.
+	 *
+	 * @return The local players.
+	 */
+	public List<Player> getLocalPlayers() {
+		return localPlayers;
+	}
+
+	/**
+	 * Gets the position the client's map was last loaded around.
+	 *
+	 * @return The position, or {@code null} if no map has been loaded yet.
+	 */
+	public Position getLastKnownRegion() {
+		return lastKnownRegion;
+	}
+
+	/**
+	 * Records that the client's map was loaded around {@code position} during the current tick.
+	 *
+	 * @param position The position.
+	 */
+	public void setLastKnownRegion(Position position) {
+		this.lastKnownRegion = position;
+		this.regionChanged = true;
+		chunkVersions.clear();
+	}
+
+	/**
+	 * Gets the versions of the ground chunks the client has been sent since its map was last loaded, which it clears
+	 * along with its ground items and objects.
+	 *
+	 * @return The chunk versions.
+	 */
+	public ChunkVersions getChunkVersions() {
+		return chunkVersions;
+	}
+
+	/**
+	 * Checks if the client's map must be reloaded because the player has moved too far from where it was loaded.
+	 *
+	 * @return {@code true} if the map must be reloaded.
+	 */
+	public boolean isRegionUpdateRequired() {
+		if (lastKnownRegion == null) {
+			return true;
+		}
+		int x = getPosition().getLocalX(lastKnownRegion);
+		int y = getPosition().getLocalY(lastKnownRegion);
+		return x < 16 || x >= 88 || y < 16 || y >= 88;
+	}
+
+	/**
+	 * Checks if the client's map was reloaded during the current tick.
+	 *
+	 * @return {@code true} if the map was reloaded.
+	 */
+	public boolean isRegionChanged() {
+		return regionChanged;
+	}
+
+	/**
+	 * Flags an update block to be sent.
+	 *
+	 * @param flag The update flag.
+	 */
+	public void flag(UpdateFlag flag) {
+		updateFlags |= flag.getMask();
+	}
+
+	/**
+	 * Checks if an update block is flagged.
+	 *
+	 * @param flag The update flag.
+	 * @return {@code true} if the block is flagged.
+	 */
+	public boolean isFlagged(UpdateFlag flag) {
+		return (updateFlags & flag.getMask()) != 0;
+	}
+
+	/**
+	 * Checks if any update block is flagged.
+	 *
+	 * @return {@code true} if an update block is flagged.
+	 */
+	public boolean isUpdateRequired() {
+		return updateFlags != 0;
+	}
+
+	/**
+	 * Gets the update blocks encoded for every observer during the current tick.
+	 *
+	 * @return The update blocks, or {@code null} if they have not been encoded yet.
+	 */
+	public UpdateBlocks getUpdateBlocks() {
+		return updateBlocks;
+	}
+
+	/**
+	 * Sets the update blocks encoded for every observer during the current tick. They are released by
+	 * {@link #resetUpdateState}.
+	 *
+	 * @param updateBlocks The update blocks.
+	 */
+	public void setUpdateBlocks(UpdateBlocks updateBlocks) {
+		this.updateBlocks = updateBlocks;
+	}
+
+	/**
+	 * Resets the update state of the current tick, once every update has been sent.
+	 */
+	public void resetUpdateState() {
+		if (updateBlocks != null) {
+			updateBlocks.release();
+			updateBlocks = null;
+		}
+		resetMovement();
+		regionChanged = false;
+		updateFlags = 0;
+		animation = null;
+		graphic = null;
+		chatText = null;
+		hit = null;
+	}
+
+	/**
+	 * Gets the appearance.
+	 *
+	 * @return The appearance.
+	 */
+	public Appearance getAppearance() {
+		return appearance;
+	}
+
+	/**
+	 * Sets the appearance and flags it to be sent.
+	 *
+	 * @param appearance The appearance.
+	 */
+	public void setAppearance(Appearance appearance) {
+		this.appearance = appearance;
+		flag(UpdateFlag.APPEARANCE);
+	}
+
+	/**
+	 * Gets the animation flagged during the current tick.
+	 *
+	 * @return The animation.
+	 */
+	public Animation getAnimation() {
+		return animation;
+	}
+
+	/**
+	 * Plays an animation.
+	 *
+	 * @param animation The animation.
+	 */
+	public void playAnimation(Animation animation) {
+		this.animation = animation;
+		flag(UpdateFlag.ANIMATION);
+	}
+
+	/**
+	 * Gets the graphic flagged during the current tick.
+	 *
+	 * @return The graphic.
+	 */
+	public Graphic getGraphic() {
+		return graphic;
+	}
+
+	/**
+	 * Plays a graphic.
+	 *
+	 * @param graphic The graphic.
+	 */
+	public void playGraphic(Graphic graphic) {
+		this.graphic = graphic;
+		flag(UpdateFlag.GRAPHICS);
+	}
+
+	/**
+	 * Gets the chat message flagged during the current tick.
+	 *
+	 * @return The chat message.
+	 */
+	public ChatText getChatText() {
+		return chatText;
+	}
+
+	/**
+	 * Sends a public chat message.
+	 *
+	 * @param chatText The chat message.
+	 */
+	public void chat(ChatText chatText) {
+		this.chatText = chatText;
+		flag(UpdateFlag.CHAT);
+	}
+
+	/**
+	 * Gets the hit flagged during the current tick.
+	 *
+	 * @return The hit.
+	 */
+	public Hit getHit() {
+		return hit;
+	}
+
+	/**
+	 * Deals a hit to this player.
+	 *
+	 * @param hit The hit.
+	 */
+	public void damage(Hit hit) {
+		this.hit = hit;
+		this.hitpoints = Math.max(0, hitpoints - hit.getDamage());
+		flag(UpdateFlag.HIT);
+	}
+
+	/**
+	 * Gets the rights level.
+	 *
+	 * @return The rights level.
+	 */
+	public int getRights() {
+		return rights;
+	}
+
+	/**
+	 * Sets the rights level.
+	 *
+	 * @param rights The rights level.
+	 */
+	public void setRights(int rights) {
+		this.rights = rights;
+	}
+
+	/**
+	 * Gets the combat level.
+	 *
+	 * @return The combat level.
+	 */
+	public int getCombatLevel() {
+		return combatLevel;
+	}
+
+	/**
+	 * Gets the current hitpoints.
+	 *
+	 * @return The hitpoints.
+	 */
+	public int getHitpoints() {
+		return hitpoints;
+	}
+
+	/**
+	 * Sets the current hitpoints.
+	 *
+	 * @param hitpoints The hitpoints.
+	 */
+	public void setHitpoints(int hitpoints) {
+		this.hitpoints = hitpoints;
+	}
+
+	/**
+	 * Gets the maximum hitpoints.
+	 *
+	 * @return The maximum hitpoints.
+	 */
+	public int getMaximumHitpoints() {
+		return maximumHitpoints;
+	}
+
+	@Override
+	public String toString() {
+		return "Player[username=" + getUsername() + ", index=" + getIndex() + "]";
+	}
+
+}
@@ -0,0 +1,190 @@
+package core.game.model;
+
+/**
+ * An immutable position in the game world.
+ *
+ * @author 7Winds
+ */
+public final class Position {
+
+	/**
+	 * The maximum distance at which two positions are considered to be within viewing distance.
+	 */
+	public static final int VIEWING_DISTANCE = 15;
+
+	/**
+	 * The x coordinate.
+	 */
+	private final int x;
+
+	/**
+	 * The y coordinate.
+	 */
+	private final int y;
+
+	/**
+	 * The height level.
+	 */
+	private final int height;
+
+	/**
+	 * Creates a position on the ground level.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 */
+	public Position(int x, int y) {
+		this(x, y, 0);
+	}
+
+	/**
+	 * Creates a position.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @throws IllegalArgumentException If the height level is not between {@code 0} and {@code 3} inclusive.
+	 */
+	public Position(int x, int y, int height) {
+		if (height < 0 || height > 3) {
+			throw new IllegalArgumentException("Height level out of range - received " + height + ".");
+		}
+		this.x = x;
+		this.y = y;
+		this.height = height;
+	}
+
+	/**
+	 * Gets the x coordinate.
+	 *
+	 * @return The x coordinate.
+	 */
+	public int getX() {
+		return x;
+	}
+
+	/**
+	 * Gets the y coordinate.
+	 *
+	 * @return The y coordinate.
+	 */
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * Gets the height level.
+	 *
+	 * @return The height level.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets the x coordinate of the 8x8 chunk this position is in.
+	 *
+	 * @return The chunk x coordinate.
+	 */
+	public int getChunkX() {
+		return x >> 3;
+	}
+
+	/**
+	 * Gets the y coordinate of the 8x8 chunk this position is in.
+	 *
+	 * @return The chunk y coordinate.
+	 */
+	public int getChunkY() {
+		return y >> 3;
+	}
+
+	/**
+	 * Gets the x coordinate of the bottom left chunk of the map loaded by a client centred on this position.
+	 *
+	 * @return The region x coordinate.
+	 */
+	public int getRegionX() {
+		return (x >> 3) - 6;
+	}
+
+	/**
+	 * Gets the y coordinate of the bottom left chunk of the map loaded by a client centred on this position.
+	 *
+	 * @return The region y coordinate.
+	 */
+	public int getRegionY() {
+		return (y >> 3) - 6;
+	}
+
+	/**
+	 * Gets the x coordinate of this position relative to the map loaded by a client centred on {@code base}.
+	 *
+	 * @param base The position the client's map was loaded around.
+	 * @return The local x coordinate.
+	 */
+	public int getLocalX(Position base) {
+		return x - base.getRegionX() * 8;
+	}
+
+	/**
+	 * Gets the y coordinate of this position relative to the map loaded by a client centred on {@code base}.
+	 *
+	 * @param base The position the client's map was loaded around.
+	 * @return The local y coordinate.
+	 */
+	public int getLocalY(Position base) {
+		return y - base.getRegionY() * 8;
+	}
+
+	/**
+	 * Checks if this position is within {@link #VIEWING_DISTANCE} of {@code other} on the same height level.
+	 *
+	 * @param other The other position.
+	 * @return {@code true} if the positions are within viewing distance.
+	 */
+	public boolean isWithinDistance(Position other) {
+		return isWithinDistance(other, VIEWING_DISTANCE);
+	}
+
+	/**
+	 * Checks if this position is within {@code distance} of {@code other} on the same height level.
+	 *
+	 * @param other The other position.
+	 * @param distance The distance.
+	 * @return {@code true} if the positions are within the distance.
+	 */
+	public boolean isWithinDistance(Position other, int distance) {
+		return height == other.height && Math.abs(x - other.x) <= distance && Math.abs(y - other.y) <= distance;
+	}
+
+	/**
+	 * Creates the position one step from this position in {@code direction}.
+	 *
+	 * @param direction The direction.
+	 * @return The new position.
+	 */
+	public Position step(Direction direction) {
+		return new Position(x + direction.getDeltaX(), y + direction.getDeltaY(), height);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof Position) {
+			Position other = (Position) obj;
+			return x == other.x && y == other.y && height == other.height;
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return height << 30 | (x & 0x7FFF) << 15 | y & 0x7FFF;
+	}
+
+	@Override
+	public String toString() {
+		return "Position[x=" + x + ", y=" + y + ", height=" + height + "]";
+	}
+
+}
@@ -0,0 +1,59 @@
+package core.game.model;
+
+/**
+ * The update blocks a player can flag during a tick, with the mask the client expects for each. The declaration order
+ * is the order in which the blocks are written.
+ *
+ * @author 7Winds
+ */
+public enum UpdateFlag {
+
+	/**
+	 * A graphic is being played.
+	 */
+	GRAPHICS(0x100),
+
+	/**
+	 * An animation is being played.
+	 */
+	ANIMATION(0x8),
+
+	/**
+	 * A chat message was sent.
+	 */
+	CHAT(0x80),
+
+	/**
+	 * The appearance changed.
+	 */
+	APPEARANCE(0x10),
+
+	/**
+	 * A hit was taken.
+	 */
+	HIT(0x20);
+
+	/**
+	 * The mask the client expects for this block.
+	 */
+	private final int mask;
+
+	/**
+	 * Creates the update flag.
+	 *
+	 * @param mask The mask the client expects for this block.
+	 */
+	private UpdateFlag(int mask) {
+		this.mask = mask;
+	}
+
+	/**
+	 * Gets the mask the client expects for this block.
+	 *
+	 * @return The mask.
+	 */
+	public int getMask() {
+		return mask;
+	}
+
+}
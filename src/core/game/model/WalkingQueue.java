@@ -0,0 +1,199 @@
+package core.game.model;
+
+/**
+ * The queue of tiles an entity is walking along, stored in primitive arrays, together with the destination of a path
+ * search that is still waiting to be run.
+ *
+ * @author 7Winds
+ */
+public final class WalkingQueue {
+
+	/**
+	 * The maximum amount of queued steps. Steps beyond this are dropped.
+	 */
+	public static final int MAXIMUM_STEPS = 128;
+
+	/**
+	 * The x coordinates of the queued steps.
+	 */
+	private final int[] xs = new int[MAXIMUM_STEPS];
+
+	/**
+	 * The y coordinates of the queued steps.
+	 */
+	private final int[] ys = new int[MAXIMUM_STEPS];
+
+	/**
+	 * The index of the next step.
+	 */
+	private int head;
+
+	/**
+	 * The amount of queued steps.
+	 */
+	private int size;
+
+	/**
+	 * Whether the steps are ran rather than walked.
+	 */
+	private boolean running;
+
+	/**
+	 * Whether a path search is waiting to be run.
+	 */
+	private boolean searchPending;
+
+	/**
+	 * The x coordinate of the destination of the pending path search.
+	 */
+	private int destinationX;
+
+	/**
+	 * The y coordinate of the destination of the pending path search.
+	 */
+	private int destinationY;
+
+	/**
+	 * Removes every queued step.
+	 */
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Queues a step, which must be adjacent to the previous one.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return {@code true} if the step was queued, {@code false} if the queue is full.
+	 */
+	public boolean addStep(int x, int y) {
+		if (size == MAXIMUM_STEPS) {
+			return false;
+		}
+		int index = (head + size++) % MAXIMUM_STEPS;
+		xs[index] = x;
+		ys[index] = y;
+		return true;
+	}
+
+	/**
+	 * Moves an entity along the queue by one step, or two if running, and sets the directions it moved in.
+	 *
+	 * @param entity The entity.
+	 */
+	public void pulse(Entity entity) {
+		Direction walking = step(entity);
+		Direction running = walking != Direction.NONE && this.running ? step(entity) : Direction.NONE;
+		entity.setDirections(walking, running);
+	}
+
+	/**
+	 * Moves an entity to the next queued step.
+	 *
+	 * @param entity The entity.
+	 * @return The direction moved in, or {@link Direction#NONE} if no steps are queued.
+	 */
+	private Direction step(Entity entity) {
+		if (size == 0) {
+			return Direction.NONE;
+		}
+		int x = xs[head], y = ys[head];
+		head = (head + 1) % MAXIMUM_STEPS;
+		size--;
+
+		Position position = entity.getPosition();
+		Direction direction = Direction.fromDeltas(x - position.getX(), y - position.getY());
+		if (direction != Direction.NONE) {
+			entity.setPosition(position.step(direction));
+		}
+		return direction;
+	}
+
+	/**
+	 * Checks if no steps are queued.
+	 *
+	 * @return {@code true} if no steps are queued.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the amount of queued steps.
+	 *
+	 * @return The amount of steps.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the steps are ran rather than walked.
+	 *
+	 * @return {@code true} if running.
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Sets whether the steps are ran rather than walked.
+	 *
+	 * @param running {@code true} to run.
+	 */
+	public void setRunning(boolean running) {
+		this.running = running;
+	}
+
+	/**
+	 * Records the destination of a path search, replacing any search still waiting to be run.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return {@code true} if no search was waiting before.
+	 */
+	public boolean requestPath(int x, int y) {
+		destinationX = x;
+		destinationY = y;
+		boolean queued = searchPending;
+		searchPending = true;
+		return !queued;
+	}
+
+	/**
+	 * Marks the pending path search as run.
+	 */
+	public void completePathRequest() {
+		searchPending = false;
+	}
+
+	/**
+	 * Checks if a path search is waiting to be run.
+	 *
+	 * @return {@code true} if a search is pending.
+	 */
+	public boolean isSearchPending() {
+		return searchPending;
+	}
+
+	/**
+	 * Gets the x coordinate of the destination of the pending path search.
+	 *
+	 * @return The x coordinate.
+	 */
+	public int getDestinationX() {
+		return destinationX;
+	}
+
+	/**
+	 * Gets the y coordinate of the destination of the pending path search.
+	 *
+	 * @return The y coordinate.
+	 */
+	public int getDestinationY() {
+		return destinationY;
+	}
+
+}
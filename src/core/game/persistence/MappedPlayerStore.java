@@ -0,0 +1,288 @@
+package core.game.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import core.game.util.LoggerUtils;
+import core.game.util.NameUtils;
+import core.net.packet.PacketBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * A {@link PlayerStore} which appends every save to a single memory-mapped file and keeps the offset of each player's
+ * latest save in a {@link SaveIndex}. Saving is a sequential write into the mapping and loading is a single read from
+ * it, however many accounts there are.
+ * <p>
+ * Each record is the length of the save, the encoded username, a CRC32 of the save and the save itself in the
+ * {@link PlayerCodec} format. The index is rebuilt by scanning the records when the store is opened, which stops at
+ * the first empty or corrupt record so that a save torn by a crash is discarded. Records replaced by a later save are
+ * dead weight, and once they take up more space than the live ones {@link #flush} compacts the file by copying the live
+ * records into a new file which atomically replaces the old one.
+ *
+ * @author 7Winds
+ */
+public final class MappedPlayerStore implements PlayerStore {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(MappedPlayerStore.class);
+
+	/**
+	 * The value the file starts with.
+	 */
+	private static final int MAGIC = 0x52533253;
+
+	/**
+	 * The size of the file header: the magic value.
+	 */
+	private static final int HEADER_SIZE = 4;
+
+	/**
+	 * The size of a record header: the length, the encoded username and the checksum.
+	 */
+	private static final int RECORD_HEADER_SIZE = 16;
+
+	/**
+	 * The size the file is mapped with at first, and grows by doubling from.
+	 */
+	private static final int INITIAL_SIZE = 1 << 20;
+
+	/**
+	 * The least amount of dead bytes before the file is compacted.
+	 */
+	private static final int COMPACTION_THRESHOLD = 1 << 20;
+
+	/**
+	 * The file.
+	 */
+	private final Path file;
+
+	/**
+	 * The builder saves are encoded into.
+	 */
+	private final PacketBuilder encoded = PacketBuilder.create(PlayerCodec.MAXIMUM_SIZE);
+
+	/**
+	 * The checksum of the records.
+	 */
+	private final CRC32 checksum = new CRC32();
+
+	/**
+	 * The channel of the file.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The mapping of the file.
+	 */
+	private MappedByteBuffer buffer;
+
+	/**
+	 * The offset of each player's latest record.
+	 */
+	private SaveIndex index = new SaveIndex();
+
+	/**
+	 * The offset the next record is appended at.
+	 */
+	private int end = HEADER_SIZE;
+
+	/**
+	 * The amount of bytes taken up by records replaced by a later one.
+	 */
+	private int garbage;
+
+	/**
+	 * Opens the store, creating the file if it does not exist.
+	 *
+	 * @param file The file.
+	 * @throws IOException If the file could not be opened or is not a save file.
+	 */
+	public MappedPlayerStore(Path file) throws IOException {
+		this.file = file;
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long size = channel.size();
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Save file " + file + " is too large to be mapped.");
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, INITIAL_SIZE));
+		if (size == 0) {
+			buffer.putInt(0, MAGIC);
+		} else if (buffer.getInt(0) != MAGIC) {
+			throw new IOException(file + " is not a save file.");
+		}
+		scan();
+	}
+
+	@Override
+	public PlayerSnapshot load(String username) throws IOException {
+		long name = NameUtils.encodeBase37(username);
+		int offset = name == 0 ? -1 : index.get(name);
+		if (offset == -1) {
+			return null;
+		}
+		ByteBuffer record = buffer.duplicate();
+		record.position(offset + RECORD_HEADER_SIZE).limit(offset + RECORD_HEADER_SIZE + buffer.getInt(offset));
+		return PlayerCodec.decode(username, PacketBuilder.create(Unpooled.wrappedBuffer(record)));
+	}
+
+	@Override
+	public void save(PlayerSnapshot snapshot) throws IOException {
+		long name = NameUtils.encodeBase37(snapshot.getUsername());
+		if (name == 0) {
+			throw new IOException("Invalid username " + snapshot.getUsername() + ".");
+		}
+		encoded.clear();
+		PlayerCodec.encode(snapshot, encoded);
+		ByteBuf payload = encoded.buffer();
+		int length = payload.readableBytes();
+		ensureCapacity((long) end + RECORD_HEADER_SIZE + length);
+
+		checksum.reset();
+		checksum.update(payload.array(), payload.arrayOffset() + payload.readerIndex(), length);
+		ByteBuffer record = buffer.duplicate();
+		record.position(end);
+		record.putInt(length).putLong(name).putInt((int) checksum.getValue());
+		record.put(payload.array(), payload.arrayOffset() + payload.readerIndex(), length);
+
+		int previous = index.put(name, end);
+		if (previous != -1) {
+			garbage += RECORD_HEADER_SIZE + buffer.getInt(previous);
+		}
+		end += RECORD_HEADER_SIZE + length;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		buffer.force();
+		if (garbage >= COMPACTION_THRESHOLD && garbage > end - HEADER_SIZE - garbage) {
+			compact();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		buffer.force();
+		channel.close();
+	}
+
+	/**
+	 * Rebuilds the index from the records in the file.
+	 */
+	private void scan() {
+		int offset = HEADER_SIZE;
+		while (offset + RECORD_HEADER_SIZE <= buffer.capacity()) {
+			int length = buffer.getInt(offset);
+			if (length <= 0 || length > buffer.capacity() - offset - RECORD_HEADER_SIZE) {
+				break;
+			}
+			long name = buffer.getLong(offset + 4);
+			if (name == 0 || buffer.getInt(offset + 12) != checksum(buffer, offset + RECORD_HEADER_SIZE, length)) {
+				logger.log(Level.WARNING, "Discarding a torn save at offset " + offset + " of " + file + ".");
+				break;
+			}
+			int previous = index.put(name, offset);
+			if (previous != -1) {
+				garbage += RECORD_HEADER_SIZE + buffer.getInt(previous);
+			}
+			offset += RECORD_HEADER_SIZE + length;
+		}
+		end = offset;
+	}
+
+	/**
+	 * Copies the live records into a new file which then replaces the current one.
+	 *
+	 * @throws IOException If the file could not be compacted.
+	 */
+	private void compact() throws IOException {
+		int live = end - HEADER_SIZE - garbage;
+		Path temporary = file.resolveSibling(file.getFileName() + ".compact");
+		FileChannel compacted = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			MappedByteBuffer target = compacted.map(FileChannel.MapMode.READ_WRITE, 0,
+					Math.max(INITIAL_SIZE, Math.min(Integer.MAX_VALUE, (long) live * 2 + HEADER_SIZE)));
+			SaveIndex moved = new SaveIndex(index.size());
+			target.putInt(0, MAGIC);
+			target.position(HEADER_SIZE);
+			for (int slot = 0; slot < index.slots(); slot++) {
+				long name = index.keyAt(slot);
+				if (name == 0) {
+					continue;
+				}
+				int offset = index.offsetAt(slot);
+				ByteBuffer record = buffer.duplicate();
+				record.position(offset).limit(offset + RECORD_HEADER_SIZE + buffer.getInt(offset));
+				moved.put(name, target.position());
+				target.put(record);
+			}
+			target.force();
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+			channel.close();
+			channel = compacted;
+			buffer = target;
+			index = moved;
+			end = target.position();
+			garbage = 0;
+		} catch (IOException | RuntimeException e) {
+			compacted.close();
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+		logger.log(Level.INFO, "Compacted " + file + " to " + index.size() + " saves in " + end + " bytes.");
+	}
+
+	/**
+	 * Grows the mapping until it can hold a number of bytes.
+	 *
+	 * @param required The amount of bytes.
+	 * @throws IOException If the file would grow beyond the size of a mapping.
+	 */
+	private void ensureCapacity(long required) throws IOException {
+		if (required <= buffer.capacity()) {
+			return;
+		}
+		if (required > Integer.MAX_VALUE) {
+			throw new IOException("Save file " + file + " is full.");
+		}
+		long capacity = buffer.capacity();
+		while (capacity < required) {
+			capacity <<= 1;
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(capacity, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * Computes the checksum of a record's save.
+	 *
+	 * @param source The mapping.
+	 * @param offset The offset of the save.
+	 * @param length The length of the save.
+	 * @return The checksum.
+	 */
+	private int checksum(MappedByteBuffer source, int offset, int length) {
+		ByteBuffer payload = source.duplicate();
+		payload.position(offset).limit(offset + length);
+		checksum.reset();
+		checksum.update(payload);
+		return (int) checksum.getValue();
+	}
+
+}
@@ -0,0 +1,176 @@
+package core.game.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.util.LoggerUtils;
+import core.game.util.NameUtils;
+import core.game.util.SerialExecutor;
+
+/**
+ * Loads and saves players on a blocking executor, so that neither the Netty event loops nor the engine thread ever wait
+ * for a {@link PlayerStore}.
+ * <p>
+ * Saves are write-behind: {@link #save} only records the snapshot as the latest one of its player, and a single drain
+ * task writes every recorded snapshot in one batch followed by one {@link PlayerStore#flush}. A player saved several
+ * times before the drain runs is only written once, with its latest snapshot. The store is only ever used by one task
+ * at a time, through a {@link SerialExecutor}, and loads go through it as well and check
+ * the recorded snapshots first, so a player always loads what it was last saved with, even when that has not been
+ * written yet.
+ *
+ * @author 7Winds
+ */
+public final class PersistenceService {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(PersistenceService.class);
+
+	/**
+	 * The amount of seconds {@link #shutdown} waits for the remaining saves to be written.
+	 */
+	private static final int SHUTDOWN_TIMEOUT = 30;
+
+	/**
+	 * The store the saves are kept in.
+	 */
+	private final PlayerStore store;
+
+	/**
+	 * Runs the tasks using the store one at a time.
+	 */
+	private final Executor executor;
+
+	/**
+	 * The latest snapshot of each player which has not been written yet, keyed by base 37 encoded username.
+	 */
+	private final ConcurrentMap<Long, PlayerSnapshot> pending = new ConcurrentHashMap<>();
+
+	/**
+	 * Whether a drain task has been submitted and has not started yet.
+	 */
+	private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+	/**
+	 * Creates the persistence service.
+	 *
+	 * @param store The store the saves are kept in.
+	 * @param executor The executor blocking work is run on, shared with other services.
+	 */
+	public PersistenceService(PlayerStore store, Executor executor) {
+		this.store = store;
+		this.executor = new SerialExecutor(executor);
+	}
+
+	/**
+	 * Loads the save of a player. This may be called from any thread.
+	 *
+	 * @param username The username.
+	 * @return A future completed with the save, or {@code null} if the player has never been saved.
+	 */
+	public CompletableFuture<PlayerSnapshot> load(String username) {
+		Long key = NameUtils.encodeBase37(username);
+		PlayerSnapshot latest = pending.get(key);
+		if (latest != null) {
+			return CompletableFuture.completedFuture(latest);
+		}
+		return CompletableFuture.supplyAsync(() -> {
+			PlayerSnapshot unwritten = pending.get(key);
+			if (unwritten != null) {
+				return unwritten;
+			}
+			try {
+				return store.load(username);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Records the latest snapshot of a player to be written in the next batch. This may be called from any thread.
+	 *
+	 * @param snapshot The snapshot.
+	 */
+	public void save(PlayerSnapshot snapshot) {
+		pending.put(NameUtils.encodeBase37(snapshot.getUsername()), snapshot);
+		if (drainScheduled.compareAndSet(false, true)) {
+			executor.execute(this::drain);
+		}
+	}
+
+	/**
+	 * Gets the amount of players whose latest snapshot has not been written yet.
+	 *
+	 * @return The amount of players.
+	 */
+	public int getPendingSaves() {
+		return pending.size();
+	}
+
+	/**
+	 * Writes every recorded snapshot, then waits for them to be durable and closes the store. Saves recorded after
+	 * this has been called are lost. The executor given to the constructor must still accept tasks.
+	 */
+	public void shutdown() {
+		try {
+			CompletableFuture.runAsync(this::drain, executor).get(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+		} catch (TimeoutException e) {
+			logger.log(Level.SEVERE, "Timed out with " + pending.size() + " saves left to write.");
+		} catch (ExecutionException e) {
+			logger.log(Level.SEVERE, "Error while writing the remaining saves.", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			store.close();
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, "Error while closing the player store.", e);
+		}
+	}
+
+	/**
+	 * Writes every recorded snapshot in one batch.
+	 */
+	private void drain() {
+		drainScheduled.set(false);
+		List<PlayerSnapshot> batch = new ArrayList<>(pending.size());
+		for (Long key : pending.keySet()) {
+			PlayerSnapshot snapshot = pending.remove(key);
+			if (snapshot != null) {
+				batch.add(snapshot);
+			}
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		for (PlayerSnapshot snapshot : batch) {
+			try {
+				store.save(snapshot);
+			} catch (IOException e) {
+				logger.log(Level.SEVERE, "Error while saving " + snapshot.getUsername() + ".", e);
+				pending.putIfAbsent(NameUtils.encodeBase37(snapshot.getUsername()), snapshot);
+			}
+		}
+		try {
+			store.flush();
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, "Error while flushing the player store.", e);
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package core.game.persistence;
+
+import java.io.IOException;
+
+import core.game.model.Appearance;
+import core.game.model.Position;
+import core.net.packet.PacketBuilder;
+
+/**
+ * Encodes {@link PlayerSnapshot}s in the compact binary save format. Every save starts with the version of the format
+ * it was written in, and a save in any other version than the current one is rejected rather than misread. A change to
+ * the format must bump the version and keep decoding the older one, so that accounts are migrated the next time they
+ * are saved.
+ *
+ * @author 7Winds
+ */
+public final class PlayerCodec {
+
+	/**
+	 * The version saves are written in.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The largest encoded size of a save in the current version.
+	 */
+	public static final int MAXIMUM_SIZE = 10 + Appearance.STYLES * 2 + Appearance.COLORS;
+
+	/**
+	 * The default constructor.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if this class is instantiated.
+	 */
+	private PlayerCodec() {
+		throw new UnsupportedOperationException("This class cannot be instantiated!");
+	}
+
+	/**
+	 * Encodes a save.
+	 *
+	 * @param snapshot The save.
+	 * @param out The builder the save is written to.
+	 */
+	public static void encode(PlayerSnapshot snapshot, PacketBuilder out) {
+		Position position = snapshot.getPosition();
+		Appearance appearance = snapshot.getAppearance();
+		out.put(VERSION);
+		out.putShort(position.getX());
+		out.putShort(position.getY());
+		out.put(position.getHeight());
+		out.put(snapshot.getRights());
+		out.putShort(snapshot.getHitpoints());
+		out.put(appearance.getGender());
+		for (int i = 0; i < Appearance.STYLES; i++) {
+			out.putShort(appearance.getStyle(i));
+		}
+		for (int i = 0; i < Appearance.COLORS; i++) {
+			out.put(appearance.getColor(i));
+		}
+	}
+
+	/**
+	 * Decodes a save.
+	 *
+	 * @param username The username of the player.
+	 * @param in The builder the save is read from.
+	 * @return The save.
+	 * @throws IOException If the save was not written in the current version.
+	 */
+	public static PlayerSnapshot decode(String username, PacketBuilder in) throws IOException {
+		int version = in.get(false);
+		if (version != VERSION) {
+			throw new IOException("Unsupported save version " + version + " for " + username + ".");
+		}
+		Position position = new Position(in.getShort(false), in.getShort(false), in.get(false));
+		int rights = in.get(false);
+		int hitpoints = in.getShort(false);
+		int gender = in.get(false);
+		int[] styles = new int[Appearance.STYLES];
+		for (int i = 0; i < styles.length; i++) {
+			styles[i] = in.getShort(false);
+		}
+		int[] colors = new int[Appearance.COLORS];
+		for (int i = 0; i < colors.length; i++) {
+			colors[i] = in.get(false);
+		}
+		return new PlayerSnapshot(username, position, new Appearance(gender, styles, colors), rights, hitpoints);
+	}
+
+}
@@ -0,0 +1,129 @@
+package core.game.persistence;
+
+import core.game.model.Appearance;
+import core.game.model.Player;
+import core.game.model.Position;
+
+/**
+ * The saved state of a player. A snapshot only holds immutable values, so taking one on the engine thread is cheap and
+ * it can be serialized on any thread while the player keeps changing.
+ *
+ * @author 7Winds
+ */
+public final class PlayerSnapshot {
+
+	/**
+	 * The username.
+	 */
+	private final String username;
+
+	/**
+	 * The position.
+	 */
+	private final Position position;
+
+	/**
+	 * The appearance.
+	 */
+	private final Appearance appearance;
+
+	/**
+	 * The rights level.
+	 */
+	private final int rights;
+
+	/**
+	 * The current hitpoints.
+	 */
+	private final int hitpoints;
+
+	/**
+	 * Creates the snapshot.
+	 *
+	 * @param username The username.
+	 * @param position The position.
+	 * @param appearance The appearance.
+	 * @param rights The rights level.
+	 * @param hitpoints The current hitpoints.
+	 */
+	public PlayerSnapshot(String username, Position position, Appearance appearance, int rights, int hitpoints) {
+		this.username = username;
+		this.position = position;
+		this.appearance = appearance;
+		this.rights = rights;
+		this.hitpoints = hitpoints;
+	}
+
+	/**
+	 * Takes a snapshot of a player. This must be called from the engine thread.
+	 *
+	 * @param player The player.
+	 * @return The snapshot.
+	 */
+	public static PlayerSnapshot of(Player player) {
+		return new PlayerSnapshot(player.getUsername(), player.getPosition(), player.getAppearance(),
+				player.getRights(), player.getHitpoints());
+	}
+
+	/**
+	 * Restores the state held by this snapshot, apart from the position which is given to the player when created.
+	 *
+	 * @param player The player.
+	 */
+	public void apply(Player player) {
+		player.setAppearance(appearance);
+		player.setRights(rights);
+		player.setHitpoints(hitpoints);
+	}
+
+	/**
+	 * Gets the username.
+	 *
+	 * @return The username.
+	 */
+	public String getUsername() {
+		return username;
+	}
+
+	/**
+	 * Gets the position.
+	 *
+	 * @return The position.
+	 */
+	public Position getPosition() {
+		return position;
+	}
+
+	/**
+	 * Gets the appearance.
+	 *
+	 * @return The appearance.
+	 */
+	public Appearance getAppearance() {
+		return appearance;
+	}
+
+	/**
+	 * Gets the rights level.
+	 *
+	 * @return The rights level.
+	 */
+	public int getRights() {
+		return rights;
+	}
+
+	/**
+	 * Gets the current hitpoints.
+	 *
+	 * @return The hitpoints.
+	 */
+	public int getHitpoints() {
+		return hitpoints;
+	}
+
+	@Override
+	public String toString() {
+		return "PlayerSnapshot[username=" + username + ", position=" + position + "]";
+	}
+
+}
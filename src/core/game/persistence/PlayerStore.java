@@ -0,0 +1,38 @@
+package core.game.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Where player saves are kept. A store is only ever used from the thread of the {@link PersistenceService} which owns
+ * it, so implementations may block and need not be thread safe.
+ *
+ * @author 7Winds
+ */
+public interface PlayerStore extends Closeable {
+
+	/**
+	 * Loads the save of a player.
+	 *
+	 * @param username The username.
+	 * @return The save, or {@code null} if the player has never been saved.
+	 * @throws IOException If the save could not be read.
+	 */
+	PlayerSnapshot load(String username) throws IOException;
+
+	/**
+	 * Writes the save of a player, replacing any earlier one.
+	 *
+	 * @param snapshot The save.
+	 * @throws IOException If the save could not be written.
+	 */
+	void save(PlayerSnapshot snapshot) throws IOException;
+
+	/**
+	 * Makes every save written so far durable, once a batch of saves has been written.
+	 *
+	 * @throws IOException If the saves could not be made durable.
+	 */
+	void flush() throws IOException;
+
+}
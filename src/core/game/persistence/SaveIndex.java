@@ -0,0 +1,162 @@
+package core.game.persistence;
+
+/**
+ * The offset of each player's latest save in a {@link MappedPlayerStore}, in a primitive open addressing table keyed by
+ * base 37 encoded username. A username never encodes to {@code 0}, which marks an empty slot.
+ *
+ * @author 7Winds
+ */
+final class SaveIndex {
+
+	/**
+	 * The initial amount of slots.
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * The keys.
+	 */
+	private long[] keys;
+
+	/**
+	 * The offsets.
+	 */
+	private int[] offsets;
+
+	/**
+	 * The amount of entries.
+	 */
+	private int size;
+
+	/**
+	 * Creates an empty index.
+	 */
+	SaveIndex() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty index.
+	 *
+	 * @param expected The amount of entries to make room for.
+	 */
+	SaveIndex(int expected) {
+		int capacity = INITIAL_CAPACITY;
+		while (capacity * 3 < expected * 4) {
+			capacity <<= 1;
+		}
+		keys = new long[capacity];
+		offsets = new int[capacity];
+	}
+
+	/**
+	 * Gets the offset of a player's save.
+	 *
+	 * @param key The encoded username.
+	 * @return The offset, or {@code -1} if the player has no save.
+	 */
+	int get(long key) {
+		int mask = keys.length - 1;
+		for (int slot = mix(key) & mask; keys[slot] != 0; slot = slot + 1 & mask) {
+			if (keys[slot] == key) {
+				return offsets[slot];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Sets the offset of a player's save.
+	 *
+	 * @param key The encoded username.
+	 * @param offset The offset.
+	 * @return The previous offset, or {@code -1} if the player had no save.
+	 */
+	int put(long key, int offset) {
+		if ((size + 1) * 4 > keys.length * 3) {
+			rehash(keys.length * 2);
+		}
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (keys[slot] != 0) {
+			if (keys[slot] == key) {
+				int previous = offsets[slot];
+				offsets[slot] = offset;
+				return previous;
+			}
+			slot = slot + 1 & mask;
+		}
+		keys[slot] = key;
+		offsets[slot] = offset;
+		size++;
+		return -1;
+	}
+
+	/**
+	 * Gets the amount of slots, for iterating with {@link #keyAt} and {@link #offsetAt}.
+	 *
+	 * @return The amount of slots.
+	 */
+	int slots() {
+		return keys.length;
+	}
+
+	/**
+	 * Gets the key in a slot.
+	 *
+	 * @param slot The slot.
+	 * @return The encoded username, or {@code 0} if the slot is empty.
+	 */
+	long keyAt(int slot) {
+		return keys[slot];
+	}
+
+	/**
+	 * Gets the offset in a slot.
+	 *
+	 * @param slot The slot.
+	 * @return The offset.
+	 */
+	int offsetAt(int slot) {
+		return offsets[slot];
+	}
+
+	/**
+	 * Gets the amount of players with a save.
+	 *
+	 * @return The amount of entries.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Resizes the table.
+	 *
+	 * @param capacity The new capacity, a power of two.
+	 */
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldOffsets = offsets;
+		keys = new long[capacity];
+		offsets = new int[capacity];
+		size = 0;
+		for (int slot = 0; slot < oldKeys.length; slot++) {
+			if (oldKeys[slot] != 0) {
+				put(oldKeys[slot], oldOffsets[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of a key.
+	 *
+	 * @param key The key.
+	 * @return The hash.
+	 */
+	private static int mix(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ hash >>> 32);
+	}
+
+}
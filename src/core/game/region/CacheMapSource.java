@@ -0,0 +1,76 @@
+package core.game.region;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPInputStream;
+
+import core.game.cache.FileDescriptor;
+import core.game.cache.IndexedFileSystem;
+
+/**
+ * A {@link MapSource} which reads the gzip compressed map files from the map index of the cache.
+ *
+ * @author 7Winds
+ */
+public final class CacheMapSource implements MapSource {
+
+	/**
+	 * The type of the map files in the cache.
+	 */
+	private static final int MAP_TYPE = 4;
+
+	/**
+	 * The cache.
+	 */
+	private final IndexedFileSystem fs;
+
+	/**
+	 * The map index.
+	 */
+	private final MapIndex index;
+
+	/**
+	 * Creates the map source.
+	 *
+	 * @param fs The cache.
+	 * @param index The map index.
+	 */
+	public CacheMapSource(IndexedFileSystem fs, MapIndex index) {
+		this.fs = fs;
+		this.index = index;
+	}
+
+	@Override
+	public byte[] getTerrain(int region) throws IOException {
+		int file = index.getTerrainFile(region);
+		if (file == -1) {
+			return null;
+		}
+		return decompress(fs.getFile(new FileDescriptor(MAP_TYPE, file)));
+	}
+
+	/**
+	 * Decompresses a gzip compressed file.
+	 *
+	 * @param buffer The compressed file.
+	 * @return The decompressed file.
+	 * @throws IOException If the file is not valid gzip data.
+	 */
+	private static byte[] decompress(ByteBuffer buffer) throws IOException {
+		byte[] compressed = new byte[buffer.remaining()];
+		buffer.get(compressed);
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+			byte[] chunk = new byte[4096];
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				out.write(chunk, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+
+}
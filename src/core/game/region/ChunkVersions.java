@@ -0,0 +1,134 @@
+package core.game.region;
+
+import java.util.Arrays;
+
+/**
+ * The version of each {@link GroundChunk} an observer's client has been sent, in a primitive open addressing table
+ * keyed by chunk and height level. Chunks that are not in the table have not been sent at all.
+ *
+ * @author 7Winds
+ */
+public final class ChunkVersions {
+
+	/**
+	 * The key of an empty entry.
+	 */
+	private static final int EMPTY = -1;
+
+	/**
+	 * The initial capacity, enough for the 13 by 13 chunks around the client on every height level.
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * The keys.
+	 */
+	private int[] keys = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The versions.
+	 */
+	private int[] versions = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The amount of entries.
+	 */
+	private int size;
+
+	/**
+	 * Creates an empty table.
+	 */
+	public ChunkVersions() {
+		Arrays.fill(keys, EMPTY);
+	}
+
+	/**
+	 * Gets the key of a chunk.
+	 *
+	 * @param chunkX The chunk x coordinate.
+	 * @param chunkY The chunk y coordinate.
+	 * @param height The height level.
+	 * @return The key.
+	 */
+	public static int key(int chunkX, int chunkY, int height) {
+		return height << 28 | chunkX << 14 | chunkY;
+	}
+
+	/**
+	 * Gets the version sent of a chunk.
+	 *
+	 * @param key The key of the chunk.
+	 * @return The version, or {@code 0} if the chunk has not been sent.
+	 */
+	public int get(int key) {
+		int mask = keys.length - 1;
+		for (int index = mix(key) & mask; keys[index] != EMPTY; index = index + 1 & mask) {
+			if (keys[index] == key) {
+				return versions[index];
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Records the version sent of a chunk.
+	 *
+	 * @param key The key of the chunk.
+	 * @param version The version.
+	 */
+	public void put(int key, int version) {
+		if ((size + 1) * 4 > keys.length * 3) {
+			rehash(keys.length * 2);
+		}
+		int mask = keys.length - 1;
+		int index = mix(key) & mask;
+		while (keys[index] != EMPTY && keys[index] != key) {
+			index = index + 1 & mask;
+		}
+		if (keys[index] == EMPTY) {
+			keys[index] = key;
+			size++;
+		}
+		versions[index] = version;
+	}
+
+	/**
+	 * Forgets every chunk, once the client has cleared its own copy by loading a new map.
+	 */
+	public void clear() {
+		if (size != 0) {
+			Arrays.fill(keys, EMPTY);
+			size = 0;
+		}
+	}
+
+	/**
+	 * Resizes the table.
+	 *
+	 * @param capacity The new capacity, a power of two.
+	 */
+	private void rehash(int capacity) {
+		int[] oldKeys = keys, oldVersions = versions;
+		keys = new int[capacity];
+		versions = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				put(oldKeys[i], oldVersions[i]);
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of a key.
+	 *
+	 * @param key The key.
+	 * @return The hash.
+	 */
+	private static int mix(int key) {
+		int hash = key * 0x9E3779B9;
+		return hash ^ hash >>> 16;
+	}
+
+}
@@ -0,0 +1,226 @@
+package core.game.region;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.util.LoggerUtils;
+
+/**
+ * Holds the {@link CollisionMap} of every region in use. A region is decoded from its terrain file the first time its
+ * flags are needed, and evicted again once it has not been accessed for a number of ticks, so only the active part of
+ * the map is held in memory. Flags may be read from any thread; {@link #pulse} must only be called from the engine
+ * thread.
+ *
+ * @author 7Winds
+ */
+public final class CollisionManager {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(CollisionManager.class);
+
+	/**
+	 * The amount of ticks between each scan for idle regions.
+	 */
+	private static final int EVICTION_INTERVAL = 100;
+
+	/**
+	 * The flag of a tile in the terrain file which cannot be walked on.
+	 */
+	private static final int TERRAIN_BLOCKED = 0x1;
+
+	/**
+	 * The flag of a tile in the terrain file under a bridge, whose collision is moved down a height level.
+	 */
+	private static final int TERRAIN_BRIDGE = 0x2;
+
+	/**
+	 * The source of the map files.
+	 */
+	private final MapSource source;
+
+	/**
+	 * The amount of ticks a region may go without being accessed before it is evicted.
+	 */
+	private final int idleTicks;
+
+	/**
+	 * The loaded regions by region id.
+	 */
+	private final AtomicReferenceArray<CollisionMap> regions = new AtomicReferenceArray<>(1 << 16);
+
+	/**
+	 * The lock held while a region is being decoded.
+	 */
+	private final Object loadLock = new Object();
+
+	/**
+	 * The current tick.
+	 */
+	private volatile long tick;
+
+	/**
+	 * The amount of loaded regions.
+	 */
+	private volatile int loaded;
+
+	/**
+	 * Creates the collision manager.
+	 *
+	 * @param source The source of the map files.
+	 * @param idleTicks The amount of ticks a region may go without being accessed before it is evicted.
+	 */
+	public CollisionManager(MapSource source, int idleTicks) {
+		this.source = source;
+		this.idleTicks = idleTicks;
+	}
+
+	/**
+	 * Gets the flags of a tile, loading its region if needed.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @return The flags.
+	 */
+	public int getFlags(int x, int y, int height) {
+		return get(CollisionMap.regionId(x, y)).get(x, y, height);
+	}
+
+	/**
+	 * Gets the collision map of a region, loading it if needed, and marks it as accessed.
+	 *
+	 * @param id The region id.
+	 * @return The collision map.
+	 */
+	public CollisionMap get(int id) {
+		CollisionMap map = regions.get(id);
+		if (map == null) {
+			map = load(id);
+		}
+		map.setLastAccessed(tick);
+		return map;
+	}
+
+	/**
+	 * Advances the tick, periodically evicting regions which have been idle for too long. Regions whose flags have
+	 * been changed at runtime are kept, as they cannot be decoded again.
+	 */
+	public void pulse() {
+		long now = ++tick;
+		if (now % EVICTION_INTERVAL != 0) {
+			return;
+		}
+		synchronized (loadLock) {
+			int evicted = 0;
+			for (int id = 0; id < regions.length(); id++) {
+				CollisionMap map = regions.get(id);
+				if (map != null && !map.isModified() && now - map.getLastAccessed() > idleTicks) {
+					regions.set(id, null);
+					evicted++;
+				}
+			}
+			loaded -= evicted;
+		}
+	}
+
+	/**
+	 * Gets the amount of loaded regions.
+	 *
+	 * @return The amount of regions.
+	 */
+	public int getLoadedRegions() {
+		return loaded;
+	}
+
+	/**
+	 * Decodes a region, unless another thread has already done so.
+	 *
+	 * @param id The region id.
+	 * @return The collision map.
+	 */
+	private CollisionMap load(int id) {
+		synchronized (loadLock) {
+			CollisionMap map = regions.get(id);
+			if (map != null) {
+				return map;
+			}
+			map = new CollisionMap(id);
+			try {
+				byte[] terrain = source.getTerrain(id);
+				if (terrain != null) {
+					decodeTerrain(map, ByteBuffer.wrap(terrain));
+				}
+			} catch (IOException | RuntimeException e) {
+				logger.log(Level.WARNING, "Failed to decode the terrain of region " + id + ".", e);
+			}
+			map.setLastAccessed(tick);
+			regions.set(id, map);
+			loaded++;
+			return map;
+		}
+	}
+
+	/**
+	 * Decodes the blocked tiles of a terrain file into a collision map.
+	 *
+	 * @param map The collision map.
+	 * @param buffer The terrain file.
+	 */
+	private static void decodeTerrain(CollisionMap map, ByteBuffer buffer) {
+		int size = CollisionMap.SIZE;
+		byte[] settings = new byte[CollisionMap.HEIGHT_LEVELS * size * size];
+		for (int height = 0; height < CollisionMap.HEIGHT_LEVELS; height++) {
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					settings[(height * size + x) * size + y] = decodeTile(buffer);
+				}
+			}
+		}
+
+		for (int height = 0; height < CollisionMap.HEIGHT_LEVELS; height++) {
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					if ((settings[(height * size + x) * size + y] & TERRAIN_BLOCKED) == 0) {
+						continue;
+					}
+					int level = height;
+					if ((settings[(size + x) * size + y] & TERRAIN_BRIDGE) != 0) {
+						level--;
+					}
+					if (level >= 0) {
+						map.decodeFlag(x, y, level, CollisionMap.BLOCKED);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Decodes the attributes of a single tile, keeping only its settings.
+	 *
+	 * @param buffer The terrain file.
+	 * @return The settings of the tile.
+	 */
+	private static byte decodeTile(ByteBuffer buffer) {
+		byte settings = 0;
+		while (true) {
+			int opcode = buffer.get() & 0xFF;
+			if (opcode == 0) {
+				return settings;
+			} else if (opcode == 1) {
+				buffer.get(); // height
+				return settings;
+			} else if (opcode <= 49) {
+				buffer.get(); // overlay
+			} else if (opcode <= 81) {
+				settings = (byte) (opcode - 49);
+			}
+		}
+	}
+
+}
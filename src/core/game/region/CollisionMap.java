@@ -0,0 +1,210 @@
+package core.game.region;
+
+/**
+ * The collision flags of every tile in a 64 by 64 tile region, across all height levels, packed into a single
+ * primitive array.
+ *
+ * @author 7Winds
+ */
+public final class CollisionMap {
+
+	/**
+	 * The flag of a wall on the north-west corner of a tile.
+	 */
+	public static final int WALL_NORTH_WEST = 0x1;
+
+	/**
+	 * The flag of a wall on the north side of a tile.
+	 */
+	public static final int WALL_NORTH = 0x2;
+
+	/**
+	 * The flag of a wall on the north-east corner of a tile.
+	 */
+	public static final int WALL_NORTH_EAST = 0x4;
+
+	/**
+	 * The flag of a wall on the east side of a tile.
+	 */
+	public static final int WALL_EAST = 0x8;
+
+	/**
+	 * The flag of a wall on the south-east corner of a tile.
+	 */
+	public static final int WALL_SOUTH_EAST = 0x10;
+
+	/**
+	 * The flag of a wall on the south side of a tile.
+	 */
+	public static final int WALL_SOUTH = 0x20;
+
+	/**
+	 * The flag of a wall on the south-west corner of a tile.
+	 */
+	public static final int WALL_SOUTH_WEST = 0x40;
+
+	/**
+	 * The flag of a wall on the west side of a tile.
+	 */
+	public static final int WALL_WEST = 0x80;
+
+	/**
+	 * The flag of a solid object occupying a tile.
+	 */
+	public static final int OBJECT = 0x100;
+
+	/**
+	 * The flag of a tile which cannot be walked on, taken from the terrain.
+	 */
+	public static final int BLOCKED = 0x200000;
+
+	/**
+	 * The size of a region along one axis, in tiles.
+	 */
+	public static final int SIZE = 64;
+
+	/**
+	 * The amount of height levels.
+	 */
+	public static final int HEIGHT_LEVELS = 4;
+
+	/**
+	 * The id of this region, which is its region x coordinate shifted left by 8 bits or'd with its y coordinate.
+	 */
+	private final int id;
+
+	/**
+	 * The flags of every tile, indexed by height level, then x, then y.
+	 */
+	private final int[] flags = new int[HEIGHT_LEVELS * SIZE * SIZE];
+
+	/**
+	 * Whether flags have been changed since the region was decoded.
+	 */
+	private boolean modified;
+
+	/**
+	 * The tick this region was last accessed on, used to evict idle regions.
+	 */
+	private long lastAccessed;
+
+	/**
+	 * Creates an empty collision map.
+	 *
+	 * @param id The id of the region.
+	 */
+	public CollisionMap(int id) {
+		this.id = id;
+	}
+
+	/**
+	 * Gets the id of the region containing a tile.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The region id.
+	 */
+	public static int regionId(int x, int y) {
+		return (x / SIZE) << 8 | y / SIZE;
+	}
+
+	/**
+	 * Gets the id of this region.
+	 *
+	 * @return The region id.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the flags of a tile.
+	 *
+	 * @param x The x coordinate, of which only the position within the region is used.
+	 * @param y The y coordinate, of which only the position within the region is used.
+	 * @param height The height level.
+	 * @return The flags.
+	 */
+	public int get(int x, int y, int height) {
+		return flags[index(x, y, height)];
+	}
+
+	/**
+	 * Adds flags to a tile, marking this map as modified.
+	 *
+	 * @param x The x coordinate, of which only the position within the region is used.
+	 * @param y The y coordinate, of which only the position within the region is used.
+	 * @param height The height level.
+	 * @param flag The flags to add.
+	 */
+	public void flag(int x, int y, int height, int flag) {
+		flags[index(x, y, height)] |= flag;
+		modified = true;
+	}
+
+	/**
+	 * Removes flags from a tile, marking this map as modified.
+	 *
+	 * @param x The x coordinate, of which only the position within the region is used.
+	 * @param y The y coordinate, of which only the position within the region is used.
+	 * @param height The height level.
+	 * @param flag The flags to remove.
+	 */
+	public void unflag(int x, int y, int height, int flag) {
+		flags[index(x, y, height)] &= ~flag;
+		modified = true;
+	}
+
+	/**
+	 * Adds flags to a tile while decoding, without marking this map as modified.
+	 *
+	 * @param x The x coordinate within the region.
+	 * @param y The y coordinate within the region.
+	 * @param height The height level.
+	 * @param flag The flags to add.
+	 */
+	void decodeFlag(int x, int y, int height, int flag) {
+		flags[index(x, y, height)] |= flag;
+	}
+
+	/**
+	 * Checks if flags have been changed since the region was decoded, in which case it cannot be evicted without
+	 * losing them.
+	 *
+	 * @return {@code true} if this map has been modified.
+	 */
+	public boolean isModified() {
+		return modified;
+	}
+
+	/**
+	 * Gets the tick this region was last accessed on.
+	 *
+	 * @return The tick.
+	 */
+	long getLastAccessed() {
+		return lastAccessed;
+	}
+
+	/**
+	 * Sets the tick this region was last accessed on.
+	 *
+	 * @param tick The tick.
+	 */
+	void setLastAccessed(long tick) {
+		lastAccessed = tick;
+	}
+
+	/**
+	 * Gets the index of a tile in the flag array.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @return The index.
+	 */
+	private static int index(int x, int y, int height) {
+		return (height * SIZE + (x & SIZE - 1)) * SIZE + (y & SIZE - 1);
+	}
+
+}
@@ -0,0 +1,175 @@
+package core.game.region;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import core.game.model.GameObject;
+import core.game.model.GroundItem;
+
+/**
+ * The ground items and runtime objects in an 8 by 8 tile chunk of one height level. Every change bumps the version of
+ * the chunk and is recorded in a bounded log, so an observer that has seen an earlier version can be sent only the
+ * changes since then.
+ *
+ * @author 7Winds
+ */
+public final class GroundChunk {
+
+	/**
+	 * The amount of changes kept in the log.
+	 */
+	public static final int LOG_SIZE = 64;
+
+	/**
+	 * The ground items.
+	 */
+	private final List<GroundItem> items = new ArrayList<>();
+
+	/**
+	 * The runtime objects.
+	 */
+	private final List<GameObject> objects = new ArrayList<>();
+
+	/**
+	 * The item or object changed by each logged version.
+	 */
+	private final Object[] changes = new Object[LOG_SIZE];
+
+	/**
+	 * Whether each logged version added or removed its item or object.
+	 */
+	private final boolean[] additions = new boolean[LOG_SIZE];
+
+	/**
+	 * The version, which is {@code 0} until the first change.
+	 */
+	private int version;
+
+	/**
+	 * Adds a ground item.
+	 *
+	 * @param item The item.
+	 */
+	void add(GroundItem item) {
+		items.add(item);
+		log(item, true);
+	}
+
+	/**
+	 * Removes a ground item.
+	 *
+	 * @param item The item.
+	 * @return {@code true} if the item was in this chunk.
+	 */
+	boolean remove(GroundItem item) {
+		if (!items.remove(item)) {
+			return false;
+		}
+		log(item, false);
+		return true;
+	}
+
+	/**
+	 * Adds a runtime object.
+	 *
+	 * @param object The object.
+	 */
+	void add(GameObject object) {
+		objects.add(object);
+		log(object, true);
+	}
+
+	/**
+	 * Removes a runtime object.
+	 *
+	 * @param object The object.
+	 * @return {@code true} if the object was in this chunk.
+	 */
+	boolean remove(GameObject object) {
+		if (!objects.remove(object)) {
+			return false;
+		}
+		log(object, false);
+		return true;
+	}
+
+	/**
+	 * Records a change in the log.
+	 *
+	 * @param change The item or object changed.
+	 * @param added Whether it was added or removed.
+	 */
+	private void log(Object change, boolean added) {
+		int index = ++version % LOG_SIZE;
+		changes[index] = change;
+		additions[index] = added;
+	}
+
+	/**
+	 * Gets the version.
+	 *
+	 * @return The version.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Checks if every change made since a version is still in the log.
+	 *
+	 * @param since The version.
+	 * @return {@code true} if the changes can be replayed.
+	 */
+	public boolean hasChangesSince(int since) {
+		return version - since <= LOG_SIZE;
+	}
+
+	/**
+	 * Gets the item or object changed by a logged version.
+	 *
+	 * @param version The version.
+	 * @return The {@link GroundItem} or {@link GameObject}.
+	 */
+	public Object getChange(int version) {
+		return changes[version % LOG_SIZE];
+	}
+
+	/**
+	 * Checks if a logged version added its item or object.
+	 *
+	 * @param version The version.
+	 * @return {@code true} if it was added, {@code false} if it was removed.
+	 */
+	public boolean isAddition(int version) {
+		return additions[version % LOG_SIZE];
+	}
+
+	/**
+	 * Gets the ground items.
+	 *
+	 * @return An unmodifiable view of the items.
+	 */
+	public List<GroundItem> getItems() {
+		return Collections.unmodifiableList(items);
+	}
+
+	/**
+	 * Gets the runtime objects.
+	 *
+	 * @return An unmodifiable view of the objects.
+	 */
+	public List<GameObject> getObjects() {
+		return Collections.unmodifiableList(objects);
+	}
+
+	/**
+	 * Checks if this chunk holds no items or objects.
+	 *
+	 * @return {@code true} if this chunk is empty.
+	 */
+	public boolean isEmpty() {
+		return items.isEmpty() && objects.isEmpty();
+	}
+
+}
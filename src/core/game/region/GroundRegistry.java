@@ -0,0 +1,105 @@
+package core.game.region;
+
+import core.game.model.GameObject;
+import core.game.model.GroundItem;
+import core.game.model.Position;
+
+/**
+ * The ground items and runtime objects of the world, bucketed by 8 by 8 tile chunk. Chunks are created the first time
+ * something is placed in them. Changes must only be made from the engine thread, outside of the update phase, during
+ * which the chunks may be read from any thread.
+ *
+ * @author 7Winds
+ */
+public final class GroundRegistry {
+
+	/**
+	 * The amount of chunks along one axis of a region.
+	 */
+	private static final int REGION_CHUNKS = 8;
+
+	/**
+	 * The chunks of each region, indexed by height level and region id, then by chunk within the region.
+	 */
+	private final GroundChunk[][] regions = new GroundChunk[CollisionMap.HEIGHT_LEVELS << 16][];
+
+	/**
+	 * Adds a ground item.
+	 *
+	 * @param item The item.
+	 */
+	public void add(GroundItem item) {
+		chunk(item.getPosition(), true).add(item);
+	}
+
+	/**
+	 * Removes a ground item.
+	 *
+	 * @param item The item.
+	 * @return {@code true} if the item was on the ground.
+	 */
+	public boolean remove(GroundItem item) {
+		GroundChunk chunk = chunk(item.getPosition(), false);
+		return chunk != null && chunk.remove(item);
+	}
+
+	/**
+	 * Adds a runtime object.
+	 *
+	 * @param object The object.
+	 */
+	public void add(GameObject object) {
+		chunk(object.getPosition(), true).add(object);
+	}
+
+	/**
+	 * Removes a runtime object.
+	 *
+	 * @param object The object.
+	 * @return {@code true} if the object was in the world.
+	 */
+	public boolean remove(GameObject object) {
+		GroundChunk chunk = chunk(object.getPosition(), false);
+		return chunk != null && chunk.remove(object);
+	}
+
+	/**
+	 * Gets a chunk.
+	 *
+	 * @param chunkX The chunk x coordinate.
+	 * @param chunkY The chunk y coordinate.
+	 * @param height The height level.
+	 * @return The chunk, or {@code null} if nothing was ever placed in it.
+	 */
+	public GroundChunk get(int chunkX, int chunkY, int height) {
+		GroundChunk[] chunks = regions[height << 16 | (chunkX / REGION_CHUNKS) << 8 | chunkY / REGION_CHUNKS];
+		return chunks == null ? null : chunks[(chunkX & REGION_CHUNKS - 1) * REGION_CHUNKS + (chunkY & REGION_CHUNKS - 1)];
+	}
+
+	/**
+	 * Gets the chunk containing a position.
+	 *
+	 * @param position The position.
+	 * @param create Whether to create the chunk if it does not exist.
+	 * @return The chunk, or {@code null} if it does not exist and {@code create} is {@code false}.
+	 */
+	private GroundChunk chunk(Position position, boolean create) {
+		int chunkX = position.getChunkX(), chunkY = position.getChunkY();
+		int region = position.getHeight() << 16 | (chunkX / REGION_CHUNKS) << 8 | chunkY / REGION_CHUNKS;
+		int index = (chunkX & REGION_CHUNKS - 1) * REGION_CHUNKS + (chunkY & REGION_CHUNKS - 1);
+
+		GroundChunk[] chunks = regions[region];
+		if (chunks == null) {
+			if (!create) {
+				return null;
+			}
+			chunks = regions[region] = new GroundChunk[REGION_CHUNKS * REGION_CHUNKS];
+		}
+		GroundChunk chunk = chunks[index];
+		if (chunk == null && create) {
+			chunk = chunks[index] = new GroundChunk();
+		}
+		return chunk;
+	}
+
+}
@@ -0,0 +1,70 @@
+package core.game.region;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The {@code map_index} file, which maps each region id to the ids of its terrain and object files in the map index
+ * of the cache.
+ *
+ * @author 7Winds
+ */
+public final class MapIndex {
+
+	/**
+	 * The size of an entry: the region id, terrain file, object file and members flag.
+	 */
+	private static final int ENTRY_SIZE = 7;
+
+	/**
+	 * The amount of region ids.
+	 */
+	private static final int REGIONS = 1 << 16;
+
+	/**
+	 * The terrain file of each region, or {@code -1} if it has none.
+	 */
+	private final int[] terrainFiles = new int[REGIONS];
+
+	/**
+	 * The object file of each region, or {@code -1} if it has none.
+	 */
+	private final int[] objectFiles = new int[REGIONS];
+
+	/**
+	 * Decodes the map index.
+	 *
+	 * @param buffer The decompressed {@code map_index} file.
+	 */
+	public MapIndex(ByteBuffer buffer) {
+		Arrays.fill(terrainFiles, -1);
+		Arrays.fill(objectFiles, -1);
+		while (buffer.remaining() >= ENTRY_SIZE) {
+			int region = buffer.getShort() & 0xFFFF;
+			terrainFiles[region] = buffer.getShort() & 0xFFFF;
+			objectFiles[region] = buffer.getShort() & 0xFFFF;
+			buffer.get();
+		}
+	}
+
+	/**
+	 * Gets the terrain file of a region.
+	 *
+	 * @param region The region id.
+	 * @return The file id, or {@code -1} if the region has none.
+	 */
+	public int getTerrainFile(int region) {
+		return terrainFiles[region];
+	}
+
+	/**
+	 * Gets the object file of a region.
+	 *
+	 * @param region The region id.
+	 * @return The file id, or {@code -1} if the region has none.
+	 */
+	public int getObjectFile(int region) {
+		return objectFiles[region];
+	}
+
+}
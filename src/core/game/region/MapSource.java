@@ -0,0 +1,26 @@
+package core.game.region;
+
+import java.io.IOException;
+
+/**
+ * A source of the map files that collision maps are decoded from.
+ *
+ * @author 7Winds
+ */
+public interface MapSource {
+
+	/**
+	 * A source without any map files, which leaves every region free of collision.
+	 */
+	MapSource EMPTY = region -> null;
+
+	/**
+	 * Gets the decompressed terrain file of a region.
+	 *
+	 * @param region The region id.
+	 * @return The terrain file, or {@code null} if the region has none.
+	 * @throws IOException If the file cannot be read.
+	 */
+	byte[] getTerrain(int region) throws IOException;
+
+}
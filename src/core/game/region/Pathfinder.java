@@ -0,0 +1,312 @@
+package core.game.region;
+
+import java.util.Arrays;
+
+import core.game.model.Position;
+import core.game.model.WalkingQueue;
+
+/**
+ * A breadth-first pathfinder over the collision flags of a 128 by 128 tile area centered on the start of the path.
+ * The distance, via and queue arrays are allocated once and reused by every search, and tiles are marked as visited
+ * with a per-search generation number so nothing has to be cleared between searches. An instance must only be used
+ * by one thread at a time.
+ *
+ * @author 7Winds
+ */
+public final class Pathfinder {
+
+	/**
+	 * The size of the search area along one axis.
+	 */
+	public static final int SIZE = 128;
+
+	/**
+	 * The bits of a tile index taken by the y coordinate.
+	 */
+	private static final int SHIFT = 7;
+
+	/**
+	 * The maximum distance from an unreachable destination at which the closest reachable tile is walked to instead.
+	 */
+	private static final int ALTERNATIVE_DISTANCE = 10;
+
+	/**
+	 * The flags which block a tile regardless of the direction it is entered from.
+	 */
+	private static final int SOLID = CollisionMap.BLOCKED | CollisionMap.OBJECT;
+
+	/**
+	 * The generation each tile was last visited in.
+	 */
+	private final int[] visits = new int[SIZE * SIZE];
+
+	/**
+	 * The tile each tile was reached from.
+	 */
+	private final int[] via = new int[SIZE * SIZE];
+
+	/**
+	 * The distance of each tile from the start.
+	 */
+	private final int[] distances = new int[SIZE * SIZE];
+
+	/**
+	 * The tiles waiting to be expanded, which is also used to walk the path back from the end.
+	 */
+	private final int[] queue = new int[SIZE * SIZE];
+
+	/**
+	 * The generation of the current search.
+	 */
+	private int generation;
+
+	/**
+	 * The x coordinate of the south-west corner of the search area.
+	 */
+	private int baseX;
+
+	/**
+	 * The y coordinate of the south-west corner of the search area.
+	 */
+	private int baseY;
+
+	/**
+	 * The height level of the search.
+	 */
+	private int height;
+
+	/**
+	 * The collision maps searched over.
+	 */
+	private CollisionManager collision;
+
+	/**
+	 * The collision map of the region last looked up.
+	 */
+	private CollisionMap region;
+
+	/**
+	 * Finds a path from {@code start} to a destination and replaces the steps in {@code steps} with it. If the
+	 * destination cannot be reached, the path leads to the closest reachable tile within 10 tiles of it instead, and
+	 * if there is no such tile the queue is left empty.
+	 *
+	 * @param collision The collision maps.
+	 * @param start The start of the path.
+	 * @param destinationX The x coordinate of the destination.
+	 * @param destinationY The y coordinate of the destination.
+	 * @param steps The queue to write the path to.
+	 * @return The amount of tiles expanded by the search.
+	 */
+	public int find(CollisionManager collision, Position start, int destinationX, int destinationY,
+			WalkingQueue steps) {
+		this.collision = collision;
+		this.region = null;
+		baseX = start.getX() - SIZE / 2;
+		baseY = start.getY() - SIZE / 2;
+		height = start.getHeight();
+		if (++generation == 0) {
+			Arrays.fill(visits, 0);
+			generation = 1;
+		}
+		steps.clear();
+
+		int first = tile(SIZE / 2, SIZE / 2);
+		int destination = tile(clamp(destinationX - baseX), clamp(destinationY - baseY));
+		visits[first] = generation;
+		via[first] = first;
+		distances[first] = 0;
+		queue[0] = first;
+
+		int head = 0, tail = 1;
+		boolean found = false;
+		while (head < tail) {
+			int current = queue[head++];
+			if (current == destination) {
+				found = true;
+				break;
+			}
+			tail = expand(current, tail);
+		}
+
+		int end = found ? destination : closest(destination);
+		if (end != -1) {
+			int length = 0;
+			for (int tile = end; tile != first; tile = via[tile]) {
+				queue[length++] = tile;
+			}
+			for (int i = length - 1; i >= 0; i--) {
+				if (!steps.addStep(baseX + x(queue[i]), baseY + y(queue[i]))) {
+					break;
+				}
+			}
+		}
+		this.collision = null;
+		this.region = null;
+		return head;
+	}
+
+	/**
+	 * Queues every unvisited tile that can be walked to from a tile.
+	 *
+	 * @param tile The tile.
+	 * @param tail The index at which the next tile is queued.
+	 * @return The new tail of the queue.
+	 */
+	private int expand(int tile, int tail) {
+		int x = x(tile), y = y(tile);
+		int west = x > 0 ? flags(x - 1, y) : -1;
+		int east = x < SIZE - 1 ? flags(x + 1, y) : -1;
+		int south = y > 0 ? flags(x, y - 1) : -1;
+		int north = y < SIZE - 1 ? flags(x, y + 1) : -1;
+
+		boolean canWest = west != -1 && (west & (SOLID | CollisionMap.WALL_EAST)) == 0;
+		boolean canEast = east != -1 && (east & (SOLID | CollisionMap.WALL_WEST)) == 0;
+		boolean canSouth = south != -1 && (south & (SOLID | CollisionMap.WALL_NORTH)) == 0;
+		boolean canNorth = north != -1 && (north & (SOLID | CollisionMap.WALL_SOUTH)) == 0;
+
+		if (canWest) {
+			tail = visit(tile, x - 1, y, tail);
+		}
+		if (canEast) {
+			tail = visit(tile, x + 1, y, tail);
+		}
+		if (canSouth) {
+			tail = visit(tile, x, y - 1, tail);
+		}
+		if (canNorth) {
+			tail = visit(tile, x, y + 1, tail);
+		}
+		if (canWest && canSouth && (flags(x - 1, y - 1)
+				& (SOLID | CollisionMap.WALL_NORTH | CollisionMap.WALL_EAST | CollisionMap.WALL_NORTH_EAST)) == 0) {
+			tail = visit(tile, x - 1, y - 1, tail);
+		}
+		if (canEast && canSouth && (flags(x + 1, y - 1)
+				& (SOLID | CollisionMap.WALL_NORTH | CollisionMap.WALL_WEST | CollisionMap.WALL_NORTH_WEST)) == 0) {
+			tail = visit(tile, x + 1, y - 1, tail);
+		}
+		if (canWest && canNorth && (flags(x - 1, y + 1)
+				& (SOLID | CollisionMap.WALL_SOUTH | CollisionMap.WALL_EAST | CollisionMap.WALL_SOUTH_EAST)) == 0) {
+			tail = visit(tile, x - 1, y + 1, tail);
+		}
+		if (canEast && canNorth && (flags(x + 1, y + 1)
+				& (SOLID | CollisionMap.WALL_SOUTH | CollisionMap.WALL_WEST | CollisionMap.WALL_SOUTH_WEST)) == 0) {
+			tail = visit(tile, x + 1, y + 1, tail);
+		}
+		return tail;
+	}
+
+	/**
+	 * Queues a tile if it has not been visited yet.
+	 *
+	 * @param from The tile it is reached from.
+	 * @param x The x coordinate of the tile within the search area.
+	 * @param y The y coordinate of the tile within the search area.
+	 * @param tail The index at which the tile is queued.
+	 * @return The new tail of the queue.
+	 */
+	private int visit(int from, int x, int y, int tail) {
+		int tile = tile(x, y);
+		if (visits[tile] == generation) {
+			return tail;
+		}
+		visits[tile] = generation;
+		via[tile] = from;
+		distances[tile] = distances[from] + 1;
+		queue[tail] = tile;
+		return tail + 1;
+	}
+
+	/**
+	 * Finds the visited tile closest to an unreachable destination, preferring shorter paths between tiles equally
+	 * close to it.
+	 *
+	 * @param destination The destination.
+	 * @return The tile, or {@code -1} if no tile near the destination was visited.
+	 */
+	private int closest(int destination) {
+		int destinationX = x(destination), destinationY = y(destination);
+		int best = -1, bestCost = Integer.MAX_VALUE, bestDistance = Integer.MAX_VALUE;
+		int minX = Math.max(destinationX - ALTERNATIVE_DISTANCE, 0);
+		int maxX = Math.min(destinationX + ALTERNATIVE_DISTANCE, SIZE - 1);
+		int minY = Math.max(destinationY - ALTERNATIVE_DISTANCE, 0);
+		int maxY = Math.min(destinationY + ALTERNATIVE_DISTANCE, SIZE - 1);
+
+		for (int x = minX; x <= maxX; x++) {
+			for (int y = minY; y <= maxY; y++) {
+				int tile = tile(x, y);
+				if (visits[tile] != generation) {
+					continue;
+				}
+				int dx = x - destinationX, dy = y - destinationY;
+				int cost = dx * dx + dy * dy;
+				if (cost < bestCost || cost == bestCost && distances[tile] < bestDistance) {
+					best = tile;
+					bestCost = cost;
+					bestDistance = distances[tile];
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Gets the collision flags of a tile, reusing the last looked up region where possible.
+	 *
+	 * @param x The x coordinate within the search area.
+	 * @param y The y coordinate within the search area.
+	 * @return The flags.
+	 */
+	private int flags(int x, int y) {
+		int absoluteX = baseX + x, absoluteY = baseY + y;
+		if (absoluteX < 0 || absoluteY < 0) {
+			return CollisionMap.BLOCKED;
+		}
+		int id = CollisionMap.regionId(absoluteX, absoluteY);
+		if (region == null || region.getId() != id) {
+			region = collision.get(id);
+		}
+		return region.get(absoluteX, absoluteY, height);
+	}
+
+	/**
+	 * Clamps a coordinate into the search area.
+	 *
+	 * @param coordinate The coordinate within the search area.
+	 * @return The clamped coordinate.
+	 */
+	private static int clamp(int coordinate) {
+		return Math.max(0, Math.min(SIZE - 1, coordinate));
+	}
+
+	/**
+	 * Gets the index of a tile.
+	 *
+	 * @param x The x coordinate within the search area.
+	 * @param y The y coordinate within the search area.
+	 * @return The index.
+	 */
+	private static int tile(int x, int y) {
+		return x << SHIFT | y;
+	}
+
+	/**
+	 * Gets the x coordinate of a tile.
+	 *
+	 * @param tile The index of the tile.
+	 * @return The x coordinate within the search area.
+	 */
+	private static int x(int tile) {
+		return tile >>> SHIFT;
+	}
+
+	/**
+	 * Gets the y coordinate of a tile.
+	 *
+	 * @param tile The index of the tile.
+	 * @return The y coordinate within the search area.
+	 */
+	private static int y(int tile) {
+		return tile & SIZE - 1;
+	}
+
+}
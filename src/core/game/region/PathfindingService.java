@@ -0,0 +1,110 @@
+package core.game.region;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import core.game.model.Entity;
+import core.game.model.WalkingQueue;
+
+/**
+ * Runs the path searches requested by entities during the logic phase of each tick, within a budget of expanded tiles
+ * per tick. Searches beyond the budget are deferred to the next tick, and an entity has at most one pending search, so
+ * requesting another path before the last one ran only replaces its destination. This keeps bursts of walk packets
+ * from exceeding the tick. Every method must only be called from the engine thread.
+ *
+ * @author 7Winds
+ */
+public final class PathfindingService {
+
+	/**
+	 * The default amount of tiles that may be expanded per tick.
+	 */
+	public static final int DEFAULT_BUDGET = 100_000;
+
+	/**
+	 * The reusable pathfinder of each thread.
+	 */
+	private static final ThreadLocal<Pathfinder> pathfinders = ThreadLocal.withInitial(Pathfinder::new);
+
+	/**
+	 * The collision maps searched over.
+	 */
+	private final CollisionManager collision;
+
+	/**
+	 * The entities with a pending search, in the order they requested it.
+	 */
+	private final Queue<Entity> pending = new ArrayDeque<>();
+
+	/**
+	 * The amount of searches run during the last tick.
+	 */
+	private int searches;
+
+	/**
+	 * Creates the pathfinding service.
+	 *
+	 * @param collision The collision maps searched over.
+	 */
+	public PathfindingService(CollisionManager collision) {
+		this.collision = collision;
+	}
+
+	/**
+	 * Requests a path for an entity, replacing its pending search if it has one.
+	 *
+	 * @param entity The entity.
+	 * @param x The x coordinate of the destination.
+	 * @param y The y coordinate of the destination.
+	 */
+	public void request(Entity entity, int x, int y) {
+		if (entity.getWalkingQueue().requestPath(x, y)) {
+			pending.offer(entity);
+		}
+	}
+
+	/**
+	 * Runs pending searches until the budget for this tick is spent. At least one search is run per tick, so a single
+	 * search larger than the budget cannot stall the queue.
+	 *
+	 * @param budget The amount of tiles that may be expanded during this tick.
+	 */
+	public void process(int budget) {
+		Pathfinder pathfinder = pathfinders.get();
+		int remaining = budget;
+		searches = 0;
+		Entity entity;
+		while ((searches == 0 || remaining > 0) && (entity = pending.poll()) != null) {
+			WalkingQueue queue = entity.getWalkingQueue();
+			if (!queue.isSearchPending()) {
+				continue;
+			}
+			queue.completePathRequest();
+			if (!entity.isActive()) {
+				continue;
+			}
+			remaining -= pathfinder.find(collision, entity.getPosition(), queue.getDestinationX(),
+					queue.getDestinationY(), queue);
+			searches++;
+		}
+	}
+
+	/**
+	 * Gets the amount of searches deferred to the next tick.
+	 *
+	 * @return The amount of searches.
+	 */
+	public int getPendingSearches() {
+		return pending.size();
+	}
+
+	/**
+	 * Gets the amount of searches run during the last tick.
+	 *
+	 * @return The amount of searches.
+	 */
+	public int getSearches() {
+		return searches;
+	}
+
+}
@@ -0,0 +1,100 @@
+package core.game.region;
+
+import java.util.Arrays;
+
+/**
+ * A 64 by 64 tile region of a single height level, made up of 8 by 8 chunks which each hold the indices of the
+ * entities standing in them.
+ *
+ * @author 7Winds
+ */
+final class Region {
+
+	/**
+	 * The size of a region along one axis, in chunks.
+	 */
+	static final int SIZE = 8;
+
+	/**
+	 * The initial capacity of each chunk.
+	 */
+	private static final int INITIAL_CHUNK_CAPACITY = 4;
+
+	/**
+	 * The entity indices in each chunk. Only the first {@code sizes[chunk]} elements are used.
+	 */
+	private final int[][] chunks = new int[SIZE * SIZE][];
+
+	/**
+	 * The amount of entities in each chunk.
+	 */
+	private final int[] sizes = new int[SIZE * SIZE];
+
+	/**
+	 * Gets the chunk id of a chunk in this region.
+	 *
+	 * @param chunkX The absolute chunk x coordinate.
+	 * @param chunkY The absolute chunk y coordinate.
+	 * @return The chunk id.
+	 */
+	static int chunk(int chunkX, int chunkY) {
+		return (chunkY & SIZE - 1) * SIZE + (chunkX & SIZE - 1);
+	}
+
+	/**
+	 * Adds an entity to a chunk.
+	 *
+	 * @param chunk The chunk id.
+	 * @param index The entity index.
+	 */
+	void add(int chunk, int index) {
+		int[] entities = chunks[chunk];
+		int size = sizes[chunk];
+		if (entities == null) {
+			entities = chunks[chunk] = new int[INITIAL_CHUNK_CAPACITY];
+		} else if (size == entities.length) {
+			entities = chunks[chunk] = Arrays.copyOf(entities, size * 2);
+		}
+		entities[size] = index;
+		sizes[chunk] = size + 1;
+	}
+
+	/**
+	 * Removes an entity from a chunk, moving the last entity of the chunk into its place.
+	 *
+	 * @param chunk The chunk id.
+	 * @param index The entity index.
+	 */
+	void remove(int chunk, int index) {
+		int[] entities = chunks[chunk];
+		int last = sizes[chunk] - 1;
+		for (int i = 0; i <= last; i++) {
+			if (entities[i] == index) {
+				entities[i] = entities[last];
+				sizes[chunk] = last;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Gets the entity indices in a chunk. Only the first {@link #size} elements are used.
+	 *
+	 * @param chunk The chunk id.
+	 * @return The entity indices, or {@code null} if nothing was ever added to the chunk.
+	 */
+	int[] entities(int chunk) {
+		return chunks[chunk];
+	}
+
+	/**
+	 * Gets the amount of entities in a chunk.
+	 *
+	 * @param chunk The chunk id.
+	 * @return The amount of entities.
+	 */
+	int size(int chunk) {
+		return sizes[chunk];
+	}
+
+}
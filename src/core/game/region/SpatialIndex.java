@@ -0,0 +1,206 @@
+package core.game.region;
+
+import core.game.model.Position;
+
+/**
+ * A spatial index of entities by their index, bucketed into 8 by 8 tile chunks which are grouped into 64 by 64 tile
+ * regions. Entities are re-bucketed incrementally as they move, and only when they cross into another chunk, so
+ * finding the entities near a position only visits the chunks overlapping the search area instead of every entity.
+ * Queries write into a caller supplied array and allocate nothing. The index is not thread safe, but may be queried
+ * from any number of threads while it is not being modified.
+ *
+ * @author 7Winds
+ */
+public final class SpatialIndex {
+
+	/**
+	 * The amount of tiles along one axis of a chunk.
+	 */
+	private static final int CHUNK_SIZE = 8;
+
+	/**
+	 * The amount of regions along one axis of a height level.
+	 */
+	private static final int REGIONS_PER_AXIS = 256;
+
+	/**
+	 * The amount of height levels.
+	 */
+	private static final int HEIGHT_LEVELS = 4;
+
+	/**
+	 * The regions, created when the first entity enters them.
+	 */
+	private final Region[] regions = new Region[HEIGHT_LEVELS * REGIONS_PER_AXIS * REGIONS_PER_AXIS];
+
+	/**
+	 * Whether each index is in this spatial index.
+	 */
+	private final boolean[] present;
+
+	/**
+	 * The x coordinate of each entity.
+	 */
+	private final int[] xs;
+
+	/**
+	 * The y coordinate of each entity.
+	 */
+	private final int[] ys;
+
+	/**
+	 * The height level of each entity.
+	 */
+	private final int[] heights;
+
+	/**
+	 * Creates the spatial index.
+	 *
+	 * @param capacity The amount of entity indices, from {@code 0} inclusive.
+	 */
+	public SpatialIndex(int capacity) {
+		present = new boolean[capacity];
+		xs = new int[capacity];
+		ys = new int[capacity];
+		heights = new int[capacity];
+	}
+
+	/**
+	 * Adds an entity to this index.
+	 *
+	 * @param index The entity index.
+	 * @param position The position of the entity.
+	 * @throws IllegalStateException If the entity is already in this index.
+	 */
+	public void insert(int index, Position position) {
+		if (present[index]) {
+			throw new IllegalStateException("Index " + index + " is already in the spatial index.");
+		}
+		present[index] = true;
+		set(index, position);
+		region(xs[index], ys[index], heights[index], true).add(chunk(index), index);
+	}
+
+	/**
+	 * Moves an entity in this index. This does nothing beyond updating its coordinates unless it has entered another
+	 * chunk.
+	 *
+	 * @param index The entity index.
+	 * @param position The new position of the entity.
+	 * @throws IllegalStateException If the entity is not in this index.
+	 */
+	public void move(int index, Position position) {
+		if (!present[index]) {
+			throw new IllegalStateException("Index " + index + " is not in the spatial index.");
+		}
+		int x = xs[index], y = ys[index], height = heights[index];
+		if (x >> 3 == position.getX() >> 3 && y >> 3 == position.getY() >> 3 && height == position.getHeight()) {
+			set(index, position);
+			return;
+		}
+		region(x, y, height, false).remove(chunk(index), index);
+		set(index, position);
+		region(xs[index], ys[index], heights[index], true).add(chunk(index), index);
+	}
+
+	/**
+	 * Removes an entity from this index. This does nothing if the entity is not in this index.
+	 *
+	 * @param index The entity index.
+	 */
+	public void remove(int index) {
+		if (present[index]) {
+			present[index] = false;
+			region(xs[index], ys[index], heights[index], false).remove(chunk(index), index);
+		}
+	}
+
+	/**
+	 * Checks if an entity is in this index.
+	 *
+	 * @param index The entity index.
+	 * @return {@code true} if the entity is in this index.
+	 */
+	public boolean contains(int index) {
+		return index >= 0 && index < present.length && present[index];
+	}
+
+	/**
+	 * Finds the entities on the same height level as {@code center} within {@code distance} tiles of it along both
+	 * axes, writing their indices to {@code out}. Entities beyond the length of {@code out} are left out.
+	 *
+	 * @param center The center of the search area.
+	 * @param distance The distance from the center.
+	 * @param out The array to write the entity indices to.
+	 * @return The amount of entity indices written.
+	 */
+	public int query(Position center, int distance, int[] out) {
+		int centerX = center.getX(), centerY = center.getY(), height = center.getHeight();
+		int minChunkX = Math.max(centerX - distance, 0) / CHUNK_SIZE, maxChunkX = (centerX + distance) / CHUNK_SIZE;
+		int minChunkY = Math.max(centerY - distance, 0) / CHUNK_SIZE, maxChunkY = (centerY + distance) / CHUNK_SIZE;
+		int count = 0;
+
+		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+			for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+				Region region = region(chunkX * CHUNK_SIZE, chunkY * CHUNK_SIZE, height, false);
+				if (region == null) {
+					continue;
+				}
+				int chunk = Region.chunk(chunkX, chunkY);
+				int[] entities = region.entities(chunk);
+				for (int i = 0, size = region.size(chunk); i < size; i++) {
+					int index = entities[i];
+					if (Math.abs(xs[index] - centerX) <= distance && Math.abs(ys[index] - centerY) <= distance) {
+						if (count == out.length) {
+							return count;
+						}
+						out[count++] = index;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Records the coordinates of an entity.
+	 *
+	 * @param index The entity index.
+	 * @param position The position of the entity.
+	 */
+	private void set(int index, Position position) {
+		xs[index] = position.getX();
+		ys[index] = position.getY();
+		heights[index] = position.getHeight();
+	}
+
+	/**
+	 * Gets the chunk id of the chunk an entity is recorded in.
+	 *
+	 * @param index The entity index.
+	 * @return The chunk id.
+	 */
+	private int chunk(int index) {
+		return Region.chunk(xs[index] / CHUNK_SIZE, ys[index] / CHUNK_SIZE);
+	}
+
+	/**
+	 * Gets the region containing a tile.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @param create Whether to create the region if it does not exist.
+	 * @return The region, or {@code null} if it does not exist and {@code create} is {@code false}.
+	 */
+	private Region region(int x, int y, int height, boolean create) {
+		int regionSize = CHUNK_SIZE * Region.SIZE;
+		int id = (height * REGIONS_PER_AXIS + x / regionSize) * REGIONS_PER_AXIS + y / regionSize;
+		Region region = regions[id];
+		if (region == null && create) {
+			region = regions[id] = new Region();
+		}
+		return region;
+	}
+
+}
@@ -0,0 +1,182 @@
+package core.game.social;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import core.game.model.Player;
+import core.login.MessageBus;
+import core.login.MessageListener;
+import core.net.packet.PacketBuilder;
+import io.netty.channel.Channel;
+
+/**
+ * Delivers private messages and broadcasts between the players of this world and those of the other worlds, and keeps
+ * track of which world every player is in. Messages between players of this world are delivered directly; everything
+ * else goes through the {@link MessageBus}. Every method must only be called from the engine thread.
+ *
+ * @author 7Winds
+ */
+public final class SocialService implements MessageListener {
+
+	/**
+	 * The opcode of the packet showing a received private message.
+	 */
+	private static final int PRIVATE_MESSAGE_OPCODE = 196;
+
+	/**
+	 * The opcode of the packet showing a message in the chat box.
+	 */
+	private static final int GAME_MESSAGE_OPCODE = 253;
+
+	/**
+	 * The position of the world id within a private message id, below which the counter of that world is kept.
+	 */
+	private static final int WORLD_ID_SHIFT = 24;
+
+	/**
+	 * The mask of the counter within a private message id.
+	 */
+	private static final int COUNTER_MASK = (1 << WORLD_ID_SHIFT) - 1;
+
+	/**
+	 * The bus messages to and from the other worlds travel on.
+	 */
+	private final MessageBus bus;
+
+	/**
+	 * The id of this world.
+	 */
+	private final int world;
+
+	/**
+	 * The players of this world, keyed by base 37 encoded username.
+	 */
+	private final Map<Long, Player> players = new HashMap<>();
+
+	/**
+	 * The world each player of the other worlds is in, keyed by base 37 encoded username.
+	 */
+	private final Map<Long, Integer> directory = new HashMap<>();
+
+	/**
+	 * The id of the next private message sent from this world, before the world id is added.
+	 */
+	private int nextMessageId;
+
+	/**
+	 * Creates the social service.
+	 *
+	 * @param bus The bus messages to and from the other worlds travel on.
+	 * @param world The id of this world.
+	 */
+	public SocialService(MessageBus bus, int world) {
+		this.bus = bus;
+		this.world = world;
+	}
+
+	/**
+	 * Records that a player has entered this world and tells the other worlds.
+	 *
+	 * @param player The player.
+	 */
+	public void login(Player player) {
+		players.put(player.getEncodedName(), player);
+		bus.presence(player.getEncodedName(), world);
+	}
+
+	/**
+	 * Records that a player has left this world and tells the other worlds.
+	 *
+	 * @param player The player.
+	 */
+	public void logout(Player player) {
+		players.remove(player.getEncodedName());
+		bus.presence(player.getEncodedName(), 0);
+	}
+
+	/**
+	 * Sends a private message, if its recipient is online in any world.
+	 *
+	 * @param sender The sender.
+	 * @param recipient The base 37 encoded username of the recipient.
+	 * @param text The text, packed by the client.
+	 */
+	public void sendPrivateMessage(Player sender, long recipient, byte[] text) {
+		int id = (world << WORLD_ID_SHIFT) | (nextMessageId++ & COUNTER_MASK);
+		if (players.containsKey(recipient)) {
+			onPrivateMessage(sender.getEncodedName(), recipient, sender.getRights(), id, text);
+		} else if (directory.containsKey(recipient)) {
+			bus.privateMessage(sender.getEncodedName(), recipient, sender.getRights(), id, text);
+		}
+	}
+
+	/**
+	 * Shows a message to every player in every world.
+	 *
+	 * @param message The message.
+	 */
+	public void broadcast(String message) {
+		onBroadcast(message);
+		bus.broadcast(message);
+	}
+
+	/**
+	 * Gets the world a player is in.
+	 *
+	 * @param player The base 37 encoded username.
+	 * @return The id of the world, or 0 if the player is offline.
+	 */
+	public int getWorld(long player) {
+		if (players.containsKey(player)) {
+			return world;
+		}
+		Integer other = directory.get(player);
+		return other == null ? 0 : other;
+	}
+
+	/**
+	 * Handles the messages received from the other worlds since the last tick.
+	 */
+	public void process() {
+		bus.deliver(this);
+	}
+
+	/**
+	 * Sends the messages for the other worlds gathered during this tick.
+	 */
+	public void flush() {
+		bus.flush();
+	}
+
+	@Override
+	public void onPresence(long player, int world) {
+		if (world == 0) {
+			directory.remove(player);
+		} else {
+			directory.put(player, world);
+		}
+	}
+
+	@Override
+	public void onPrivateMessage(long from, long to, int rights, int id, byte[] text) {
+		Player recipient = players.get(to);
+		if (recipient == null) {
+			return;
+		}
+		Channel channel = recipient.getSession().getChannel();
+		channel.write(PacketBuilder.create(channel.alloc().buffer(text.length + 16))
+				.newVarMessage(PRIVATE_MESSAGE_OPCODE).putLong(from).putInt(id).put(rights)
+				.putBytes(text, text.length).endVarMessage());
+	}
+
+	@Override
+	public void onBroadcast(String message) {
+		// Announcements change no client state, so they are the first thing a backed up client goes without.
+		for (Player player : players.values()) {
+			Channel channel = player.getSession().getChannel();
+			channel.write(PacketBuilder.create(channel.alloc().buffer(message.length() + 3))
+					.newVarMessage(GAME_MESSAGE_OPCODE).putString(message).endVarMessage().setDroppable(true));
+		}
+	}
+
+}
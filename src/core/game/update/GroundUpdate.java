@@ -0,0 +1,219 @@
+package core.game.update;
+
+import core.game.model.GameObject;
+import core.game.model.GroundItem;
+import core.game.model.Player;
+import core.game.model.Position;
+import core.game.region.ChunkVersions;
+import core.game.region.GroundChunk;
+import core.game.region.GroundRegistry;
+import core.net.packet.PacketBuilder;
+import core.net.codec.game.ByteOrder;
+import core.net.codec.game.ValueType;
+import io.netty.channel.Channel;
+
+/**
+ * Sends an observer the ground items and runtime objects of the chunks its client has loaded. Every chunk whose version
+ * differs from the one the observer was last sent is brought up to date, with only the changes made since then when
+ * they are all still logged, or by clearing and resending the chunk otherwise. Chunks that have not changed cost a
+ * single table lookup. While the observer's channel is unwritable, chunks more than {@link #NEARBY_CHUNKS} away from
+ * it are deferred rather than sent, so that a backlogged client still sees the ground around it change. An instance
+ * must only be used by one thread at a time.
+ *
+ * @author 7Winds
+ */
+public final class GroundUpdate {
+
+	/**
+	 * The amount of chunks along one axis of the area a client has loaded.
+	 */
+	private static final int VIEWPORT_CHUNKS = 13;
+
+	/**
+	 * The distance in chunks from the observer's chunk within which chunks are sent even while its channel is
+	 * unwritable, covering everything the observer can see.
+	 */
+	private static final int NEARBY_CHUNKS = 2;
+
+	/**
+	 * The opcode of the packet setting the chunk the following packets refer to.
+	 */
+	private static final int PLACEMENT_OPCODE = 85;
+
+	/**
+	 * The opcode of the packet clearing a chunk.
+	 */
+	private static final int CLEAR_CHUNK_OPCODE = 64;
+
+	/**
+	 * The opcode of the packet adding a ground item.
+	 */
+	private static final int ADD_ITEM_OPCODE = 44;
+
+	/**
+	 * The opcode of the packet removing a ground item.
+	 */
+	private static final int REMOVE_ITEM_OPCODE = 156;
+
+	/**
+	 * The opcode of the packet adding an object.
+	 */
+	private static final int ADD_OBJECT_OPCODE = 151;
+
+	/**
+	 * The opcode of the packet removing an object.
+	 */
+	private static final int REMOVE_OBJECT_OPCODE = 101;
+
+	/**
+	 * Sends {@code player} the changes to the chunks around it.
+	 *
+	 * @param player The observer.
+	 * @param registry The ground items and objects of the world.
+	 */
+	public void update(Player player, GroundRegistry registry) {
+		Position base = player.getLastKnownRegion();
+		if (base == null) {
+			return;
+		}
+		Channel channel = player.getSession().getChannel();
+		ChunkVersions seen = player.getChunkVersions();
+		Position position = player.getPosition();
+		int height = position.getHeight();
+		int playerChunkX = position.getChunkX(), playerChunkY = position.getChunkY();
+		int baseX = base.getRegionX(), baseY = base.getRegionY();
+
+		for (int chunkX = baseX; chunkX < baseX + VIEWPORT_CHUNKS; chunkX++) {
+			for (int chunkY = baseY; chunkY < baseY + VIEWPORT_CHUNKS; chunkY++) {
+				GroundChunk chunk = registry.get(chunkX, chunkY, height);
+				if (chunk == null) {
+					continue;
+				}
+				int key = ChunkVersions.key(chunkX, chunkY, height);
+				int since = seen.get(key);
+				int version = chunk.getVersion();
+				if (since == version) {
+					continue;
+				}
+				if (!channel.isWritable() && (Math.abs(chunkX - playerChunkX) > NEARBY_CHUNKS
+						|| Math.abs(chunkY - playerChunkY) > NEARBY_CHUNKS)) {
+					// The version is left unrecorded, so the chunk is caught up once the client drains its backlog.
+					continue;
+				}
+				seen.put(key, version);
+				if (since == 0 && chunk.isEmpty()) {
+					continue;
+				}
+
+				int localX = (chunkX - baseX) * 8, localY = (chunkY - baseY) * 8;
+				channel.write(PacketBuilder.create(channel.alloc().buffer(3)).newMessage(PLACEMENT_OPCODE)
+						.put(localY, ValueType.C).put(localX, ValueType.C));
+				if (since != 0 && chunk.hasChangesSince(since)) {
+					sendChanges(channel, chunk, since);
+				} else {
+					if (since != 0) {
+						channel.write(PacketBuilder.create(channel.alloc().buffer(3)).newMessage(CLEAR_CHUNK_OPCODE)
+								.put(localX, ValueType.C).put(localY, ValueType.S));
+					}
+					sendContents(channel, chunk);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sends the changes made to a chunk since a version.
+	 *
+	 * @param channel The observer's channel.
+	 * @param chunk The chunk.
+	 * @param since The version the observer was last sent.
+	 */
+	private void sendChanges(Channel channel, GroundChunk chunk, int since) {
+		for (int version = since + 1; version <= chunk.getVersion(); version++) {
+			Object change = chunk.getChange(version);
+			boolean added = chunk.isAddition(version);
+			if (change instanceof GroundItem) {
+				channel.write(added ? addItem(channel, (GroundItem) change) : removeItem(channel, (GroundItem) change));
+			} else {
+				GameObject object = (GameObject) change;
+				channel.write(added ? addObject(channel, object) : removeObject(channel, object));
+			}
+		}
+	}
+
+	/**
+	 * Sends everything currently in a chunk.
+	 *
+	 * @param channel The observer's channel.
+	 * @param chunk The chunk.
+	 */
+	private void sendContents(Channel channel, GroundChunk chunk) {
+		for (GroundItem item : chunk.getItems()) {
+			channel.write(addItem(channel, item));
+		}
+		for (GameObject object : chunk.getObjects()) {
+			channel.write(addObject(channel, object));
+		}
+	}
+
+	/**
+	 * Builds the packet adding a ground item.
+	 *
+	 * @param channel The observer's channel.
+	 * @param item The item.
+	 * @return The packet.
+	 */
+	private static PacketBuilder addItem(Channel channel, GroundItem item) {
+		return PacketBuilder.create(channel.alloc().buffer(6)).newMessage(ADD_ITEM_OPCODE)
+				.putShort(item.getId(), ValueType.A, ByteOrder.LITTLE).putShort(item.getAmount())
+				.put(offset(item.getPosition()));
+	}
+
+	/**
+	 * Builds the packet removing a ground item.
+	 *
+	 * @param channel The observer's channel.
+	 * @param item The item.
+	 * @return The packet.
+	 */
+	private static PacketBuilder removeItem(Channel channel, GroundItem item) {
+		return PacketBuilder.create(channel.alloc().buffer(4)).newMessage(REMOVE_ITEM_OPCODE)
+				.put(offset(item.getPosition()), ValueType.A).putShort(item.getId());
+	}
+
+	/**
+	 * Builds the packet adding an object.
+	 *
+	 * @param channel The observer's channel.
+	 * @param object The object.
+	 * @return The packet.
+	 */
+	private static PacketBuilder addObject(Channel channel, GameObject object) {
+		return PacketBuilder.create(channel.alloc().buffer(5)).newMessage(ADD_OBJECT_OPCODE)
+				.put(offset(object.getPosition()), ValueType.A).putShort(object.getId(), ByteOrder.LITTLE)
+				.put(object.getType() << 2 | object.getOrientation(), ValueType.S);
+	}
+
+	/**
+	 * Builds the packet removing an object.
+	 *
+	 * @param channel The observer's channel.
+	 * @param object The object.
+	 * @return The packet.
+	 */
+	private static PacketBuilder removeObject(Channel channel, GameObject object) {
+		return PacketBuilder.create(channel.alloc().buffer(3)).newMessage(REMOVE_OBJECT_OPCODE)
+				.put(object.getType() << 2 | object.getOrientation(), ValueType.C).put(offset(object.getPosition()));
+	}
+
+	/**
+	 * Gets the offset of a position within its chunk, as sent in the packets.
+	 *
+	 * @param position The position.
+	 * @return The offset.
+	 */
+	private static int offset(Position position) {
+		return (position.getX() & 7) << 4 | position.getY() & 7;
+	}
+
+}
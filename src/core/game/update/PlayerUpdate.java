@@ -0,0 +1,197 @@
+package core.game.update;
+
+import java.util.Iterator;
+import java.util.List;
+
+import core.game.World;
+import core.game.model.Direction;
+import core.game.model.Player;
+import core.game.model.Position;
+import core.game.model.UpdateFlag;
+import core.net.packet.PacketBuilder;
+
+/**
+ * Builds the player update packet sent to a single observer: the bit-packed movement of the observer and its local
+ * players, followed by their update blocks. The blocks are bulk copied from the {@link UpdateBlocks} each player shares
+ * for the tick rather than encoded again for every observer. An instance reuses its buffers between observers and must
+ * only be used by one thread at a time.
+ *
+ * @author 7Winds
+ */
+public final class PlayerUpdate {
+
+	/**
+	 * The opcode of the player update packet.
+	 */
+	private static final int OPCODE = 81;
+
+	/**
+	 * The index written to mark the end of the list of added players, which is never given to a player.
+	 */
+	private static final int END_OF_LIST = 2047;
+
+	/**
+	 * The packet being built.
+	 */
+	private final PacketBuilder packet = PacketBuilder.create(8192);
+
+	/**
+	 * The update blocks being built.
+	 */
+	private final PacketBuilder blocks = PacketBuilder.create(8192);
+
+	/**
+	 * The indices of the players found near the observer.
+	 */
+	private final int[] candidates = new int[World.MAXIMUM_PLAYERS];
+
+	/**
+	 * A bit set of the indices of the observer's local players, cleared again once the packet is built.
+	 */
+	private final long[] known = new long[(World.MAXIMUM_PLAYERS + Long.SIZE - 1) / Long.SIZE];
+
+	/**
+	 * The encoder of the observer's own blocks when they differ from the shared ones, and of the blocks of added
+	 * players which no observer has needed yet.
+	 */
+	private final UpdateBlockEncoder encoder;
+
+	/**
+	 * Creates the player update.
+	 *
+	 * @param encoder The encoder of the observer's own and added players' blocks, confined to the same thread.
+	 */
+	public PlayerUpdate(UpdateBlockEncoder encoder) {
+		this.encoder = encoder;
+	}
+
+	/**
+	 * Builds the player update packet for {@code player}. The returned builder is reused by the next call.
+	 *
+	 * @param player The observer.
+	 * @param world The world, from whose spatial index new local players are added.
+	 * @return The packet.
+	 */
+	public PacketBuilder encode(Player player, World world) {
+		packet.clear().newVarShortMessage(OPCODE);
+		blocks.clear();
+
+		packet.startBitAccess();
+		putLocalMovement(player);
+		if (player.isUpdateRequired()) {
+			if (player.isFlagged(UpdateFlag.CHAT)) {
+				encoder.encode(player, blocks, false, true);
+			} else {
+				blocks.putBytes(player.getUpdateBlocks().getFlagged());
+			}
+		}
+
+		List<Player> locals = player.getLocalPlayers();
+		packet.putBits(8, locals.size());
+		for (Iterator<Player> iterator = locals.iterator(); iterator.hasNext();) {
+			Player other = iterator.next();
+			if (other.isActive() && !other.isTeleporting()
+					&& other.getPosition().isWithinDistance(player.getPosition())) {
+				known[other.getIndex() >> 6] |= 1L << other.getIndex();
+				putMovement(other);
+				if (other.isUpdateRequired()) {
+					blocks.putBytes(other.getUpdateBlocks().getFlagged());
+				}
+			} else {
+				iterator.remove();
+				packet.putBits(1, 1);
+				packet.putBits(2, 3);
+			}
+		}
+
+		int count = world.getPlayerIndex().query(player.getPosition(), Position.VIEWING_DISTANCE, candidates);
+		for (int i = 0; i < count && locals.size() < Player.MAXIMUM_LOCAL_PLAYERS; i++) {
+			int index = candidates[i];
+			if (index == player.getIndex() || (known[index >> 6] & 1L << index) != 0) {
+				continue;
+			}
+			Player other = world.getPlayer(index);
+			locals.add(other);
+			putAddition(player, other);
+			blocks.putBytes(other.getUpdateBlocks().getAddition(other, encoder));
+		}
+		for (int i = 0; i < locals.size(); i++) {
+			known[locals.get(i).getIndex() >> 6] = 0;
+		}
+
+		if (blocks.buffer().isReadable()) {
+			packet.putBits(11, END_OF_LIST);
+			packet.endBitAccess();
+			packet.putBytes(blocks.buffer());
+		} else {
+			packet.endBitAccess();
+		}
+		return packet.endVarShortMessage();
+	}
+
+	/**
+	 * Writes the movement of the observer itself.
+	 *
+	 * @param player The observer.
+	 */
+	private void putLocalMovement(Player player) {
+		boolean updateRequired = player.isUpdateRequired();
+		if (player.isTeleporting() || player.isRegionChanged()) {
+			Position position = player.getPosition();
+			packet.putBits(1, 1);
+			packet.putBits(2, 3);
+			packet.putBits(2, position.getHeight());
+			packet.putBits(1, player.isTeleporting() ? 1 : 0);
+			packet.putBits(1, updateRequired ? 1 : 0);
+			packet.putBits(7, position.getLocalY(player.getLastKnownRegion()));
+			packet.putBits(7, position.getLocalX(player.getLastKnownRegion()));
+		} else {
+			putMovement(player);
+		}
+	}
+
+	/**
+	 * Writes the walking and running movement of a player.
+	 *
+	 * @param player The player.
+	 */
+	private void putMovement(Player player) {
+		boolean updateRequired = player.isUpdateRequired();
+		Direction walking = player.getWalkingDirection();
+		Direction running = player.getRunningDirection();
+		if (walking == Direction.NONE) {
+			if (updateRequired) {
+				packet.putBits(1, 1);
+				packet.putBits(2, 0);
+			} else {
+				packet.putBits(1, 0);
+			}
+		} else if (running == Direction.NONE) {
+			packet.putBits(1, 1);
+			packet.putBits(2, 1);
+			packet.putBits(3, walking.toInteger());
+			packet.putBits(1, updateRequired ? 1 : 0);
+		} else {
+			packet.putBits(1, 1);
+			packet.putBits(2, 2);
+			packet.putBits(3, walking.toInteger());
+			packet.putBits(3, running.toInteger());
+			packet.putBits(1, updateRequired ? 1 : 0);
+		}
+	}
+
+	/**
+	 * Writes the addition of a new local player.
+	 *
+	 * @param player The observer.
+	 * @param other The player being added.
+	 */
+	private void putAddition(Player player, Player other) {
+		packet.putBits(11, other.getIndex());
+		packet.putBits(1, 1);
+		packet.putBits(1, 1);
+		packet.putBits(5, other.getPosition().getY() - player.getPosition().getY());
+		packet.putBits(5, other.getPosition().getX() - player.getPosition().getX());
+	}
+
+}
@@ -0,0 +1,194 @@
+package core.game.update;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.EntityRegistry;
+import core.game.World;
+import core.game.model.Player;
+import core.game.util.LoggerUtils;
+import core.net.packet.PacketBuilder;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+
+/**
+ * Builds the player update packets of every player in parallel. Once the world state is frozen for the update phase,
+ * each observer's packet only depends on its own local player list, so the observers are split over a fork/join pool
+ * sized to the available cores. A first pass encodes the update blocks of every player once into {@link UpdateBlocks}
+ * shared by all of its observers, and a second pass builds the packets, followed by the observer's
+ * {@link GroundUpdate}. Each worker builds into its own reusable {@link PlayerUpdate}, copies the result into a
+ * buffer from the observer's channel allocator and hands it to the channel's event loop for writing.
+ *
+ * @author 7Winds
+ */
+public final class PlayerUpdater {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(PlayerUpdater.class);
+
+	/**
+	 * The amount of indices below which a task is no longer split.
+	 */
+	private static final int THRESHOLD = 32;
+
+	/**
+	 * The pool the packets are built on.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * The reusable block encoder of each worker thread.
+	 */
+	private final ThreadLocal<UpdateBlockEncoder> encoders = ThreadLocal.withInitial(UpdateBlockEncoder::new);
+
+	/**
+	 * The reusable packet builder of each worker thread.
+	 */
+	private final ThreadLocal<PlayerUpdate> updates = ThreadLocal.withInitial(() -> new PlayerUpdate(encoders.get()));
+
+	/**
+	 * The ground item and object updater of each worker thread.
+	 */
+	private final ThreadLocal<GroundUpdate> grounds = ThreadLocal.withInitial(GroundUpdate::new);
+
+	/**
+	 * Creates the player updater with a worker for each available core.
+	 */
+	public PlayerUpdater() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates the player updater.
+	 *
+	 * @param parallelism The amount of worker threads.
+	 */
+	public PlayerUpdater(int parallelism) {
+		pool = new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("PlayerUpdater-" + thread.getPoolIndex());
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * Builds and writes the player update packet of every player, returning once all have been handed to their
+	 * channels. The players must not be modified until this returns, and the shared blocks are held by each player
+	 * until {@link Player#resetUpdateState} releases them.
+	 *
+	 * @param world The world.
+	 */
+	public void update(World world) {
+		EntityRegistry<Player> players = world.getPlayers();
+		if (!players.isEmpty()) {
+			pool.invoke(new UpdateTask(players, 1, players.capacity(), this::encodeBlocks));
+			pool.invoke(new UpdateTask(players, 1, players.capacity(), player -> update(player, world)));
+		}
+	}
+
+	/**
+	 * Shuts down the worker threads.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Encodes the shared update blocks of a single player.
+	 *
+	 * @param player The player.
+	 */
+	private void encodeBlocks(Player player) {
+		try {
+			player.setUpdateBlocks(encoders.get().encodeShared(player, PooledByteBufAllocator.DEFAULT));
+		} catch (Throwable t) {
+			logger.log(Level.SEVERE, "Error while encoding the update blocks of " + player + ".", t);
+		}
+	}
+
+	/**
+	 * Builds and writes the player update packet of a single observer.
+	 *
+	 * @param player The observer.
+	 * @param world The world.
+	 */
+	private void update(Player player, World world) {
+		try {
+			PacketBuilder built = updates.get().encode(player, world);
+			Channel channel = player.getSession().getChannel();
+			PacketBuilder packet = PacketBuilder.create(channel.alloc().buffer(built.buffer().readableBytes()));
+			channel.write(packet.putBytes(built.buffer()));
+			grounds.get().update(player, world.getGround());
+		} catch (Throwable t) {
+			logger.log(Level.SEVERE, "Error while updating " + player + ".", t);
+		}
+	}
+
+	/**
+	 * A task which applies an action to the players in a range of indices, splitting itself while the range is large.
+	 */
+	private final class UpdateTask extends RecursiveAction {
+
+		/**
+		 * The serial version id.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Every player in the world.
+		 */
+		private final EntityRegistry<Player> players;
+
+		/**
+		 * The first index, inclusive.
+		 */
+		private final int start;
+
+		/**
+		 * The last index, exclusive.
+		 */
+		private final int end;
+
+		/**
+		 * The action applied to each player.
+		 */
+		private final Consumer<Player> action;
+
+		/**
+		 * Creates the update task.
+		 *
+		 * @param players Every player in the world.
+		 * @param start The first index, inclusive.
+		 * @param end The last index, exclusive.
+		 * @param action The action applied to each player.
+		 */
+		private UpdateTask(EntityRegistry<Player> players, int start, int end, Consumer<Player> action) {
+			this.players = players;
+			this.start = start;
+			this.end = end;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= THRESHOLD) {
+				int index = players.nextIndex(start);
+				while (index != -1 && index < end) {
+					action.accept(players.get(index));
+					index = players.nextIndex(index + 1);
+				}
+				return;
+			}
+			int middle = (start + end) >>> 1;
+			invokeAll(new UpdateTask(players, start, middle, action), new UpdateTask(players, middle, end, action));
+		}
+
+	}
+
+}
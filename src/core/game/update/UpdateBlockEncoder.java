@@ -0,0 +1,189 @@
+package core.game.update;
+
+import core.game.model.Animation;
+import core.game.model.Appearance;
+import core.game.model.ChatText;
+import core.game.model.Graphic;
+import core.game.model.Hit;
+import core.game.model.Player;
+import core.game.model.UpdateFlag;
+import core.net.codec.game.ByteOrder;
+import core.net.codec.game.ValueType;
+import core.net.packet.PacketBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * Encodes the update blocks of a player. An instance reuses its buffers between players and must only be used by one
+ * thread at a time.
+ *
+ * @author 7Winds
+ */
+public final class UpdateBlockEncoder {
+
+	/**
+	 * The animations sent in every appearance block: stand, turn, walk, turn 180, turn 90 clockwise, turn 90
+	 * counter-clockwise and run.
+	 */
+	private static final int[] MOVEMENT_ANIMATIONS = { 0x328, 0x337, 0x333, 0x334, 0x335, 0x336, 0x338 };
+
+	/**
+	 * The shared blocks being built.
+	 */
+	private final PacketBuilder builder = PacketBuilder.create(1024);
+
+	/**
+	 * The appearance block being built.
+	 */
+	private final PacketBuilder appearance = PacketBuilder.create(64);
+
+	/**
+	 * Encodes the blocks of a player that every observer shares for the current tick. The blocks sent to observers
+	 * adding the player are the flagged ones if the appearance is flagged, and are otherwise left to be encoded by
+	 * {@link #encodeAddition} once an observer needs them.
+	 *
+	 * @param player The player.
+	 * @param alloc The allocator of the shared buffers.
+	 * @return The encoded blocks.
+	 */
+	public UpdateBlocks encodeShared(Player player, ByteBufAllocator alloc) {
+		ByteBuf flagged = null;
+		if (player.isUpdateRequired()) {
+			flagged = copy(player, false, alloc);
+		}
+		ByteBuf addition = null;
+		if (flagged != null && player.isFlagged(UpdateFlag.APPEARANCE)) {
+			addition = flagged.retain();
+		}
+		return new UpdateBlocks(flagged, addition, alloc);
+	}
+
+	/**
+	 * Encodes the blocks of a player sent to observers adding it: the flagged blocks with the appearance block forced.
+	 *
+	 * @param player The player.
+	 * @param alloc The allocator of the buffer.
+	 * @return The encoded blocks.
+	 */
+	public ByteBuf encodeAddition(Player player, ByteBufAllocator alloc) {
+		return copy(player, true, alloc);
+	}
+
+	/**
+	 * Encodes the blocks of a player into a new buffer.
+	 *
+	 * @param player The player.
+	 * @param forceAppearance Whether to write the appearance block even if it is not flagged.
+	 * @param alloc The allocator of the buffer.
+	 * @return The buffer.
+	 */
+	private ByteBuf copy(Player player, boolean forceAppearance, ByteBufAllocator alloc) {
+		builder.clear();
+		encode(player, builder, forceAppearance, false);
+		ByteBuf buffer = builder.buffer();
+		return alloc.heapBuffer(buffer.readableBytes()).writeBytes(buffer, buffer.readerIndex(), buffer.readableBytes());
+	}
+
+	/**
+	 * Writes the flagged update blocks of a player.
+	 *
+	 * @param player The player.
+	 * @param blocks The builder to write the blocks to.
+	 * @param forceAppearance Whether to write the appearance block even if it is not flagged.
+	 * @param noChat Whether to leave out the chat block.
+	 */
+	public void encode(Player player, PacketBuilder blocks, boolean forceAppearance, boolean noChat) {
+		int mask = 0;
+		for (UpdateFlag flag : UpdateFlag.values()) {
+			if (player.isFlagged(flag)) {
+				mask |= flag.getMask();
+			}
+		}
+		if (forceAppearance) {
+			mask |= UpdateFlag.APPEARANCE.getMask();
+		}
+		if (noChat) {
+			mask &= ~UpdateFlag.CHAT.getMask();
+		}
+
+		if (mask >= 0x100) {
+			mask |= 0x40;
+			blocks.putShort(mask, ByteOrder.LITTLE);
+		} else {
+			blocks.put(mask);
+		}
+
+		if ((mask & UpdateFlag.GRAPHICS.getMask()) != 0) {
+			Graphic graphic = player.getGraphic();
+			blocks.putShort(graphic.getId(), ByteOrder.LITTLE);
+			blocks.putInt(graphic.getHeight() << 16 | graphic.getDelay() & 0xFFFF);
+		}
+		if ((mask & UpdateFlag.ANIMATION.getMask()) != 0) {
+			Animation animation = player.getAnimation();
+			blocks.putShort(animation.getId(), ByteOrder.LITTLE);
+			blocks.put(animation.getDelay(), ValueType.C);
+		}
+		if ((mask & UpdateFlag.CHAT.getMask()) != 0) {
+			ChatText chat = player.getChatText();
+			byte[] text = chat.getText();
+			blocks.putShort((chat.getColor() & 0xFF) << 8 | chat.getEffects() & 0xFF, ByteOrder.LITTLE);
+			blocks.put(player.getRights());
+			blocks.put(text.length, ValueType.C);
+			blocks.putBytesReverse(text);
+		}
+		if ((mask & UpdateFlag.APPEARANCE.getMask()) != 0) {
+			putAppearance(player, blocks);
+		}
+		if ((mask & UpdateFlag.HIT.getMask()) != 0) {
+			Hit hit = player.getHit();
+			blocks.put(hit.getDamage());
+			blocks.put(hit.getType(), ValueType.A);
+			blocks.put(player.getHitpoints(), ValueType.C);
+			blocks.put(player.getMaximumHitpoints());
+		}
+	}
+
+	/**
+	 * Writes the appearance block of a player.
+	 *
+	 * @param player The player.
+	 * @param blocks The builder to write the block to.
+	 */
+	private void putAppearance(Player player, PacketBuilder blocks) {
+		Appearance look = player.getAppearance();
+		appearance.clear();
+		appearance.put(look.getGender());
+		appearance.put(0); // head icon
+
+		appearance.put(0); // hat
+		appearance.put(0); // cape
+		appearance.put(0); // amulet
+		appearance.put(0); // weapon
+		appearance.putShort(0x100 + look.getStyle(2)); // chest
+		appearance.put(0); // shield
+		appearance.putShort(0x100 + look.getStyle(3)); // arms
+		appearance.putShort(0x100 + look.getStyle(5)); // legs
+		appearance.putShort(0x100 + look.getStyle(0)); // head
+		appearance.putShort(0x100 + look.getStyle(4)); // hands
+		appearance.putShort(0x100 + look.getStyle(6)); // feet
+		if (look.getGender() == 0) {
+			appearance.putShort(0x100 + look.getStyle(1)); // beard
+		} else {
+			appearance.put(0);
+		}
+
+		for (int i = 0; i < 5; i++) {
+			appearance.put(look.getColor(i));
+		}
+		for (int animation : MOVEMENT_ANIMATIONS) {
+			appearance.putShort(animation);
+		}
+		appearance.putLong(player.getEncodedName());
+		appearance.put(player.getCombatLevel());
+		appearance.putShort(0); // skill level
+
+		blocks.put(appearance.buffer().readableBytes(), ValueType.C);
+		blocks.putBytes(appearance.buffer());
+	}
+
+}
@@ -0,0 +1,87 @@
+package core.game.update;
+
+import core.game.model.Player;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * The update blocks of a player, encoded once per tick and shared by every observer of that player. Observers only
+ * read the buffers through absolute indices, so they may be appended by any number of update workers at once. The
+ * blocks sent to observers adding the player are only encoded once the first of them needs them, as most players are
+ * not added by anyone in most ticks.
+ *
+ * @author 7Winds
+ */
+public final class UpdateBlocks {
+
+	/**
+	 * The flagged blocks, or {@code null} if no blocks are flagged.
+	 */
+	private final ByteBuf flagged;
+
+	/**
+	 * The allocator of the blocks sent to observers adding the player.
+	 */
+	private final ByteBufAllocator alloc;
+
+	/**
+	 * The flagged blocks with the appearance block forced, sent to observers adding the player, or {@code null} until
+	 * an observer needs them.
+	 */
+	private volatile ByteBuf addition;
+
+	/**
+	 * Creates the update blocks. Ownership of a reference to each buffer is transferred to this object.
+	 *
+	 * @param flagged The flagged blocks, or {@code null} if no blocks are flagged.
+	 * @param addition The blocks sent to observers adding the player, or {@code null} to encode them on demand.
+	 * @param alloc The allocator of the blocks encoded on demand.
+	 */
+	public UpdateBlocks(ByteBuf flagged, ByteBuf addition, ByteBufAllocator alloc) {
+		this.flagged = flagged;
+		this.addition = addition;
+		this.alloc = alloc;
+	}
+
+	/**
+	 * Gets the flagged blocks.
+	 *
+	 * @return The blocks, or {@code null} if no blocks are flagged.
+	 */
+	public ByteBuf getFlagged() {
+		return flagged;
+	}
+
+	/**
+	 * Gets the blocks sent to observers adding the player, encoding them if no observer has needed them yet.
+	 *
+	 * @param player The player whose blocks these are.
+	 * @param encoder The encoder to use, confined to the calling thread.
+	 * @return The blocks.
+	 */
+	public ByteBuf getAddition(Player player, UpdateBlockEncoder encoder) {
+		ByteBuf addition = this.addition;
+		if (addition == null) {
+			synchronized (this) {
+				addition = this.addition;
+				if (addition == null) {
+					this.addition = addition = encoder.encodeAddition(player, alloc);
+				}
+			}
+		}
+		return addition;
+	}
+
+	/**
+	 * Releases both buffers, once every observer's packet has been built.
+	 */
+	public void release() {
+		if (flagged != null) {
+			flagged.release();
+		}
+		if (addition != null) {
+			addition.release();
+		}
+	}
+
+}
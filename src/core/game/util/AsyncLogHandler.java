@@ -0,0 +1,252 @@
+package core.game.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link Handler} which hands records to a single writer thread through a bounded ring buffer, so that threads which
+ * log, such as the Netty event loops and the engine thread, never wait on console or file I/O. Messages and their
+ * parameters are formatted by the writer thread, and each logger is limited to a number of records per second, with the
+ * amount suppressed reported along with the logger's first record of a later second. Records which arrive while the ring
+ * is full are dropped and counted rather than blocking the thread that logged them.
+ *
+ * @author 7Winds
+ */
+public final class AsyncLogHandler extends Handler {
+
+	/**
+	 * The amount of nanoseconds the writer thread parks for while the ring is empty.
+	 */
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+	/**
+	 * The handler which formats and writes the records on the writer thread.
+	 */
+	private final Handler delegate;
+
+	/**
+	 * The records waiting to be written. A slot is {@code null} until the record claimed for it has been stored.
+	 */
+	private final AtomicReferenceArray<LogRecord> ring;
+
+	/**
+	 * The mask of a sequence number to its slot in the ring.
+	 */
+	private final int mask;
+
+	/**
+	 * The sequence number of the next slot to be claimed.
+	 */
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * The sequence number of the next slot to be written, only advanced by the writer thread.
+	 */
+	private volatile long head;
+
+	/**
+	 * The maximum amount of records each logger may publish per second.
+	 */
+	private volatile int rateLimit;
+
+	/**
+	 * The records published and suppressed by each logger in its current second.
+	 */
+	private final ConcurrentMap<String, RateWindow> windows = new ConcurrentHashMap<>();
+
+	/**
+	 * The amount of records dropped because the ring was full.
+	 */
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * The writer thread.
+	 */
+	private final Thread writer;
+
+	/**
+	 * Whether the handler has been closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Creates the handler and starts its writer thread.
+	 *
+	 * @param delegate The handler which formats and writes the records.
+	 * @param capacity The amount of records the ring holds, a power of two.
+	 * @param rateLimit The maximum amount of records each logger may publish per second.
+	 */
+	public AsyncLogHandler(Handler delegate, int capacity, int rateLimit) {
+		if (Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity must be a power of two.");
+		}
+		this.delegate = delegate;
+		this.ring = new AtomicReferenceArray<>(capacity);
+		this.mask = capacity - 1;
+		this.rateLimit = rateLimit;
+		writer = new Thread(this::write, "AsyncLogHandler");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@Override
+	public void publish(LogRecord record) {
+		if (closed || !isLoggable(record)) {
+			return;
+		}
+		RateWindow window = windows.computeIfAbsent(String.valueOf(record.getLoggerName()), name -> new RateWindow());
+		int limit = rateLimit;
+		int suppressed = window.rollOver(record.getMillis() / 1000, limit);
+		if (suppressed > 0) {
+			LogRecord summary = new LogRecord(Level.WARNING, "Suppressed {0} messages over the rate limit.");
+			summary.setLoggerName(record.getLoggerName());
+			summary.setParameters(new Object[] { suppressed });
+			offer(summary);
+		}
+		if (window.acquire(limit)) {
+			offer(record);
+		}
+	}
+
+	/**
+	 * Claims a slot in the ring for a record, or drops it if the ring is full.
+	 *
+	 * @param record The record.
+	 */
+	private void offer(LogRecord record) {
+		long sequence;
+		do {
+			sequence = tail.get();
+			if (sequence - head >= ring.length()) {
+				dropped.incrementAndGet();
+				return;
+			}
+		} while (!tail.compareAndSet(sequence, sequence + 1));
+		ring.lazySet((int) sequence & mask, record);
+	}
+
+	/**
+	 * Writes the records in the ring until the handler is closed and the ring has been drained.
+	 */
+	private void write() {
+		while (!closed || head != tail.get()) {
+			int slot = (int) head & mask;
+			LogRecord record = ring.get(slot);
+			if (record == null) {
+				if (head == tail.get()) {
+					delegate.flush();
+					reportDropped();
+					LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				} else {
+					Thread.yield();
+				}
+				continue;
+			}
+			ring.lazySet(slot, null);
+			head++;
+			try {
+				delegate.publish(record);
+			} catch (RuntimeException e) {
+				reportError("Error while writing a log record.", e, 0);
+			}
+		}
+		delegate.flush();
+	}
+
+	/**
+	 * Writes how many records were dropped because the ring was full, if any were.
+	 */
+	private void reportDropped() {
+		long count = dropped.getAndSet(0);
+		if (count > 0) {
+			LogRecord summary = new LogRecord(Level.WARNING, "Dropped {0} messages while the log buffer was full.");
+			summary.setLoggerName(AsyncLogHandler.class.getSimpleName());
+			summary.setParameters(new Object[] { count });
+			delegate.publish(summary);
+		}
+	}
+
+	/**
+	 * Sets the maximum amount of records each logger may publish per second.
+	 *
+	 * @param rateLimit The rate limit.
+	 */
+	public void setRateLimit(int rateLimit) {
+		this.rateLimit = rateLimit;
+	}
+
+	/**
+	 * Gets the maximum amount of records each logger may publish per second.
+	 *
+	 * @return The rate limit.
+	 */
+	public int getRateLimit() {
+		return rateLimit;
+	}
+
+	@Override
+	public void flush() {
+		LockSupport.unpark(writer);
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		LockSupport.unpark(writer);
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		delegate.close();
+	}
+
+	/**
+	 * The records published by a single logger within one second, packed into one {@code long} so they are counted
+	 * without a lock.
+	 */
+	private static final class RateWindow {
+
+		/**
+		 * The second in the upper 32 bits and the amount of records published in it in the lower 32 bits.
+		 */
+		private final AtomicLong state = new AtomicLong();
+
+		/**
+		 * Moves this window to {@code second} if it is still in an earlier one.
+		 *
+		 * @param second The current second.
+		 * @param limit The maximum amount of records per second.
+		 * @return The amount of records suppressed in the earlier second, or {@code 0}.
+		 */
+		int rollOver(long second, int limit) {
+			long current = state.get();
+			if (current >>> 32 >= second || !state.compareAndSet(current, second << 32)) {
+				return 0;
+			}
+			return (int) Math.max(0, (current & 0xFFFFFFFFL) - limit);
+		}
+
+		/**
+		 * Counts a record in the current second.
+		 *
+		 * @param limit The maximum amount of records per second.
+		 * @return {@code true} if the record is within the limit.
+		 */
+		boolean acquire(int limit) {
+			return (state.incrementAndGet() & 0xFFFFFFFFL) <= limit;
+		}
+
+	}
+
+}
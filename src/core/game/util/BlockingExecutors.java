@@ -0,0 +1,95 @@
+package core.game.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates the executors that blocking work, such as credential checks and save I/O, is handed to so that it never
+ * runs on a Netty event loop or the engine thread.
+ * <p>
+ * On a JDK with virtual threads each task runs on a virtual thread of its own, so thousands of tasks blocked at once,
+ * as during the login storm after a restart, need no more OS threads than there are cores. Older JDKs fall back to a
+ * bounded pool of platform threads which queues the tasks beyond its size. The server is compiled for Java 8, so
+ * virtual threads are looked up reflectively.
+ *
+ * @author 7Winds
+ */
+public final class BlockingExecutors {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(BlockingExecutors.class);
+
+	/**
+	 * The number of seconds an idle platform thread is kept.
+	 */
+	private static final int KEEP_ALIVE = 60;
+
+	/**
+	 * Default private constructor to prevent instantiation by other classes.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if this class is instantiated.
+	 */
+	private BlockingExecutors() {
+		throw new UnsupportedOperationException("This class cannot be instantiated!");
+	}
+
+	/**
+	 * Creates an executor for blocking work.
+	 *
+	 * @param name The name of its threads, followed by a number.
+	 * @param virtual Whether to use virtual threads if the JDK has them.
+	 * @param maximumThreads The amount of platform threads to fall back to.
+	 * @return The executor.
+	 */
+	public static ExecutorService create(String name, boolean virtual, int maximumThreads) {
+		if (virtual) {
+			ExecutorService executor = newVirtualThreadExecutor(name);
+			if (executor != null) {
+				logger.log(Level.INFO, "{0} runs on virtual threads.", name);
+				return executor;
+			}
+		}
+		AtomicInteger threads = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(maximumThreads, maximumThreads, KEEP_ALIVE,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(), task -> {
+					Thread thread = new Thread(task, name + "-" + threads.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		logger.log(Level.INFO, "{0} runs on up to {1} platform threads.", new Object[] { name, maximumThreads });
+		return executor;
+	}
+
+	/**
+	 * Creates an executor running each task on a new, named virtual thread.
+	 *
+	 * @param name The name of its threads, followed by a number.
+	 * @return The executor, or {@code null} if the JDK has no virtual threads.
+	 */
+	private static ExecutorService newVirtualThreadExecutor(String name) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> type = Class.forName("java.lang.Thread$Builder");
+			builder = type.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+			ThreadFactory factory = (ThreadFactory) type.getMethod("factory").invoke(builder);
+			Method executor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) executor.invoke(null, factory);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Either an older JDK, or one where virtual threads are still a preview feature that is not enabled.
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+package core.game.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link Formatter} which writes each record on one line with its time, level and logger name. Unlike the default
+ * formatter it never asks for the class and method which logged the record, which would walk the stack of the writer
+ * thread rather than the thread which logged it.
+ *
+ * @author 7Winds
+ */
+public final class LogFormatter extends Formatter {
+
+	/**
+	 * The format of the time of each record.
+	 */
+	private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+	@Override
+	public String format(LogRecord record) {
+		StringBuilder builder = new StringBuilder(128);
+		builder.append(TIME_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getMillis()),
+				ZoneId.systemDefault())));
+		builder.append(' ').append(record.getLevel().getName());
+		builder.append(" [").append(record.getLoggerName()).append("] ");
+		builder.append(formatMessage(record)).append(System.lineSeparator());
+		if (record.getThrown() != null) {
+			StringWriter trace = new StringWriter();
+			record.getThrown().printStackTrace(new PrintWriter(trace));
+			builder.append(trace);
+		}
+		return builder.toString();
+	}
+
+}
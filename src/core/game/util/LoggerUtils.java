@@ -1,14 +1,35 @@
 package core.game.util;
 
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * The static-utility class that contains logger utility functions.
+ * The static-utility class that contains logger utility functions. The first
+ * time a logger is created, the handlers of the root logger are replaced with
+ * an {@link AsyncLogHandler} so that no thread which logs ever waits on the
+ * console.
  *
  * @author lare96 <http://github.com/lare96>
  */
 public final class LoggerUtils {
 
+    /**
+     * The maximum amount of records each logger may publish per second.
+     */
+    public static final int RATE_LIMIT = 100;
+
+    /**
+     * The amount of records that may be waiting to be written.
+     */
+    public static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The handler every record is written through.
+     */
+    private static final AsyncLogHandler handler = install();
+
     /**
      * The default constructor.
      *
@@ -52,4 +73,33 @@ public final class LoggerUtils {
     public static Logger getGlobal() {
         return Logger.getLogger("Netty 4.0 Game Server");
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the handler every record is written through.
+     *
+     * @return the asynchronous handler.
+     */
+    public static AsyncLogHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * Replaces the handlers of the root logger with an asynchronous handler
+     * writing to the console.
+     *
+     * @return the asynchronous handler.
+     */
+    private static AsyncLogHandler install() {
+        ConsoleHandler console = new ConsoleHandler();
+        console.setFormatter(new LogFormatter());
+        console.setLevel(Level.ALL);
+        AsyncLogHandler async = new AsyncLogHandler(console, BUFFER_SIZE, RATE_LIMIT);
+
+        Logger root = Logger.getLogger("");
+        for (Handler existing : root.getHandlers()) {
+            root.removeHandler(existing);
+        }
+        root.addHandler(async);
+        return async;
+    }
+}
@@ -0,0 +1,95 @@
+package core.game.util;
+
+/**
+ * The static-utility class that contains player name utility functions.
+ *
+ * @author 7Winds
+ */
+public final class NameUtils {
+
+	/**
+	 * The characters that a base 37 encoded name can contain, in encoding order.
+	 */
+	private static final char[] VALID_CHARACTERS = { '_', 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l',
+			'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', '0', '1', '2', '3', '4', '5', '6', '7',
+			'8', '9' };
+
+	/**
+	 * The default constructor.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if this class is instantiated.
+	 */
+	private NameUtils() {
+		throw new UnsupportedOperationException("This class cannot be instantiated!");
+	}
+
+	/**
+	 * Encodes a name as a base 37 {@code long}. Characters other than letters and digits are encoded as spaces and
+	 * only the first {@code 12} characters are used.
+	 *
+	 * @param name
+	 *            the name to encode.
+	 * @return the encoded name.
+	 */
+	public static long encodeBase37(String name) {
+		long encoded = 0;
+		for (int i = 0; i < name.length() && i < 12; i++) {
+			char c = name.charAt(i);
+			encoded *= 37;
+			if (c >= 'A' && c <= 'Z') {
+				encoded += 1 + c - 'A';
+			} else if (c >= 'a' && c <= 'z') {
+				encoded += 1 + c - 'a';
+			} else if (c >= '0' && c <= '9') {
+				encoded += 27 + c - '0';
+			}
+		}
+		while (encoded % 37 == 0 && encoded != 0) {
+			encoded /= 37;
+		}
+		return encoded;
+	}
+
+	/**
+	 * Checks if a name can be used as a username. A valid name has between {@code 1} and {@code 12} characters, all of
+	 * them letters, digits, spaces or underscores, and neither starts nor ends with a space or underscore. Names which
+	 * break these rules would otherwise share the base 37 encoding of another name, or encode as {@code 0}.
+	 *
+	 * @param name
+	 *            the name to check.
+	 * @return {@code true} if the name is valid.
+	 */
+	public static boolean isValidName(String name) {
+		if (name.isEmpty() || name.length() > 12) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			boolean separator = c == ' ' || c == '_';
+			if (separator ? i == 0 || i == name.length() - 1
+					: (c < 'A' || c > 'Z') && (c < 'a' || c > 'z') && (c < '0' || c > '9')) {
+				return false;
+			}
+		}
+		return encodeBase37(name) != 0;
+	}
+
+	/**
+	 * Decodes a base 37 encoded name.
+	 *
+	 * @param encoded
+	 *            the encoded name.
+	 * @return the decoded name, with spaces as underscores.
+	 */
+	public static String decodeBase37(long encoded) {
+		char[] characters = new char[12];
+		int index = characters.length;
+		while (encoded != 0 && index > 0) {
+			characters[--index] = VALID_CHARACTERS[(int) (encoded % 37)];
+			encoded /= 37;
+		}
+		return new String(characters, index, characters.length - index);
+	}
+
+}
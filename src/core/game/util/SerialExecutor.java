@@ -0,0 +1,99 @@
+package core.game.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * An {@link Executor} that runs its tasks one at a time, in the order they were submitted, on another executor. This
+ * gives work which must not run concurrently, such as the writes to a store, the ordering of a dedicated thread
+ * without keeping one for it.
+ *
+ * @author 7Winds
+ */
+public final class SerialExecutor implements Executor {
+
+	/**
+	 * The executor the tasks are run on.
+	 */
+	private final Executor executor;
+
+	/**
+	 * The tasks waiting to run.
+	 */
+	private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+	/**
+	 * Whether a task is running or has been handed to {@code executor}.
+	 */
+	private boolean active;
+
+	/**
+	 * Creates a serial executor.
+	 *
+	 * @param executor The executor the tasks are run on.
+	 */
+	public SerialExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public synchronized void execute(Runnable task) {
+		tasks.offer(task);
+		if (!active) {
+			active = true;
+			executor.execute(this::run);
+		}
+	}
+
+	/**
+	 * Runs the queued tasks until there are none left. An exception thrown by a task is passed to the thread's
+	 * uncaught exception handler, while an error ends the run and is rethrown once the remaining tasks have been
+	 * handed to a new run.
+	 */
+	private void run() {
+		boolean completed = false;
+		try {
+			Runnable task;
+			while ((task = next()) != null) {
+				try {
+					task.run();
+				} catch (RuntimeException e) {
+					Thread thread = Thread.currentThread();
+					thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+				}
+			}
+			completed = true;
+		} finally {
+			if (!completed) {
+				resume();
+			}
+		}
+	}
+
+	/**
+	 * Hands the remaining tasks to a new run after a task threw an error, or marks this executor as idle if there are
+	 * none.
+	 */
+	private synchronized void resume() {
+		if (tasks.isEmpty()) {
+			active = false;
+		} else {
+			executor.execute(this::run);
+		}
+	}
+
+	/**
+	 * Takes the next task, or marks this executor as idle if there is none.
+	 *
+	 * @return The task, or {@code null} if there is none.
+	 */
+	private synchronized Runnable next() {
+		Runnable task = tasks.poll();
+		if (task == null) {
+			active = false;
+		}
+		return task;
+	}
+
+}
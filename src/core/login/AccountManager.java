@@ -0,0 +1,226 @@
+package core.login;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.persistence.PersistenceService;
+import core.game.persistence.PlayerSnapshot;
+import core.game.util.LoggerUtils;
+import core.game.util.NameUtils;
+import core.net.codec.login.LoginConstants;
+
+/**
+ * The authority over every account: checks credentials, tracks which world each online player is in, and loads and
+ * saves players through a {@link PersistenceService}. There is exactly one per set of worlds sharing their accounts,
+ * either inside a {@link LoginServer} or behind the {@link LocalAccountService} of a standalone world.
+ * <p>
+ * A player is claimed by a world when it logs in and released when that world logs it out or disconnects, so it can
+ * never be online in two worlds at once. A logout's save is recorded before the claim is released, so the next login
+ * always loads it. Saves from a world which no longer holds the claim of a player are discarded, as another world has
+ * since loaded it.
+ *
+ * @author 7Winds
+ */
+public final class AccountManager {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(AccountManager.class);
+
+	/**
+	 * The credentials of every account.
+	 */
+	private final CredentialStore credentials;
+
+	/**
+	 * The service players are loaded and saved with.
+	 */
+	private final PersistenceService persistence;
+
+	/**
+	 * The executor credentials are checked on, shared with {@link #persistence}.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * The world each online player is in, keyed by base 37 encoded username.
+	 */
+	private final ConcurrentMap<Long, Integer> online = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the account manager.
+	 *
+	 * @param credentials The credentials of every account.
+	 * @param persistence The service players are loaded and saved with.
+	 * @param executor The executor blocking work is run on, shut down along with this manager.
+	 */
+	public AccountManager(CredentialStore credentials, PersistenceService persistence, ExecutorService executor) {
+		this.credentials = credentials;
+		this.persistence = persistence;
+		this.executor = executor;
+	}
+
+	/**
+	 * Checks the credentials of a player, claims it for a world unless it is already online, then loads its save.
+	 *
+	 * @param world The id of the world.
+	 * @param username The username.
+	 * @param password The password.
+	 * @return A future completed with the result of the login.
+	 */
+	public CompletableFuture<LoginResult> login(int world, String username, String password) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return credentials.check(username, password);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, executor).thenCompose(valid -> {
+			if (!valid) {
+				return CompletableFuture.completedFuture(LoginResult.failed(LoginConstants.STATUS_INVALID_CREDENTIALS));
+			}
+			Long key = NameUtils.encodeBase37(username);
+			if (online.putIfAbsent(key, world) != null) {
+				return CompletableFuture.completedFuture(LoginResult.failed(LoginConstants.STATUS_ACCOUNT_ONLINE));
+			}
+			return persistence.load(username).handle((save, error) -> {
+				if (error != null) {
+					logger.log(Level.SEVERE, "Error while loading " + username + ".", error);
+					online.remove(key, world);
+					return LoginResult.failed(LoginConstants.STATUS_COULD_NOT_COMPLETE);
+				}
+				return new LoginResult(LoginConstants.STATUS_OK, save == null ? 0 : save.getRights(), save);
+			});
+		}).exceptionally(error -> {
+			logger.log(Level.SEVERE, "Error while checking the credentials of " + username + ".", error);
+			return LoginResult.failed(LoginConstants.STATUS_COULD_NOT_COMPLETE);
+		});
+	}
+
+	/**
+	 * Claims a player which is already in a world, when that world registers again after losing its connection, unless
+	 * another world has claimed it since.
+	 *
+	 * @param world The id of the world.
+	 * @param username The base 37 encoded username.
+	 * @return {@code true} if the world holds the claim, {@code false} if another world does.
+	 */
+	public boolean claim(int world, long username) {
+		Integer claimant = online.putIfAbsent(username, world);
+		return claimant == null || claimant == world;
+	}
+
+	/**
+	 * Saves a player which stays online, unless another world holds its claim.
+	 *
+	 * @param world The id of the world.
+	 * @param snapshot The save.
+	 */
+	public void save(int world, PlayerSnapshot snapshot) {
+		if (mayWrite(world, NameUtils.encodeBase37(snapshot.getUsername()))) {
+			persistence.save(snapshot);
+		}
+	}
+
+	/**
+	 * Saves a player which has left a world, unless another world holds its claim, and releases its claim.
+	 *
+	 * @param world The id of the world.
+	 * @param username The username.
+	 * @param snapshot The save, or {@code null} if the player never entered the world.
+	 */
+	public void logout(int world, String username, PlayerSnapshot snapshot) {
+		Long key = NameUtils.encodeBase37(username);
+		if (snapshot != null && mayWrite(world, key)) {
+			persistence.save(snapshot);
+		}
+		online.remove(key, world);
+	}
+
+	/**
+	 * Checks if a world may write the save of a player: it holds its claim, or nobody does, as when the world held it
+	 * until it disconnected.
+	 *
+	 * @param world The id of the world.
+	 * @param username The base 37 encoded username.
+	 * @return {@code true} if the world may write the save.
+	 */
+	private boolean mayWrite(int world, long username) {
+		Integer claimant = online.get(username);
+		if (claimant == null || claimant == world) {
+			return true;
+		}
+		logger.log(Level.WARNING, "Discarded a save of " + NameUtils.decodeBase37(username) + " from world " + world
+				+ ", which is online in world " + claimant + ".");
+		return false;
+	}
+
+	/**
+	 * Releases every player claimed by a world which has disconnected.
+	 *
+	 * @param world The id of the world.
+	 * @return The base 37 encoded usernames of the released players.
+	 */
+	public List<Long> disconnect(int world) {
+		List<Long> released = new ArrayList<>();
+		online.forEach((player, claimant) -> {
+			if (claimant == world && online.remove(player, claimant)) {
+				released.add(player);
+			}
+		});
+		return released;
+	}
+
+	/**
+	 * Gets the world a player is online in.
+	 *
+	 * @param player The base 37 encoded username.
+	 * @return The id of the world, or 0 if the player is offline.
+	 */
+	public int getWorld(long player) {
+		Integer world = online.get(player);
+		return world == null ? 0 : world;
+	}
+
+	/**
+	 * Passes every online player and the world it is in to an action.
+	 *
+	 * @param action The action.
+	 */
+	public void forEachOnline(BiConsumer<Long, Integer> action) {
+		online.forEach(action);
+	}
+
+	/**
+	 * Gets the amount of online players across every world.
+	 *
+	 * @return The amount of players.
+	 */
+	public int getOnlineCount() {
+		return online.size();
+	}
+
+	/**
+	 * Writes every recorded save and closes the stores.
+	 */
+	public void shutdown() {
+		persistence.shutdown();
+		executor.shutdown();
+		try {
+			credentials.close();
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, "Error while closing the credential store.", e);
+		}
+	}
+
+}
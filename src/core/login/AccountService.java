@@ -0,0 +1,61 @@
+package core.login;
+
+import java.util.concurrent.CompletableFuture;
+
+import core.game.persistence.PlayerSnapshot;
+
+/**
+ * The accounts of the players of a world, as seen by that world. The accounts are owned by an {@link AccountManager},
+ * either in this process through a {@link LocalAccountService} or in a {@link LoginServer} shared by several worlds
+ * through a {@link RemoteAccountService}. Every method may be called from any thread and none of them block.
+ *
+ * @author 7Winds
+ */
+public interface AccountService {
+
+	/**
+	 * Checks the credentials of a player, claims it for this world unless it is already online in any world, then
+	 * loads its save.
+	 *
+	 * @param username The username.
+	 * @param password The password.
+	 * @return A future completed with the result of the login.
+	 */
+	CompletableFuture<LoginResult> login(String username, String password);
+
+	/**
+	 * Saves a player which stays online.
+	 *
+	 * @param snapshot The save.
+	 */
+	void save(PlayerSnapshot snapshot);
+
+	/**
+	 * Saves a player which has left this world and releases its claim, allowing it to log in again.
+	 *
+	 * @param username The username.
+	 * @param snapshot The save, or {@code null} if the player never entered the world.
+	 */
+	void logout(String username, PlayerSnapshot snapshot);
+
+	/**
+	 * Takes the next player which was found online in another world, and must be kicked from this one. This happens
+	 * when this world loses its connection to the login server for longer than the login server waits for it.
+	 *
+	 * @return The username, or {@code null} if there is none.
+	 */
+	String pollRevoked();
+
+	/**
+	 * Gets the bus this world exchanges cross-world messages on.
+	 *
+	 * @return The message bus.
+	 */
+	MessageBus getMessageBus();
+
+	/**
+	 * Hands every save made so far over to be made durable, then releases the resources of this service.
+	 */
+	void shutdown();
+
+}
@@ -0,0 +1,162 @@
+package core.login;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import core.game.util.NameUtils;
+
+/**
+ * The salted password hashes of every account, kept in memory and appended to a file as accounts are created.
+ * <p>
+ * An account is created the first time its username logs in, with the password it logged in with. Each line of the
+ * file holds one account: its username, salt and PBKDF2 hash, the latter two in base 64. Hashing is deliberately slow,
+ * so {@link #check} must never be called from an event loop or the engine thread.
+ *
+ * @author 7Winds
+ */
+public final class CredentialStore implements Closeable {
+
+	/**
+	 * The algorithm passwords are hashed with.
+	 */
+	private static final String ALGORITHM = "PBKDF2WithHmacSHA1";
+
+	/**
+	 * The amount of iterations of the hash.
+	 */
+	private static final int ITERATIONS = 10000;
+
+	/**
+	 * The length of a salt in bytes.
+	 */
+	private static final int SALT_LENGTH = 16;
+
+	/**
+	 * The length of a hash in bits.
+	 */
+	private static final int HASH_LENGTH = 160;
+
+	/**
+	 * The source of the salts.
+	 */
+	private final SecureRandom random = new SecureRandom();
+
+	/**
+	 * The salt and hash of each account, keyed by base 37 encoded username.
+	 */
+	private final ConcurrentMap<Long, byte[][]> accounts = new ConcurrentHashMap<>();
+
+	/**
+	 * The file new accounts are appended to.
+	 */
+	private final BufferedWriter writer;
+
+	/**
+	 * Opens the credential store, reading every account in {@code file}.
+	 *
+	 * @param file The file, created if it does not exist.
+	 * @throws IOException If the file could not be read or opened.
+	 */
+	public CredentialStore(Path file) throws IOException {
+		if (Files.exists(file)) {
+			Base64.Decoder decoder = Base64.getDecoder();
+			for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+				String[] parts = line.split(" ");
+				if (parts.length == 3) {
+					accounts.put(NameUtils.encodeBase37(parts[0]),
+							new byte[][] { decoder.decode(parts[1]), decoder.decode(parts[2]) });
+				}
+			}
+		}
+		writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Checks the password of an account, creating the account if it does not exist yet.
+	 *
+	 * @param username The username.
+	 * @param password The password.
+	 * @return {@code true} if the password is correct or the account was created with it.
+	 * @throws IOException If a new account could not be written.
+	 */
+	public boolean check(String username, String password) throws IOException {
+		Long key = NameUtils.encodeBase37(username);
+		byte[][] account = accounts.get(key);
+		if (account == null) {
+			byte[] salt = new byte[SALT_LENGTH];
+			random.nextBytes(salt);
+			byte[][] created = new byte[][] { salt, hash(password, salt) };
+			account = accounts.putIfAbsent(key, created);
+			if (account == null) {
+				append(username, created);
+				return true;
+			}
+		}
+		return MessageDigest.isEqual(account[1], hash(password, account[0]));
+	}
+
+	/**
+	 * Gets the amount of accounts.
+	 *
+	 * @return The amount of accounts.
+	 */
+	public int size() {
+		return accounts.size();
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (writer) {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Appends a new account to the file.
+	 *
+	 * @param username The username.
+	 * @param account The salt and hash of the account.
+	 * @throws IOException If the account could not be written.
+	 */
+	private void append(String username, byte[][] account) throws IOException {
+		Base64.Encoder encoder = Base64.getEncoder();
+		synchronized (writer) {
+			writer.write(NameUtils.decodeBase37(NameUtils.encodeBase37(username)) + " "
+					+ encoder.encodeToString(account[0]) + " " + encoder.encodeToString(account[1]));
+			writer.newLine();
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Hashes a password.
+	 *
+	 * @param password The password.
+	 * @param salt The salt.
+	 * @return The hash.
+	 */
+	private static byte[] hash(String password, byte[] salt) {
+		try {
+			PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, ITERATIONS, HASH_LENGTH);
+			return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(ALGORITHM + " is not available.", e);
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+package core.login;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import core.game.persistence.PlayerSnapshot;
+import core.net.packet.PacketBuilder;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The {@link AccountService} of a world which owns its accounts, calling an {@link AccountManager} in the same process
+ * instead of a {@link LoginServer}. It also stands in for a login server when testing worlds without one: its
+ * {@link MessageBus} is linked to a {@link MessageHub} in the same process, exchanging the same frames a connection to
+ * a login server would carry.
+ *
+ * @author 7Winds
+ */
+public final class LocalAccountService implements AccountService {
+
+	/**
+	 * The manager of the accounts.
+	 */
+	private final AccountManager manager;
+
+	/**
+	 * The id of the world.
+	 */
+	private final int world;
+
+	/**
+	 * The hub the world's messages are routed by.
+	 */
+	private final MessageHub hub;
+
+	/**
+	 * The bus the world exchanges cross-world messages on.
+	 */
+	private final MessageBus bus = new MessageBus();
+
+	/**
+	 * Creates the local account service.
+	 *
+	 * @param manager The manager of the accounts.
+	 * @param world The id of the world.
+	 */
+	public LocalAccountService(AccountManager manager, int world) {
+		this.manager = manager;
+		this.world = world;
+		this.hub = new MessageHub(manager);
+		hub.attach(world, deliverTo(bus::receive), bus.getSession(), bus.getHubSession(), bus.getReceived());
+		bus.connected(deliverTo(in -> {
+			hub.receive(world, in);
+			hub.flush();
+		}), hub.getSession(), hub.getReceived(world, bus.getSession()));
+	}
+
+	@Override
+	public CompletableFuture<LoginResult> login(String username, String password) {
+		return manager.login(world, username, password);
+	}
+
+	@Override
+	public void save(PlayerSnapshot snapshot) {
+		manager.save(world, snapshot);
+	}
+
+	@Override
+	public void logout(String username, PlayerSnapshot snapshot) {
+		manager.logout(world, username, snapshot);
+	}
+
+	@Override
+	public String pollRevoked() {
+		// The manager is in this process, so the world can never lose its claims.
+		return null;
+	}
+
+	@Override
+	public MessageBus getMessageBus() {
+		return bus;
+	}
+
+	@Override
+	public void shutdown() {
+		manager.shutdown();
+	}
+
+	/**
+	 * Creates a sink which hands every frame straight to a receiver, after its opcode, then releases it.
+	 *
+	 * @param receiver The receiver.
+	 * @return The sink.
+	 */
+	private static Consumer<ByteBuf> deliverTo(Consumer<PacketBuilder> receiver) {
+		return frame -> {
+			try {
+				receiver.accept(PacketBuilder.create(frame.skipBytes(1)));
+			} finally {
+				frame.release();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,126 @@
+package core.login;
+
+import java.io.IOException;
+
+import core.game.persistence.PlayerCodec;
+import core.game.persistence.PlayerSnapshot;
+import core.net.packet.PacketBuilder;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+
+/**
+ * The constants of the protocol spoken between world servers and the {@link LoginServer}.
+ * <p>
+ * Every message is a frame prefixed with its length as an unsigned short, starting with its opcode. The world first
+ * registers itself, after which it may send any amount of login requests without waiting for their responses: each
+ * carries an id which its response echoes, so responses may arrive in any order. Saves and logouts are not answered.
+ * Cross-world messages travel both ways in batches, at most one per tick, as described by {@link MessageLink}.
+ * Strings are RuneScape strings, and a save is a byte of whether one follows, then the save encoded with
+ * {@link PlayerCodec}.
+ *
+ * @author 7Winds
+ */
+public final class LoginProtocol {
+
+	/**
+	 * The maximum length of a frame.
+	 */
+	public static final int MAXIMUM_FRAME_LENGTH = 0xFFFF;
+
+	/**
+	 * The amount of bytes of the length prefix of a frame.
+	 */
+	public static final int LENGTH_FIELD_SIZE = 2;
+
+	/**
+	 * Registers a world: its id as a short, the shared key as a string, the amount of players already in the world as
+	 * a short followed by each of their base 37 encoded usernames, then the session of its {@link MessageBus} and of
+	 * the {@link MessageHub} it last registered with as longs, and the sequence number of the last batch it received
+	 * from that hub as an int. Answered with the same opcode and a status, followed if the world was accepted by the
+	 * session of the hub as a long, the sequence number of the last batch it received from the world as an int, then
+	 * the amount of the world's players which another world claimed while it was disconnected as a short, followed by
+	 * each of their base 37 encoded usernames. The world must kick those players, and its saves of them are discarded.
+	 */
+	public static final int REGISTER = 1;
+
+	/**
+	 * Requests a login: the request id as an int, then the username and password as strings. Answered with the same
+	 * opcode, the request id, the status and rights as bytes, then the save.
+	 */
+	public static final int LOGIN = 2;
+
+	/**
+	 * Saves a player: the username as a string followed by the save.
+	 */
+	public static final int SAVE = 3;
+
+	/**
+	 * Logs a player out: the username as a string followed by the save, if it entered the world.
+	 */
+	public static final int LOGOUT = 4;
+
+	/**
+	 * Tells the login server the world is shutting down, once everything before it has been sent. The login server
+	 * closes the connection, releasing the players of the world.
+	 */
+	public static final int DISCONNECT = 5;
+
+	/**
+	 * A batch of cross-world messages: its sequence number, or 0 if it only acknowledges, and the sequence number of
+	 * the last batch received from the other side, as ints, followed by a {@link MessageBatch}.
+	 */
+	public static final int MESSAGES = 6;
+
+	/**
+	 * The highest world id.
+	 */
+	public static final int MAXIMUM_WORLD = 0x7FFF;
+
+	/**
+	 * Default private constructor to prevent instantiation by other classes.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if this class is instantiated.
+	 */
+	private LoginProtocol() {
+		throw new UnsupportedOperationException("This class cannot be instantiated!");
+	}
+
+	/**
+	 * Adds the handlers splitting the incoming bytes into frames and prefixing outgoing frames with their length.
+	 *
+	 * @param pipeline The pipeline.
+	 */
+	static void addFraming(ChannelPipeline pipeline) {
+		pipeline.addLast(new LengthFieldBasedFrameDecoder(MAXIMUM_FRAME_LENGTH + LENGTH_FIELD_SIZE, 0,
+				LENGTH_FIELD_SIZE, 0, LENGTH_FIELD_SIZE));
+		pipeline.addLast(new LengthFieldPrepender(LENGTH_FIELD_SIZE));
+	}
+
+	/**
+	 * Writes a save.
+	 *
+	 * @param out The builder the save is written to.
+	 * @param snapshot The save, or {@code null} if there is none.
+	 */
+	static void putSave(PacketBuilder out, PlayerSnapshot snapshot) {
+		out.put(snapshot == null ? 0 : 1);
+		if (snapshot != null) {
+			PlayerCodec.encode(snapshot, out);
+		}
+	}
+
+	/**
+	 * Reads a save.
+	 *
+	 * @param username The username of the player.
+	 * @param in The builder the save is read from.
+	 * @return The save, or {@code null} if there is none.
+	 * @throws IOException If the save was written in an unknown version.
+	 */
+	static PlayerSnapshot getSave(String username, PacketBuilder in) throws IOException {
+		return in.get(false) == 0 ? null : PlayerCodec.decode(username, in);
+	}
+
+}
@@ -0,0 +1,87 @@
+package core.login;
+
+import core.game.persistence.PlayerSnapshot;
+import core.net.codec.login.LoginConstants;
+
+/**
+ * The outcome of a login request checked by an {@link AccountService}.
+ *
+ * @author 7Winds
+ */
+public final class LoginResult {
+
+	/**
+	 * The login status, one of the {@code STATUS_} constants in {@link LoginConstants}.
+	 */
+	private final int status;
+
+	/**
+	 * The rights of the player.
+	 */
+	private final int rights;
+
+	/**
+	 * The save of the player, or {@code null} if it is a new player or the login failed.
+	 */
+	private final PlayerSnapshot save;
+
+	/**
+	 * Creates a login result.
+	 *
+	 * @param status The login status, one of the {@code STATUS_} constants in {@link LoginConstants}.
+	 * @param rights The rights of the player.
+	 * @param save The save of the player, or {@code null} if it is a new player or the login failed.
+	 */
+	public LoginResult(int status, int rights, PlayerSnapshot save) {
+		this.status = status;
+		this.rights = rights;
+		this.save = save;
+	}
+
+	/**
+	 * Creates the result of a failed login.
+	 *
+	 * @param status The login status, one of the {@code STATUS_} constants in {@link LoginConstants}.
+	 * @return The result.
+	 */
+	public static LoginResult failed(int status) {
+		return new LoginResult(status, 0, null);
+	}
+
+	/**
+	 * Gets the login status.
+	 *
+	 * @return The status, one of the {@code STATUS_} constants in {@link LoginConstants}.
+	 */
+	public int getStatus() {
+		return status;
+	}
+
+	/**
+	 * Gets the rights of the player.
+	 *
+	 * @return The rights.
+	 */
+	public int getRights() {
+		return rights;
+	}
+
+	/**
+	 * Gets the save of the player.
+	 *
+	 * @return The save, or {@code null} if it is a new player or the login failed.
+	 */
+	public PlayerSnapshot getSave() {
+		return save;
+	}
+
+	/**
+	 * Checks whether the login succeeded.
+	 *
+	 * @return {@code true} if the player may enter the world.
+	 */
+	public boolean isSuccessful() {
+		return status == LoginConstants.STATUS_OK;
+	}
+
+}
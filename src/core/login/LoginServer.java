@@ -0,0 +1,250 @@
+package core.login;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.Configuration;
+import core.Server;
+import core.game.persistence.MappedPlayerStore;
+import core.game.persistence.PersistenceService;
+import core.game.util.BlockingExecutors;
+import core.game.util.LoggerUtils;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+
+/**
+ * The login server: a separate process owning the accounts of every world connected to it over the
+ * {@link LoginProtocol}, so no two worlds duplicate account I/O and a player can only be online in one of them. It
+ * also routes the cross-world messages of those worlds through its {@link MessageHub}, once per tick.
+ * <p>
+ * A world which shuts down releases its players straight away. A world which loses its connection keeps them
+ * claimed for {@link Configuration#world_grace_period} seconds, as they are still in its game, so they cannot log in
+ * anywhere else until it registers again or the grace period expires.
+ *
+ * @author 7Winds
+ */
+public final class LoginServer {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(LoginServer.class);
+
+	/**
+	 * The configuration file used when none is given on the command line.
+	 */
+	private static final String CONFIGURATION_FILE = "data/server.properties";
+
+	/**
+	 * The manager of the accounts.
+	 */
+	private final AccountManager manager;
+
+	/**
+	 * The hub cross-world messages are routed by.
+	 */
+	private final MessageHub hub;
+
+	/**
+	 * The connection of each registered world, keyed by world id.
+	 */
+	private final ConcurrentMap<Integer, Channel> worlds = new ConcurrentHashMap<>();
+
+	/**
+	 * A token for each world which lost its connection and whose players are still claimed, keyed by world id. Guarded
+	 * by itself, together with attaching and detaching worlds.
+	 */
+	private final ConcurrentMap<Integer, Object> suspended = new ConcurrentHashMap<>();
+
+	/**
+	 * The thread accepting connections.
+	 */
+	private final EventLoopGroup bossGroup = new NioEventLoopGroup(1);
+
+	/**
+	 * The threads handling the world connections.
+	 */
+	private final EventLoopGroup workerGroup = new NioEventLoopGroup(1);
+
+	/**
+	 * The channel accepting connections, or {@code null} until bound.
+	 */
+	private Channel serverChannel;
+
+	/**
+	 * Whether this login server has been shut down.
+	 */
+	private boolean shutdown;
+
+	/**
+	 * Starts a login server from the command line.
+	 *
+	 * @param args The command-line arguments, optionally the path of the configuration file.
+	 */
+	public static void main(String[] args) {
+		try {
+			Server.loadConfiguration(Paths.get(args.length > 0 ? args[0] : CONFIGURATION_FILE));
+			ExecutorService blocking = BlockingExecutors.create("Accounts", Configuration.virtual_threads,
+					Configuration.blocking_threads);
+			PersistenceService persistence = new PersistenceService(
+					new MappedPlayerStore(Paths.get(Configuration.save_file)), blocking);
+			AccountManager manager = new AccountManager(new CredentialStore(Paths.get(Configuration.accounts_file)),
+					persistence, blocking);
+			LoginServer server = new LoginServer(manager);
+			server.bind(Configuration.login_server_port);
+			server.serverChannel.closeFuture().sync();
+			server.shutdown();
+		} catch (Throwable t) {
+			logger.log(Level.SEVERE, "Error while starting the login server.", t);
+		}
+	}
+
+	/**
+	 * Creates the login server.
+	 *
+	 * @param manager The manager of the accounts.
+	 */
+	public LoginServer(AccountManager manager) {
+		this.manager = manager;
+		this.hub = new MessageHub(manager);
+	}
+
+	/**
+	 * Starts accepting world connections, shutting down with the process.
+	 *
+	 * @param port The port.
+	 * @throws InterruptedException If interrupted while binding.
+	 */
+	public synchronized void bind(int port) throws InterruptedException {
+		ServerBootstrap bootstrap = new ServerBootstrap();
+		bootstrap.group(bossGroup, workerGroup).channel(NioServerSocketChannel.class)
+				.childOption(ChannelOption.TCP_NODELAY, true)
+				.childHandler(new ChannelInitializer<SocketChannel>() {
+					@Override
+					protected void initChannel(SocketChannel ch) {
+						LoginProtocol.addFraming(ch.pipeline());
+						ch.pipeline().addLast(new WorldConnectionHandler(LoginServer.this));
+					}
+				});
+		serverChannel = bootstrap.bind(port).sync().channel();
+		workerGroup.scheduleAtFixedRate(hub::flush, Configuration.tick_rate, Configuration.tick_rate,
+				TimeUnit.MILLISECONDS);
+		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "LoginServer-shutdown"));
+		logger.log(Level.INFO, "Login server online and bound to port " + port);
+	}
+
+	/**
+	 * Stops accepting connections, disconnects every world, then writes every recorded save.
+	 */
+	public synchronized void shutdown() {
+		if (shutdown) {
+			return;
+		}
+		shutdown = true;
+		if (serverChannel != null) {
+			serverChannel.close().awaitUninterruptibly();
+		}
+		workerGroup.shutdownGracefully().awaitUninterruptibly();
+		bossGroup.shutdownGracefully().awaitUninterruptibly();
+		manager.shutdown();
+		logger.log(Level.INFO, "Login server shut down.");
+	}
+
+	/**
+	 * Gets the manager of the accounts.
+	 *
+	 * @return The manager.
+	 */
+	public AccountManager getManager() {
+		return manager;
+	}
+
+	/**
+	 * Gets the hub cross-world messages are routed by.
+	 *
+	 * @return The hub.
+	 */
+	public MessageHub getHub() {
+		return hub;
+	}
+
+	/**
+	 * Records the connection of a world which is registering.
+	 *
+	 * @param world The id of the world.
+	 * @param channel The connection.
+	 * @return {@code true} if no other connection is registered for the world.
+	 */
+	boolean attach(int world, Channel channel) {
+		synchronized (suspended) {
+			if (worlds.putIfAbsent(world, channel) != null) {
+				return false;
+			}
+			suspended.remove(world);
+			return true;
+		}
+	}
+
+	/**
+	 * Checks if a connection is the one registered for a world.
+	 *
+	 * @param world The id of the world.
+	 * @param channel The connection.
+	 * @return {@code true} if it is.
+	 */
+	boolean isAttached(int world, Channel channel) {
+		return worlds.get(world) == channel;
+	}
+
+	/**
+	 * Forgets the connection of a world which has disconnected. Its players are released if it shut down, otherwise
+	 * they stay claimed until the grace period expires.
+	 *
+	 * @param world The id of the world.
+	 * @param channel The connection.
+	 * @param shutdown Whether the world shut down, rather than losing its connection.
+	 */
+	void detach(int world, Channel channel, boolean shutdown) {
+		synchronized (suspended) {
+			if (!worlds.remove(world, channel)) {
+				return;
+			}
+			if (shutdown) {
+				hub.detach(world, manager.disconnect(world));
+				return;
+			}
+			Object token = new Object();
+			suspended.put(world, token);
+			hub.detach(world, Collections.emptyList());
+			workerGroup.schedule(() -> expire(world, token), Configuration.world_grace_period, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Releases the players of a world whose grace period has expired, unless it has registered again since.
+	 *
+	 * @param world The id of the world.
+	 * @param token The token of the suspension which expired.
+	 */
+	private void expire(int world, Object token) {
+		synchronized (suspended) {
+			if (suspended.remove(world, token)) {
+				logger.log(Level.WARNING, "World {0} did not reconnect in time, releasing its players.", world);
+				hub.detach(world, manager.disconnect(world));
+			}
+		}
+	}
+
+}
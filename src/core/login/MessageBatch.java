@@ -0,0 +1,156 @@
+package core.login;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import core.net.packet.PacketBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * The cross-world messages gathered during one tick for one destination. Presence is coalesced, so a player entering
+ * and leaving worlds several times within the tick is only sent once, with where it ended up. Private messages and
+ * broadcasts are kept in order, encoded as they are added.
+ * <p>
+ * Encoded, a batch is the amount of presence updates as a short followed by each base 37 encoded username and world id
+ * as a long and a short, then the amount of messages as a short followed by the messages.
+ *
+ * @author 7Winds
+ */
+public final class MessageBatch {
+
+	/**
+	 * The encoded size at which a batch should be sent without waiting for the end of the tick, well below the maximum
+	 * frame length of the {@link LoginProtocol}.
+	 */
+	public static final int MAXIMUM_SIZE = 0x8000;
+
+	/**
+	 * The type of a private message.
+	 */
+	private static final int PRIVATE_MESSAGE = 0;
+
+	/**
+	 * The type of a broadcast.
+	 */
+	private static final int BROADCAST = 1;
+
+	/**
+	 * The encoded size of a presence update.
+	 */
+	private static final int PRESENCE_SIZE = 10;
+
+	/**
+	 * The world each player is now in, or 0 if it has gone offline, keyed by base 37 encoded username.
+	 */
+	private final Map<Long, Integer> presence = new LinkedHashMap<>();
+
+	/**
+	 * The encoded messages.
+	 */
+	private final ByteBuf messages = Unpooled.buffer();
+
+	/**
+	 * The builder the messages are encoded with.
+	 */
+	private final PacketBuilder writer = PacketBuilder.create(messages);
+
+	/**
+	 * The amount of encoded messages.
+	 */
+	private int messageCount;
+
+	/**
+	 * Records where a player now is, replacing any earlier update of the player in this batch.
+	 *
+	 * @param player The base 37 encoded username.
+	 * @param world The id of the world the player is in, or 0 if it has gone offline.
+	 */
+	public void presence(long player, int world) {
+		presence.put(player, world);
+	}
+
+	/**
+	 * Adds a private message.
+	 *
+	 * @param from The base 37 encoded username of the sender.
+	 * @param to The base 37 encoded username of the recipient.
+	 * @param rights The rights of the sender.
+	 * @param id The id of the message, unique across worlds.
+	 * @param text The text, packed by the client, of at most 255 bytes.
+	 */
+	public void privateMessage(long from, long to, int rights, int id, byte[] text) {
+		writer.put(PRIVATE_MESSAGE).putLong(from).putLong(to).put(rights).putInt(id).put(text.length)
+				.putBytes(text, text.length);
+		messageCount++;
+	}
+
+	/**
+	 * Adds a broadcast.
+	 *
+	 * @param message The message.
+	 */
+	public void broadcast(String message) {
+		writer.put(BROADCAST).putString(message);
+		messageCount++;
+	}
+
+	/**
+	 * Checks whether this batch has nothing to send.
+	 *
+	 * @return {@code true} if there are no presence updates and no messages.
+	 */
+	public boolean isEmpty() {
+		return presence.isEmpty() && messageCount == 0;
+	}
+
+	/**
+	 * Gets the encoded size of this batch.
+	 *
+	 * @return The size in bytes.
+	 */
+	public int size() {
+		return 4 + presence.size() * PRESENCE_SIZE + messages.readableBytes();
+	}
+
+	/**
+	 * Encodes this batch, then empties it.
+	 *
+	 * @param out The builder the batch is written to.
+	 */
+	public void writeTo(PacketBuilder out) {
+		out.putShort(presence.size());
+		for (Map.Entry<Long, Integer> entry : presence.entrySet()) {
+			out.putLong(entry.getKey()).putShort(entry.getValue());
+		}
+		out.putShort(messageCount).putBytes(messages);
+		presence.clear();
+		messages.clear();
+		messageCount = 0;
+	}
+
+	/**
+	 * Decodes a batch, passing each of its updates and messages to a listener in order.
+	 *
+	 * @param in The builder the batch is read from.
+	 * @param listener The listener.
+	 */
+	public static void read(PacketBuilder in, MessageListener listener) {
+		for (int count = in.getShort(false); count > 0; count--) {
+			long player = in.getLong();
+			listener.onPresence(player, in.getShort(false));
+		}
+		for (int count = in.getShort(false); count > 0; count--) {
+			if (in.get(false) == PRIVATE_MESSAGE) {
+				long from = in.getLong();
+				long to = in.getLong();
+				int rights = in.get(false);
+				int id = in.getInt();
+				listener.onPrivateMessage(from, to, rights, id, in.getBytes(in.get(false)));
+			} else {
+				listener.onBroadcast(in.getString());
+			}
+		}
+	}
+
+}
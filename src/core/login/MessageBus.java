@@ -0,0 +1,164 @@
+package core.login;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import core.net.packet.PacketBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * A world's end of the cross-world messaging bus, through which private messages, presence and broadcasts reach the
+ * other worlds by way of the {@link MessageHub}.
+ * <p>
+ * Everything published during a tick is gathered in one {@link MessageBatch} and sent by {@link #flush} at the end of
+ * the tick, so chatty traffic costs one frame per tick rather than one round trip per message. Received batches are
+ * queued by the connection and handed to a {@link MessageListener} by {@link #deliver} at the start of the next tick.
+ * Apart from the methods used by the connection, every method must only be called from the engine thread.
+ *
+ * @author 7Winds
+ */
+public final class MessageBus {
+
+	/**
+	 * The reliable stream of batches to and from the hub.
+	 */
+	private final MessageLink link = new MessageLink(ThreadLocalRandom.current().nextLong());
+
+	/**
+	 * The messages published during this tick.
+	 */
+	private final MessageBatch outgoing = new MessageBatch();
+
+	/**
+	 * The received batches waiting to be delivered, each positioned at the start of its batch.
+	 */
+	private final Queue<ByteBuf> incoming = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Publishes where a player now is.
+	 *
+	 * @param player The base 37 encoded username.
+	 * @param world The id of the world the player is in, or 0 if it has gone offline.
+	 */
+	public void presence(long player, int world) {
+		outgoing.presence(player, world);
+		flushIfFull();
+	}
+
+	/**
+	 * Sends a private message to a player in another world.
+	 *
+	 * @param from The base 37 encoded username of the sender.
+	 * @param to The base 37 encoded username of the recipient.
+	 * @param rights The rights of the sender.
+	 * @param id The id of the message, unique across worlds.
+	 * @param text The text, packed by the client.
+	 */
+	public void privateMessage(long from, long to, int rights, int id, byte[] text) {
+		outgoing.privateMessage(from, to, rights, id, text);
+		flushIfFull();
+	}
+
+	/**
+	 * Broadcasts a message to every other world.
+	 *
+	 * @param message The message.
+	 */
+	public void broadcast(String message) {
+		outgoing.broadcast(message);
+		flushIfFull();
+	}
+
+	/**
+	 * Sends everything published during this tick in one batch.
+	 */
+	public void flush() {
+		link.send(outgoing, PooledByteBufAllocator.DEFAULT);
+	}
+
+	/**
+	 * Hands every received batch to a listener.
+	 *
+	 * @param listener The listener.
+	 */
+	public void deliver(MessageListener listener) {
+		ByteBuf batch;
+		while ((batch = incoming.poll()) != null) {
+			try {
+				MessageBatch.read(PacketBuilder.create(batch), listener);
+			} finally {
+				batch.release();
+			}
+		}
+	}
+
+	/**
+	 * Sends the batch early if it has grown too large to wait for the end of the tick.
+	 */
+	private void flushIfFull() {
+		if (outgoing.size() >= MessageBatch.MAXIMUM_SIZE) {
+			flush();
+		}
+	}
+
+	/**
+	 * Gets the session of this bus.
+	 *
+	 * @return The session.
+	 */
+	long getSession() {
+		return link.getSession();
+	}
+
+	/**
+	 * Gets the session of the hub this bus last registered with.
+	 *
+	 * @return The session, or 0 if it has never registered.
+	 */
+	long getHubSession() {
+		return link.getPeerSession();
+	}
+
+	/**
+	 * Gets the sequence number of the last batch received from the hub this bus last registered with.
+	 *
+	 * @return The sequence number.
+	 */
+	int getReceived() {
+		return link.getReceived(link.getPeerSession());
+	}
+
+	/**
+	 * Starts sending batches to the hub once the world has registered. This may be called from any thread.
+	 *
+	 * @param sink Where frames are sent, taking ownership of each.
+	 * @param hubSession The session of the hub.
+	 * @param hubReceived The sequence number of the last batch the hub received from this bus.
+	 */
+	void connected(Consumer<ByteBuf> sink, long hubSession, int hubReceived) {
+		link.connect(sink, hubSession, hubReceived);
+	}
+
+	/**
+	 * Stops sending batches to the hub, keeping them until it is reached again. This may be called from any thread.
+	 */
+	void disconnected() {
+		link.disconnect();
+	}
+
+	/**
+	 * Queues a frame received from the hub to be delivered on the next tick, unless it was received before. This may
+	 * be called from any thread.
+	 *
+	 * @param in The builder the frame is read from, after its opcode.
+	 */
+	void receive(PacketBuilder in) {
+		if (link.receive(in)) {
+			incoming.offer(in.buffer().retain());
+		}
+	}
+
+}
@@ -0,0 +1,234 @@
+package core.login;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import core.net.packet.PacketBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Routes cross-world messages between the {@link MessageBus}es of every world sharing an {@link AccountManager}.
+ * <p>
+ * Each world has its own outgoing {@link MessageBatch}, so messages received from any world during a tick are
+ * coalesced per destination and sent by {@link #flush} as one frame per world per tick. Presence and broadcasts go to
+ * every world but the one they came from; private messages go to the world the recipient is online in. Batches for a
+ * world which has disconnected are kept by its {@link MessageLink} and delivered once it registers again. A world
+ * which registers for the first time, or after restarting, is first sent where every player of the other worlds is.
+ *
+ * @author 7Winds
+ */
+public final class MessageHub {
+
+	/**
+	 * The manager of the accounts, which knows the world each player is in.
+	 */
+	private final AccountManager manager;
+
+	/**
+	 * The session of this hub.
+	 */
+	private final long session = ThreadLocalRandom.current().nextLong();
+
+	/**
+	 * The endpoint of each world which has ever registered, keyed by world id.
+	 */
+	private final Map<Integer, Endpoint> endpoints = new HashMap<>();
+
+	/**
+	 * Routes each message of a received batch to the batches of its destinations.
+	 */
+	private final Router router = new Router();
+
+	/**
+	 * Creates the message hub.
+	 *
+	 * @param manager The manager of the accounts, which knows the world each player is in.
+	 */
+	public MessageHub(AccountManager manager) {
+		this.manager = manager;
+	}
+
+	/**
+	 * Gets the session of this hub.
+	 *
+	 * @return The session.
+	 */
+	public long getSession() {
+		return session;
+	}
+
+	/**
+	 * Gets the sequence number of the last batch received from a session of a world.
+	 *
+	 * @param world The id of the world.
+	 * @param worldSession The session of the world's bus.
+	 * @return The sequence number, or 0 if it is a new session.
+	 */
+	public synchronized int getReceived(int world, long worldSession) {
+		Endpoint endpoint = endpoints.get(world);
+		return endpoint == null ? 0 : endpoint.link.getReceived(worldSession);
+	}
+
+	/**
+	 * Starts sending batches to a world which has registered.
+	 *
+	 * @param world The id of the world.
+	 * @param sink Where frames are sent, taking ownership of each.
+	 * @param worldSession The session of the world's bus.
+	 * @param hubSession The session of the hub the world last registered with.
+	 * @param worldReceived The sequence number of the last batch the world received from that hub.
+	 */
+	public synchronized void attach(int world, Consumer<ByteBuf> sink, long worldSession, long hubSession,
+			int worldReceived) {
+		Endpoint endpoint = endpoints.computeIfAbsent(world, id -> new Endpoint(session));
+		boolean restarted = endpoint.link.getPeerSession() != worldSession;
+		endpoint.link.connect(sink, worldSession, hubSession == session ? worldReceived : 0);
+		if (restarted) {
+			// Sent in as many frames as it takes, as a snapshot of every player would not fit in one.
+			manager.forEachOnline((player, other) -> {
+				if (other != world) {
+					endpoint.batch.presence(player, other);
+					endpoint.flushIfFull();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Stops sending batches to a world which has disconnected, and tells the other worlds its players went offline.
+	 *
+	 * @param world The id of the world.
+	 * @param released The base 37 encoded usernames of the players released from the world.
+	 */
+	public synchronized void detach(int world, List<Long> released) {
+		Endpoint endpoint = endpoints.get(world);
+		if (endpoint != null) {
+			endpoint.link.disconnect();
+		}
+		for (long player : released) {
+			presence(world, player, 0);
+		}
+	}
+
+	/**
+	 * Tells every world but one where a player now is.
+	 *
+	 * @param origin The id of the world which is not told.
+	 * @param player The base 37 encoded username.
+	 * @param world The id of the world the player is in, or 0 if it has gone offline.
+	 */
+	public synchronized void presence(int origin, long player, int world) {
+		for (Map.Entry<Integer, Endpoint> entry : endpoints.entrySet()) {
+			if (entry.getKey() != origin) {
+				entry.getValue().batch.presence(player, world);
+				entry.getValue().flushIfFull();
+			}
+		}
+	}
+
+	/**
+	 * Routes a frame received from a world, unless it was received before.
+	 *
+	 * @param world The id of the world.
+	 * @param in The builder the frame is read from, after its opcode.
+	 */
+	public synchronized void receive(int world, PacketBuilder in) {
+		Endpoint endpoint = endpoints.get(world);
+		if (endpoint != null && endpoint.link.receive(in)) {
+			router.origin = world;
+			MessageBatch.read(in, router);
+		}
+	}
+
+	/**
+	 * Sends every world the batch gathered for it since the last flush. This is called once per tick.
+	 */
+	public synchronized void flush() {
+		for (Endpoint endpoint : endpoints.values()) {
+			endpoint.flush();
+		}
+	}
+
+	/**
+	 * The link and outgoing batch of a world.
+	 */
+	private static final class Endpoint {
+
+		/**
+		 * The reliable stream of batches to and from the world.
+		 */
+		private final MessageLink link;
+
+		/**
+		 * The messages for the world gathered since the last flush.
+		 */
+		private final MessageBatch batch = new MessageBatch();
+
+		/**
+		 * Creates the endpoint of a world.
+		 *
+		 * @param session The session of the hub.
+		 */
+		private Endpoint(long session) {
+			this.link = new MessageLink(session);
+		}
+
+		/**
+		 * Sends the batch.
+		 */
+		private void flush() {
+			link.send(batch, PooledByteBufAllocator.DEFAULT);
+		}
+
+		/**
+		 * Sends the batch early if it has grown too large to wait for the end of the tick.
+		 */
+		private void flushIfFull() {
+			if (batch.size() >= MessageBatch.MAXIMUM_SIZE) {
+				flush();
+			}
+		}
+
+	}
+
+	/**
+	 * Routes the messages of a received batch.
+	 */
+	private final class Router implements MessageListener {
+
+		/**
+		 * The id of the world the batch was received from.
+		 */
+		private int origin;
+
+		@Override
+		public void onPresence(long player, int world) {
+			presence(origin, player, world);
+		}
+
+		@Override
+		public void onPrivateMessage(long from, long to, int rights, int id, byte[] text) {
+			Endpoint endpoint = endpoints.get(manager.getWorld(to));
+			if (endpoint != null) {
+				endpoint.batch.privateMessage(from, to, rights, id, text);
+				endpoint.flushIfFull();
+			}
+		}
+
+		@Override
+		public void onBroadcast(String message) {
+			for (Map.Entry<Integer, Endpoint> entry : endpoints.entrySet()) {
+				if (entry.getKey() != origin) {
+					entry.getValue().batch.broadcast(message);
+					entry.getValue().flushIfFull();
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,206 @@
+package core.login;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.util.LoggerUtils;
+import core.net.packet.PacketBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * One side of the reliable, ordered stream of {@link MessageBatch}es between a world and the {@link MessageHub}.
+ * <p>
+ * Every batch is sent as a {@link LoginProtocol#MESSAGES} frame numbered in sequence, and kept until the other side
+ * acknowledges it. Acknowledgements ride on the frames going the other way, so a side with nothing to send only sends
+ * an empty frame when it has received something since it last acknowledged. When the connection is lost, frames keep
+ * being numbered and kept; once it is re-established each side tells the other the last frame it received, and
+ * everything after that is sent again. Frames already received are recognised by their sequence number and ignored.
+ * <p>
+ * Each side has a random session, exchanged when connecting, so that a side which restarted and numbers its frames from
+ * the start again is not mistaken for one resending old frames.
+ *
+ * @author 7Winds
+ */
+final class MessageLink {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(MessageLink.class);
+
+	/**
+	 * The maximum amount of unacknowledged frames kept, beyond which the oldest are dropped. This is about ten
+	 * minutes of ticks.
+	 */
+	private static final int MAXIMUM_UNACKNOWLEDGED = 1000;
+
+	/**
+	 * The offset of the sequence number in a frame, after the opcode.
+	 */
+	private static final int SEQUENCE_OFFSET = 1;
+
+	/**
+	 * The session of this side.
+	 */
+	private final long session;
+
+	/**
+	 * The frames sent but not acknowledged, oldest first.
+	 */
+	private final ArrayDeque<ByteBuf> unacknowledged = new ArrayDeque<>();
+
+	/**
+	 * Where frames are sent, taking ownership of each, or {@code null} while disconnected.
+	 */
+	private Consumer<ByteBuf> sink;
+
+	/**
+	 * The session of the other side, or 0 if it has never connected.
+	 */
+	private long peerSession;
+
+	/**
+	 * The sequence number of the next frame.
+	 */
+	private int nextSequence = 1;
+
+	/**
+	 * The sequence number of the last frame received.
+	 */
+	private int received;
+
+	/**
+	 * The sequence number of the last frame received that the other side has been told about.
+	 */
+	private int acknowledged;
+
+	/**
+	 * Creates one side of a link.
+	 *
+	 * @param session The session of this side.
+	 */
+	MessageLink(long session) {
+		this.session = session;
+	}
+
+	/**
+	 * Gets the session of this side.
+	 *
+	 * @return The session.
+	 */
+	long getSession() {
+		return session;
+	}
+
+	/**
+	 * Gets the session of the other side.
+	 *
+	 * @return The session, or 0 if it has never connected.
+	 */
+	synchronized long getPeerSession() {
+		return peerSession;
+	}
+
+	/**
+	 * Gets the sequence number of the last frame received from a session of the other side.
+	 *
+	 * @param peerSession The session of the other side.
+	 * @return The sequence number, or 0 if it is a new session.
+	 */
+	synchronized int getReceived(long peerSession) {
+		return peerSession == this.peerSession ? received : 0;
+	}
+
+	/**
+	 * Starts sending frames once connected, first sending again every frame the other side has not received.
+	 *
+	 * @param sink Where frames are sent, taking ownership of each.
+	 * @param peerSession The session of the other side.
+	 * @param peerReceived The sequence number of the last frame the other side received from this session.
+	 */
+	synchronized void connect(Consumer<ByteBuf> sink, long peerSession, int peerReceived) {
+		if (peerSession != this.peerSession) {
+			this.peerSession = peerSession;
+			received = 0;
+			acknowledged = 0;
+		}
+		acknowledge(peerReceived);
+		this.sink = sink;
+		for (ByteBuf frame : unacknowledged) {
+			sink.accept(frame.duplicate().retain());
+		}
+	}
+
+	/**
+	 * Stops sending frames, keeping them until the next connection.
+	 */
+	synchronized void disconnect() {
+		sink = null;
+	}
+
+	/**
+	 * Sends a batch, if it is not empty or there is something to acknowledge, then empties it.
+	 *
+	 * @param batch The batch.
+	 * @param alloc The allocator of the frame.
+	 */
+	synchronized void send(MessageBatch batch, ByteBufAllocator alloc) {
+		boolean empty = batch.isEmpty();
+		if (empty && (sink == null || received == acknowledged)) {
+			return;
+		}
+		ByteBuf frame = alloc.buffer(batch.size() + 9);
+		PacketBuilder out = PacketBuilder.create(frame);
+		out.put(LoginProtocol.MESSAGES).putInt(empty ? 0 : nextSequence++).putInt(received);
+		batch.writeTo(out);
+		if (sink != null) {
+			acknowledged = received;
+		}
+
+		if (!empty) {
+			unacknowledged.add(frame);
+			if (unacknowledged.size() > MAXIMUM_UNACKNOWLEDGED) {
+				unacknowledged.poll().release();
+				logger.log(Level.WARNING, "Dropped an unacknowledged message batch.");
+			}
+			frame = frame.duplicate().retain();
+		}
+		// The sink may deliver straight back to this link, so nothing may follow it.
+		if (sink != null) {
+			sink.accept(frame);
+		} else {
+			frame.release();
+		}
+	}
+
+	/**
+	 * Reads the header of a received frame, releasing every frame it acknowledges.
+	 *
+	 * @param in The builder the frame is read from, after its opcode.
+	 * @return {@code true} if the frame holds a batch which has not been received before.
+	 */
+	synchronized boolean receive(PacketBuilder in) {
+		int sequence = in.getInt();
+		acknowledge(in.getInt());
+		if (sequence == 0 || sequence <= received) {
+			return false;
+		}
+		received = sequence;
+		return true;
+	}
+
+	/**
+	 * Releases every frame up to and including a sequence number, as the other side has received them.
+	 *
+	 * @param sequence The sequence number.
+	 */
+	private void acknowledge(int sequence) {
+		while (!unacknowledged.isEmpty() && unacknowledged.peek().getInt(SEQUENCE_OFFSET) <= sequence) {
+			unacknowledged.poll().release();
+		}
+	}
+
+}
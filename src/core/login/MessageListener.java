@@ -0,0 +1,36 @@
+package core.login;
+
+/**
+ * Receives the cross-world messages of a {@link MessageBatch} as it is read.
+ *
+ * @author 7Winds
+ */
+public interface MessageListener {
+
+	/**
+	 * Called when a player has entered or left a world.
+	 *
+	 * @param player The base 37 encoded username.
+	 * @param world The id of the world the player is in, or 0 if it has gone offline.
+	 */
+	void onPresence(long player, int world);
+
+	/**
+	 * Called when a player has sent a private message.
+	 *
+	 * @param from The base 37 encoded username of the sender.
+	 * @param to The base 37 encoded username of the recipient.
+	 * @param rights The rights of the sender.
+	 * @param id The id of the message, unique across worlds.
+	 * @param text The text, packed by the client.
+	 */
+	void onPrivateMessage(long from, long to, int rights, int id, byte[] text);
+
+	/**
+	 * Called when a message has been broadcast to every world.
+	 *
+	 * @param message The message.
+	 */
+	void onBroadcast(String message);
+
+}
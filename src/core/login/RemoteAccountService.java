@@ -0,0 +1,417 @@
+package core.login;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.game.persistence.PlayerCodec;
+import core.game.persistence.PlayerSnapshot;
+import core.game.util.LoggerUtils;
+import core.game.util.NameUtils;
+import core.net.codec.login.LoginConstants;
+import core.net.packet.PacketBuilder;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * The {@link AccountService} of a world whose accounts are owned by a {@link LoginServer}, speaking the
+ * {@link LoginProtocol} over a single connection which is re-established whenever it is lost.
+ * <p>
+ * Login requests are pipelined: each is written as soon as it is made and completed when its response arrives,
+ * whatever the order. While the login server cannot be reached, logins fail with
+ * {@link LoginConstants#STATUS_LOGIN_SERVER_OFFLINE} and saves are held back, keeping only the latest of each player,
+ * until the world has registered again. Registering also claims every player still in the world, as the login server
+ * releases them when the connection is lost. Cross-world messages share the connection, and those not received by the
+ * other side before it was lost are sent again once registered.
+ *
+ * @author 7Winds
+ */
+public final class RemoteAccountService implements AccountService {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(RemoteAccountService.class);
+
+	/**
+	 * The number of seconds between attempts to reach the login server.
+	 */
+	private static final int RECONNECT_DELAY = 5;
+
+	/**
+	 * The number of seconds {@link #shutdown} waits for the login server to receive everything sent before it.
+	 */
+	private static final int SHUTDOWN_TIMEOUT = 10;
+
+	/**
+	 * The thread the connection is handled on.
+	 */
+	private final EventLoopGroup group = new NioEventLoopGroup(1);
+
+	/**
+	 * The bootstrap the connection is made with.
+	 */
+	private final Bootstrap bootstrap = new Bootstrap();
+
+	/**
+	 * The host name of the login server.
+	 */
+	private final String host;
+
+	/**
+	 * The port of the login server.
+	 */
+	private final int port;
+
+	/**
+	 * The id of the world.
+	 */
+	private final int world;
+
+	/**
+	 * The key shared with the login server.
+	 */
+	private final String key;
+
+	/**
+	 * The id of the next login request.
+	 */
+	private final AtomicInteger nextId = new AtomicInteger();
+
+	/**
+	 * The login requests waiting for a response, keyed by id.
+	 */
+	private final ConcurrentMap<Integer, PendingLogin> requests = new ConcurrentHashMap<>();
+
+	/**
+	 * The username of every player logged in through this service, keyed by base 37 encoded username.
+	 */
+	private final ConcurrentMap<Long, String> online = new ConcurrentHashMap<>();
+
+	/**
+	 * The latest save of each player which could not be sent, keyed by base 37 encoded username.
+	 */
+	private final ConcurrentMap<Long, PlayerSnapshot> unsent = new ConcurrentHashMap<>();
+
+	/**
+	 * The usernames of the players found online in another world, waiting to be kicked.
+	 */
+	private final Queue<String> revoked = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The bus the world exchanges cross-world messages on.
+	 */
+	private final MessageBus bus = new MessageBus();
+
+	/**
+	 * The connection to the login server, or {@code null} if the world is not registered.
+	 */
+	private volatile Channel channel;
+
+	/**
+	 * The status logins fail with while the world is not registered.
+	 */
+	private volatile int offlineStatus = LoginConstants.STATUS_LOGIN_SERVER_OFFLINE;
+
+	/**
+	 * Whether this service has been shut down.
+	 */
+	private volatile boolean shutdown;
+
+	/**
+	 * Creates the remote account service.
+	 *
+	 * @param host The host name of the login server.
+	 * @param port The port of the login server.
+	 * @param world The id of the world.
+	 * @param key The key shared with the login server.
+	 */
+	public RemoteAccountService(String host, int port, int world, String key) {
+		this.host = host;
+		this.port = port;
+		this.world = world;
+		this.key = key;
+		bootstrap.group(group).channel(NioSocketChannel.class).option(ChannelOption.TCP_NODELAY, true)
+				.handler(new ChannelInitializer<SocketChannel>() {
+					@Override
+					protected void initChannel(SocketChannel ch) {
+						LoginProtocol.addFraming(ch.pipeline());
+						ch.pipeline().addLast(new ResponseHandler());
+					}
+				});
+	}
+
+	/**
+	 * Starts connecting to the login server, retrying until it succeeds.
+	 */
+	public void connect() {
+		bootstrap.connect(host, port).addListener((ChannelFutureListener) future -> {
+			if (!future.isSuccess()) {
+				logger.log(Level.WARNING, "Could not reach the login server at {0}:{1}, retrying.",
+						new Object[] { host, Integer.toString(port) });
+				reconnect();
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<LoginResult> login(String username, String password) {
+		Channel channel = this.channel;
+		if (channel == null) {
+			return CompletableFuture.completedFuture(LoginResult.failed(offlineStatus));
+		}
+		int id = nextId.incrementAndGet();
+		PendingLogin pending = new PendingLogin(username);
+		requests.put(id, pending);
+
+		PacketBuilder frame = PacketBuilder.create(channel.alloc().buffer());
+		frame.put(LoginProtocol.LOGIN).putInt(id).putString(username).putString(password);
+		channel.writeAndFlush(frame.buffer()).addListener(future -> {
+			if (!future.isSuccess()) {
+				fail(id, LoginConstants.STATUS_LOGIN_SERVER_OFFLINE);
+			}
+		});
+		return pending.future.thenApply(result -> {
+			if (result.isSuccessful()) {
+				online.put(NameUtils.encodeBase37(username), username);
+			}
+			return result;
+		});
+	}
+
+	@Override
+	public void save(PlayerSnapshot snapshot) {
+		send(LoginProtocol.SAVE, snapshot.getUsername(), snapshot);
+	}
+
+	@Override
+	public void logout(String username, PlayerSnapshot snapshot) {
+		online.remove(NameUtils.encodeBase37(username));
+		send(LoginProtocol.LOGOUT, username, snapshot);
+	}
+
+	@Override
+	public String pollRevoked() {
+		return revoked.poll();
+	}
+
+	@Override
+	public MessageBus getMessageBus() {
+		return bus;
+	}
+
+	@Override
+	public void shutdown() {
+		shutdown = true;
+		Channel channel = this.channel;
+		this.channel = null;
+		if (channel != null) {
+			// The login server only closes the connection once it has read every frame written before this one.
+			channel.writeAndFlush(channel.alloc().buffer(1).writeByte(LoginProtocol.DISCONNECT));
+			if (!channel.closeFuture().awaitUninterruptibly(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+				channel.close();
+			}
+		}
+		if (!unsent.isEmpty()) {
+			logger.log(Level.SEVERE, "Shutting down with " + unsent.size() + " saves the login server never received.");
+		}
+		group.shutdownGracefully();
+	}
+
+	/**
+	 * Sends a save or logout, holding the save back if the world is not registered.
+	 *
+	 * @param opcode The opcode, {@link LoginProtocol#SAVE} or {@link LoginProtocol#LOGOUT}.
+	 * @param username The username.
+	 * @param snapshot The save, or {@code null} if there is none.
+	 */
+	private void send(int opcode, String username, PlayerSnapshot snapshot) {
+		Channel channel = this.channel;
+		if (channel == null) {
+			// The login server releases the claims of a world which stays away too long, so only the save is kept.
+			if (snapshot != null) {
+				unsent.put(NameUtils.encodeBase37(username), snapshot);
+				if (this.channel != null) {
+					sendUnsent();
+				}
+			}
+			return;
+		}
+		PacketBuilder frame = PacketBuilder.create(channel.alloc().buffer(PlayerCodec.MAXIMUM_SIZE + 16));
+		frame.put(opcode).putString(username);
+		LoginProtocol.putSave(frame, snapshot);
+		channel.writeAndFlush(frame.buffer()).addListener(future -> {
+			if (!future.isSuccess() && snapshot != null) {
+				unsent.putIfAbsent(NameUtils.encodeBase37(username), snapshot);
+			}
+		});
+	}
+
+	/**
+	 * Sends every save which was held back.
+	 */
+	private void sendUnsent() {
+		for (Long key : unsent.keySet()) {
+			PlayerSnapshot snapshot = unsent.remove(key);
+			if (snapshot != null) {
+				send(LoginProtocol.SAVE, snapshot.getUsername(), snapshot);
+			}
+		}
+	}
+
+	/**
+	 * Forgets a player which another world claimed while this one was disconnected, and queues it to be kicked.
+	 *
+	 * @param player The base 37 encoded username.
+	 */
+	private void revoke(long player) {
+		unsent.remove(player);
+		String username = online.remove(player);
+		if (username != null) {
+			logger.log(Level.WARNING, "{0} is online in another world, kicking.", username);
+			revoked.offer(username);
+		}
+	}
+
+	/**
+	 * Completes a login request with a failure.
+	 *
+	 * @param id The id of the request.
+	 * @param status The status.
+	 */
+	private void fail(int id, int status) {
+		PendingLogin pending = requests.remove(id);
+		if (pending != null) {
+			pending.future.complete(LoginResult.failed(status));
+		}
+	}
+
+	/**
+	 * Tries to connect again after {@link #RECONNECT_DELAY} seconds, unless this service has been shut down.
+	 */
+	private void reconnect() {
+		if (!shutdown) {
+			group.schedule(this::connect, RECONNECT_DELAY, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * A login request waiting for its response.
+	 */
+	private static final class PendingLogin {
+
+		/**
+		 * The username of the player.
+		 */
+		private final String username;
+
+		/**
+		 * The future completed with the response.
+		 */
+		private final CompletableFuture<LoginResult> future = new CompletableFuture<>();
+
+		/**
+		 * Creates a pending login request.
+		 *
+		 * @param username The username of the player.
+		 */
+		private PendingLogin(String username) {
+			this.username = username;
+		}
+
+	}
+
+	/**
+	 * Registers the world once connected, then handles the responses of the login server.
+	 */
+	private final class ResponseHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+		@Override
+		public void channelActive(ChannelHandlerContext ctx) {
+			PacketBuilder frame = PacketBuilder.create(ctx.alloc().buffer());
+			frame.put(LoginProtocol.REGISTER).putShort(world).putString(key).putShort(online.size());
+			for (Long player : online.keySet()) {
+				frame.putLong(player);
+			}
+			frame.putLong(bus.getSession()).putLong(bus.getHubSession()).putInt(bus.getReceived());
+			ctx.writeAndFlush(frame.buffer());
+		}
+
+		@Override
+		public void channelInactive(ChannelHandlerContext ctx) {
+			if (channel != null) {
+				logger.log(Level.WARNING, "Lost the connection to the login server.");
+			}
+			channel = null;
+			bus.disconnected();
+			for (Integer id : requests.keySet()) {
+				fail(id, offlineStatus);
+			}
+			reconnect();
+		}
+
+		@Override
+		protected void channelRead0(ChannelHandlerContext ctx, ByteBuf message) throws IOException {
+			PacketBuilder in = PacketBuilder.create(message);
+			int opcode = in.get(false);
+			if (opcode == LoginProtocol.LOGIN && channel != null) {
+				PendingLogin pending = requests.remove(in.getInt());
+				if (pending != null) {
+					int status = in.get(false);
+					int rights = in.get(false);
+					pending.future.complete(new LoginResult(status, rights, LoginProtocol.getSave(pending.username, in)));
+				}
+			} else if (opcode == LoginProtocol.MESSAGES && channel != null) {
+				bus.receive(in);
+			} else if (opcode == LoginProtocol.REGISTER && channel == null) {
+				int status = in.get(false);
+				if (status == LoginConstants.STATUS_OK) {
+					offlineStatus = LoginConstants.STATUS_LOGIN_SERVER_OFFLINE;
+					channel = ctx.channel();
+					long hubSession = in.getLong();
+					int hubReceived = in.getInt();
+					bus.connected(ctx.channel()::writeAndFlush, hubSession, hubReceived);
+					for (int count = in.getShort(false); count > 0; count--) {
+						revoke(in.getLong());
+					}
+					sendUnsent();
+					logger.log(Level.INFO, "Registered world {0} with the login server.", world);
+				} else {
+					logger.log(Level.SEVERE, "The login server rejected world {0}.", world);
+					offlineStatus = LoginConstants.STATUS_LOGIN_SERVER_REJECTED_SESSION;
+					ctx.close();
+				}
+			} else {
+				logger.log(Level.SEVERE, "Unexpected message {0} from the login server.", opcode);
+				offlineStatus = LoginConstants.STATUS_INVALID_LOGIN_SERVER;
+				ctx.close();
+			}
+		}
+
+		@Override
+		public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+			logger.log(Level.SEVERE, "Error on the connection to the login server.", cause);
+			ctx.close();
+		}
+
+	}
+
+}
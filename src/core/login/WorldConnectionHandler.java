@@ -0,0 +1,206 @@
+package core.login;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.Configuration;
+import core.game.persistence.PlayerSnapshot;
+import core.game.util.LoggerUtils;
+import core.net.codec.login.LoginConstants;
+import core.net.packet.PacketBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+
+/**
+ * Handles the {@link LoginProtocol} messages of a single world connected to the {@link LoginServer}.
+ *
+ * @author 7Winds
+ */
+final class WorldConnectionHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(WorldConnectionHandler.class);
+
+	/**
+	 * The login server.
+	 */
+	private final LoginServer server;
+
+	/**
+	 * The manager of the accounts.
+	 */
+	private final AccountManager manager;
+
+	/**
+	 * The hub cross-world messages are routed by.
+	 */
+	private final MessageHub hub;
+
+	/**
+	 * The id of the world, or {@code -1} until it has registered.
+	 */
+	private int world = -1;
+
+	/**
+	 * Whether the world said it is shutting down before disconnecting.
+	 */
+	private boolean shutdown;
+
+	/**
+	 * Creates the handler of a world connection.
+	 *
+	 * @param server The login server.
+	 */
+	WorldConnectionHandler(LoginServer server) {
+		this.server = server;
+		this.manager = server.getManager();
+		this.hub = server.getHub();
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) {
+		if (world != -1) {
+			server.detach(world, ctx.channel(), shutdown);
+			logger.log(Level.INFO, "World {0} disconnected.", world);
+		}
+	}
+
+	@Override
+	protected void channelRead0(ChannelHandlerContext ctx, ByteBuf message) throws IOException {
+		PacketBuilder in = PacketBuilder.create(message);
+		int opcode = in.get(false);
+		if (world == -1) {
+			if (opcode == LoginProtocol.REGISTER) {
+				register(ctx, in);
+			} else {
+				ctx.close();
+			}
+			return;
+		}
+
+		switch (opcode) {
+		case LoginProtocol.LOGIN:
+			int id = in.getInt();
+			String username = in.getString();
+			String password = in.getString();
+			manager.login(world, username, password).thenAccept(result -> respond(ctx, id, username, result));
+			break;
+		case LoginProtocol.SAVE:
+			username = in.getString();
+			PlayerSnapshot snapshot = LoginProtocol.getSave(username, in);
+			if (snapshot != null) {
+				manager.save(world, snapshot);
+			}
+			break;
+		case LoginProtocol.LOGOUT:
+			username = in.getString();
+			manager.logout(world, username, LoginProtocol.getSave(username, in));
+			break;
+		case LoginProtocol.MESSAGES:
+			hub.receive(world, in);
+			break;
+		case LoginProtocol.DISCONNECT:
+			shutdown = true;
+			ctx.close();
+			break;
+		default:
+			logger.log(Level.WARNING, "Unexpected message {0} from world {1}.", new Object[] { opcode, world });
+			ctx.close();
+			break;
+		}
+	}
+
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+		logger.log(Level.SEVERE, "Error on the connection of world " + world + ".", cause);
+		ctx.close();
+	}
+
+	/**
+	 * Answers a login request, unless the world disconnected while it was being handled. The world has then failed the
+	 * request itself and will never log the player out, so a claim the login made is released instead.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param id The id of the request.
+	 * @param username The username.
+	 * @param result The result of the login.
+	 */
+	private void respond(ChannelHandlerContext ctx, int id, String username, LoginResult result) {
+		if (!server.isAttached(world, ctx.channel())) {
+			if (result.isSuccessful()) {
+				manager.logout(world, username, null);
+			}
+			return;
+		}
+		PacketBuilder frame = PacketBuilder.create(ctx.alloc().buffer());
+		frame.put(LoginProtocol.LOGIN).putInt(id).put(result.getStatus()).put(result.getRights());
+		LoginProtocol.putSave(frame, result.getSave());
+		ctx.writeAndFlush(frame.buffer()).addListener(future -> {
+			if (!future.isSuccess() && result.isSuccessful()) {
+				manager.logout(world, username, null);
+			}
+		});
+	}
+
+	/**
+	 * Registers the world, unless its key is wrong or a world with the same id is already connected, then claims the
+	 * players it already holds and links it to the message hub. Players another world claimed while it was away are
+	 * listed in the response, for the world to kick.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param in The builder the message is read from.
+	 */
+	private void register(ChannelHandlerContext ctx, PacketBuilder in) {
+		int id = in.getShort(false);
+		String key = in.getString();
+		boolean accepted = id > 0 && id <= LoginProtocol.MAXIMUM_WORLD && key.equals(Configuration.login_server_key)
+				&& server.attach(id, ctx.channel());
+		PacketBuilder frame = PacketBuilder.create(ctx.alloc().buffer(2)).put(LoginProtocol.REGISTER);
+		if (!accepted) {
+			logger.log(Level.WARNING, "Rejected world {0} from {1}.", new Object[] { id, ctx.channel().remoteAddress() });
+			frame.put(LoginConstants.STATUS_LOGIN_SERVER_REJECTED_SESSION);
+			ctx.writeAndFlush(frame.buffer()).addListener(ChannelFutureListener.CLOSE);
+			return;
+		}
+
+		world = id;
+		List<Long> claimed = new ArrayList<>();
+		List<Long> conflicts = new ArrayList<>();
+		for (int count = in.getShort(false); count > 0; count--) {
+			long player = in.getLong();
+			if (manager.claim(world, player)) {
+				claimed.add(player);
+			} else {
+				conflicts.add(player);
+			}
+		}
+		long session = in.getLong();
+		long hubSession = in.getLong();
+		int received = in.getInt();
+		frame.put(LoginConstants.STATUS_OK).putLong(hub.getSession()).putInt(hub.getReceived(world, session));
+		frame.putShort(conflicts.size());
+		for (long player : conflicts) {
+			frame.putLong(player);
+		}
+		ctx.writeAndFlush(frame.buffer());
+		if (!conflicts.isEmpty()) {
+			logger.log(Level.WARNING, "World {0} held {1} players online elsewhere.",
+					new Object[] { id, conflicts.size() });
+		}
+
+		// Attached after the response is written, as attaching sends the frames the world has not received yet.
+		hub.attach(world, ctx.channel()::writeAndFlush, session, hubSession, received);
+		for (long player : claimed) {
+			hub.presence(world, player, world);
+		}
+		logger.log(Level.INFO, "World {0} registered from {1}.", new Object[] { world, ctx.channel().remoteAddress() });
+	}
+
+}
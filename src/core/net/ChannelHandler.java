@@ -1,22 +1,70 @@
 package core.net;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.Configuration;
+import core.game.World;
+import core.game.util.LoggerUtils;
+import core.login.AccountService;
+import core.login.LoginResult;
+import core.net.codec.login.LoginConstants;
+import core.net.codec.login.LoginRequest;
+import core.net.codec.login.LoginResponse;
+import core.net.packet.InputPacket;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.timeout.IdleStateEvent;
 
 /**
- * An implementation of {@link ChannelInboundHandlerAdapter} which handles incoming upstream events from Netty.
+ * An implementation of {@link ChannelInboundHandlerAdapter} which handles incoming upstream events from Netty. It keeps
+ * no per-connection state of its own, so a single instance is shared by every pipeline.
  * 
  * @author 7Winds
  */
+@Sharable
 public class ChannelHandler extends ChannelInboundHandlerAdapter {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(ChannelHandler.class);
+
+	/**
+	 * The world that logged in sessions are registered to.
+	 */
+	private final World world;
+
+	/**
+	 * The service players are logged in with.
+	 */
+	private final AccountService accounts;
+
+	/**
+	 * Creates the channel handler.
+	 * 
+	 * @param world
+	 *            The world that logged in sessions are registered to.
+	 * @param accounts
+	 *            The service players are logged in with.
+	 */
+	public ChannelHandler(World world, AccountService accounts) {
+		this.world = world;
+		this.accounts = accounts;
+	}
 	
 	@Override
 	public void channelRegistered(ChannelHandlerContext ctx) {
-		System.out.println("User Connected: " + ctx.channel().remoteAddress());
+		logger.log(Level.FINE, "User connected: {0}", ctx.channel().remoteAddress());
 	}
 	
 	@Override
 	public void channelUnregistered(ChannelHandlerContext ctx) {
-		System.out.println("[DEREGISTERED] : " + ctx.channel().remoteAddress());
+		logger.log(Level.FINE, "User disconnected: {0}", ctx.channel().remoteAddress());
 	}
 	
 	@Override
@@ -26,11 +74,91 @@ public class ChannelHandler extends ChannelInboundHandlerAdapter {
 	
 	@Override
 	public void channelInactive(ChannelHandlerContext ctx) {
-		
+		PlayerIO session = ctx.channel().attr(NetworkConstants.SESSION_KEY).get();
+		if (session != null) {
+			world.unregister(session);
+		}
+	}
+	
+	@Override
+	public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+		Channel channel = ctx.channel();
+		if (channel.isWritable()) {
+			channel.attr(NetworkConstants.UNWRITABLE_KEY).remove();
+		} else if (ConnectionState.of(channel) == ConnectionState.GAME) {
+			Long stamp = System.nanoTime();
+			channel.attr(NetworkConstants.UNWRITABLE_KEY).set(stamp);
+			channel.eventLoop().schedule(() -> {
+				if (stamp.equals(channel.attr(NetworkConstants.UNWRITABLE_KEY).get())) {
+					logger.log(Level.FINE, "Disconnecting slow client: {0}", channel.remoteAddress());
+					channel.close();
+				}
+			}, Configuration.slow_client_timeout, TimeUnit.SECONDS);
+		}
+		ctx.fireChannelWritabilityChanged();
+	}
+	
+	@Override
+	public void userEventTriggered(ChannelHandlerContext ctx, Object event) {
+		if (event instanceof IdleStateEvent) {
+			// Closing an in-game channel unregisters its session, which saves the player on logout.
+			ctx.close();
+		} else {
+			ctx.fireUserEventTriggered(event);
+		}
 	}
 	
 	@Override
 	public void channelRead(ChannelHandlerContext ctx, Object message) {
-		System.out.println("Message from: " + ctx.channel().remoteAddress() + " Message: " + message);
-	}	
+		if (message instanceof InputPacket) {
+			ctx.channel().attr(NetworkConstants.SESSION_KEY).get().queue((InputPacket) message);
+		} else if (message instanceof LoginRequest) {
+			handleLogin(ctx, (LoginRequest) message);
+		} else if (logger.isLoggable(Level.FINE)) {
+			logger.log(Level.FINE, "Message from: {0} Message: {1}",
+					new Object[] { ctx.channel().remoteAddress(), String.valueOf(message) });
+		}
+	}
+
+	/**
+	 * Checks the credentials of a decoded login request and loads its player without blocking the event loop, then
+	 * completes the login back on the event loop.
+	 * 
+	 * @param ctx
+	 *            The channel handler context.
+	 * @param request
+	 *            The login request.
+	 */
+	private void handleLogin(ChannelHandlerContext ctx, LoginRequest request) {
+		accounts.login(request.getUsername(), request.getPassword()).whenCompleteAsync((result, error) -> {
+			int status = error != null ? LoginConstants.STATUS_COULD_NOT_COMPLETE : result.getStatus();
+			if (status != LoginConstants.STATUS_OK) {
+				ctx.writeAndFlush(new LoginResponse(status, 0, false)).addListener(ChannelFutureListener.CLOSE);
+			} else if (ctx.channel().isActive()) {
+				completeLogin(ctx, request, result);
+			} else {
+				accounts.logout(request.getUsername(), null);
+			}
+		}, ctx.channel().eventLoop());
+	}
+
+	/**
+	 * Completes a login request once it has been accepted and its player loaded, attaching a new {@link PlayerIO} to
+	 * the channel and switching the pipeline over to the game protocol.
+	 * 
+	 * @param ctx
+	 *            The channel handler context.
+	 * @param request
+	 *            The login request.
+	 * @param result
+	 *            The result of the login.
+	 */
+	private void completeLogin(ChannelHandlerContext ctx, LoginRequest request, LoginResult result) {
+		PlayerIO session = new PlayerIO(ctx.channel(), request.getUsername(), result.getSave());
+		ctx.channel().attr(NetworkConstants.SESSION_KEY).set(session);
+		ctx.writeAndFlush(new LoginResponse(LoginConstants.STATUS_OK, result.getRights(), false));
+
+		ServicePipelines.game(ctx.pipeline(), request.getEncryptor(), request.getDecryptor());
+		world.register(session);
+	}
 }
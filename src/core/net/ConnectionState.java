@@ -0,0 +1,89 @@
+package core.net;
+
+import core.Configuration;
+import io.netty.channel.Channel;
+import io.netty.handler.timeout.IdleStateHandler;
+
+/**
+ * The stage a connection is in, each with its own limit on how long the connection may go without sending anything
+ * before it is closed.
+ *
+ * @author 7Winds
+ */
+public enum ConnectionState {
+
+	/**
+	 * Connected, waiting for the handshake.
+	 */
+	HANDSHAKE,
+
+	/**
+	 * Chose the game service, waiting for the login block.
+	 */
+	LOGIN,
+
+	/**
+	 * Chose the update service, requesting files from the cache.
+	 */
+	UPDATE,
+
+	/**
+	 * Logged in to the game.
+	 */
+	GAME;
+
+	/**
+	 * The name of the handler which fires the idle events.
+	 */
+	public static final String TIMEOUT_HANDLER = "timeout";
+
+	/**
+	 * Gets the amount of seconds a connection in this state may go without sending anything, as currently configured.
+	 *
+	 * @return The idle time.
+	 */
+	public int getIdleTime() {
+		switch (this) {
+		case HANDSHAKE:
+			return Configuration.handshake_idle_time;
+		case LOGIN:
+			return Configuration.login_idle_time;
+		case UPDATE:
+			return Configuration.update_idle_time;
+		default:
+			return Configuration.game_idle_time;
+		}
+	}
+
+	/**
+	 * Creates the handler which fires an idle event once a connection in this state has not sent anything for too long.
+	 *
+	 * @return The handler.
+	 */
+	public IdleStateHandler newTimeoutHandler() {
+		return new IdleStateHandler(getIdleTime(), 0, 0);
+	}
+
+	/**
+	 * Moves a channel into this state, restarting its idle timer with the limit of this state. This must be called from
+	 * the channel's event loop.
+	 *
+	 * @param channel The channel.
+	 */
+	public void enter(Channel channel) {
+		channel.attr(NetworkConstants.STATE_KEY).set(this);
+		channel.pipeline().replace(TIMEOUT_HANDLER, TIMEOUT_HANDLER, newTimeoutHandler());
+	}
+
+	/**
+	 * Gets the state of a channel.
+	 *
+	 * @param channel The channel.
+	 * @return The state.
+	 */
+	public static ConnectionState of(Channel channel) {
+		ConnectionState state = channel.attr(NetworkConstants.STATE_KEY).get();
+		return state == null ? HANDSHAKE : state;
+	}
+
+}
@@ -14,7 +14,33 @@ public class NetworkConstants {
     /**
      * An array of message opcodes mapped to their respective sizes.
      */
-    public static final int PACKET_SIZES[] = new int[257];
+    public static final int PACKET_SIZES[] = { 0, 0, 0, 1, -1, 0, 0, 0, 0, 0, // 0
+            0, 0, 0, 0, 8, 0, 6, 2, 2, 0, // 10
+            0, 2, 0, 6, 0, 12, 0, 0, 0, 0, // 20
+            0, 0, 0, 0, 0, 8, 4, 0, 0, 2, // 30
+            2, 6, 0, 6, 0, -1, 0, 0, 0, 0, // 40
+            0, 0, 0, 12, 0, 0, 0, 8, 8, 12, // 50
+            8, 8, 0, 0, 0, 0, 0, 0, 0, 0, // 60
+            6, 0, 2, 2, 8, 6, 0, -1, 0, 6, // 70
+            0, 0, 0, 0, 0, 1, 4, 6, 0, 0, // 80
+            0, 0, 0, 0, 0, 3, 0, 0, -1, 0, // 90
+            0, 13, 0, -1, 0, 0, 0, 0, 0, 0, // 100
+            0, 0, 0, 0, 0, 0, 0, 6, 0, 0, // 110
+            1, 0, 6, 0, 0, 0, -1, 0, 2, 6, // 120
+            0, 4, 6, 8, 0, 6, 0, 0, 0, 2, // 130
+            0, 0, 0, 0, 0, 6, 0, 0, 0, 0, // 140
+            0, 0, 1, 2, 0, 2, 6, 0, 0, 0, // 150
+            0, 0, 0, 0, -1, -1, 0, 0, 0, 0, // 160
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 170
+            0, 8, 0, 3, 0, 2, 0, 0, 8, 1, // 180
+            0, 0, 12, 0, 0, 0, 0, 0, 0, 0, // 190
+            2, 0, 0, 0, 0, 0, 0, 0, 4, 0, // 200
+            4, 0, 0, 0, 7, 8, 0, 0, 10, 0, // 210
+            0, 0, 0, 0, 0, 0, -1, 0, 6, 0, // 220
+            1, 0, 0, 0, 6, 0, 6, 8, 1, 0, // 230
+            0, 4, 0, 0, 0, 0, -1, 0, -1, 4, // 240
+            0, 0, 6, 6, 0, 0, 0 // 250
+    };
     
     /**
      * An array of the message opcodes mapped to their respective listeners.
@@ -26,10 +52,18 @@ public class NetworkConstants {
      * instance from the attribute map of a {@link Channel}.
      */
     public static final AttributeKey<PlayerIO> SESSION_KEY = AttributeKey.valueOf("session.KEY");
-    
-	/**
-	 * The number of seconds before a connection becomes idle.
-	 */
-	public static final int IDLE_TIME = 15;
+
+    /**
+     * The {@link AttributeKey} value that is used to retrieve the
+     * {@link ConnectionState} of a {@link Channel}.
+     */
+    public static final AttributeKey<ConnectionState> STATE_KEY = AttributeKey.valueOf("state.KEY");
+
+    /**
+     * The {@link AttributeKey} value that is used to retrieve the time at
+     * which a {@link Channel} last stopped being writable, or {@code null} if
+     * it is writable.
+     */
+    public static final AttributeKey<Long> UNWRITABLE_KEY = AttributeKey.valueOf("unwritable.KEY");
 	
 }
@@ -1,5 +1,177 @@
 package core.net;
 
-public class PlayerIO {
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import core.Configuration;
+import core.game.model.Player;
+import core.game.persistence.PlayerSnapshot;
+import core.game.util.LoggerUtils;
+import core.net.packet.InputPacket;
+import core.net.packet.InputPacketListener;
+import core.net.packet.PacketMetrics;
+import io.netty.channel.Channel;
+
+/**
+ * The network session of a player that has logged in to the game service.
+ *
+ * @author 7Winds
+ */
+public final class PlayerIO {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = LoggerUtils.getLogger(PlayerIO.class);
+
+	/**
+	 * The channel of this session.
+	 */
+	private final Channel channel;
+
+	/**
+	 * The username of the player.
+	 */
+	private final String username;
+
+	/**
+	 * The save the player was loaded with, or {@code null} if it is a new player.
+	 */
+	private final PlayerSnapshot save;
+
+	/**
+	 * The packets decoded by the event loop, waiting to be handled on the next tick.
+	 */
+	private final Queue<InputPacket> incoming = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The amount of packets in {@code incoming}.
+	 */
+	private final AtomicInteger queued = new AtomicInteger();
+
+	/**
+	 * The player of this session, set once it has been added to the world.
+	 */
+	private Player player;
+
+	/**
+	 * Creates a new session.
+	 *
+	 * @param channel The channel of this session.
+	 * @param username The username of the player.
+	 * @param save The save the player was loaded with, or {@code null} if it is a new player.
+	 */
+	public PlayerIO(Channel channel, String username, PlayerSnapshot save) {
+		this.channel = channel;
+		this.username = username;
+		this.save = save;
+	}
+
+	/**
+	 * Gets the channel of this session.
+	 *
+	 * @return The channel.
+	 */
+	public Channel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Gets the username of the player.
+	 *
+	 * @return The username.
+	 */
+	public String getUsername() {
+		return username;
+	}
+
+	/**
+	 * Gets the save the player was loaded with.
+	 *
+	 * @return The save, or {@code null} if it is a new player.
+	 */
+	public PlayerSnapshot getSave() {
+		return save;
+	}
+
+	/**
+	 * Gets the player of this session.
+	 *
+	 * @return The player, or {@code null} if it has not been added to the world yet.
+	 */
+	public Player getPlayer() {
+		return player;
+	}
+
+	/**
+	 * Sets the player of this session.
+	 *
+	 * @param player The player.
+	 */
+	public void setPlayer(Player player) {
+		this.player = player;
+	}
+
+	/**
+	 * Queues a decoded packet to be handled on the next tick, unless the configured maximum amount of packets is already
+	 * queued. This is called from the event loop of the channel.
+	 *
+	 * @param packet The packet.
+	 */
+	public void queue(InputPacket packet) {
+		if (queued.incrementAndGet() > Configuration.max_queued_packets) {
+			queued.decrementAndGet();
+			packet.getPayload().buffer().release();
+			return;
+		}
+		incoming.offer(packet);
+	}
+
+	/**
+	 * Handles every queued packet with its registered listener. This is called from the engine thread. If a listener
+	 * fails, the session is closed and its remaining packets are discarded, so that a client sending malformed packets
+	 * cannot hold up the input of the players handled after it.
+	 */
+	public void handleQueuedPackets() {
+		InputPacket packet;
+		while ((packet = incoming.poll()) != null) {
+			queued.decrementAndGet();
+			try {
+				InputPacketListener listener = NetworkConstants.PACKETS[packet.getOpcode()];
+				if (listener != null) {
+					long start = System.nanoTime();
+					listener.handleMessage(player, packet.getOpcode(), packet.getSize(), packet.getPayload());
+					PacketMetrics.getInstance().dispatched(packet.getOpcode(), System.nanoTime() - start);
+				}
+			} catch (Throwable t) {
+				logger.log(Level.WARNING, "Error while handling packet " + packet.getOpcode() + " of size "
+						+ packet.getSize() + " from " + this + ", closing the session.", t);
+				channel.close();
+				discardQueuedPackets();
+				return;
+			} finally {
+				packet.getPayload().buffer().release();
+			}
+		}
+	}
+
+	/**
+	 * Releases every queued packet without handling it.
+	 */
+	public void discardQueuedPackets() {
+		InputPacket packet;
+		while ((packet = incoming.poll()) != null) {
+			queued.decrementAndGet();
+			packet.getPayload().buffer().release();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PlayerIO[username=" + username + ", address=" + channel.remoteAddress() + "]";
+	}
 
 }
@@ -1,13 +1,12 @@
 package core.net;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import core.Configuration;
 import core.game.util.LoggerUtils;
-import core.net.codec.handshake.HandshakeDecoder;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.handler.timeout.IdleStateHandler;
 
 /**
  * A {@link ChannelInitializer} for the service pipeline
@@ -27,11 +26,14 @@ public class ServiceChannelInitializer extends
 
 	@Override
 	protected void initChannel(SocketChannel ch) throws Exception {
-		ChannelPipeline pipeline = ch.pipeline();		
-		ch.pipeline().addLast("handshakeDecoder", new HandshakeDecoder());
-		ch.pipeline().addLast("timeout", new IdleStateHandler(NetworkConstants.IDLE_TIME, 0, 0));
-		pipeline.addLast("handler", handler);
-		logger.log(Level.INFO, "Connection recieved from " + ch.remoteAddress().getAddress());		
+		ServicePipelines.handshake(ch.pipeline(), handler);
+		ch.eventLoop().schedule(() -> {
+			ConnectionState state = ConnectionState.of(ch);
+			if (state == ConnectionState.HANDSHAKE || state == ConnectionState.LOGIN) {
+				ch.close();
+			}
+		}, Configuration.login_deadline, TimeUnit.SECONDS);
+		logger.log(Level.INFO, "Connection received from {0}", ch.remoteAddress().getAddress());
 	}
 
 }
@@ -0,0 +1,149 @@
+package core.net;
+
+import core.Configuration;
+import core.net.codec.PacketDecoder;
+import core.net.codec.PacketEncoder;
+import core.net.codec.handshake.HandshakeDecoder;
+import core.net.codec.login.LoginDecoder;
+import core.net.codec.login.LoginEncoder;
+import core.net.codec.update.UpdateDecoder;
+import core.net.codec.update.UpdateEncoder;
+import core.net.security.ISAACCipher;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.ChannelPipeline;
+
+/**
+ * The pipeline of each stage of a connection. Handlers which hold no state of their own are created once and shared by
+ * every pipeline, so only the decoders, the ciphers and the idle timer are allocated for each connection, and each stage
+ * is installed by one method which swaps the handlers of the previous stage for its own.
+ *
+ * @author 7Winds
+ */
+public final class ServicePipelines {
+
+	/**
+	 * The name of the handshake decoder.
+	 */
+	public static final String HANDSHAKE_DECODER = "handshakeDecoder";
+
+	/**
+	 * The name of the login encoder.
+	 */
+	public static final String LOGIN_ENCODER = "loginEncoder";
+
+	/**
+	 * The name of the login decoder.
+	 */
+	public static final String LOGIN_DECODER = "loginDecoder";
+
+	/**
+	 * The name of the update encoder.
+	 */
+	public static final String UPDATE_ENCODER = "updateEncoder";
+
+	/**
+	 * The name of the update decoder.
+	 */
+	public static final String UPDATE_DECODER = "updateDecoder";
+
+	/**
+	 * The name of the game packet encoder.
+	 */
+	public static final String PACKET_ENCODER = "packetEncoder";
+
+	/**
+	 * The name of the game packet decoder.
+	 */
+	public static final String PACKET_DECODER = "packetDecoder";
+
+	/**
+	 * The name of the {@link ChannelHandler}.
+	 */
+	public static final String HANDLER = "handler";
+
+	/**
+	 * The handshake decoder shared by every pipeline.
+	 */
+	private static final HandshakeDecoder handshakeDecoder = new HandshakeDecoder();
+
+	/**
+	 * The login encoder shared by every pipeline.
+	 */
+	private static final LoginEncoder loginEncoder = new LoginEncoder();
+
+	/**
+	 * The update encoder shared by every pipeline.
+	 */
+	private static final UpdateEncoder updateEncoder = new UpdateEncoder();
+
+	/**
+	 * The default constructor.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if this class is instantiated.
+	 */
+	private ServicePipelines() {
+		throw new UnsupportedOperationException("This class cannot be instantiated!");
+	}
+
+	/**
+	 * Installs the pipeline of a new connection, which waits for the handshake.
+	 *
+	 * @param pipeline The pipeline.
+	 * @param handler The handler shared by every pipeline.
+	 */
+	public static void handshake(ChannelPipeline pipeline, ChannelHandler handler) {
+		pipeline.addLast(HANDSHAKE_DECODER, handshakeDecoder);
+		pipeline.addLast(ConnectionState.TIMEOUT_HANDLER, ConnectionState.HANDSHAKE.newTimeoutHandler());
+		pipeline.addLast(HANDLER, handler);
+	}
+
+	/**
+	 * Switches a connection which chose the game service over to the login protocol.
+	 *
+	 * @param pipeline The pipeline.
+	 */
+	public static void login(ChannelPipeline pipeline) {
+		pipeline.addFirst(LOGIN_ENCODER, loginEncoder);
+		pipeline.replace(HANDSHAKE_DECODER, LOGIN_DECODER, new LoginDecoder());
+		ConnectionState.LOGIN.enter(pipeline.channel());
+	}
+
+	/**
+	 * Switches a connection which chose the update service over to the update protocol.
+	 *
+	 * @param pipeline The pipeline.
+	 */
+	public static void update(ChannelPipeline pipeline) {
+		pipeline.addFirst(UPDATE_ENCODER, updateEncoder);
+		pipeline.replace(HANDSHAKE_DECODER, UPDATE_DECODER, new UpdateDecoder());
+		ConnectionState.UPDATE.enter(pipeline.channel());
+	}
+
+	/**
+	 * Switches a connection which has logged in over to the game protocol, applying the configured write buffer water
+	 * marks.
+	 *
+	 * @param pipeline The pipeline.
+	 * @param encryptor The cipher the opcodes of outgoing packets are encrypted with.
+	 * @param decryptor The cipher the opcodes of incoming packets are decrypted with.
+	 */
+	public static void game(ChannelPipeline pipeline, ISAACCipher encryptor, ISAACCipher decryptor) {
+		pipeline.replace(LOGIN_ENCODER, PACKET_ENCODER, new PacketEncoder(encryptor));
+		pipeline.replace(LOGIN_DECODER, PACKET_DECODER, new PacketDecoder(decryptor));
+
+		// Netty rejects a high mark below the current low mark, so the marks are set in whichever order keeps them valid.
+		ChannelConfig config = pipeline.channel().config();
+		int high = Configuration.write_buffer_high_water_mark;
+		int low = Math.min(Configuration.write_buffer_low_water_mark, high);
+		if (high < config.getWriteBufferLowWaterMark()) {
+			config.setWriteBufferLowWaterMark(low);
+			config.setWriteBufferHighWaterMark(high);
+		} else {
+			config.setWriteBufferHighWaterMark(high);
+			config.setWriteBufferLowWaterMark(low);
+		}
+		ConnectionState.GAME.enter(pipeline.channel());
+	}
+
+}
@@ -14,6 +14,7 @@ import core.net.NetworkConstants;
 import core.net.PlayerIO;
 import core.net.packet.InputPacket;
 import core.net.packet.PacketBuilder;
+import core.net.packet.PacketMetrics;
 import core.net.security.ISAACCipher;
 
 /**
@@ -29,6 +30,11 @@ public final class PacketDecoder extends ByteToMessageDecoder {
      */
     private static Logger logger = LoggerUtils.getLogger(PacketDecoder.class);
 
+    /**
+     * The metrics that decoded packets are recorded to.
+     */
+    private static final PacketMetrics metrics = PacketMetrics.getInstance();
+
     /**
      * The ISAAC that will decrypt incoming messages.
      */
@@ -65,14 +71,13 @@ public final class PacketDecoder extends ByteToMessageDecoder {
         // The message has no payload to decode, so queue it over to be received
         // upstream by the channel handler.
         if (size == 0) {
+            metrics.decoded(opcode, size, hasMessage);
             if (hasMessage) {
 
                 // EMPTY_BUFFER because this message has no payload.
                 out.add(new InputPacket(opcode, size, PacketBuilder.create(Unpooled.EMPTY_BUFFER)));
-            } else {
-                in.readBytes(new byte[size]);
-                if (Configuration.server_debug)
-                    logger.info(session + " unhandled upstream message [opcode= " + opcode + ", size= " + size + "]");
+            } else if (Configuration.server_debug) {
+                logger.info(session + " unhandled upstream message [opcode= " + opcode + ", size= " + size + "]");
             }
             return;
         }
@@ -98,11 +103,12 @@ public final class PacketDecoder extends ByteToMessageDecoder {
             ctx.channel().close();
             return;
         }
+        metrics.decoded(opcode, size, hasMessage);
         if (hasMessage) {
             ByteBuf buffer = in.readBytes(size);
             out.add(new InputPacket(opcode, size, PacketBuilder.create(buffer)));
         } else {
-            in.readBytes(new byte[size]);
+            in.skipBytes(size);
             if (Configuration.server_debug)
                 logger.info(session + " unhandled upstream message [opcode= " + opcode + ", size= " + size + "]");
         }
@@ -0,0 +1,95 @@
+package core.net.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+import core.net.packet.ConstantPacket;
+import core.net.packet.Packet;
+import core.net.packet.PacketBuilder;
+import core.net.packet.PacketMetrics;
+import core.net.security.ISAACCipher;
+
+/**
+ * The {@link MessageToMessageEncoder} implementation that encrypts the opcode
+ * of every outgoing {@link PacketBuilder}. Each builder holds exactly one
+ * packet, starting with its plain opcode, and its backing buffer is passed on
+ * without being copied. A {@link ConstantPacket} is passed on as a one byte
+ * header holding its encrypted opcode, followed by its shared body. Droppable
+ * packets written while the channel is over its high water mark are released
+ * instead, before they consume a key.
+ *
+ * @author 7Winds
+ */
+public final class PacketEncoder extends MessageToMessageEncoder<Packet> {
+
+    /**
+     * The ISAAC that will encrypt outgoing opcodes.
+     */
+    private final ISAACCipher encryptor;
+
+    /**
+     * Creates a new {@link PacketEncoder}.
+     *
+     * @param encryptor
+     *            the ISAAC encryptor that encodes opcodes.
+     */
+    public PacketEncoder(ISAACCipher encryptor) {
+        this.encryptor = encryptor;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Packet msg, List<Object> out) throws Exception {
+        if (msg instanceof ConstantPacket) {
+            encode(ctx, (ConstantPacket) msg, out);
+            return;
+        }
+        PacketBuilder packet = (PacketBuilder) msg;
+        ByteBuf buffer = packet.buffer();
+        if (packet.isDroppable() && !ctx.channel().isWritable()) {
+            buffer.release();
+            drop(out);
+            return;
+        }
+        int index = buffer.readerIndex();
+        buffer.setByte(index, buffer.getUnsignedByte(index) + encryptor.getKey());
+        out.add(buffer);
+    }
+
+    /**
+     * Encodes a packet shared by every session, writing only its opcode into
+     * a new buffer.
+     *
+     * @param ctx
+     *            the context of this encoder.
+     * @param packet
+     *            the packet to encode.
+     * @param out
+     *            the buffers to pass on.
+     */
+    private void encode(ChannelHandlerContext ctx, ConstantPacket packet, List<Object> out) {
+        if (packet.isDroppable() && !ctx.channel().isWritable()) {
+            drop(out);
+            return;
+        }
+        out.add(ctx.alloc().buffer(1).writeByte(packet.getOpcode() + encryptor.getKey()));
+        if (packet.hasBody()) {
+            out.add(packet.retainedBody());
+        }
+    }
+
+    /**
+     * Records a dropped packet. Netty 4.0 requires an encoder to pass on at
+     * least one message, so an empty buffer is passed on in its place.
+     *
+     * @param out
+     *            the buffers to pass on.
+     */
+    private void drop(List<Object> out) {
+        PacketMetrics.getInstance().dropped();
+        out.add(Unpooled.EMPTY_BUFFER);
+    }
+}
@@ -1,24 +1,26 @@
 package core.net.codec.handshake;
 
-import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import core.game.util.LoggerUtils;
-import core.net.codec.login.LoginDecoder;
-import core.net.codec.login.LoginEncoder;
-import core.net.codec.update.UpdateDecoder;
-import core.net.codec.update.UpdateEncoder;
+import core.net.ServicePipelines;
+import core.net.packet.ConstantPackets;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 
 /**
- * A {@link ByteToMessageDecoder} which decodes the handshake and makes changes to the pipeline as appropriate for the
- * selected service.
+ * A {@link ChannelInboundHandlerAdapter} which decodes the handshake and installs the pipeline of the selected service.
+ * The handshake is the first byte a client sends, so no cumulation is needed and a single instance is shared by every
+ * pipeline. Any bytes read along with the handshake are passed on to the decoder of the service.
  *
  * @author Graham
  */
-public final class HandshakeDecoder extends ByteToMessageDecoder {
+@Sharable
+public final class HandshakeDecoder extends ChannelInboundHandlerAdapter {
 
 	/**
 	 * The logger for this class.
@@ -26,8 +28,10 @@ public final class HandshakeDecoder extends ByteToMessageDecoder {
 	private static final Logger logger = LoggerUtils.getLogger(HandshakeDecoder.class);
 
 	@Override
-	protected void decode(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out) {
+	public void channelRead(ChannelHandlerContext ctx, Object message) {
+		ByteBuf buffer = (ByteBuf) message;
 		if (!buffer.isReadable()) {
+			buffer.release();
 			return;
 		}
 
@@ -35,26 +39,29 @@ public final class HandshakeDecoder extends ByteToMessageDecoder {
 
 		switch (id) {
 			case HandshakeConstants.SERVICE_GAME:
-				ctx.pipeline().addFirst("loginEncoder", new LoginEncoder());
-				ctx.pipeline().addAfter("handshakeDecoder", "loginDecoder", new LoginDecoder());
+				ServicePipelines.login(ctx.pipeline());
 				break;
 
 			case HandshakeConstants.SERVICE_UPDATE:
-				ctx.pipeline().addFirst("updateEncoder", new UpdateEncoder());
-				ctx.pipeline().addBefore("handler", "updateDecoder", new UpdateDecoder());
-
-				ByteBuf buf = ctx.alloc().buffer(8).writeLong(0);
-				ctx.channel().writeAndFlush(buf);
+				ServicePipelines.update(ctx.pipeline());
+				ctx.channel().writeAndFlush(ConstantPackets.updateHandshakeReply());
 				break;
 
 			default:
-				ByteBuf data = buffer.readBytes(buffer.readableBytes());
-				logger.info(String.format("Unexpected handshake request received: %d data: %s", id, data.toString()));
+				// Parameters are formatted later on the log writer thread, by when the buffer has been released.
+				logger.log(Level.INFO, "Unexpected handshake request received: {0} data: {1}",
+						new Object[] { id, ByteBufUtil.hexDump(buffer) });
+				buffer.release();
 				return;
 		}
 
-		ctx.pipeline().remove(this);
-		out.add(new HandshakeMessage(id));
+		// This context now forwards to the decoder which replaced it.
+		if (buffer.isReadable()) {
+			ctx.fireChannelRead(buffer);
+		} else {
+			buffer.release();
+		}
+		ctx.fireChannelRead(new HandshakeMessage(id));
 	}
 
 }
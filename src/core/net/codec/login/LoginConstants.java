@@ -117,6 +117,31 @@ public final class LoginConstants {
 	 */
 	public static final int TYPE_RECONNECTION = 18;
 
+	/**
+	 * The release number of the supported client.
+	 */
+	public static final int RELEASE_NUMBER = 317;
+
+	/**
+	 * The id of the block holding the ISAAC seeds and credentials.
+	 */
+	public static final int SECURE_BLOCK_ID = 10;
+
+	/**
+	 * The magic number sent at the start of the login payload.
+	 */
+	public static final int PAYLOAD_MAGIC = 255;
+
+	/**
+	 * The amount of archive checksums sent in the login payload.
+	 */
+	public static final int ARCHIVE_COUNT = 9;
+
+	/**
+	 * The offset added to each ISAAC seed value for the server's encryptor.
+	 */
+	public static final int ENCRYPTOR_SEED_OFFSET = 50;
+
 	/**
 	 * Default private constructor to prevent instantiation.
 	 */
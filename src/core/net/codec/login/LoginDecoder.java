@@ -1,22 +1,179 @@
 package core.net.codec.login;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 
+import java.security.SecureRandom;
 import java.util.List;
 
+import core.game.util.NameUtils;
 import core.game.util.StatefulFrameDecoder;
+import core.net.packet.PacketBuilder;
+import core.net.security.ISAACCipher;
 
-public class LoginDecoder extends StatefulFrameDecoder<LoginDecoderState> {
+/**
+ * A {@link StatefulFrameDecoder} which decodes the login request frames sent by the client.
+ *
+ * @author 7Winds
+ */
+public final class LoginDecoder extends StatefulFrameDecoder<LoginDecoderState> {
 
+	/**
+	 * The secure random number generator used to create server session keys.
+	 */
+	private static final SecureRandom random = new SecureRandom();
+
+	/**
+	 * The length of the login payload.
+	 */
+	private int loginLength;
+
+	/**
+	 * The reconnecting flag.
+	 */
+	private boolean reconnecting;
+
+	/**
+	 * The server session key.
+	 */
+	private long serverSeed;
+
+	/**
+	 * Creates the login decoder with the default initial state.
+	 */
 	public LoginDecoder() {
 		super(LoginDecoderState.LOGIN_HANDSHAKE);
 	}
 
 	@Override
-	protected void decode(ChannelHandlerContext ctx, ByteBuf in,
-			List<Object> out, LoginDecoderState state) throws Exception {
-		
+	protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out, LoginDecoderState state) {
+		switch (state) {
+			case LOGIN_HANDSHAKE:
+				decodeHandshake(ctx, in);
+				break;
+			case LOGIN_HEADER:
+				decodeHeader(ctx, in);
+				break;
+			case LOGIN_PAYLOAD:
+				decodePayload(ctx, in, out);
+				break;
+		}
+	}
+
+	/**
+	 * Decodes the handshake state, replying with the server session key.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param in The input buffer.
+	 */
+	private void decodeHandshake(ChannelHandlerContext ctx, ByteBuf in) {
+		if (!in.isReadable()) {
+			return;
+		}
+
+		in.readUnsignedByte(); // username hash
+		serverSeed = random.nextLong();
+
+		ByteBuf response = ctx.alloc().buffer(2 * Long.BYTES + Byte.BYTES);
+		response.writeLong(0);
+		response.writeByte(LoginConstants.STATUS_EXCHANGE_DATA);
+		response.writeLong(serverSeed);
+		ctx.channel().writeAndFlush(response);
+
+		setState(LoginDecoderState.LOGIN_HEADER);
+	}
+
+	/**
+	 * Decodes the header state.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param in The input buffer.
+	 */
+	private void decodeHeader(ChannelHandlerContext ctx, ByteBuf in) {
+		if (in.readableBytes() < 2) {
+			return;
+		}
+
+		int type = in.readUnsignedByte();
+		if (type != LoginConstants.TYPE_STANDARD && type != LoginConstants.TYPE_RECONNECTION) {
+			writeResponseCode(ctx, in, LoginConstants.STATUS_LOGIN_SERVER_REJECTED_SESSION);
+			return;
+		}
+
+		reconnecting = type == LoginConstants.TYPE_RECONNECTION;
+		loginLength = in.readUnsignedByte();
+		setState(LoginDecoderState.LOGIN_PAYLOAD);
 	}
-	
+
+	/**
+	 * Decodes the payload state.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param in The input buffer.
+	 * @param out The {@link List} of objects to pass forward through the pipeline.
+	 */
+	private void decodePayload(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+		if (in.readableBytes() < loginLength) {
+			return;
+		}
+
+		PacketBuilder payload = PacketBuilder.create(in.readSlice(loginLength));
+		if (payload.get(false) != LoginConstants.PAYLOAD_MAGIC) {
+			writeResponseCode(ctx, in, LoginConstants.STATUS_LOGIN_SERVER_REJECTED_SESSION);
+			return;
+		}
+
+		int release = payload.getShort(false);
+		if (release != LoginConstants.RELEASE_NUMBER) {
+			writeResponseCode(ctx, in, LoginConstants.STATUS_GAME_UPDATED);
+			return;
+		}
+
+		boolean lowMemory = payload.get(false) == 1;
+		payload.buffer().skipBytes(LoginConstants.ARCHIVE_COUNT * Integer.BYTES);
+
+		int secureLength = payload.get(false);
+		if (secureLength != loginLength - 41 || payload.get(false) != LoginConstants.SECURE_BLOCK_ID) {
+			writeResponseCode(ctx, in, LoginConstants.STATUS_LOGIN_SERVER_REJECTED_SESSION);
+			return;
+		}
+
+		long clientSeed = payload.getLong();
+		long reportedSeed = payload.getLong();
+		if (reportedSeed != serverSeed) {
+			writeResponseCode(ctx, in, LoginConstants.STATUS_BAD_SESSION_ID);
+			return;
+		}
+
+		payload.getInt(); // uid
+		String username = payload.getString();
+		String password = payload.getString();
+		if (!NameUtils.isValidName(username) || password.length() < 4 || password.length() > 20) {
+			writeResponseCode(ctx, in, LoginConstants.STATUS_INVALID_CREDENTIALS);
+			return;
+		}
+
+		int[] seed = { (int) (clientSeed >> 32), (int) clientSeed, (int) (serverSeed >> 32), (int) serverSeed };
+		ISAACCipher decryptor = new ISAACCipher(seed);
+		for (int i = 0; i < seed.length; i++) {
+			seed[i] += LoginConstants.ENCRYPTOR_SEED_OFFSET;
+		}
+		ISAACCipher encryptor = new ISAACCipher(seed);
+
+		out.add(new LoginRequest(username, password, release, lowMemory, reconnecting, encryptor, decryptor));
+	}
+
+	/**
+	 * Writes a response code to the client and closes the channel, discarding any remaining input.
+	 *
+	 * @param ctx The channel handler context.
+	 * @param in The input buffer.
+	 * @param status The login status.
+	 */
+	private void writeResponseCode(ChannelHandlerContext ctx, ByteBuf in, int status) {
+		in.skipBytes(in.readableBytes());
+		ctx.channel().writeAndFlush(new LoginResponse(status, 0, false)).addListener(ChannelFutureListener.CLOSE);
+	}
+
 }
@@ -3,14 +3,17 @@ package core.net.codec.login;
 import java.util.List;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
 
 /**
- * A {@link MessageToMessageEncoder} which encodes login response messages.
+ * A {@link MessageToMessageEncoder} which encodes login response messages. It holds no state, so a single instance is
+ * shared by every pipeline.
  *
  * @author Graham
  */
+@Sharable
 public final class LoginEncoder extends MessageToMessageEncoder<LoginResponse> {
 
 	/**
@@ -0,0 +1,132 @@
+package core.net.codec.login;
+
+import core.net.security.ISAACCipher;
+
+/**
+ * Represents a decoded login request.
+ *
+ * @author 7Winds
+ */
+public final class LoginRequest {
+
+	/**
+	 * The ISAAC cipher that will decrypt incoming opcodes.
+	 */
+	private final ISAACCipher decryptor;
+
+	/**
+	 * The ISAAC cipher that will encrypt outgoing opcodes.
+	 */
+	private final ISAACCipher encryptor;
+
+	/**
+	 * The low memory flag.
+	 */
+	private final boolean lowMemory;
+
+	/**
+	 * The password.
+	 */
+	private final String password;
+
+	/**
+	 * The reconnecting flag.
+	 */
+	private final boolean reconnecting;
+
+	/**
+	 * The client release number.
+	 */
+	private final int releaseNumber;
+
+	/**
+	 * The username.
+	 */
+	private final String username;
+
+	/**
+	 * Creates the login request.
+	 *
+	 * @param username The username.
+	 * @param password The password.
+	 * @param releaseNumber The client release number.
+	 * @param lowMemory The low memory flag.
+	 * @param reconnecting The reconnecting flag.
+	 * @param encryptor The ISAAC cipher that will encrypt outgoing opcodes.
+	 * @param decryptor The ISAAC cipher that will decrypt incoming opcodes.
+	 */
+	public LoginRequest(String username, String password, int releaseNumber, boolean lowMemory, boolean reconnecting,
+			ISAACCipher encryptor, ISAACCipher decryptor) {
+		this.username = username;
+		this.password = password;
+		this.releaseNumber = releaseNumber;
+		this.lowMemory = lowMemory;
+		this.reconnecting = reconnecting;
+		this.encryptor = encryptor;
+		this.decryptor = decryptor;
+	}
+
+	/**
+	 * Gets the ISAAC cipher that will decrypt incoming opcodes.
+	 *
+	 * @return The decryptor.
+	 */
+	public ISAACCipher getDecryptor() {
+		return decryptor;
+	}
+
+	/**
+	 * Gets the ISAAC cipher that will encrypt outgoing opcodes.
+	 *
+	 * @return The encryptor.
+	 */
+	public ISAACCipher getEncryptor() {
+		return encryptor;
+	}
+
+	/**
+	 * Gets the password.
+	 *
+	 * @return The password.
+	 */
+	public String getPassword() {
+		return password;
+	}
+
+	/**
+	 * Gets the client release number.
+	 *
+	 * @return The release number.
+	 */
+	public int getReleaseNumber() {
+		return releaseNumber;
+	}
+
+	/**
+	 * Gets the username.
+	 *
+	 * @return The username.
+	 */
+	public String getUsername() {
+		return username;
+	}
+
+	/**
+	 * Checks if the client is running in low memory mode.
+	 *
+	 * @return The low memory flag.
+	 */
+	public boolean isLowMemory() {
+		return lowMemory;
+	}
+
+	/**
+	 * Checks if the client is reconnecting.
+	 *
+	 * @return The reconnecting flag.
+	 */
+	public boolean isReconnecting() {
+		return reconnecting;
+	}
+
+}
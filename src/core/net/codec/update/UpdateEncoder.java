@@ -4,14 +4,17 @@ import java.util.List;
 
 import core.game.cache.FileDescriptor;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
 
 /**
- * A {@link MessageToMessageEncoder} for the 'on-demand' protocol.
+ * A {@link MessageToMessageEncoder} for the 'on-demand' protocol. It holds no state, so a single instance is shared by
+ * every pipeline.
  *
  * @author Graham
  */
+@Sharable
 public final class UpdateEncoder extends MessageToMessageEncoder<OnDemandResponse> {
 
 	@Override
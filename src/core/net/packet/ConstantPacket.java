@@ -0,0 +1,87 @@
+package core.net.packet;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * A packet which is byte for byte identical for every player, encoded once and shared by every channel it is written
+ * to. Only its opcode differs between sessions, as it is encrypted with the ISAAC key of each, so the encoder only
+ * writes a one byte header per session and follows it with a read-only duplicate of the shared body.
+ * <p>
+ * A constant packet is immutable. Its body is a single shared buffer which is never released; each write takes a
+ * retained duplicate of it, which is released once it has been written, so the same instance may be written to any
+ * number of channels from any thread.
+ *
+ * @author 7Winds
+ */
+public final class ConstantPacket implements Packet {
+
+	/**
+	 * The plain opcode.
+	 */
+	private final int opcode;
+
+	/**
+	 * The shared, read-only bytes following the opcode.
+	 */
+	private final ByteBuf body;
+
+	/**
+	 * Whether this packet may be dropped while its channel is not writable.
+	 */
+	private final boolean droppable;
+
+	/**
+	 * Creates a constant packet from a packet built with a plain opcode, then releases the builder's buffer.
+	 *
+	 * @param packet The packet, whose droppable flag is kept.
+	 */
+	public ConstantPacket(PacketBuilder packet) {
+		ByteBuf buffer = packet.buffer();
+		try {
+			this.opcode = buffer.readUnsignedByte();
+			ByteBuf body = Unpooled.directBuffer(buffer.readableBytes()).writeBytes(buffer);
+			this.body = Unpooled.unmodifiableBuffer(body);
+			this.droppable = packet.isDroppable();
+		} finally {
+			buffer.release();
+		}
+	}
+
+	/**
+	 * Gets the plain opcode.
+	 *
+	 * @return The opcode.
+	 */
+	public int getOpcode() {
+		return opcode;
+	}
+
+	/**
+	 * Checks if this packet has any bytes after its opcode.
+	 *
+	 * @return {@code true} if it has, {@code false} if it is only an opcode.
+	 */
+	public boolean hasBody() {
+		return body.isReadable();
+	}
+
+	/**
+	 * Gets a retained, read-only duplicate of the body, which the caller must release or write.
+	 *
+	 * @return The body.
+	 */
+	public ByteBuf retainedBody() {
+		return body.duplicate().retain();
+	}
+
+	/**
+	 * Checks if this packet may be dropped while its channel is not writable.
+	 *
+	 * @return {@code true} if it may, {@code false} if it is critical.
+	 */
+	public boolean isDroppable() {
+		return droppable;
+	}
+
+}
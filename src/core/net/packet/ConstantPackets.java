@@ -0,0 +1,93 @@
+package core.net.packet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import core.net.codec.game.ValueType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * The registry of the outbound packets which are identical for every player, each encoded once when this class is
+ * loaded.
+ *
+ * @author 7Winds
+ */
+public final class ConstantPackets {
+
+	/**
+	 * The opcode of the packet setting the interface of a sidebar tab.
+	 */
+	private static final int SIDEBAR_INTERFACE_OPCODE = 71;
+
+	/**
+	 * The opcode of the packet logging the client out.
+	 */
+	private static final int LOGOUT_OPCODE = 109;
+
+	/**
+	 * The opcode of the packet closing every open interface.
+	 */
+	private static final int CLOSE_INTERFACES_OPCODE = 219;
+
+	/**
+	 * The interface shown in each sidebar tab, by tab, or -1 for none.
+	 */
+	private static final int[] SIDEBAR_INTERFACES = { 5855, 3917, 638, 3213, 1644, 5608, 1151, -1, 5065, 5715, 2449,
+			904, 147, 962 };
+
+	/**
+	 * The reply to the update service handshake: eight zero bytes. It is written raw, without an opcode.
+	 */
+	private static final ByteBuf UPDATE_HANDSHAKE_REPLY = Unpooled
+			.unmodifiableBuffer(Unpooled.directBuffer(8).writeLong(0));
+
+	/**
+	 * Logs the client out.
+	 */
+	public static final ConstantPacket LOGOUT = new ConstantPacket(PacketBuilder.create(1).newMessage(LOGOUT_OPCODE));
+
+	/**
+	 * Closes every open interface.
+	 */
+	public static final ConstantPacket CLOSE_INTERFACES = new ConstantPacket(
+			PacketBuilder.create(1).newMessage(CLOSE_INTERFACES_OPCODE));
+
+	/**
+	 * The packets every player is sent when it enters the world, in order.
+	 */
+	public static final List<ConstantPacket> LOGIN_SEQUENCE;
+
+	static {
+		List<ConstantPacket> sequence = new ArrayList<>();
+		for (int tab = 0; tab < SIDEBAR_INTERFACES.length; tab++) {
+			if (SIDEBAR_INTERFACES[tab] != -1) {
+				sequence.add(new ConstantPacket(PacketBuilder.create(4).newMessage(SIDEBAR_INTERFACE_OPCODE)
+						.putShort(SIDEBAR_INTERFACES[tab]).put(tab, ValueType.A)));
+			}
+		}
+		sequence.add(CLOSE_INTERFACES);
+		LOGIN_SEQUENCE = Collections.unmodifiableList(sequence);
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation by other classes.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if this class is instantiated.
+	 */
+	private ConstantPackets() {
+		throw new UnsupportedOperationException("This class cannot be instantiated!");
+	}
+
+	/**
+	 * Gets a retained, read-only duplicate of the reply to the update service handshake, to be written raw.
+	 *
+	 * @return The reply.
+	 */
+	public static ByteBuf updateHandshakeReply() {
+		return UPDATE_HANDSHAKE_REPLY.duplicate().retain();
+	}
+
+}
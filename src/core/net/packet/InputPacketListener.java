@@ -1,5 +1,7 @@
 package core.net.packet;
 
+import core.game.model.Player;
+
 /**
  * The listener for {@link InputMessage}s that will handle logic for incoming
  * messages based on {@code opcode}, {@code size}, and {@code payload}.
@@ -21,5 +23,5 @@ public interface InputPacketListener {
      * @param payload
      *            the data contained within this message.
      */
-    public abstract void handleMessage(int opcode, int size, PacketBuilder payload);
+    public abstract void handleMessage(Player player, int opcode, int size, PacketBuilder payload);
 }
@@ -0,0 +1,166 @@
+package core.net.packet;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * An immutable snapshot of the metrics gathered for a single opcode.
+ *
+ * @author 7Winds
+ */
+public final class OpcodeStatistics {
+
+	/**
+	 * The opcode.
+	 */
+	private final int opcode;
+
+	/**
+	 * The amount of decoded packets.
+	 */
+	private final long count;
+
+	/**
+	 * The amount of decoded payload bytes.
+	 */
+	private final long bytes;
+
+	/**
+	 * The amount of packets discarded because no listener was registered.
+	 */
+	private final long unhandled;
+
+	/**
+	 * The amount of packets handed to a listener.
+	 */
+	private final long dispatched;
+
+	/**
+	 * The total time spent in the listener, in nanoseconds.
+	 */
+	private final long totalNanos;
+
+	/**
+	 * The median time spent in the listener, in nanoseconds.
+	 */
+	private final long medianNanos;
+
+	/**
+	 * The 99th percentile of the time spent in the listener, in nanoseconds.
+	 */
+	private final long p99Nanos;
+
+	/**
+	 * The longest time spent in the listener, in nanoseconds.
+	 */
+	private final long maxNanos;
+
+	/**
+	 * Creates the opcode statistics.
+	 *
+	 * @param opcode The opcode.
+	 * @param count The amount of decoded packets.
+	 * @param bytes The amount of decoded payload bytes.
+	 * @param unhandled The amount of packets discarded because no listener was registered.
+	 * @param dispatched The amount of packets handed to a listener.
+	 * @param totalNanos The total time spent in the listener.
+	 * @param medianNanos The median time spent in the listener.
+	 * @param p99Nanos The 99th percentile of the time spent in the listener.
+	 * @param maxNanos The longest time spent in the listener.
+	 */
+	@ConstructorProperties({ "opcode", "count", "bytes", "unhandled", "dispatched", "totalNanos", "medianNanos",
+			"p99Nanos", "maxNanos" })
+	public OpcodeStatistics(int opcode, long count, long bytes, long unhandled, long dispatched, long totalNanos,
+			long medianNanos, long p99Nanos, long maxNanos) {
+		this.opcode = opcode;
+		this.count = count;
+		this.bytes = bytes;
+		this.unhandled = unhandled;
+		this.dispatched = dispatched;
+		this.totalNanos = totalNanos;
+		this.medianNanos = medianNanos;
+		this.p99Nanos = p99Nanos;
+		this.maxNanos = maxNanos;
+	}
+
+	/**
+	 * Gets the opcode.
+	 *
+	 * @return The opcode.
+	 */
+	public int getOpcode() {
+		return opcode;
+	}
+
+	/**
+	 * Gets the amount of decoded packets.
+	 *
+	 * @return The count.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the amount of decoded payload bytes.
+	 *
+	 * @return The bytes.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Gets the amount of packets discarded because no listener was registered.
+	 *
+	 * @return The unhandled count.
+	 */
+	public long getUnhandled() {
+		return unhandled;
+	}
+
+	/**
+	 * Gets the amount of packets handed to a listener.
+	 *
+	 * @return The dispatched count.
+	 */
+	public long getDispatched() {
+		return dispatched;
+	}
+
+	/**
+	 * Gets the total time spent in the listener.
+	 *
+	 * @return The time, in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * Gets the median time spent in the listener, accurate to a power of two.
+	 *
+	 * @return The time, in nanoseconds.
+	 */
+	public long getMedianNanos() {
+		return medianNanos;
+	}
+
+	/**
+	 * Gets the 99th percentile of the time spent in the listener, accurate to a power of two.
+	 *
+	 * @return The time, in nanoseconds.
+	 */
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+
+	/**
+	 * Gets the longest time spent in the listener.
+	 *
+	 * @return The time, in nanoseconds.
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+}
@@ -17,9 +17,34 @@ public final class PacketBuilder implements Packet {
     /**
      * An array of the bit masks used for writing bits.
      */
-    private static final int[] BIT_MASK = { 0, 0x1, 0x3, 0x7, 0xf, 0x1f, 0x3f, 0x7f, 0xff, 0x1ff, 0x3ff, 0x7ff, 0xfff, 0x1fff, 0x3fff,
-            0x7fff, 0xffff, 0x1ffff, 0x3ffff, 0x7ffff, 0xfffff, 0x1fffff, 0x3fffff, 0x7fffff, 0xffffff, 0x1ffffff, 0x3ffffff, 0x7ffffff,
-            0xfffffff, 0x1fffffff, 0x3fffffff, 0x7fffffff, -1 };
+    private static final long[] BIT_MASK = new long[33];
+
+    static {
+        for (int i = 0; i < BIT_MASK.length; i++) {
+            BIT_MASK[i] = (1L << i) - 1;
+        }
+    }
+
+    /**
+     * The amount of bytes reserved by {@link #startBitAccess()}, enough for
+     * the bit-packed section of a full player update.
+     */
+    private static final int DEFAULT_BIT_CAP = 4096;
+
+    /**
+     * The top bit of every byte lane in a {@code long}.
+     */
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    /**
+     * The low seven bits of every byte lane in a {@code long}.
+     */
+    private static final long LOW_BITS = 0x7f7f7f7f7f7f7f7fL;
+
+    /**
+     * The value one in every byte lane of a {@code long}.
+     */
+    private static final long ONE_BITS = 0x0101010101010101L;
 
     /**
      * The default capacity of this buffer.
@@ -37,9 +62,20 @@ public final class PacketBuilder implements Packet {
     private int varLengthIndex = 0;
 
     /**
-     * The current bit position when writing bits.
+     * The bits that have been written but not yet flushed to the buffer,
+     * aligned to the least significant bit.
+     */
+    private long bitBuffer = 0;
+
+    /**
+     * The amount of bits held in {@code bitBuffer}.
+     */
+    private int bitCount = 0;
+
+    /**
+     * If this message may be dropped while its channel is not writable.
      */
-    private int bitIndex = 0;
+    private boolean droppable;
 
     /**
      * Creates a new {@link PacketBuilder} with the {@code buf} backing buffer.
@@ -84,17 +120,82 @@ public final class PacketBuilder implements Packet {
     }
 
     /**
-     * Prepares the buffer for writing bits.
+     * Clears this buffer so it can be reused for a new message, keeping the
+     * backing buffer and its capacity.
+     *
+     * @return an instance of this message builder.
+     */
+    public PacketBuilder clear() {
+        buf.clear();
+        varLengthIndex = 0;
+        bitBuffer = 0;
+        bitCount = 0;
+        droppable = false;
+        return this;
+    }
+
+    /**
+     * Marks this message as droppable, meaning it is cosmetic and may be
+     * skipped rather than buffered while the client cannot keep up. Every
+     * message is critical unless marked otherwise.
+     *
+     * @param droppable
+     *            if this message may be dropped.
+     * @return an instance of this message builder.
+     */
+    public PacketBuilder setDroppable(boolean droppable) {
+        this.droppable = droppable;
+        return this;
+    }
+
+    /**
+     * Determines if this message may be dropped while its channel is not
+     * writable.
+     *
+     * @return {@code true} if this message is droppable.
+     */
+    public boolean isDroppable() {
+        return droppable;
+    }
+
+    /**
+     * Prepares the buffer for writing bits, reserving the default amount of
+     * space for the bit-packed block.
      */
     public void startBitAccess() {
-        bitIndex = buf.writerIndex() * 8;
+        startBitAccess(DEFAULT_BIT_CAP);
     }
 
     /**
-     * Prepares the buffer for writing bytes.
+     * Prepares the buffer for writing bits. Bits are accumulated in a
+     * {@code long} and written to the buffer a whole {@code int} at a time, so
+     * no other write methods may be called until {@link #endBitAccess()}.
+     *
+     * @param capacity
+     *            the maximum amount of bytes the bit-packed block will
+     *            occupy, reserved up front so the buffer does not grow while
+     *            bits are being written.
+     */
+    public void startBitAccess(int capacity) {
+        buf.ensureWritable(capacity);
+        bitBuffer = 0;
+        bitCount = 0;
+    }
+
+    /**
+     * Prepares the buffer for writing bytes, flushing any remaining bits
+     * padded with zeros to the next whole byte.
      */
     public void endBitAccess() {
-        buf.writerIndex((bitIndex + 7) / 8);
+        if (bitCount > 0) {
+            int bytes = (bitCount + 7) >> 3;
+            long bits = bitBuffer << ((bytes << 3) - bitCount);
+            for (int i = bytes - 1; i >= 0; i--) {
+                buf.writeByte((int) (bits >>> (i << 3)));
+            }
+        }
+        bitBuffer = 0;
+        bitCount = 0;
     }
 
     /**
@@ -176,9 +277,7 @@ public final class PacketBuilder implements Packet {
      * @return an instance of this message builder.
      */
     public PacketBuilder putBytes(ByteBuf from) {
-        for (int i = 0; i < from.writerIndex(); i++) {
-            put(from.getByte(i));
-        }
+        buf.writeBytes(from, 0, from.writerIndex());
         return this;
     }
 
@@ -201,9 +300,41 @@ public final class PacketBuilder implements Packet {
      *            the data to write to this buffer.
      */
     public PacketBuilder putBytesReverse(byte[] data) {
-        for (int i = data.length - 1; i >= 0; i--) {
-            put(data[i]);
-        }
+        return putBytesReverse(data, ValueType.STANDARD);
+    }
+
+    /**
+     * Writes the bytes from the argued byte array into this buffer, applying
+     * {@code type} to each byte.
+     *
+     * @param data
+     *            the data to write to this buffer.
+     * @param type
+     *            the value type of each byte.
+     * @return an instance of this message builder.
+     */
+    public PacketBuilder putBytes(byte[] data, ValueType type) {
+        int index = buf.writerIndex();
+        buf.writeBytes(data);
+        transform(buf, index, data.length, type);
+        return this;
+    }
+
+    /**
+     * Writes the bytes from the argued byte array into this buffer in reverse,
+     * applying {@code type} to each byte.
+     *
+     * @param data
+     *            the data to write to this buffer.
+     * @param type
+     *            the value type of each byte.
+     * @return an instance of this message builder.
+     */
+    public PacketBuilder putBytesReverse(byte[] data, ValueType type) {
+        int index = buf.writerIndex();
+        buf.writeBytes(data);
+        reverse(buf, index, data.length);
+        transform(buf, index, data.length, type);
         return this;
     }
 
@@ -222,33 +353,11 @@ public final class PacketBuilder implements Packet {
     public PacketBuilder putBits(int amount, int value) {
         if (amount < 0 || amount > 32)
             throw new IllegalArgumentException("Number of bits must be " + "between 1 and 32 inclusive.");
-        int bytePos = bitIndex >> 3;
-        int bitOffset = 8 - (bitIndex & 7);
-        bitIndex = bitIndex + amount;
-        int requiredSpace = bytePos - buf.writerIndex() + 1;
-        requiredSpace += (amount + 7) / 8;
-        if (buf.writableBytes() < requiredSpace) {
-            ByteBuf old = buf;
-            buf = Unpooled.buffer(old.capacity() + requiredSpace);
-            buf.writeBytes(old);
-        }
-        for (; amount > bitOffset; bitOffset = 8) {
-            byte tmp = buf.getByte(bytePos);
-            tmp &= ~BIT_MASK[bitOffset];
-            tmp |= (value >> (amount - bitOffset)) & BIT_MASK[bitOffset];
-            buf.setByte(bytePos++, tmp);
-            amount -= bitOffset;
-        }
-        if (amount == bitOffset) {
-            byte tmp = buf.getByte(bytePos);
-            tmp &= ~BIT_MASK[bitOffset];
-            tmp |= value & BIT_MASK[bitOffset];
-            buf.setByte(bytePos, tmp);
-        } else {
-            byte tmp = buf.getByte(bytePos);
-            tmp &= ~(BIT_MASK[amount] << (bitOffset - amount));
-            tmp |= (value & BIT_MASK[amount]) << (bitOffset - amount);
-            buf.setByte(bytePos, tmp);
+        bitBuffer = (bitBuffer << amount) | (value & BIT_MASK[amount]);
+        bitCount += amount;
+        if (bitCount >= Integer.SIZE) {
+            bitCount -= Integer.SIZE;
+            buf.writeInt((int) (bitBuffer >>> bitCount));
         }
         return this;
     }
@@ -958,8 +1067,9 @@ public final class PacketBuilder implements Packet {
      */
     public byte[] getBytes(int amount, ValueType type) {
         byte[] data = new byte[amount];
-        for (int i = 0; i < amount; i++) {
-            data[i] = (byte) get(type);
+        buf.readBytes(data);
+        if (type != ValueType.STANDARD) {
+            transform(Unpooled.wrappedBuffer(data), 0, amount, type);
         }
         return data;
     }
@@ -977,27 +1087,108 @@ public final class PacketBuilder implements Packet {
      */
     public byte[] getBytesReverse(int amount, ValueType type) {
         byte[] data = new byte[amount];
-        int dataPosition = 0;
-        for (int i = buf.readerIndex() + amount - 1; i >= buf.readerIndex(); i--) {
-            int value = buf.getByte(i);
-            switch (type) {
-            case A:
-                value -= 128;
-                break;
-            case C:
-                value = -value;
-                break;
-            case S:
-                value = 128 - value;
-                break;
-            case STANDARD:
-                break;
-            }
-            data[dataPosition++] = (byte) value;
-        }
+        buf.getBytes(buf.readerIndex(), data);
+        ByteBuf wrapped = Unpooled.wrappedBuffer(data);
+        reverse(wrapped, 0, amount);
+        transform(wrapped, 0, amount, type);
         return data;
     }
 
+    /**
+     * Applies {@code type} in place to {@code length} bytes of {@code target}
+     * starting at {@code index}. Eight bytes are transformed at a time using
+     * {@code long} arithmetic that never carries between byte lanes, and the
+     * remaining tail is transformed one byte at a time. The transforms are
+     * their own inverse modulo {@code 256}, so the same method is used when
+     * reading and writing.
+     *
+     * @param target
+     *            the buffer to transform.
+     * @param index
+     *            the index of the first byte.
+     * @param length
+     *            the amount of bytes to transform.
+     * @param type
+     *            the value type of each byte.
+     */
+    private static void transform(ByteBuf target, int index, int length, ValueType type) {
+        if (type == ValueType.STANDARD) {
+            return;
+        }
+        int end = index + length;
+        for (; index + Long.BYTES <= end; index += Long.BYTES) {
+            target.setLong(index, transform(target.getLong(index), type));
+        }
+        for (; index < end; index++) {
+            target.setByte(index, (int) transform(target.getByte(index), type));
+        }
+    }
+
+    /**
+     * Applies {@code type} to each of the eight byte lanes of {@code word}.
+     * Type {@code A} is a flip of the top bit of each lane, type {@code C} is a
+     * lane-wise two's complement negation and type {@code S} is a negation
+     * followed by a flip of the top bit.
+     *
+     * @param word
+     *            the eight bytes to transform.
+     * @param type
+     *            the value type of each byte.
+     * @return the transformed bytes.
+     */
+    private static long transform(long word, ValueType type) {
+        switch (type) {
+        case A:
+            return word ^ HIGH_BITS;
+        case C:
+            return negate(word);
+        case S:
+            return negate(word) ^ HIGH_BITS;
+        case STANDARD:
+            break;
+        }
+        return word;
+    }
+
+    /**
+     * Negates each of the eight byte lanes of {@code word} without carrying
+     * between lanes.
+     *
+     * @param word
+     *            the eight bytes to negate.
+     * @return the negated bytes.
+     */
+    private static long negate(long word) {
+        long inverted = ~word;
+        return ((inverted & LOW_BITS) + ONE_BITS) ^ (inverted & HIGH_BITS);
+    }
+
+    /**
+     * Reverses {@code length} bytes of {@code target} in place starting at
+     * {@code index}, swapping eight bytes from each end at a time.
+     *
+     * @param target
+     *            the buffer to reverse.
+     * @param index
+     *            the index of the first byte.
+     * @param length
+     *            the amount of bytes to reverse.
+     */
+    private static void reverse(ByteBuf target, int index, int length) {
+        int low = index;
+        int high = index + length - Long.BYTES;
+        for (; high - low >= Long.BYTES; low += Long.BYTES, high -= Long.BYTES) {
+            long first = target.getLong(low);
+            target.setLong(low, Long.reverseBytes(target.getLong(high)));
+            target.setLong(high, Long.reverseBytes(first));
+        }
+        for (high += Long.BYTES - 1; low < high; low++, high--) {
+            byte first = target.getByte(low);
+            target.setByte(low, target.getByte(high));
+            target.setByte(high, first);
+        }
+    }
+
     /**
      * Gets the backing byte buffer used to read and write data.
      *
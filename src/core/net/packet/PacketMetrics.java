@@ -0,0 +1,251 @@
+package core.net.packet;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Always-on counters of the packets received for each opcode: how many were decoded, how many payload bytes they
+ * carried, and a histogram of the time spent in their {@link InputPacketListener}. Every counter is a striped
+ * {@link LongAdder}, so the event loop threads recording packets never contend with each other.
+ *
+ * @author 7Winds
+ */
+public final class PacketMetrics implements PacketMetricsMXBean {
+
+	/**
+	 * The name the metrics are published under.
+	 */
+	public static final String OBJECT_NAME = "core.net:type=PacketMetrics";
+
+	/**
+	 * The amount of power of two buckets in each dispatch time histogram.
+	 */
+	private static final int BUCKETS = 40;
+
+	/**
+	 * The metrics shared by every channel.
+	 */
+	private static final PacketMetrics instance = new PacketMetrics();
+
+	/**
+	 * The counters of each opcode, created the first time the opcode is received.
+	 */
+	private final AtomicReferenceArray<OpcodeCounters> counters = new AtomicReferenceArray<>(256);
+
+	/**
+	 * The amount of droppable outgoing packets skipped because their channel was not writable.
+	 */
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * Gets the metrics shared by every channel.
+	 *
+	 * @return The metrics.
+	 */
+	public static PacketMetrics getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Publishes the shared metrics to the platform MBean server.
+	 *
+	 * @throws JMException If the metrics could not be registered.
+	 */
+	public static void register() throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+	}
+
+	/**
+	 * Records a decoded packet.
+	 *
+	 * @param opcode The opcode.
+	 * @param size The size of the payload.
+	 * @param handled Whether a listener is registered for the opcode.
+	 */
+	public void decoded(int opcode, int size, boolean handled) {
+		OpcodeCounters counter = countersOf(opcode);
+		counter.count.increment();
+		counter.bytes.add(size);
+		if (!handled) {
+			counter.unhandled.increment();
+		}
+	}
+
+	/**
+	 * Records the time spent handling a packet in its listener.
+	 *
+	 * @param opcode The opcode.
+	 * @param nanos The time spent, in nanoseconds.
+	 */
+	public void dispatched(int opcode, long nanos) {
+		OpcodeCounters counter = countersOf(opcode);
+		counter.totalNanos.add(nanos);
+		counter.maxNanos.accumulate(nanos);
+		counter.histogram[Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(nanos))].increment();
+	}
+
+	/**
+	 * Records an outgoing packet that was dropped because its channel was not writable.
+	 */
+	public void dropped() {
+		dropped.increment();
+	}
+
+	@Override
+	public List<OpcodeStatistics> getOpcodeStatistics() {
+		List<OpcodeStatistics> statistics = new ArrayList<>();
+		for (int opcode = 0; opcode < counters.length(); opcode++) {
+			OpcodeCounters counter = counters.get(opcode);
+			if (counter != null) {
+				statistics.add(counter.snapshot(opcode));
+			}
+		}
+		statistics.sort(Comparator.comparingLong(OpcodeStatistics::getTotalNanos).reversed());
+		return statistics;
+	}
+
+	@Override
+	public long getTotalPackets() {
+		long total = 0;
+		for (int opcode = 0; opcode < counters.length(); opcode++) {
+			OpcodeCounters counter = counters.get(opcode);
+			if (counter != null) {
+				total += counter.count.sum();
+			}
+		}
+		return total;
+	}
+
+	@Override
+	public long getTotalBytes() {
+		long total = 0;
+		for (int opcode = 0; opcode < counters.length(); opcode++) {
+			OpcodeCounters counter = counters.get(opcode);
+			if (counter != null) {
+				total += counter.bytes.sum();
+			}
+		}
+		return total;
+	}
+
+	@Override
+	public long getDroppedPackets() {
+		return dropped.sum();
+	}
+
+	@Override
+	public void reset() {
+		dropped.reset();
+		for (int opcode = 0; opcode < counters.length(); opcode++) {
+			counters.set(opcode, null);
+		}
+	}
+
+	/**
+	 * Gets the counters of {@code opcode}, creating them if this is the first time it has been received.
+	 *
+	 * @param opcode The opcode.
+	 * @return The counters.
+	 */
+	private OpcodeCounters countersOf(int opcode) {
+		OpcodeCounters counter = counters.get(opcode);
+		if (counter == null) {
+			counters.compareAndSet(opcode, null, new OpcodeCounters());
+			counter = counters.get(opcode);
+		}
+		return counter;
+	}
+
+	/**
+	 * The counters of a single opcode.
+	 */
+	private static final class OpcodeCounters {
+
+		/**
+		 * The amount of decoded packets.
+		 */
+		private final LongAdder count = new LongAdder();
+
+		/**
+		 * The amount of decoded payload bytes.
+		 */
+		private final LongAdder bytes = new LongAdder();
+
+		/**
+		 * The amount of packets discarded because no listener was registered.
+		 */
+		private final LongAdder unhandled = new LongAdder();
+
+		/**
+		 * The total time spent in the listener.
+		 */
+		private final LongAdder totalNanos = new LongAdder();
+
+		/**
+		 * The longest time spent in the listener.
+		 */
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		/**
+		 * The dispatch time histogram, where bucket {@code i} counts times below {@code 2^i} nanoseconds.
+		 */
+		private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+		/**
+		 * Creates the counters.
+		 */
+		private OpcodeCounters() {
+			for (int i = 0; i < histogram.length; i++) {
+				histogram[i] = new LongAdder();
+			}
+		}
+
+		/**
+		 * Takes a snapshot of these counters.
+		 *
+		 * @param opcode The opcode.
+		 * @return The snapshot.
+		 */
+		private OpcodeStatistics snapshot(int opcode) {
+			long[] buckets = new long[BUCKETS];
+			long dispatched = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets[i] = histogram[i].sum();
+				dispatched += buckets[i];
+			}
+			return new OpcodeStatistics(opcode, count.sum(), bytes.sum(), unhandled.sum(), dispatched,
+					totalNanos.sum(), percentile(buckets, dispatched, 0.5), percentile(buckets, dispatched, 0.99),
+					maxNanos.get());
+		}
+
+		/**
+		 * Gets the upper bound of the bucket holding the given fraction of dispatch times.
+		 *
+		 * @param buckets The bucket counts.
+		 * @param total The sum of the bucket counts.
+		 * @param fraction The fraction, between {@code 0} and {@code 1}.
+		 * @return The time, in nanoseconds.
+		 */
+		private static long percentile(long[] buckets, long total, double fraction) {
+			long target = (long) Math.ceil(total * fraction);
+			long seen = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= target && seen > 0) {
+					return (1L << i) - 1;
+				}
+			}
+			return 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,46 @@
+package core.net.packet;
+
+import java.util.List;
+
+/**
+ * The management interface of {@link PacketMetrics}, published over JMX.
+ *
+ * @author 7Winds
+ */
+public interface PacketMetricsMXBean {
+
+	/**
+	 * Gets the statistics of every opcode that has been received at least once, ordered by the total time spent in
+	 * its listener, highest first.
+	 *
+	 * @return The statistics.
+	 */
+	List<OpcodeStatistics> getOpcodeStatistics();
+
+	/**
+	 * Gets the total amount of decoded packets.
+	 *
+	 * @return The amount of packets.
+	 */
+	long getTotalPackets();
+
+	/**
+	 * Gets the total amount of decoded payload bytes.
+	 *
+	 * @return The amount of bytes.
+	 */
+	long getTotalBytes();
+
+	/**
+	 * Gets the total amount of droppable outgoing packets skipped because their channel was not writable.
+	 *
+	 * @return The amount of packets.
+	 */
+	long getDroppedPackets();
+
+	/**
+	 * Resets every counter to zero.
+	 */
+	void reset();
+
+}
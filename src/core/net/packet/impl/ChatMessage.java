@@ -1,12 +1,13 @@
 package core.net.packet.impl;
 
+import core.game.model.Player;
 import core.net.packet.InputPacketListener;
 import core.net.packet.PacketBuilder;
 
 public class ChatMessage implements InputPacketListener {
 
 	@Override
-	public void handleMessage(int opcode, int size, PacketBuilder payload) {
+	public void handleMessage(Player player, int opcode, int size, PacketBuilder payload) {
 		
 	}
 }
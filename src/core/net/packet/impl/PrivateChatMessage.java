@@ -0,0 +1,51 @@
+package core.net.packet.impl;
+
+import core.game.model.Player;
+import core.game.social.SocialService;
+import core.net.packet.InputPacketListener;
+import core.net.packet.PacketBuilder;
+
+/**
+ * Handles the packet sent when a player sends a private message, which holds the recipient's base 37 encoded username
+ * followed by the text as packed by the client.
+ *
+ * @author 7Winds
+ */
+public class PrivateChatMessage implements InputPacketListener {
+
+	/**
+	 * The opcode of the private message packet.
+	 */
+	public static final int OPCODE = 126;
+
+	/**
+	 * The maximum length of the packed text. The client never sends more than 80 characters, which pack into fewer
+	 * bytes than this.
+	 */
+	private static final int MAXIMUM_LENGTH = 100;
+
+	/**
+	 * The service that delivers the messages.
+	 */
+	private final SocialService social;
+
+	/**
+	 * Creates the private message handler.
+	 *
+	 * @param social The service that delivers the messages.
+	 */
+	public PrivateChatMessage(SocialService social) {
+		this.social = social;
+	}
+
+	@Override
+	public void handleMessage(Player player, int opcode, int size, PacketBuilder payload) {
+		int length = size - 8;
+		if (length <= 0 || length > MAXIMUM_LENGTH) {
+			return;
+		}
+		long recipient = payload.getLong();
+		social.sendPrivateMessage(player, recipient, payload.getBytes(length));
+	}
+
+}
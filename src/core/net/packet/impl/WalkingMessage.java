@@ -0,0 +1,77 @@
+package core.net.packet.impl;
+
+import core.game.model.Player;
+import core.game.region.PathfindingService;
+import core.net.codec.game.ByteOrder;
+import core.net.codec.game.ValueType;
+import core.net.packet.InputPacketListener;
+import core.net.packet.PacketBuilder;
+
+/**
+ * Handles the walking packets sent when a player clicks the game screen, the minimap, or an entity or object to walk
+ * to. Only the destination of the client's path is used; the path itself is searched for again by the
+ * {@link PathfindingService}.
+ *
+ * @author 7Winds
+ */
+public class WalkingMessage implements InputPacketListener {
+
+	/**
+	 * The opcodes of the walking packets: walking to an entity or object, walking on the game screen and walking on
+	 * the minimap.
+	 */
+	public static final int[] OPCODES = { 98, 164, 248 };
+
+	/**
+	 * The opcode of the minimap walking packet, which ends with 14 bytes of anti-cheat data.
+	 */
+	private static final int MINIMAP_OPCODE = 248;
+
+	/**
+	 * The size of the anti-cheat data at the end of the minimap walking packet.
+	 */
+	private static final int MINIMAP_TRAILER_SIZE = 14;
+
+	/**
+	 * The size of a path without steps: the first coordinates and the running flag.
+	 */
+	private static final int MINIMUM_SIZE = 5;
+
+	/**
+	 * The service that searches for the paths.
+	 */
+	private final PathfindingService pathfinding;
+
+	/**
+	 * Creates the walking message handler.
+	 *
+	 * @param pathfinding The service that searches for the paths.
+	 */
+	public WalkingMessage(PathfindingService pathfinding) {
+		this.pathfinding = pathfinding;
+	}
+
+	@Override
+	public void handleMessage(Player player, int opcode, int size, PacketBuilder payload) {
+		if (opcode == MINIMAP_OPCODE) {
+			size -= MINIMAP_TRAILER_SIZE;
+		}
+		if (size < MINIMUM_SIZE) {
+			return;
+		}
+		int steps = (size - MINIMUM_SIZE) / 2;
+
+		int firstX = payload.getShort(ValueType.A, ByteOrder.LITTLE);
+		int lastDeltaX = 0, lastDeltaY = 0;
+		for (int i = 0; i < steps; i++) {
+			lastDeltaX = payload.get();
+			lastDeltaY = payload.get();
+		}
+		int firstY = payload.getShort(ByteOrder.LITTLE);
+		boolean running = payload.get(ValueType.C) == 1;
+
+		player.getWalkingQueue().setRunning(running);
+		pathfinding.request(player, firstX + lastDeltaX, firstY + lastDeltaY);
+	}
+
+}
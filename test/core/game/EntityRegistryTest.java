@@ -0,0 +1,174 @@
+package core.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import core.game.model.Entity;
+import core.game.model.Position;
+
+/**
+ * Tests the {@link EntityRegistry}, in particular the free-list bit sets around the boundaries of their words.
+ *
+ * @author 7Winds
+ */
+public final class EntityRegistryTest {
+
+	/**
+	 * The seed of the random operations, fixed so that a failure can be reproduced.
+	 */
+	private static final long SEED = 0xE17;
+
+	/**
+	 * Checks that indices are handed out from {@code 1} upwards until the registry is full, for capacities on, before
+	 * and after the boundary of a word and of a summary word.
+	 */
+	@Test
+	public void fillsEveryIndexButZero() {
+		for (int capacity : new int[] { 2, 63, 64, 65, 128, 200, 2047, 4096, 4097, 8197 }) {
+			EntityRegistry<TestEntity> registry = new EntityRegistry<>(capacity);
+			for (int index = 1; index < capacity; index++) {
+				TestEntity entity = new TestEntity();
+				assertTrue(registry.register(entity));
+				assertEquals(index, entity.getIndex());
+			}
+			assertFalse("capacity " + capacity, registry.register(new TestEntity()));
+			assertEquals(capacity - 1, registry.size());
+		}
+	}
+
+	/**
+	 * Checks that indices freed on either side of a word and a summary word boundary are handed out again lowest
+	 * first, and that the registry is full again afterwards.
+	 */
+	@Test
+	public void reusesIndicesAtWordBoundaries() {
+		int capacity = 8197;
+		EntityRegistry<TestEntity> registry = new EntityRegistry<>(capacity);
+		List<TestEntity> entities = new ArrayList<>();
+		entities.add(null);
+		for (int index = 1; index < capacity; index++) {
+			TestEntity entity = new TestEntity();
+			registry.register(entity);
+			entities.add(entity);
+		}
+
+		int[] freed = { 4096, 8196, 64, 63, 128, 4095, 127, 1 };
+		for (int index : freed) {
+			registry.unregister(entities.get(index));
+			assertNull(registry.get(index));
+		}
+		assertEquals(capacity - 1 - freed.length, registry.size());
+
+		for (int index : new int[] { 1, 63, 64, 127, 128, 4095, 4096, 8196 }) {
+			TestEntity entity = new TestEntity();
+			assertTrue(registry.register(entity));
+			assertEquals(index, entity.getIndex());
+			assertSame(entity, registry.get(index));
+		}
+		assertFalse(registry.register(new TestEntity()));
+	}
+
+	/**
+	 * Checks that {@link EntityRegistry#nextIndex} skips free indices across words and stops at the capacity.
+	 */
+	@Test
+	public void nextIndexSkipsFreeWords() {
+		EntityRegistry<TestEntity> registry = new EntityRegistry<>(200);
+		List<TestEntity> entities = new ArrayList<>();
+		for (int index = 1; index < 200; index++) {
+			TestEntity entity = new TestEntity();
+			registry.register(entity);
+			entities.add(entity);
+		}
+		for (TestEntity entity : entities) {
+			int index = entity.getIndex();
+			if (index != 5 && index != 64 && index != 199) {
+				registry.unregister(entity);
+			}
+		}
+		assertEquals(5, registry.nextIndex(0));
+		assertEquals(5, registry.nextIndex(5));
+		assertEquals(64, registry.nextIndex(6));
+		assertEquals(199, registry.nextIndex(65));
+		assertEquals(-1, registry.nextIndex(200));
+		assertEquals(-1, new EntityRegistry<TestEntity>(200).nextIndex(0));
+	}
+
+	/**
+	 * Checks random registrations and unregistrations against a sorted set of the free indices.
+	 */
+	@Test
+	public void matchesSortedFreeSet() {
+		int capacity = 300;
+		Random random = new Random(SEED);
+		EntityRegistry<TestEntity> registry = new EntityRegistry<>(capacity);
+		TreeSet<Integer> free = new TreeSet<>();
+		for (int index = 1; index < capacity; index++) {
+			free.add(index);
+		}
+		List<TestEntity> registered = new ArrayList<>();
+
+		for (int step = 0; step < 50_000; step++) {
+			if (registered.isEmpty() || random.nextInt(100) < (free.isEmpty() ? 0 : 55)) {
+				TestEntity entity = new TestEntity();
+				assertTrue(registry.register(entity));
+				assertEquals(free.pollFirst().intValue(), entity.getIndex());
+				registered.add(entity);
+			} else {
+				TestEntity entity = registered.remove(random.nextInt(registered.size()));
+				registry.unregister(entity);
+				free.add(entity.getIndex());
+			}
+			assertEquals(registered.size(), registry.size());
+		}
+
+		List<Integer> iterated = new ArrayList<>();
+		for (TestEntity entity : registry) {
+			iterated.add(entity.getIndex());
+		}
+		List<Integer> expected = new ArrayList<>();
+		for (int index = 1; index < capacity; index++) {
+			if (!free.contains(index)) {
+				expected.add(index);
+			}
+		}
+		assertEquals(expected, iterated);
+	}
+
+	/**
+	 * Checks that unregistering an entity which is not registered is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnregisteredEntity() {
+		EntityRegistry<TestEntity> registry = new EntityRegistry<>(64);
+		TestEntity entity = new TestEntity();
+		registry.register(entity);
+		registry.unregister(entity);
+		registry.unregister(entity);
+	}
+
+	/**
+	 * A bare entity to register.
+	 */
+	private static final class TestEntity extends Entity {
+
+		/**
+		 * Creates the entity.
+		 */
+		TestEntity() {
+			super(new Position(3200, 3200));
+		}
+
+	}
+
+}
@@ -0,0 +1,223 @@
+package core.game.engine;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link TimingWheel}, in particular tasks whose deadlines cross the cascades between its levels and tasks
+ * cancelled while their batch is firing.
+ *
+ * @author 7Winds
+ */
+public final class TimingWheelTest {
+
+	/**
+	 * The ticks tasks are scheduled on, around the turns of the lowest two levels.
+	 */
+	private static final int[] START_TICKS = { 0, 1, 62, 63, 64, 65, 127, 128, 4095, 4096, 4097, 4159, 4160 };
+
+	/**
+	 * The delays tasks are scheduled with, around the spans of the lowest three levels.
+	 */
+	private static final int[] DELAYS = { 1, 2, 62, 63, 64, 65, 127, 128, 4031, 4032, 4095, 4096, 4097, 8191, 262143,
+			262144, 262145 };
+
+	/**
+	 * The seed of the random operations, fixed so that a failure can be reproduced.
+	 */
+	private static final long SEED = 0x7111;
+
+	/**
+	 * The wheel.
+	 */
+	private final TimingWheel wheel = new TimingWheel(4);
+
+	/**
+	 * Checks that tasks scheduled on and around the turns of the levels fire exactly on their deadline, once.
+	 */
+	@Test
+	public void firesOnDeadlineAcrossCascades() {
+		for (int start : START_TICKS) {
+			TimingWheel fresh = new TimingWheel();
+			advance(fresh, start);
+			long[] expected = new long[DELAYS.length];
+			long[] fired = new long[DELAYS.length];
+			for (int i = 0; i < DELAYS.length; i++) {
+				expected[i] = start + DELAYS[i];
+				int task = i;
+				fresh.schedule(() -> fired[task] = fired[task] == 0 ? fresh.getTick() : -1, DELAYS[i]);
+			}
+			advance(fresh, start + DELAYS[DELAYS.length - 1] + 64);
+			assertArrayEquals("from " + start, expected, fired);
+			assertEquals(0, fresh.size());
+		}
+	}
+
+	/**
+	 * Checks that a task with the longest delay fires on its deadline.
+	 */
+	@Test
+	public void firesAfterMaximumDelay() {
+		advance(wheel, 127);
+		long[] fired = { -1 };
+		wheel.schedule(() -> fired[0] = wheel.getTick(), TimingWheel.MAXIMUM_DELAY);
+		advance(wheel, 127L + TimingWheel.MAXIMUM_DELAY);
+		assertEquals(127L + TimingWheel.MAXIMUM_DELAY, fired[0]);
+	}
+
+	/**
+	 * Checks that of two tasks in the same batch which cancel each other, only the first to run does, and that the
+	 * other can no longer be cancelled.
+	 */
+	@Test
+	public void cancelsTaskInFiringBatch() {
+		int[] runs = new int[2];
+		long[] handles = new long[2];
+		boolean[] cancelled = new boolean[2];
+		for (int i = 0; i < 2; i++) {
+			int task = i;
+			handles[i] = wheel.schedule(() -> {
+				runs[task]++;
+				cancelled[task] = wheel.cancel(handles[1 - task]);
+			}, 64);
+		}
+		advance(wheel, 64);
+		assertEquals(1, runs[0] + runs[1]);
+		assertTrue(cancelled[0] || cancelled[1]);
+		assertFalse(cancelled[0] && cancelled[1]);
+		assertFalse(wheel.cancel(handles[0]));
+		assertFalse(wheel.cancel(handles[1]));
+		assertEquals(0, wheel.size());
+	}
+
+	/**
+	 * Checks that a repeating task runs every period until it cancels itself while firing.
+	 */
+	@Test
+	public void repeatsUntilCancelledWhileFiring() {
+		List<Long> fired = new ArrayList<>();
+		long[] handle = new long[1];
+		boolean[] cancelled = new boolean[1];
+		handle[0] = wheel.schedule(() -> {
+			fired.add(wheel.getTick());
+			if (fired.size() == 4) {
+				cancelled[0] = wheel.cancel(handle[0]);
+			}
+		}, 63, 65);
+		advance(wheel, 1000);
+		assertTrue(cancelled[0]);
+		assertEquals(Arrays.asList(63L, 128L, 193L, 258L), fired);
+		assertEquals(0, wheel.size());
+	}
+
+	/**
+	 * Checks that the handle of a task which has run cannot cancel the task which reuses its node.
+	 */
+	@Test
+	public void staleHandleDoesNotCancelReusedNode() {
+		TimingWheel single = new TimingWheel(1);
+		int[] runs = new int[1];
+		long stale = single.schedule(() -> runs[0]++, 1);
+		advance(single, 1);
+		single.schedule(() -> runs[0]++, 1);
+		assertFalse(single.cancel(stale));
+		advance(single, 2);
+		assertEquals(2, runs[0]);
+	}
+
+	/**
+	 * Checks that a task which throws does not stop the rest of its batch.
+	 */
+	@Test
+	public void failingTaskDoesNotStopBatch() {
+		int[] runs = new int[1];
+		wheel.schedule(() -> runs[0]++, 5);
+		wheel.schedule(() -> {
+			throw new IllegalStateException("Expected by the test.");
+		}, 5);
+		wheel.schedule(() -> runs[0]++, 5);
+		advance(wheel, 5);
+		assertEquals(2, runs[0]);
+	}
+
+	/**
+	 * Checks random schedules and cancellations against the deadlines they were given.
+	 */
+	@Test
+	public void matchesDeadlinesOfRandomTasks() {
+		Random random = new Random(SEED);
+		Map<Long, Long> pending = new HashMap<>();
+		List<Long> handles = new ArrayList<>();
+		int[] missed = new int[1];
+		for (int tick = 0; tick < 20_000; tick++) {
+			for (int i = random.nextInt(4); i > 0; i--) {
+				int delay = random.nextInt(10) == 0 ? DELAYS[random.nextInt(DELAYS.length - 3)]
+						: 1 + random.nextInt(5000);
+				long deadline = wheel.getTick() + delay;
+				long[] handle = new long[1];
+				handle[0] = wheel.schedule(() -> {
+					Long expected = pending.remove(handle[0]);
+					if (expected == null || expected != wheel.getTick()) {
+						missed[0]++;
+					}
+				}, delay);
+				pending.put(handle[0], deadline);
+				handles.add(handle[0]);
+			}
+			if (!handles.isEmpty() && random.nextInt(3) == 0) {
+				long handle = handles.remove(random.nextInt(handles.size()));
+				assertEquals(pending.remove(handle) != null, wheel.cancel(handle));
+			}
+			wheel.pulse();
+			for (Long deadline : pending.values()) {
+				if (deadline <= wheel.getTick()) {
+					missed[0]++;
+				}
+			}
+			assertEquals(0, missed[0]);
+			assertEquals(pending.size(), wheel.size());
+		}
+	}
+
+	/**
+	 * Checks that a delay of {@code 0} is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsZeroDelay() {
+		wheel.schedule(() -> {
+		}, 0);
+	}
+
+	/**
+	 * Checks that a delay beyond the longest is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsExcessiveDelay() {
+		wheel.schedule(() -> {
+		}, TimingWheel.MAXIMUM_DELAY + 1);
+	}
+
+	/**
+	 * Pulses a wheel until it reaches a tick.
+	 *
+	 * @param wheel The wheel.
+	 * @param tick The tick.
+	 */
+	private static void advance(TimingWheel wheel, long tick) {
+		while (wheel.getTick() < tick) {
+			wheel.pulse();
+		}
+	}
+
+}
@@ -0,0 +1,233 @@
+package core.game.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import core.game.model.Appearance;
+import core.game.model.Position;
+
+/**
+ * Tests the {@link MappedPlayerStore} by saving players, reopening the file and loading them back.
+ *
+ * @author 7Winds
+ */
+public final class MappedPlayerStoreTest {
+
+	/**
+	 * The size of the file header.
+	 */
+	private static final int HEADER_SIZE = 4;
+
+	/**
+	 * The size of a record: its header and a save in the current version.
+	 */
+	private static final int RECORD_SIZE = 16 + PlayerCodec.MAXIMUM_SIZE;
+
+	/**
+	 * The size the file is mapped with at first.
+	 */
+	private static final int INITIAL_SIZE = 1 << 20;
+
+	/**
+	 * The amount of records which no longer fit in the initial mapping.
+	 */
+	private static final int OVERFLOWING_RECORDS = INITIAL_SIZE / RECORD_SIZE + 1000;
+
+	/**
+	 * The folder the save file is created in.
+	 */
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * The save file.
+	 */
+	private Path file;
+
+	/**
+	 * Picks the save file in a new folder.
+	 */
+	@Before
+	public void setUp() {
+		file = folder.getRoot().toPath().resolve("saves.dat");
+	}
+
+	/**
+	 * Checks that a save is loaded back as it was written, both from the open store and after reopening it.
+	 *
+	 * @throws IOException If the file could not be used.
+	 */
+	@Test
+	public void loadsSavesAfterReopening() throws IOException {
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			store.save(snapshot("alice", 3222));
+			assertSnapshot(store.load("alice"), "alice", 3222);
+			assertNull(store.load("bob"));
+		}
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			assertSnapshot(store.load("alice"), "alice", 3222);
+		}
+	}
+
+	/**
+	 * Checks that a last record whose checksum does not match, as left by a crash while it was written, is dropped by
+	 * the scan on opening and that the next save takes its place.
+	 *
+	 * @throws IOException If the file could not be used.
+	 */
+	@Test
+	public void scanDropsTornRecord() throws IOException {
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			store.save(snapshot("alice", 3200));
+			store.save(snapshot("bob", 3201));
+			store.save(snapshot("carol", 3202));
+		}
+		int torn = HEADER_SIZE + 2 * RECORD_SIZE;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer value = ByteBuffer.allocate(1);
+			channel.read(value, torn + RECORD_SIZE - 1);
+			value.put(0, (byte) (value.get(0) ^ 0xFF)).rewind();
+			channel.write(value, torn + RECORD_SIZE - 1);
+		}
+
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			assertSnapshot(store.load("bob"), "bob", 3201);
+			assertNull(store.load("carol"));
+			store.save(snapshot("dave", 3203));
+		}
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			assertSnapshot(store.load("alice"), "alice", 3200);
+			assertNull(store.load("carol"));
+			assertSnapshot(store.load("dave"), "dave", 3203);
+		}
+	}
+
+	/**
+	 * Checks that flushing a store mostly made of replaced records compacts it, and that the compacted file holds the
+	 * latest save of every player when it is reopened.
+	 *
+	 * @throws IOException If the file could not be used.
+	 */
+	@Test
+	public void reopensAfterCompaction() throws IOException {
+		long grown;
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			store.save(snapshot("bob", 3100));
+			for (int i = 0; i < OVERFLOWING_RECORDS; i++) {
+				store.save(snapshot("alice", 3000 + i % 1000));
+			}
+			store.save(snapshot("alice", 3333));
+			grown = Files.size(file);
+			store.flush();
+			assertTrue(Files.size(file) < grown);
+			assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".compact")));
+			assertSnapshot(store.load("alice"), "alice", 3333);
+		}
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			assertSnapshot(store.load("alice"), "alice", 3333);
+			assertSnapshot(store.load("bob"), "bob", 3100);
+			store.save(snapshot("carol", 3200));
+		}
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			assertSnapshot(store.load("alice"), "alice", 3333);
+			assertSnapshot(store.load("carol"), "carol", 3200);
+		}
+	}
+
+	/**
+	 * Checks that the mapping grows when the saves no longer fit in it, keeping the saves written before it grew.
+	 *
+	 * @throws IOException If the file could not be used.
+	 */
+	@Test
+	public void growsBeyondInitialMapping() throws IOException {
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			for (int i = 0; i < OVERFLOWING_RECORDS; i++) {
+				store.save(snapshot("player" + i, 3000 + i % 1000));
+			}
+			assertTrue(Files.size(file) > INITIAL_SIZE);
+			assertSnapshot(store.load("player0"), "player0", 3000);
+		}
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			for (int i = 0; i < OVERFLOWING_RECORDS; i++) {
+				assertSnapshot(store.load("player" + i), "player" + i, 3000 + i % 1000);
+			}
+		}
+	}
+
+	/**
+	 * Checks that an intact record written in an unknown version of the save format is rejected when it is loaded.
+	 *
+	 * @throws IOException If the file could not be used.
+	 */
+	@Test(expected = IOException.class)
+	public void rejectsUnknownVersion() throws IOException {
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			store.save(snapshot("alice", 3200));
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer save = ByteBuffer.allocate(PlayerCodec.MAXIMUM_SIZE);
+			channel.read(save, HEADER_SIZE + 16);
+			save.put(0, (byte) (PlayerCodec.VERSION + 1)).rewind();
+			channel.write(save, HEADER_SIZE + 16);
+
+			CRC32 checksum = new CRC32();
+			checksum.update(save.array());
+			ByteBuffer value = ByteBuffer.allocate(Integer.BYTES).putInt(0, (int) checksum.getValue());
+			channel.write(value, HEADER_SIZE + 12);
+		}
+
+		try (MappedPlayerStore store = new MappedPlayerStore(file)) {
+			store.load("alice");
+		}
+	}
+
+	/**
+	 * Creates a save of a player.
+	 *
+	 * @param username The username.
+	 * @param x The x coordinate the player is at.
+	 * @return The save.
+	 */
+	private static PlayerSnapshot snapshot(String username, int x) {
+		return new PlayerSnapshot(username, new Position(x, 3200, 1), Appearance.DEFAULT, 2, 10);
+	}
+
+	/**
+	 * Asserts that a save is the one {@link #snapshot} creates.
+	 *
+	 * @param snapshot The loaded save.
+	 * @param username The expected username.
+	 * @param x The expected x coordinate.
+	 */
+	private static void assertSnapshot(PlayerSnapshot snapshot, String username, int x) {
+		assertNotNull(snapshot);
+		assertEquals(username, snapshot.getUsername());
+		assertEquals(new Position(x, 3200, 1), snapshot.getPosition());
+		assertEquals(2, snapshot.getRights());
+		assertEquals(10, snapshot.getHitpoints());
+		for (int i = 0; i < Appearance.STYLES; i++) {
+			assertEquals(Appearance.DEFAULT.getStyle(i), snapshot.getAppearance().getStyle(i));
+		}
+		for (int i = 0; i < Appearance.COLORS; i++) {
+			assertEquals(Appearance.DEFAULT.getColor(i), snapshot.getAppearance().getColor(i));
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package core.game.region;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link ChunkVersions} table against a {@link HashMap}.
+ *
+ * @author 7Winds
+ */
+public final class ChunkVersionsTest {
+
+	/**
+	 * The seed of the random operations, fixed so that a failure can be reproduced.
+	 */
+	private static final long SEED = 0xC4C;
+
+	/**
+	 * The table.
+	 */
+	private final ChunkVersions versions = new ChunkVersions();
+
+	/**
+	 * Checks that chunks which have not been sent have version {@code 0}.
+	 */
+	@Test
+	public void unsentChunksHaveNoVersion() {
+		assertEquals(0, versions.get(ChunkVersions.key(400, 400, 0)));
+		versions.put(ChunkVersions.key(400, 400, 0), 3);
+		assertEquals(0, versions.get(ChunkVersions.key(400, 400, 1)));
+		assertEquals(0, versions.get(ChunkVersions.key(401, 400, 0)));
+		assertEquals(0, versions.get(ChunkVersions.key(400, 401, 0)));
+	}
+
+	/**
+	 * Checks random puts of adjacent chunks on every height level, growing the table well past its initial capacity,
+	 * against a hash map.
+	 */
+	@Test
+	public void matchesHashMapWhileGrowing() {
+		Random random = new Random(SEED);
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 20_000; i++) {
+			int key = ChunkVersions.key(380 + random.nextInt(60), 380 + random.nextInt(60), random.nextInt(4));
+			int version = 1 + random.nextInt(1000);
+			versions.put(key, version);
+			expected.put(key, version);
+			if (i % 100 == 0) {
+				assertTable(expected);
+			}
+		}
+		assertTable(expected);
+	}
+
+	/**
+	 * Checks that a cleared table forgets every chunk and can be filled again.
+	 */
+	@Test
+	public void forgetsEveryChunkWhenCleared() {
+		for (int chunkX = 0; chunkX < 40; chunkX++) {
+			for (int chunkY = 0; chunkY < 40; chunkY++) {
+				versions.put(ChunkVersions.key(chunkX, chunkY, 0), chunkX + chunkY + 1);
+			}
+		}
+		versions.clear();
+		for (int chunkX = 0; chunkX < 40; chunkX++) {
+			for (int chunkY = 0; chunkY < 40; chunkY++) {
+				assertEquals(0, versions.get(ChunkVersions.key(chunkX, chunkY, 0)));
+			}
+		}
+		versions.put(ChunkVersions.key(7, 7, 0), 9);
+		assertEquals(9, versions.get(ChunkVersions.key(7, 7, 0)));
+	}
+
+	/**
+	 * Asserts that the table holds the same versions as a map.
+	 *
+	 * @param expected The map.
+	 */
+	private void assertTable(Map<Integer, Integer> expected) {
+		for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+			assertEquals(entry.getValue().intValue(), versions.get(entry.getKey()));
+		}
+	}
+
+}
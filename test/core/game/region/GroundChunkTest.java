@@ -0,0 +1,131 @@
+package core.game.region;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import core.game.model.GameObject;
+import core.game.model.GroundItem;
+import core.game.model.Position;
+
+/**
+ * Tests the bounded change log of a {@link GroundChunk} by replaying it onto the contents an observer last saw.
+ *
+ * @author 7Winds
+ */
+public final class GroundChunkTest {
+
+	/**
+	 * The seed of the random changes, fixed so that a failure can be reproduced.
+	 */
+	private static final long SEED = 0x6C;
+
+	/**
+	 * The chunk.
+	 */
+	private final GroundChunk chunk = new GroundChunk();
+
+	/**
+	 * Checks that the changes since a version can be replayed while at most {@link GroundChunk#LOG_SIZE} changes have
+	 * been made since, and not once one more has been made.
+	 */
+	@Test
+	public void keepsExactlyLogSizeChanges() {
+		assertTrue(chunk.hasChangesSince(0));
+		for (int i = 0; i < GroundChunk.LOG_SIZE; i++) {
+			chunk.add(item(i));
+		}
+		assertTrue(chunk.hasChangesSince(0));
+		chunk.add(item(GroundChunk.LOG_SIZE));
+		assertFalse(chunk.hasChangesSince(0));
+		assertTrue(chunk.hasChangesSince(1));
+	}
+
+	/**
+	 * Checks that the log records which item or object each version changed and how, across the wrap of the ring.
+	 */
+	@Test
+	public void logsChangesAcrossWrap() {
+		List<Object> changed = new ArrayList<>();
+		for (int i = 0; i < GroundChunk.LOG_SIZE + 10; i++) {
+			GroundItem item = item(i);
+			chunk.add(item);
+			changed.add(item);
+		}
+		GroundItem removed = (GroundItem) changed.get(changed.size() - 1);
+		assertTrue(chunk.remove(removed));
+		assertFalse(chunk.remove(removed));
+		GameObject object = new GameObject(1, 10, 0, new Position(3200, 3200));
+		chunk.add(object);
+
+		int version = chunk.getVersion();
+		assertEquals(GroundChunk.LOG_SIZE + 12, version);
+		assertSame(object, chunk.getChange(version));
+		assertTrue(chunk.isAddition(version));
+		assertSame(removed, chunk.getChange(version - 1));
+		assertFalse(chunk.isAddition(version - 1));
+		for (int v = version - 2; v > version - GroundChunk.LOG_SIZE; v--) {
+			assertSame(changed.get(v - 1), chunk.getChange(v));
+			assertTrue(chunk.isAddition(v));
+		}
+	}
+
+	/**
+	 * Checks that replaying the log onto the items an observer saw at any still replayable version gives the current
+	 * items of the chunk.
+	 */
+	@Test
+	public void replaysOntoEarlierContents() {
+		Random random = new Random(SEED);
+		List<List<GroundItem>> seen = new ArrayList<>();
+		seen.add(new ArrayList<>());
+		List<GroundItem> current = new ArrayList<>();
+		for (int step = 0; step < 500; step++) {
+			if (!current.isEmpty() && random.nextInt(3) == 0) {
+				GroundItem item = current.remove(random.nextInt(current.size()));
+				assertTrue(chunk.remove(item));
+			} else {
+				GroundItem item = item(step);
+				current.add(item);
+				chunk.add(item);
+			}
+			seen.add(new ArrayList<>(current));
+			assertEquals(seen.size() - 1, chunk.getVersion());
+
+			for (int since = 0; since < seen.size(); since++) {
+				if (!chunk.hasChangesSince(since)) {
+					assertTrue(chunk.getVersion() - since > GroundChunk.LOG_SIZE);
+					continue;
+				}
+				List<GroundItem> replayed = new ArrayList<>(seen.get(since));
+				for (int v = since + 1; v <= chunk.getVersion(); v++) {
+					GroundItem item = (GroundItem) chunk.getChange(v);
+					if (chunk.isAddition(v)) {
+						replayed.add(item);
+					} else {
+						assertTrue(replayed.remove(item));
+					}
+				}
+				assertEquals(chunk.getItems(), replayed);
+			}
+		}
+	}
+
+	/**
+	 * Creates a ground item.
+	 *
+	 * @param id The id of the item.
+	 * @return The item.
+	 */
+	private static GroundItem item(int id) {
+		return new GroundItem(id, 1, new Position(3200 + id % 8, 3200));
+	}
+
+}
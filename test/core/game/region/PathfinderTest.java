@@ -0,0 +1,257 @@
+package core.game.region;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+
+import org.junit.Test;
+
+import core.game.model.Entity;
+import core.game.model.Position;
+import core.game.model.WalkingQueue;
+
+/**
+ * Tests the {@link Pathfinder} over hand-built collision maps, walking every path it finds to check that each step is
+ * legal.
+ *
+ * @author 7Winds
+ */
+public final class PathfinderTest {
+
+	/**
+	 * The x and y coordinate every search starts at, a few tiles from the corner of four regions.
+	 */
+	private static final int START = 3197;
+
+	/**
+	 * The seed of the random maps, fixed so that a failure can be reproduced.
+	 */
+	private static final long SEED = 0x9A7;
+
+	/**
+	 * The collision maps, with no terrain until tiles are flagged.
+	 */
+	private final CollisionManager collision = new CollisionManager(MapSource.EMPTY, Integer.MAX_VALUE);
+
+	/**
+	 * The pathfinder, reused by every search of a test.
+	 */
+	private final Pathfinder pathfinder = new Pathfinder();
+
+	/**
+	 * Checks that paths over open ground are as short as possible, diagonally and straight.
+	 */
+	@Test
+	public void walksStraightAndDiagonally() {
+		assertEquals(10, walk(START + 10, START));
+		assertEquals(6, walk(START - 6, START - 6));
+		assertEquals(7, walk(START + 3, START - 7));
+	}
+
+	/**
+	 * Checks that a path goes around a wall of blocked tiles crossing the boundary between regions.
+	 */
+	@Test
+	public void goesAroundBlockedTiles() {
+		for (int y = START - 5; y <= START + 5; y++) {
+			block(START + 3, y);
+		}
+		assertEquals(shortestPath(START + 6, START), walk(START + 6, START));
+		assertTrue(walk(START + 6, START) > 6);
+	}
+
+	/**
+	 * Checks that a wall on the west edge of a tile blocks entering it from the west, straight or diagonally, but not
+	 * from the north.
+	 */
+	@Test
+	public void respectsWallEdges() {
+		collision.get(CollisionMap.regionId(START + 1, START)).flag(START + 1, START, 0, CollisionMap.WALL_WEST);
+		assertEquals(3, walk(START + 1, START));
+	}
+
+	/**
+	 * Checks that a path to an enclosed destination leads to the closest reachable tile within 10 tiles of it, and
+	 * that there is no path if every such tile is enclosed too.
+	 */
+	@Test
+	public void walksToClosestTileOfUnreachableDestination() {
+		int centerX = START + 20, centerY = START;
+		for (int d = -1; d <= 1; d++) {
+			block(centerX + d, centerY - 1);
+			block(centerX + d, centerY + 1);
+			block(centerX - 1, centerY + d);
+			block(centerX + 1, centerY + d);
+		}
+		WalkingQueue steps = find(centerX, centerY);
+		Entity walker = follow(steps);
+		assertEquals(new Position(centerX - 2, centerY), walker.getPosition());
+
+		for (int d = -12; d <= 12; d++) {
+			block(centerX + d, centerY - 12);
+			block(centerX + d, centerY + 12);
+			block(centerX - 12, centerY + d);
+			block(centerX + 12, centerY + d);
+		}
+		assertTrue(find(centerX, centerY).isEmpty());
+	}
+
+	/**
+	 * Checks that reused searches over random obstacles find paths exactly as long as a separate breadth-first search
+	 * does, and that every step of them is legal.
+	 */
+	@Test
+	public void matchesBreadthFirstSearchOnRandomMaps() {
+		Random random = new Random(SEED);
+		for (int map = 0; map < 20; map++) {
+			for (int x = START - 30; x <= START + 30; x++) {
+				for (int y = START - 30; y <= START + 30; y++) {
+					CollisionMap region = collision.get(CollisionMap.regionId(x, y));
+					region.unflag(x, y, 0, CollisionMap.BLOCKED);
+					if ((x != START || y != START) && random.nextInt(100) < 30) {
+						region.flag(x, y, 0, CollisionMap.BLOCKED);
+					}
+				}
+			}
+			for (int search = 0; search < 20; search++) {
+				int destinationX = START - 25 + random.nextInt(51), destinationY = START - 25 + random.nextInt(51);
+				int expected = shortestPath(destinationX, destinationY);
+				if (expected == -1) {
+					continue;
+				}
+				assertEquals("to " + destinationX + ", " + destinationY, expected, walk(destinationX, destinationY));
+			}
+		}
+	}
+
+	/**
+	 * Searches for a path from the start and walks it to the end.
+	 *
+	 * @param destinationX The x coordinate of the destination.
+	 * @param destinationY The y coordinate of the destination.
+	 * @return The amount of steps, after asserting that they reached the destination.
+	 */
+	private int walk(int destinationX, int destinationY) {
+		WalkingQueue steps = find(destinationX, destinationY);
+		int length = steps.size();
+		Entity walker = follow(steps);
+		assertEquals(new Position(destinationX, destinationY), walker.getPosition());
+		return length;
+	}
+
+	/**
+	 * Searches for a path from the start.
+	 *
+	 * @param destinationX The x coordinate of the destination.
+	 * @param destinationY The y coordinate of the destination.
+	 * @return The steps of the path.
+	 */
+	private WalkingQueue find(int destinationX, int destinationY) {
+		WalkingQueue steps = new WalkingQueue();
+		pathfinder.find(collision, new Position(START, START), destinationX, destinationY, steps);
+		return steps;
+	}
+
+	/**
+	 * Moves an entity from the start along a path, asserting that every step is to an adjacent tile it may enter.
+	 *
+	 * @param steps The steps of the path.
+	 * @return The entity, at the end of the path.
+	 */
+	private Entity follow(WalkingQueue steps) {
+		Entity walker = new Entity(new Position(START, START)) {
+		};
+		while (!steps.isEmpty()) {
+			Position from = walker.getPosition();
+			steps.pulse(walker);
+			Position to = walker.getPosition();
+			assertTrue(from + " to " + to, canMove(from.getX(), from.getY(), to.getX() - from.getX(),
+					to.getY() - from.getY()));
+		}
+		return walker;
+	}
+
+	/**
+	 * Finds the length of the shortest path from the start with a breadth-first search over absolute coordinates,
+	 * within the area the pathfinder searches.
+	 *
+	 * @param destinationX The x coordinate of the destination.
+	 * @param destinationY The y coordinate of the destination.
+	 * @return The length, or {@code -1} if the destination cannot be reached.
+	 */
+	private int shortestPath(int destinationX, int destinationY) {
+		int base = START - Pathfinder.SIZE / 2;
+		int[] distances = new int[Pathfinder.SIZE * Pathfinder.SIZE];
+		Arrays.fill(distances, -1);
+		Deque<int[]> queue = new ArrayDeque<>();
+		distances[(START - base) * Pathfinder.SIZE + START - base] = 0;
+		queue.add(new int[] { START, START });
+		while (!queue.isEmpty()) {
+			int[] tile = queue.poll();
+			int distance = distances[(tile[0] - base) * Pathfinder.SIZE + tile[1] - base];
+			if (tile[0] == destinationX && tile[1] == destinationY) {
+				return distance;
+			}
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					int x = tile[0] + dx, y = tile[1] + dy;
+					if (x < base || y < base || x >= base + Pathfinder.SIZE || y >= base + Pathfinder.SIZE) {
+						continue;
+					}
+					int index = (x - base) * Pathfinder.SIZE + y - base;
+					if ((dx != 0 || dy != 0) && distances[index] == -1 && canMove(tile[0], tile[1], dx, dy)) {
+						distances[index] = distance + 1;
+						queue.add(new int[] { x, y });
+					}
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks if a single step may be taken over tiles which are only fully blocked or fully open, apart from a wall on
+	 * the west edge of a tile.
+	 *
+	 * @param x The x coordinate of the tile the step is taken from.
+	 * @param y The y coordinate of the tile the step is taken from.
+	 * @param dx The x coordinate delta, between {@code -1} and {@code 1} inclusive.
+	 * @param dy The y coordinate delta, between {@code -1} and {@code 1} inclusive.
+	 * @return {@code true} if the step may be taken.
+	 */
+	private boolean canMove(int x, int y, int dx, int dy) {
+		if (Math.abs(dx) > 1 || Math.abs(dy) > 1 || dx == 0 && dy == 0 || blocked(x + dx, y + dy)) {
+			return false;
+		}
+		if (dx == 1 && dy == 0 && (collision.getFlags(x + 1, y, 0) & CollisionMap.WALL_WEST) != 0) {
+			return false;
+		}
+		return dx == 0 || dy == 0 || !blocked(x + dx, y) && !blocked(x, y + dy);
+	}
+
+	/**
+	 * Checks if a tile is fully blocked.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return {@code true} if the tile is blocked.
+	 */
+	private boolean blocked(int x, int y) {
+		return (collision.getFlags(x, y, 0) & CollisionMap.BLOCKED) != 0;
+	}
+
+	/**
+	 * Fully blocks a tile.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 */
+	private void block(int x, int y) {
+		collision.get(CollisionMap.regionId(x, y)).flag(x, y, 0, CollisionMap.BLOCKED);
+	}
+
+}
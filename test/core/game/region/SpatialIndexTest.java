@@ -0,0 +1,208 @@
+package core.game.region;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import core.game.model.Position;
+
+/**
+ * Tests the {@link SpatialIndex} against a search through every entity.
+ *
+ * @author 7Winds
+ */
+public final class SpatialIndexTest {
+
+	/**
+	 * The amount of entity indices.
+	 */
+	private static final int CAPACITY = 512;
+
+	/**
+	 * The lowest coordinate entities are placed at, a few tiles before the boundary of the regions at {@code 3200}.
+	 */
+	private static final int BASE = 3180;
+
+	/**
+	 * The amount of tiles entities are spread over along each axis.
+	 */
+	private static final int SPREAD = 48;
+
+	/**
+	 * The seed of the random operations, fixed so that a failure can be reproduced.
+	 */
+	private static final long SEED = 0x1D3;
+
+	/**
+	 * The spatial index.
+	 */
+	private final SpatialIndex index = new SpatialIndex(CAPACITY);
+
+	/**
+	 * The position of each entity in the index, or {@code null} if it is not in the index.
+	 */
+	private final Position[] positions = new Position[CAPACITY];
+
+	/**
+	 * Checks that queries find the same entities as a search through every entity while entities are inserted, moved
+	 * within and across chunks, regions and height levels, and removed.
+	 */
+	@Test
+	public void queriesMatchSearchThroughEveryEntity() {
+		Random random = new Random(SEED);
+		for (int step = 0; step < 20_000; step++) {
+			int entity = random.nextInt(CAPACITY);
+			int operation = random.nextInt(10);
+			if (positions[entity] == null) {
+				insert(entity, randomPosition(random));
+			} else if (operation == 0) {
+				index.remove(entity);
+				positions[entity] = null;
+			} else if (operation < 4) {
+				move(entity, randomPosition(random));
+			} else {
+				Position from = positions[entity];
+				move(entity, new Position(from.getX() + random.nextInt(3) - 1, from.getY() + random.nextInt(3) - 1,
+						from.getHeight()));
+			}
+			if (step % 20 == 0) {
+				assertQuery(randomPosition(random), random.nextInt(20));
+			}
+		}
+	}
+
+	/**
+	 * Checks that the area of a query includes entities exactly {@code distance} tiles away on either side of a
+	 * region boundary, and leaves out entities one tile further.
+	 */
+	@Test
+	public void queryIncludesEdgeOfDistance() {
+		insert(0, new Position(3199, 3200));
+		insert(1, new Position(3215, 3200));
+		insert(2, new Position(3216, 3200));
+		insert(3, new Position(3183, 3200));
+		insert(4, new Position(3182, 3200));
+		insert(5, new Position(3199, 3200, 1));
+		assertQuery(new Position(3199, 3200), 16);
+		assertArrayEquals(new int[] { 0, 1, 3 }, query(new Position(3199, 3200), 16));
+	}
+
+	/**
+	 * Checks that a query stops writing once the output array is full.
+	 */
+	@Test
+	public void queryStopsAtEndOfOutput() {
+		for (int entity = 0; entity < 10; entity++) {
+			insert(entity, new Position(3200 + entity, 3200));
+		}
+		int[] out = new int[4];
+		assertEquals(out.length, index.query(new Position(3205, 3205), 15, out));
+	}
+
+	/**
+	 * Checks that many entities in a single chunk are all found, and that removed ones are not.
+	 */
+	@Test
+	public void chunkGrowsAndShrinks() {
+		for (int entity = 0; entity < 100; entity++) {
+			insert(entity, new Position(3200 + entity % 8, 3200 + entity / 8 % 8));
+		}
+		for (int entity = 0; entity < 100; entity += 3) {
+			index.remove(entity);
+			positions[entity] = null;
+		}
+		assertQuery(new Position(3204, 3204), 4);
+		assertFalse(index.contains(0));
+		assertTrue(index.contains(1));
+	}
+
+	/**
+	 * Checks that inserting an entity twice is rejected.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void rejectsDuplicateInsert() {
+		insert(7, new Position(3200, 3200));
+		index.insert(7, new Position(3201, 3201));
+	}
+
+	/**
+	 * Checks that moving an entity which is not in the index is rejected.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void rejectsMoveOfAbsentEntity() {
+		index.move(7, new Position(3201, 3201));
+	}
+
+	/**
+	 * Inserts an entity into the index and records its position.
+	 *
+	 * @param entity The entity index.
+	 * @param position The position.
+	 */
+	private void insert(int entity, Position position) {
+		index.insert(entity, position);
+		positions[entity] = position;
+	}
+
+	/**
+	 * Moves an entity in the index and records its position.
+	 *
+	 * @param entity The entity index.
+	 * @param position The position.
+	 */
+	private void move(int entity, Position position) {
+		index.move(entity, position);
+		positions[entity] = position;
+	}
+
+	/**
+	 * Queries the index, with an output array large enough for every entity.
+	 *
+	 * @param center The center of the search area.
+	 * @param distance The distance from the center.
+	 * @return The sorted entity indices found.
+	 */
+	private int[] query(Position center, int distance) {
+		int[] out = new int[CAPACITY];
+		int[] found = Arrays.copyOf(out, index.query(center, distance, out));
+		Arrays.sort(found);
+		return found;
+	}
+
+	/**
+	 * Asserts that a query finds the same entities as a search through every entity.
+	 *
+	 * @param center The center of the search area.
+	 * @param distance The distance from the center.
+	 */
+	private void assertQuery(Position center, int distance) {
+		int[] expected = new int[CAPACITY];
+		int count = 0;
+		for (int entity = 0; entity < CAPACITY; entity++) {
+			Position position = positions[entity];
+			if (position != null && position.getHeight() == center.getHeight()
+					&& Math.abs(position.getX() - center.getX()) <= distance
+					&& Math.abs(position.getY() - center.getY()) <= distance) {
+				expected[count++] = entity;
+			}
+		}
+		assertArrayEquals(center + " within " + distance, Arrays.copyOf(expected, count), query(center, distance));
+	}
+
+	/**
+	 * Picks a random position in the area entities are spread over, on one of two height levels.
+	 *
+	 * @param random The source of randomness.
+	 * @return The position.
+	 */
+	private static Position randomPosition(Random random) {
+		return new Position(BASE + random.nextInt(SPREAD), BASE + random.nextInt(SPREAD), random.nextInt(2));
+	}
+
+}
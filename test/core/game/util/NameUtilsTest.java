@@ -0,0 +1,40 @@
+package core.game.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the username checks of {@link NameUtils}.
+ *
+ * @author 7Winds
+ */
+public final class NameUtilsTest {
+
+	/**
+	 * Checks that names of letters, digits and inner separators are accepted and round trip through the encoding.
+	 */
+	@Test
+	public void acceptsValidNames() {
+		for (String name : new String[] { "a", "Zezima", "abcdefghijkl", "mod_ash", "the pker", "a__b", "123" }) {
+			assertTrue(name, NameUtils.isValidName(name));
+			assertEquals(name.toLowerCase().replace(' ', '_'),
+					NameUtils.decodeBase37(NameUtils.encodeBase37(name)));
+		}
+	}
+
+	/**
+	 * Checks that names which are empty, too long, contain other characters or start or end with a separator are
+	 * rejected.
+	 */
+	@Test
+	public void rejectsInvalidNames() {
+		for (String name : new String[] { "", " ", "_", "___", "abcdefghijklm", "bob!", "b-ob", "\u00e9tienne",
+				"\tbob", " bob", "bob ", "_bob", "bob_" }) {
+			assertFalse("'" + name + "'", NameUtils.isValidName(name));
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+package core.game.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link SerialExecutor} over an executor whose runs are started by hand.
+ *
+ * @author 7Winds
+ */
+public final class SerialExecutorTest {
+
+	/**
+	 * The runs handed to the underlying executor, not yet started.
+	 */
+	private final Deque<Runnable> runs = new ArrayDeque<>();
+
+	/**
+	 * The serial executor.
+	 */
+	private final SerialExecutor executor = new SerialExecutor(runs::add);
+
+	/**
+	 * Checks that tasks run in order in a single run, and that a task submitted afterwards starts a new one.
+	 */
+	@Test
+	public void runsTasksInOrder() {
+		List<Integer> ran = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			int task = i;
+			executor.execute(() -> ran.add(task));
+		}
+		assertEquals(1, runs.size());
+		runs.poll().run();
+		executor.execute(() -> ran.add(3));
+		assertEquals(1, runs.size());
+		runs.poll().run();
+		assertEquals(Arrays.asList(0, 1, 2, 3), ran);
+	}
+
+	/**
+	 * Checks that a task which throws an error does not stop the tasks after it, or leave the executor unable to
+	 * start new runs.
+	 */
+	@Test
+	public void continuesAfterError() {
+		List<String> ran = new ArrayList<>();
+		executor.execute(() -> {
+			throw new Error("Expected by the test.");
+		});
+		executor.execute(() -> ran.add("queued"));
+		try {
+			runs.poll().run();
+			fail("The error was not rethrown.");
+		} catch (Error expected) {
+			assertEquals("Expected by the test.", expected.getMessage());
+		}
+		assertEquals(1, runs.size());
+		runs.poll().run();
+
+		executor.execute(() -> {
+			throw new Error("Expected by the test.");
+		});
+		try {
+			runs.poll().run();
+			fail("The error was not rethrown.");
+		} catch (Error expected) {
+			assertTrue(runs.isEmpty());
+		}
+		executor.execute(() -> ran.add("submitted"));
+		assertEquals(1, runs.size());
+		runs.poll().run();
+		assertEquals(Arrays.asList("queued", "submitted"), ran);
+	}
+
+}
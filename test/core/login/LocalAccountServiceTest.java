@@ -0,0 +1,178 @@
+package core.login;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import core.game.model.Appearance;
+import core.game.model.Position;
+import core.game.persistence.MappedPlayerStore;
+import core.game.persistence.PersistenceService;
+import core.game.persistence.PlayerSnapshot;
+import core.game.persistence.PlayerStore;
+import core.game.util.BlockingExecutors;
+import core.net.codec.login.LoginConstants;
+
+/**
+ * Tests the {@link LocalAccountService} of a standalone world, with its accounts and saves in temporary files.
+ *
+ * @author 7Winds
+ */
+public final class LocalAccountServiceTest {
+
+	/**
+	 * The id of the world.
+	 */
+	private static final int WORLD = 1;
+
+	/**
+	 * The amount of seconds a login may take.
+	 */
+	private static final int LOGIN_TIMEOUT = 10;
+
+	/**
+	 * The folder the account and save files are created in.
+	 */
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * The account service, or {@code null} once it has been shut down.
+	 */
+	private LocalAccountService accounts;
+
+	/**
+	 * Opens the account service.
+	 *
+	 * @throws IOException If the files could not be opened.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		accounts = open();
+	}
+
+	/**
+	 * Shuts the account service down, if the test has not.
+	 */
+	@After
+	public void tearDown() {
+		if (accounts != null) {
+			accounts.shutdown();
+		}
+	}
+
+	/**
+	 * Checks that the first login creates the account and that a wrong password is rejected afterwards.
+	 *
+	 * @throws Exception If the login failed.
+	 */
+	@Test
+	public void createsAccountOnFirstLogin() throws Exception {
+		LoginResult result = login("alice", "secret");
+		assertEquals(LoginConstants.STATUS_OK, result.getStatus());
+		assertNull(result.getSave());
+		accounts.logout("alice", null);
+
+		assertEquals(LoginConstants.STATUS_INVALID_CREDENTIALS, login("alice", "wrong").getStatus());
+		assertEquals(LoginConstants.STATUS_OK, login("alice", "secret").getStatus());
+	}
+
+	/**
+	 * Checks that a player cannot log in again until it has logged out.
+	 *
+	 * @throws Exception If the login failed.
+	 */
+	@Test
+	public void rejectsPlayerAlreadyOnline() throws Exception {
+		assertEquals(LoginConstants.STATUS_OK, login("alice", "secret").getStatus());
+		assertEquals(LoginConstants.STATUS_ACCOUNT_ONLINE, login("alice", "secret").getStatus());
+		accounts.logout("alice", null);
+		assertEquals(LoginConstants.STATUS_OK, login("alice", "secret").getStatus());
+	}
+
+	/**
+	 * Checks that the save written on logout is loaded on the next login, before and after the world restarts.
+	 *
+	 * @throws Exception If the login failed.
+	 */
+	@Test
+	public void loadsSaveWrittenOnLogout() throws Exception {
+		login("alice", "secret");
+		accounts.logout("alice", snapshot("alice"));
+		assertSave(login("alice", "secret"));
+		accounts.logout("alice", snapshot("alice"));
+
+		accounts.shutdown();
+		accounts = null;
+		accounts = open();
+		assertSave(login("alice", "secret"));
+	}
+
+	/**
+	 * Opens an account service on the files in the temporary folder.
+	 *
+	 * @return The account service.
+	 * @throws IOException If the files could not be opened.
+	 */
+	private LocalAccountService open() throws IOException {
+		Path root = folder.getRoot().toPath();
+		ExecutorService blocking = BlockingExecutors.create("Accounts", false, 2);
+		PlayerStore store = new MappedPlayerStore(root.resolve("saves.dat"));
+		AccountManager manager = new AccountManager(new CredentialStore(root.resolve("accounts.dat")),
+				new PersistenceService(store, blocking), blocking);
+		return new LocalAccountService(manager, WORLD);
+	}
+
+	/**
+	 * Logs a player in and waits for the result.
+	 *
+	 * @param username The username.
+	 * @param password The password.
+	 * @return The result.
+	 * @throws InterruptedException If the wait was interrupted.
+	 * @throws ExecutionException If the login failed.
+	 * @throws TimeoutException If the login took too long.
+	 */
+	private LoginResult login(String username, String password)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		return accounts.login(username, password).get(LOGIN_TIMEOUT, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Creates the save of a player.
+	 *
+	 * @param username The username.
+	 * @return The save.
+	 */
+	private static PlayerSnapshot snapshot(String username) {
+		return new PlayerSnapshot(username, new Position(3093, 3493, 0), Appearance.DEFAULT, 1, 7);
+	}
+
+	/**
+	 * Asserts that a login succeeded with the save {@link #snapshot} creates.
+	 *
+	 * @param result The result of the login.
+	 */
+	private static void assertSave(LoginResult result) {
+		assertEquals(LoginConstants.STATUS_OK, result.getStatus());
+		assertEquals(1, result.getRights());
+		PlayerSnapshot save = result.getSave();
+		assertNotNull(save);
+		assertEquals(new Position(3093, 3493, 0), save.getPosition());
+		assertEquals(7, save.getHitpoints());
+	}
+
+}
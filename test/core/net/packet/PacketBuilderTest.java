@@ -0,0 +1,141 @@
+package core.net.packet;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Tests the bit access of the {@link PacketBuilder} against a writer which sets the bits one byte at a time, the way
+ * the builder did before it accumulated them in a register.
+ *
+ * @author 7Winds
+ */
+public final class PacketBuilderTest {
+
+	/**
+	 * The seed of the random bit sequences, fixed so that a failure can be reproduced.
+	 */
+	private static final long SEED = 0x5EED;
+
+	/**
+	 * Checks that every width from {@code 0} to {@code 32} bits is written as the per-byte writer writes it.
+	 */
+	@Test
+	public void writesEveryWidth() {
+		int[] amounts = new int[33 * 2];
+		int[] values = new int[amounts.length];
+		for (int i = 0; i < amounts.length; i++) {
+			amounts[i] = i % 33;
+			values[i] = i % 2 == 0 ? -1 : 0x5A5A5A5A;
+		}
+		assertBits(amounts, values);
+	}
+
+	/**
+	 * Checks that random sequences of bits, including ones which end on and off a byte boundary, are written as the
+	 * per-byte writer writes them.
+	 */
+	@Test
+	public void writesRandomSequences() {
+		Random random = new Random(SEED);
+		for (int run = 0; run < 500; run++) {
+			int[] amounts = new int[random.nextInt(200)];
+			int[] values = new int[amounts.length];
+			for (int i = 0; i < amounts.length; i++) {
+				amounts[i] = random.nextInt(33);
+				values[i] = random.nextInt();
+			}
+			assertBits(amounts, values);
+		}
+	}
+
+	/**
+	 * Checks that a bit-packed block larger than the space reserved for it is written in full.
+	 */
+	@Test
+	public void writesBeyondReservedCapacity() {
+		Random random = new Random(SEED);
+		int[] amounts = new int[20_000];
+		int[] values = new int[amounts.length];
+		for (int i = 0; i < amounts.length; i++) {
+			amounts[i] = 1 + random.nextInt(32);
+			values[i] = random.nextInt();
+		}
+		assertBits(amounts, values);
+	}
+
+	/**
+	 * Writes a sequence of bits between two bytes with both writers and asserts that their output is the same.
+	 *
+	 * @param amounts The amount of bits of each value.
+	 * @param values The values.
+	 */
+	private static void assertBits(int[] amounts, int[] values) {
+		PacketBuilder builder = PacketBuilder.create(16);
+		builder.put(0xAB);
+		builder.startBitAccess();
+		for (int i = 0; i < amounts.length; i++) {
+			builder.putBits(amounts[i], values[i]);
+		}
+		builder.endBitAccess();
+		builder.put(0xCD);
+
+		ByteBuf buffer = builder.buffer();
+		byte[] actual = new byte[buffer.readableBytes()];
+		buffer.getBytes(buffer.readerIndex(), actual);
+		assertArrayEquals(Arrays.toString(amounts), expected(amounts, values), actual);
+	}
+
+	/**
+	 * Writes a sequence of bits between two bytes one byte at a time.
+	 *
+	 * @param amounts The amount of bits of each value.
+	 * @param values The values.
+	 * @return The bytes written.
+	 */
+	private static byte[] expected(int[] amounts, int[] values) {
+		int bits = 0;
+		for (int amount : amounts) {
+			bits += amount;
+		}
+		byte[] out = new byte[1 + (bits + 7) / 8 + 1];
+		out[0] = (byte) 0xAB;
+		int bitIndex = 8;
+		for (int i = 0; i < amounts.length; i++) {
+			int amount = amounts[i], value = values[i];
+			int bytePos = bitIndex >> 3;
+			int bitOffset = 8 - (bitIndex & 7);
+			bitIndex += amount;
+			for (; amount > bitOffset; bitOffset = 8) {
+				out[bytePos] &= ~mask(bitOffset);
+				out[bytePos++] |= (value >> (amount - bitOffset)) & mask(bitOffset);
+				amount -= bitOffset;
+			}
+			if (amount == bitOffset) {
+				out[bytePos] &= ~mask(bitOffset);
+				out[bytePos] |= value & mask(bitOffset);
+			} else {
+				out[bytePos] &= ~(mask(amount) << (bitOffset - amount));
+				out[bytePos] |= (value & mask(amount)) << (bitOffset - amount);
+			}
+		}
+		out[out.length - 1] = (byte) 0xCD;
+		return out;
+	}
+
+	/**
+	 * Gets the mask of the lowest bits of an {@code int}.
+	 *
+	 * @param amount The amount of bits, from {@code 0} to {@code 32}.
+	 * @return The mask.
+	 */
+	private static int mask(int amount) {
+		return amount == 32 ? -1 : (1 << amount) - 1;
+	}
+
+}